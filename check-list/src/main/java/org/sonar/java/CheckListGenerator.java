@@ -26,7 +26,11 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.sonar.check.Rule;
@@ -34,18 +38,71 @@ import org.sonar.check.Rule;
 public class CheckListGenerator {
   private static final String CLASS_NAME = "GeneratedCheckList";
   public static final String RULES_PATH = "sonar-java-plugin/src/main/resources/org/sonar/l10n/java/rules/java/";
+
+  /**
+   * Simple names of the checks not working for autoscan, by reason.
+   */
+  static final List<Map.Entry<String, List<String>>> CHECKS_NOT_WORKING_FOR_AUTOSCAN = List.of(
+    Map.entry("Rules relying on correct setup of jdk.home", List.of(
+      "CallToDeprecatedCodeMarkedForRemovalCheck",
+      "CallToDeprecatedMethodCheck")),
+    Map.entry("Rules relying on correct setup of java version", List.of(
+      "AbstractClassNoFieldShouldBeInterfaceCheck",
+      "AnonymousClassShouldBeLambdaCheck",
+      "CombineCatchCheck",
+      "DateAndTimesCheck",
+      "DateUtilsTruncateCheck",
+      "DiamondOperatorCheck",
+      "InsecureCreateTempFileCheck",
+      "JdbcDriverExplicitLoadingCheck",
+      "LambdaOptionalParenthesisCheck",
+      "LambdaSingleExpressionCheck",
+      "RepeatAnnotationCheck",
+      "ReplaceGuavaWithJavaCheck",
+      "ReplaceLambdaByMethodRefCheck",
+      "SwitchInsteadOfIfSequenceCheck",
+      "ThreadLocalWithInitialCheck",
+      "TryWithResourcesCheck",
+      "ValueBasedObjectUsedForLockCheck")),
+    Map.entry("Rules with a high deviation (>3%)", List.of(
+      "AccessibilityChangeCheck",
+      "CipherBlockChainingCheck",
+      "ClassNamedLikeExceptionCheck",
+      "ClassWithOnlyStaticMethodsInstantiationCheck",
+      "CollectionInappropriateCallsCheck",
+      "DeadStoreCheck",
+      "EqualsArgumentTypeCheck",
+      "EqualsNotOverriddenWithCompareToCheck",
+      "EqualsOverriddenWithHashCodeCheck",
+      "ForLoopVariableTypeCheck",
+      "JWTWithStrongCipherCheck",
+      "MethodNamedEqualsCheck",
+      "NioFileDeleteCheck",
+      "PrivateFieldUsedLocallyCheck",
+      "SillyEqualsCheck",
+      "StandardCharsetsConstantsCheck",
+      "ThreadLocalCleanupCheck",
+      "ThreadOverridesRunCheck",
+      "UnusedPrivateClassCheck",
+      "UnusedPrivateFieldCheck",
+      "VerifiedServerHostnamesCheck",
+      "VolatileNonPrimitiveFieldCheck",
+      "WeakSSLContextCheck")));
+
   private final Gson gson;
 
   final Path relativePath;
   final Path awsRelativePath;
   Path pathToWriteList;
+  final Path pathToWriteIndex;
   final String rulesPath;
 
-  public CheckListGenerator(Gson gson, Path relativePath, Path awsRelativePath, Path pathToWriteList, String rulesPath) {
+  public CheckListGenerator(Gson gson, Path relativePath, Path awsRelativePath, Path pathToWriteList, Path pathToWriteIndex, String rulesPath) {
     this.gson = gson;
     this.relativePath = relativePath;
     this.awsRelativePath = awsRelativePath;
     this.pathToWriteList = pathToWriteList;
+    this.pathToWriteIndex = pathToWriteIndex;
     this.rulesPath = rulesPath;
   }
 
@@ -54,6 +111,8 @@ public class CheckListGenerator {
       Path.of("java-checks/src/main/java"),
       Path.of("java-checks-aws/src/main/java"),
       Path.of("check-list/target/generated-sources/" + CLASS_NAME + ".java"),
+      // written with the compiled classes, to be packaged with the generated list
+      Path.of("check-list/target/classes" + CheckListIndex.RESOURCE_PATH),
       RULES_PATH);
     generator.generateCheckList();
   }
@@ -72,6 +131,7 @@ public class CheckListGenerator {
     String importChecks = generateImportStatements(checks);
 
     writeToFile(importChecks, main, test, all, pathToWriteList);
+    writeIndex(mainClasses, testClasses, allClasses, pathToWriteIndex);
   }
 
   public List<Class<?>> getCheckClasses() {
@@ -175,51 +235,7 @@ public class CheckListGenerator {
           .collect(Collectors.toList());
 
           private static final Set<Class<? extends JavaCheck>> JAVA_CHECKS_NOT_WORKING_FOR_AUTOSCAN = Set.of(
-            // Rules relying on correct setup of jdk.home
-            CallToDeprecatedCodeMarkedForRemovalCheck.class,
-            CallToDeprecatedMethodCheck.class,
-            // Rules relying on correct setup of java version
-            AbstractClassNoFieldShouldBeInterfaceCheck.class,
-            AnonymousClassShouldBeLambdaCheck.class,
-            CombineCatchCheck.class,
-            DateAndTimesCheck.class,
-            DateUtilsTruncateCheck.class,
-            DiamondOperatorCheck.class,
-            InsecureCreateTempFileCheck.class,
-            JdbcDriverExplicitLoadingCheck.class,
-            LambdaOptionalParenthesisCheck.class,
-            LambdaSingleExpressionCheck.class,
-            RepeatAnnotationCheck.class,
-            ReplaceGuavaWithJavaCheck.class,
-            ReplaceLambdaByMethodRefCheck.class,
-            SwitchInsteadOfIfSequenceCheck.class,
-            ThreadLocalWithInitialCheck.class,
-            TryWithResourcesCheck.class,
-            ValueBasedObjectUsedForLockCheck.class,
-            // Rules with a high deviation (>3%)
-            AccessibilityChangeCheck.class,
-            CipherBlockChainingCheck.class,
-            ClassNamedLikeExceptionCheck.class,
-            ClassWithOnlyStaticMethodsInstantiationCheck.class,
-            CollectionInappropriateCallsCheck.class,
-            DeadStoreCheck.class,
-            EqualsArgumentTypeCheck.class,
-            EqualsNotOverriddenWithCompareToCheck.class,
-            EqualsOverriddenWithHashCodeCheck.class,
-            ForLoopVariableTypeCheck.class,
-            JWTWithStrongCipherCheck.class,
-            MethodNamedEqualsCheck.class,
-            NioFileDeleteCheck.class,
-            PrivateFieldUsedLocallyCheck.class,
-            SillyEqualsCheck.class,
-            StandardCharsetsConstantsCheck.class,
-            ThreadLocalCleanupCheck.class,
-            ThreadOverridesRunCheck.class,
-            UnusedPrivateClassCheck.class,
-            UnusedPrivateFieldCheck.class,
-            VerifiedServerHostnamesCheck.class,
-            VolatileNonPrimitiveFieldCheck.class,
-            WeakSSLContextCheck.class);
+            ${checksNotWorkingForAutoScan});
 
         private GeneratedCheckList() {
         }
@@ -253,7 +269,8 @@ public class CheckListGenerator {
       .replace("${className}", CLASS_NAME)
       .replace("${mainChecks}", mainChecks)
       .replace("${testChecks}", testChecks)
-      .replace("${allChecks}", allChecks);
+      .replace("${allChecks}", allChecks)
+      .replace("${checksNotWorkingForAutoScan}", collectChecksNotWorkingForAutoScan());
 
     try {
       Files.writeString(path, content);
@@ -262,6 +279,42 @@ public class CheckListGenerator {
     }
   }
 
+  private static String collectChecksNotWorkingForAutoScan() {
+    return CHECKS_NOT_WORKING_FOR_AUTOSCAN.stream()
+      .map(reason -> "// " + reason.getKey() + "\n      " + reason.getValue().stream()
+        .map(check -> check + ".class")
+        .collect(Collectors.joining(",\n      ")))
+      .collect(Collectors.joining(",\n      "));
+  }
+
+  /**
+   * Writes the index read by {@link CheckListIndex}: one line per check, sorted as {@code GeneratedCheckList.getChecks()}, with
+   * the rule key, the name of the class, the scope and the compatibility with autoscan.
+   */
+  public void writeIndex(List<Class<?>> mainClasses, List<Class<?>> testClasses, List<Class<?>> allClasses, Path path) {
+    Set<String> notWorkingForAutoScan = CHECKS_NOT_WORKING_FOR_AUTOSCAN.stream()
+      .flatMap(reason -> reason.getValue().stream())
+      .collect(Collectors.toSet());
+    Map<Class<?>, String> scopes = new HashMap<>();
+    mainClasses.forEach(check -> scopes.put(check, "Main"));
+    testClasses.forEach(check -> scopes.put(check, "Tests"));
+    allClasses.forEach(check -> scopes.put(check, "All"));
+    String content = scopes.keySet().stream()
+      .sorted(Comparator.comparing(Class::getSimpleName))
+      .map(check -> String.join("\t",
+        getRuleKey(check),
+        check.getName(),
+        scopes.get(check),
+        Boolean.toString(!notWorkingForAutoScan.contains(check.getSimpleName()))))
+      .collect(Collectors.joining("\n", CheckListIndex.HEADER + "\n", "\n"));
+    try {
+      Files.createDirectories(path.getParent());
+      Files.writeString(path, content);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to write the index of the checks.", e);
+    }
+  }
+
   protected static class Metadata {
     String scope;
   }
@@ -0,0 +1,148 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.sonar.plugins.java.api.JavaCheck;
+
+/**
+ * Index of the checks of {@code GeneratedCheckList}, generated with it at build time.
+ * <p>
+ * Loading {@code GeneratedCheckList} loads the classes of all the checks, when an analysis usually activates only part of
+ * the rules. Reading the index instead gives the rule keys, scopes and compatibility with autoscan of all the checks, and only the
+ * classes of the checks actually used have to be loaded.
+ */
+public final class CheckListIndex {
+
+  static final String RESOURCE_PATH = "/org/sonar/java/checks.index";
+  static final String HEADER = "# rule key\tcheck class\tscope\tautoscan compatible";
+
+  public enum Scope {
+    MAIN,
+    TESTS,
+    ALL
+  }
+
+  public record Entry(String ruleKey, String className, Scope scope, boolean autoScanCompatible) {
+
+    public Class<?> checkClass() {
+      try {
+        return Class.forName(className, false, CheckListIndex.class.getClassLoader());
+      } catch (ClassNotFoundException e) {
+        throw new IllegalStateException("Cannot find the class for name " + className, e);
+      }
+    }
+  }
+
+  private final List<Entry> entries;
+
+  CheckListIndex(List<Entry> entries) {
+    this.entries = entries;
+  }
+
+  public static CheckListIndex getInstance() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * The checks in the order of {@code GeneratedCheckList.getChecks()}.
+   */
+  public List<Entry> entries() {
+    return entries;
+  }
+
+  /**
+   * Same as {@code GeneratedCheckList.getJavaChecks()}, restricted to the checks of the active rules.
+   */
+  public List<Class<? extends JavaCheck>> getJavaChecks(Predicate<String> isActiveRuleKey) {
+    return checkClasses(entry -> entry.scope != Scope.TESTS && isActiveRuleKey.test(entry.ruleKey));
+  }
+
+  /**
+   * Same as {@code GeneratedCheckList.getJavaTestChecks()}, restricted to the checks of the active rules.
+   */
+  public List<Class<? extends JavaCheck>> getJavaTestChecks(Predicate<String> isActiveRuleKey) {
+    return checkClasses(entry -> entry.scope != Scope.MAIN && isActiveRuleKey.test(entry.ruleKey));
+  }
+
+  public Set<String> getRuleKeysNotWorkingForAutoScan() {
+    return entries.stream()
+      .filter(entry -> !entry.autoScanCompatible)
+      .map(Entry::ruleKey)
+      .collect(Collectors.toSet());
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Class<? extends JavaCheck>> checkClasses(Predicate<Entry> filter) {
+    return entries.stream()
+      .filter(filter)
+      .<Class<? extends JavaCheck>>map(entry -> (Class<? extends JavaCheck>) entry.checkClass())
+      .toList();
+  }
+
+  private static CheckListIndex load() {
+    InputStream resource = CheckListIndex.class.getResourceAsStream(RESOURCE_PATH);
+    if (resource == null) {
+      throw new IllegalStateException("Cannot find the index of the checks " + RESOURCE_PATH);
+    }
+    try (var reader = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+      return read(reader);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static final class Holder {
+    private static final CheckListIndex INSTANCE = load();
+  }
+
+  static CheckListIndex read(BufferedReader reader) throws IOException {
+    List<Entry> entries = new ArrayList<>();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] columns = line.split("\t");
+      if (columns.length != 4) {
+        throw new IllegalStateException("Invalid line in the index of the checks: " + line);
+      }
+      entries.add(new Entry(columns[0], columns[1], scope(columns[2]), Boolean.parseBoolean(columns[3])));
+    }
+    return new CheckListIndex(List.copyOf(entries));
+  }
+
+  private static Scope scope(String scope) {
+    return switch (scope) {
+      case "Main" -> Scope.MAIN;
+      case "Tests" -> Scope.TESTS;
+      case "All" -> Scope.ALL;
+      default -> throw new IllegalStateException("Unknown scope " + scope + " in the index of the checks");
+    };
+  }
+
+}
@@ -46,6 +46,7 @@ class CheckListGeneratorTest {
       Path.of(directory, "java-checks/src/main/java"),
       Path.of(directory, "java-checks-aws/src/main/java"),
       Files.createTempFile("testGeneratedCheckList", ".java"),
+      Files.createTempFile("testChecks", ".index"),
       directory + CheckListGenerator.RULES_PATH);
   }
 
@@ -60,6 +61,16 @@ class CheckListGeneratorTest {
     assertTrue(Files.exists(generator.pathToWriteList));
   }
 
+  @Test
+  void test_generateCheckList_writes_index() throws IOException {
+    generator.generateCheckList();
+    List<String> lines = Files.readAllLines(generator.pathToWriteIndex);
+    assertEquals(CheckListIndex.HEADER, lines.get(0));
+    assertTrue(lines.contains("S1220\torg.sonar.java.checks.DefaultPackageCheck\tAll\ttrue"));
+    assertTrue(lines.contains("S2147\torg.sonar.java.checks.CombineCatchCheck\tAll\tfalse"));
+    assertTrue(lines.contains("S2187\torg.sonar.java.checks.tests.NoTestInTestClassCheck\tTests\ttrue"));
+  }
+
   @Test
   void test_generateCheckList_fail() {
     generator.pathToWriteList = null;
@@ -122,7 +133,8 @@ class CheckListGeneratorTest {
   void testGetCheckClasses_fail() throws IOException {
     Path relativePath = Path.of("java-checks/src/main/java");
     Path awsRelativePath = Path.of(directory, "java-checks-aws/src/main/java");
-    generator = new CheckListGenerator(new Gson(), relativePath, awsRelativePath, Files.createTempFile("testGeneratedCheckList", ".java"), directory + CheckListGenerator.RULES_PATH);
+    generator = new CheckListGenerator(new Gson(), relativePath, awsRelativePath, Files.createTempFile("testGeneratedCheckList", ".java"), Files.createTempFile("testChecks", ".index"),
+      directory + CheckListGenerator.RULES_PATH);
     assertThrows(IllegalStateException.class, () -> generator.getCheckClasses());
   }
 
@@ -130,7 +142,8 @@ class CheckListGeneratorTest {
   void testGetCheckClasses_fail_getClassByName() throws IOException {
     Path relativePath = Path.of(directory, "check-list/src/test/files");
     Path awsRelativePath = Path.of(directory, "java-checks-aws/src/main/java");
-    generator = new CheckListGenerator(new Gson(), relativePath, awsRelativePath, Files.createTempFile("testGeneratedCheckList", ".java"), directory + CheckListGenerator.RULES_PATH);
+    generator = new CheckListGenerator(new Gson(), relativePath, awsRelativePath, Files.createTempFile("testGeneratedCheckList", ".java"), Files.createTempFile("testChecks", ".index"),
+      directory + CheckListGenerator.RULES_PATH);
     assertThrows(IllegalStateException.class, () -> generator.getCheckClasses(), "Cannot find the class for name org.sonar.java.checks.ExampleCheck");
   }
 
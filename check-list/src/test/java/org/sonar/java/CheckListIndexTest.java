@@ -0,0 +1,103 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.sonar.check.Rule;
+import org.sonar.plugins.java.api.JavaCheck;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckListIndexTest {
+
+  @Test
+  void index_matches_the_generated_check_list() {
+    CheckListIndex index = CheckListIndex.getInstance();
+
+    assertThat(index.entries())
+      .extracting(CheckListIndex.Entry::className)
+      .containsExactlyElementsOf(GeneratedCheckList.getChecks().stream().map(Class::getName).toList());
+    assertThat(index.getJavaChecks(ruleKey -> true)).containsExactlyElementsOf(GeneratedCheckList.getJavaChecks());
+    assertThat(index.getJavaTestChecks(ruleKey -> true)).containsExactlyElementsOf(GeneratedCheckList.getJavaTestChecks());
+    assertThat(index.getRuleKeysNotWorkingForAutoScan()).isEqualTo(GeneratedCheckList.getJavaChecksNotWorkingForAutoScan().stream()
+      .map(check -> check.getAnnotation(Rule.class).key())
+      .collect(Collectors.toSet()));
+  }
+
+  @Test
+  void only_checks_of_active_rules_are_returned() {
+    CheckListIndex index = CheckListIndex.getInstance();
+    Set<String> activeRuleKeys = Set.of("S1220", "S2187", "S2147");
+
+    assertThat(index.getJavaChecks(activeRuleKeys::contains))
+      .extracting(Class::getSimpleName)
+      .containsExactly("CombineCatchCheck", "DefaultPackageCheck");
+    assertThat(index.getJavaTestChecks(activeRuleKeys::contains))
+      .extracting(Class::getSimpleName)
+      .containsExactly("CombineCatchCheck", "DefaultPackageCheck", "NoTestInTestClassCheck");
+  }
+
+  @Test
+  void read_index() throws IOException {
+    CheckListIndex index = read(CheckListIndex.HEADER + "\n"
+      + "S1\torg.sonar.java.CheckListIndexTest$MainCheck\tMain\ttrue\n"
+      + "\n"
+      + "S2\torg.sonar.java.CheckListIndexTest$TestCheck\tTests\tfalse\n");
+
+    assertThat(index.entries()).containsExactly(
+      new CheckListIndex.Entry("S1", "org.sonar.java.CheckListIndexTest$MainCheck", CheckListIndex.Scope.MAIN, true),
+      new CheckListIndex.Entry("S2", "org.sonar.java.CheckListIndexTest$TestCheck", CheckListIndex.Scope.TESTS, false));
+    assertThat(index.getJavaChecks(ruleKey -> true)).containsExactly(MainCheck.class);
+    assertThat(index.getJavaTestChecks(ruleKey -> true)).containsExactly(TestCheck.class);
+    assertThat(index.getRuleKeysNotWorkingForAutoScan()).containsExactly("S2");
+  }
+
+  @Test
+  void read_invalid_index() {
+    assertThatThrownBy(() -> read("S1\tMainCheck\tMain\n"))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Invalid line in the index of the checks: S1\tMainCheck\tMain");
+    assertThatThrownBy(() -> read("S1\tMainCheck\tSomething\ttrue\n"))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Unknown scope Something in the index of the checks");
+  }
+
+  @Test
+  void unknown_check_class() throws IOException {
+    CheckListIndex index = read("S1\torg.sonar.java.UnknownCheck\tAll\ttrue\n");
+    assertThatThrownBy(() -> index.getJavaChecks(ruleKey -> true))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("Cannot find the class for name org.sonar.java.UnknownCheck");
+  }
+
+  private static CheckListIndex read(String content) throws IOException {
+    return CheckListIndex.read(new BufferedReader(new StringReader(content)));
+  }
+
+  static class MainCheck implements JavaCheck {
+  }
+
+  static class TestCheck implements JavaCheck {
+  }
+
+}
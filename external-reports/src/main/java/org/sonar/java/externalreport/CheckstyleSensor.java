@@ -30,7 +30,7 @@ import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonarsource.analyzer.commons.ExternalReportProvider;
 import org.sonarsource.analyzer.commons.ExternalRuleLoader;
 
-import static org.sonar.java.externalreport.ExternalIssueUtils.importIfExist;
+import static org.sonar.java.externalreport.ExternalIssueUtils.importReports;
 
 public class CheckstyleSensor implements Sensor {
 
@@ -67,13 +67,14 @@ public class CheckstyleSensor implements Sensor {
   @Override
   public void execute(SensorContext context) {
     List<File> reportFiles = ExternalReportProvider.getReportFiles(context, REPORT_PROPERTY_KEY);
-    reportFiles.forEach(report -> importIfExist(LINTER_NAME, context, report, this::importReport));
+    InputFileCache inputFiles = new InputFileCache(context);
+    importReports(LINTER_NAME, context, reportFiles, (report, sensorContext) -> importReport(report, sensorContext, inputFiles));
   }
 
-  private void importReport(File reportPath, SensorContext context) {
+  private void importReport(File reportPath, SensorContext context, InputFileCache inputFiles) {
     try (InputStream in = new FileInputStream(reportPath)) {
       LOG.info("Importing {}", reportPath);
-      CheckstyleXmlReportReader.read(context, in, this::saveIssue);
+      CheckstyleXmlReportReader.read(context, inputFiles, in, this::saveIssue);
     } catch (Exception e) {
       LOG.error("Failed to import external issues report: {}", reportPath, e);
     }
@@ -17,6 +17,14 @@
 package org.sonar.java.externalreport;
 
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +38,15 @@ public final class ExternalIssueUtils {
 
   private static final Logger LOG = LoggerFactory.getLogger(ExternalIssueUtils.class);
 
+  private static final int MAX_IMPORT_THREADS = 4;
+
+  /**
+   * Locks guarding, for each sensor context, the creation and the storage of the external issues, as well as the accesses to the
+   * input files contents and to the file system (see {@link InputFileCache}), which are not thread-safe, when several reports are
+   * imported concurrently. Imports into different contexts, like the ones of different modules, do not wait for each other.
+   */
+  private static final Map<SensorContext, Object> SAVE_LOCKS = Collections.synchronizedMap(new WeakHashMap<>());
+
   private ExternalIssueUtils() {
     // utility class
   }
@@ -42,7 +59,56 @@ public final class ExternalIssueUtils {
     importFunction.accept(reportFile, sensorContext);
   }
 
+  /**
+   * Imports each of the given reports through {@link #importIfExist(String, SensorContext, File, BiConsumer)}. When there are
+   * several reports, they are parsed concurrently, the import function being expected to save its issues through
+   * {@link #saveIssue(SensorContext, ExternalRuleLoader, InputFile, String, String, String, String)} or
+   * {@link #saveIssue(SensorContext, Runnable)}.
+   */
+  public static void importReports(String linterName, SensorContext sensorContext, List<File> reportFiles, BiConsumer<File, SensorContext> importFunction) {
+    int threads = Math.min(reportFiles.size(), Math.min(MAX_IMPORT_THREADS, Runtime.getRuntime().availableProcessors()));
+    if (threads <= 1) {
+      reportFiles.forEach(report -> importIfExist(linterName, sensorContext, report, importFunction));
+      return;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> imports = reportFiles.stream()
+        .<Future<?>>map(report -> executor.submit(() -> importIfExist(linterName, sensorContext, report, importFunction)))
+        .toList();
+      for (Future<?> reportImport : imports) {
+        reportImport.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while importing " + linterName + " reports", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to import " + linterName + " reports", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Runs the given action, creating and saving an external issue in the given context, exclusively from the other reports being
+   * imported into the same context.
+   */
+  public static void saveIssue(SensorContext context, Runnable issueCreation) {
+    synchronized (saveLock(context)) {
+      issueCreation.run();
+    }
+  }
+
+  static Object saveLock(SensorContext context) {
+    return SAVE_LOCKS.computeIfAbsent(context, c -> new Object());
+  }
+
   public static void saveIssue(SensorContext context, ExternalRuleLoader ruleLoader, InputFile inputFile, String engineId, String ruleId, String line, String message) {
+    saveIssue(context, () -> newIssue(context, ruleLoader, inputFile, engineId, ruleId, line, message).save());
+  }
+
+  private static NewExternalIssue newIssue(SensorContext context, ExternalRuleLoader ruleLoader, InputFile inputFile, String engineId, String ruleId, String line,
+    String message) {
     NewExternalIssue newExternalIssue = context.newExternalIssue();
 
     newExternalIssue
@@ -58,11 +124,10 @@ public final class ExternalIssueUtils {
       primaryLocation.at(inputFile.selectLine(Integer.parseInt(line)));
     }
 
-    newExternalIssue
+    return newExternalIssue
       .at(primaryLocation)
       .engineId(engineId)
-      .ruleId(ruleId)
-      .save();
+      .ruleId(ruleId);
   }
 
 }
@@ -0,0 +1,59 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.externalreport;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.CheckForNull;
+import org.sonar.api.batch.fs.FilePredicates;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
+
+/**
+ * Memoizes the input files found for the paths referenced by external reports. Reports usually reference the same file
+ * once per issue, so each path is looked up in the file system only once, including the paths not matching any input file.
+ * <p>
+ * A single instance can be shared by the readers importing several reports concurrently. Lookups take the same lock as the
+ * saving of the issues into the sensor context (see {@link ExternalIssueUtils#saveIssue(SensorContext, Runnable)}), as the file
+ * system of the context is not guaranteed to be thread-safe either.
+ * </p>
+ */
+final class InputFileCache {
+
+  private final FileSystem fileSystem;
+  private final FilePredicates predicates;
+  private final Object lock;
+  private final Map<String, Optional<InputFile>> inputFileByPath = new HashMap<>();
+
+  InputFileCache(SensorContext context) {
+    this.fileSystem = context.fileSystem();
+    this.predicates = fileSystem.predicates();
+    this.lock = ExternalIssueUtils.saveLock(context);
+  }
+
+  @CheckForNull
+  InputFile inputFile(String path) {
+    synchronized (lock) {
+      return inputFileByPath
+        .computeIfAbsent(path, p -> Optional.ofNullable(fileSystem.inputFile(predicates.hasPath(p))))
+        .orElse(null);
+    }
+  }
+
+}
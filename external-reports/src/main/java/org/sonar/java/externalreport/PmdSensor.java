@@ -27,7 +27,7 @@ import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonarsource.analyzer.commons.ExternalReportProvider;
 import org.sonarsource.analyzer.commons.ExternalRuleLoader;
 
-import static org.sonar.java.externalreport.ExternalIssueUtils.importIfExist;
+import static org.sonar.java.externalreport.ExternalIssueUtils.importReports;
 
 public class PmdSensor implements Sensor {
 
@@ -65,13 +65,14 @@ public class PmdSensor implements Sensor {
   @Override
   public void execute(SensorContext context) {
     List<File> reportFiles = ExternalReportProvider.getReportFiles(context, REPORT_PROPERTY_KEY);
-    reportFiles.forEach(report -> importIfExist(LINTER_NAME, context, report, this::importReport));
+    InputFileCache inputFiles = new InputFileCache(context);
+    importReports(LINTER_NAME, context, reportFiles, (report, sensorContext) -> importReport(report, sensorContext, inputFiles));
   }
 
-  private void importReport(File reportFile, SensorContext context) {
+  private void importReport(File reportFile, SensorContext context, InputFileCache inputFiles) {
     try {
       LOG.info("Importing {}", reportFile);
-      PmdXmlReportReader.read(context, reportFile, ruleLoader);
+      PmdXmlReportReader.read(context, inputFiles, reportFile, ruleLoader);
     } catch (Exception e) {
       LOG.error("Failed to import external issues report: {}", reportFile.getAbsolutePath(), e);
     }
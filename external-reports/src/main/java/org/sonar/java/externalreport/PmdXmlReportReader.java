@@ -22,21 +22,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
-import javax.xml.namespace.QName;
-import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.sonar.api.batch.fs.FilePredicates;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.TextRange;
 import org.sonar.api.batch.rule.Severity;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.issue.NewExternalIssue;
-import org.sonar.api.batch.sensor.issue.NewIssueLocation;
 import org.sonar.api.rules.RuleType;
 import org.sonarsource.analyzer.commons.ExternalRuleLoader;
 import org.sonarsource.analyzer.commons.xml.SafeStaxParserFactory;
@@ -48,16 +43,30 @@ public class PmdXmlReportReader {
   private static final Map<Integer, Severity> SEVERITIES = severities();
 
   private final SensorContext context;
+  private final InputFileCache inputFiles;
   private final File reportFile;
   private final ExternalRuleLoader ruleLoader;
 
   private InputFile inputFile = null;
-  private NewExternalIssue issue = null;
-  private NewIssueLocation issueLocation = null;
-  private StringBuilder issueMessage = new StringBuilder();
+
+  // attributes of the violation being read, the issue being created once its message is known
+  private boolean inViolation = false;
+  private int violationLineNumber;
+  private String ruleId;
+  private String priority;
+  private String beginLine;
+  private String endLine;
+  private String beginColumn;
+  private String endColumn;
+  private final StringBuilder issueMessage = new StringBuilder();
 
   public PmdXmlReportReader(SensorContext context, File reportFile, ExternalRuleLoader ruleLoader) {
+    this(context, new InputFileCache(context), reportFile, ruleLoader);
+  }
+
+  PmdXmlReportReader(SensorContext context, InputFileCache inputFiles, File reportFile, ExternalRuleLoader ruleLoader) {
     this.context = context;
+    this.inputFiles = inputFiles;
     this.reportFile = reportFile;
     this.ruleLoader = ruleLoader;
   }
@@ -66,83 +75,100 @@ public class PmdXmlReportReader {
     new PmdXmlReportReader(context, reportFile, ruleLoader).parse();
   }
 
+  static void read(SensorContext context, InputFileCache inputFiles, File reportFile, ExternalRuleLoader ruleLoader) throws XMLStreamException, IOException {
+    new PmdXmlReportReader(context, inputFiles, reportFile, ruleLoader).parse();
+  }
+
   private void parse() throws XMLStreamException, IOException {
     try (InputStream inputStream = new FileInputStream(reportFile)) {
-      XMLEventReader reader = SafeStaxParserFactory.createXMLInputFactory().createXMLEventReader(inputStream);
-      while (reader.hasNext()) {
-        onXmlEvent(reader.nextEvent());
+      XMLStreamReader reader = SafeStaxParserFactory.createXMLInputFactory().createXMLStreamReader(inputStream);
+      try {
+        while (reader.hasNext()) {
+          onXmlEvent(reader.next(), reader);
+        }
+      } finally {
+        reader.close();
       }
     }
   }
 
-  private void onXmlEvent(XMLEvent event) {
-    if (event.isStartElement()) {
-      StartElement element = event.asStartElement();
-      String elementName = element.getName().getLocalPart();
+  private void onXmlEvent(int event, XMLStreamReader reader) {
+    if (event == XMLStreamConstants.START_ELEMENT) {
+      String elementName = reader.getLocalName();
       if ("file".equals(elementName)) {
-        String filePath = getAttributeValue(element, "name");
-        FilePredicates predicates = context.fileSystem().predicates();
-        inputFile = context.fileSystem().inputFile(predicates.hasPath(filePath));
+        String filePath = getAttributeValue(reader, "name");
+        inputFile = inputFiles.inputFile(filePath);
         if (inputFile == null) {
           LOG.warn("No input file found for {}. No PMD issue will be imported on this file.", filePath);
         }
       } else if ("violation".equals(elementName) && inputFile != null) {
-        onViolationStartElement(element);
+        onViolationStartElement(reader);
       }
 
-    } else if (event.isCharacters()) {
-      issueMessage.append(event.asCharacters().getData());
+    } else if (isCharacters(event)) {
+      if (inViolation) {
+        issueMessage.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+      }
 
-    } else if (event.isEndElement()
-      && "violation".equals(event.asEndElement().getName().getLocalPart())
+    } else if (event == XMLStreamConstants.END_ELEMENT
+      && "violation".equals(reader.getLocalName())
       && inputFile != null
-      && issue != null) {
-      issueLocation.message(issueMessage.toString());
-      issue.at(issueLocation).save();
+      && inViolation) {
+      inViolation = false;
+      ExternalIssueUtils.saveIssue(context, this::saveViolation);
     }
   }
 
-  private void onViolationStartElement(StartElement element) {
+  private static boolean isCharacters(int event) {
+    return event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE;
+  }
+
+  private void onViolationStartElement(XMLStreamReader element) {
+    inViolation = true;
+    violationLineNumber = element.getLocation().getLineNumber();
+    ruleId = getAttributeValue(element, "rule");
+    priority = getAttributeValue(element, "priority");
+    beginLine = getAttributeValue(element, "beginline");
+    endLine = getAttributeValue(element, "endline");
+    beginColumn = getAttributeValue(element, "begincolumn");
+    endColumn = getAttributeValue(element, "endcolumn");
+    issueMessage.setLength(0);
+  }
+
+  private void saveViolation() {
+    NewExternalIssue issue;
     try {
-      TextRange textRange = textRange(element);
-      String ruleId = getAttributeValue(element, "rule");
+      TextRange textRange = textRange();
       issue = context.newExternalIssue()
         .engineId(PmdSensor.LINTER_KEY)
         .ruleId(ruleId)
         .type(RuleType.CODE_SMELL)
-        .severity(SEVERITIES.get(getAttributeAsInt(element, "priority")))
+        .severity(SEVERITIES.get(Integer.parseInt(priority)))
         .remediationEffortMinutes(ruleLoader.ruleConstantDebtMinutes(ruleId));
-      issueLocation = issue.newLocation()
+      issue.at(issue.newLocation()
         .on(inputFile)
-        .at(textRange);
-      issueMessage = new StringBuilder();
+        .at(textRange)
+        .message(issueMessage.toString()));
     } catch (RuntimeException e) {
-      int lineNumber = element.getLocation().getLineNumber();
-      LOG.warn("Can't import issue at line {} in {}: {}", lineNumber, reportFile, e.getMessage());
-      issue = null;
+      LOG.warn("Can't import issue at line {} in {}: {}", violationLineNumber, reportFile, e.getMessage());
+      return;
     }
+    issue.save();
   }
 
-  private TextRange textRange(StartElement violationElement) {
-    Integer beginLine = getAttributeAsInt(violationElement, "beginline");
+  private TextRange textRange() {
+    int firstLine = Integer.parseInt(beginLine);
     try {
-      Integer endLine = getAttributeAsInt(violationElement, "endline");
-      Integer beginColumn = getAttributeAsInt(violationElement, "begincolumn");
-      Integer endColumn = getAttributeAsInt(violationElement, "endcolumn");
-      return inputFile.newRange(beginLine, beginColumn - 1, endLine, endColumn);
+      return inputFile.newRange(firstLine, Integer.parseInt(beginColumn) - 1, Integer.parseInt(endLine), Integer.parseInt(endColumn));
     } catch (RuntimeException e) {
       // Some PMD rules seem to report invalid line offsets, e.g. TooManyStaticImports
-      return inputFile.selectLine(beginLine);
+      return inputFile.selectLine(firstLine);
     }
   }
 
-  private static String getAttributeValue(StartElement startElement, String attributeName) {
-    Attribute attribute = startElement.getAttributeByName(new QName(attributeName));
-    return attribute == null ? "" : attribute.getValue();
-  }
-
-  private static Integer getAttributeAsInt(StartElement startElement, String attributeName) {
-    return Integer.parseInt(getAttributeValue(startElement, attributeName));
+  private static String getAttributeValue(XMLStreamReader element, String attributeName) {
+    String value = element.getAttributeValue(null, attributeName);
+    return value == null ? "" : value;
   }
 
   private static Map<Integer, Severity> severities() {
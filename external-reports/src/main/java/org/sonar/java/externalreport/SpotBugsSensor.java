@@ -31,7 +31,7 @@ import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonarsource.analyzer.commons.ExternalReportProvider;
 import org.sonarsource.analyzer.commons.ExternalRuleLoader;
 
-import static org.sonar.java.externalreport.ExternalIssueUtils.importIfExist;
+import static org.sonar.java.externalreport.ExternalIssueUtils.importReports;
 
 public class SpotBugsSensor implements Sensor {
 
@@ -99,17 +99,18 @@ public class SpotBugsSensor implements Sensor {
   @Override
   public void execute(SensorContext context) {
     List<File> reportFiles = ExternalReportProvider.getReportFiles(context, REPORT_PROPERTY_KEY);
-    reportFiles.forEach(report -> importIfExist(SPOTBUGS_NAME, context, report, this::importReport));
+    InputFileCache inputFiles = new InputFileCache(context);
+    importReports(SPOTBUGS_NAME, context, reportFiles, (report, sensorContext) -> importReport(report, sensorContext, inputFiles));
   }
 
-  private void importReport(File reportPath, SensorContext context) {
+  private void importReport(File reportPath, SensorContext context, InputFileCache inputFiles) {
     try (InputStream in = new FileInputStream(reportPath)) {
       LOG.info("Importing {}", reportPath);
 
       Map<String, ExternalRuleLoader> otherLoaders = new HashMap<>();
       otherLoaders.put(FINDSECBUGS_KEY, findSecBugsLoader);
       otherLoaders.put(FBCONTRIB_KEY, fbContribLoader);
-      SpotBugsXmlReportReader.read(context, in, ruleLoader, otherLoaders);
+      SpotBugsXmlReportReader.read(context, inputFiles, in, ruleLoader, otherLoaders);
     } catch (Exception e) {
       LOG.error("Failed to import external issues report: {}", reportPath, e);
     }
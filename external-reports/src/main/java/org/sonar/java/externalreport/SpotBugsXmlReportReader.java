@@ -20,19 +20,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import javax.xml.namespace.QName;
-import javax.xml.stream.XMLEventReader;
+import java.util.Optional;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.sonar.api.batch.fs.FilePredicates;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonarsource.analyzer.commons.ExternalRuleLoader;
@@ -42,72 +38,115 @@ public class SpotBugsXmlReportReader {
 
   private static final Logger LOG = LoggerFactory.getLogger(SpotBugsXmlReportReader.class);
 
-  private static final QName TYPE_ATTRIBUTE = new QName("type");
-  private static final QName SOURCE_PATH_ATTRIBUTE = new QName("sourcepath");
-  private static final QName START_ATTRIBUTE = new QName("start");
+  private static final String TYPE_ATTRIBUTE = "type";
+  private static final String SOURCE_PATH_ATTRIBUTE = "sourcepath";
+  private static final String START_ATTRIBUTE = "start";
+
+  /**
+   * Elements of the report having to be read, identified from their depth and their parent instead of building their xpath.
+   */
+  private enum Element {
+    BUG_INSTANCE,
+    SOURCE_LINE,
+    LONG_MESSAGE,
+    SRC_DIR,
+    OTHER
+  }
 
   private final SensorContext context;
+  private final InputFileCache inputFiles;
   private final ExternalRuleLoader defaultRuleLoader;
   private final Map<String, ExternalRuleLoader> otherLoaders;
 
-  private List<String> sourceDirs = new ArrayList<>();
+  private final List<String> elementStack = new ArrayList<>();
+  private final List<String> sourceDirs = new ArrayList<>();
+  private final Map<String, Optional<InputFile>> inputFileBySourcePath = new HashMap<>();
   private String bugInstanceType = "";
   private String bugInstanceLongMessage = "";
   private String sourceLinePath = "";
   private String sourceLineStart = "";
-  private StringBuilder textBuilder = null;
+  private final StringBuilder textBuilder = new StringBuilder();
+  private boolean collectingText = false;
 
-  private SpotBugsXmlReportReader(SensorContext context, ExternalRuleLoader defaultRuleLoader, Map<String, ExternalRuleLoader> otherLoaders) {
+  private SpotBugsXmlReportReader(SensorContext context, InputFileCache inputFiles, ExternalRuleLoader defaultRuleLoader,
+    Map<String, ExternalRuleLoader> otherLoaders) {
     this.context = context;
+    this.inputFiles = inputFiles;
     this.defaultRuleLoader = defaultRuleLoader;
     this.otherLoaders = otherLoaders;
   }
 
-  static void read(SensorContext context, InputStream in, ExternalRuleLoader defaultRuleLoader, Map<String, ExternalRuleLoader> otherLoaders)
-    throws XMLStreamException, IOException {
-    new SpotBugsXmlReportReader(context, defaultRuleLoader, otherLoaders).read(in);
+  static void read(SensorContext context, InputFileCache inputFiles, InputStream in, ExternalRuleLoader defaultRuleLoader,
+    Map<String, ExternalRuleLoader> otherLoaders) throws XMLStreamException, IOException {
+    new SpotBugsXmlReportReader(context, inputFiles, defaultRuleLoader, otherLoaders).read(in);
   }
 
   private void read(InputStream in) throws XMLStreamException, IOException {
-    XMLEventReader reader = SafeStaxParserFactory.createXMLInputFactory().createXMLEventReader(in);
-    Deque<String> elementStack = new LinkedList<>();
-    while (reader.hasNext()) {
-      XMLEvent event = reader.nextEvent();
-      if (event.isStartElement()) {
-        String elementName = event.asStartElement().getName().getLocalPart();
-        if (elementStack.isEmpty() && !"BugCollection".equals(elementName)) {
-          throw new IOException("Unexpected document root '" + elementName + "' instead of 'BugCollection'.");
+    XMLStreamReader reader = SafeStaxParserFactory.createXMLInputFactory().createXMLStreamReader(in);
+    try {
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          String elementName = reader.getLocalName();
+          if (elementStack.isEmpty() && !"BugCollection".equals(elementName)) {
+            throw new IOException("Unexpected document root '" + elementName + "' instead of 'BugCollection'.");
+          }
+          elementStack.add(elementName);
+          onStartElement(currentElement(), reader);
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          onEndElement(currentElement());
+          elementStack.remove(elementStack.size() - 1);
+        } else if (collectingText && isCharacters(event)) {
+          textBuilder.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
         }
-        elementStack.add(elementName);
-        onStartElement(xpath(elementStack), event.asStartElement());
-      } else if (event.isEndElement()) {
-        onEndElement(xpath(elementStack));
-        elementStack.removeLast();
-      } else if (event.isCharacters() && textBuilder != null) {
-        textBuilder.append(event.asCharacters().getData());
       }
+    } finally {
+      reader.close();
     }
   }
 
-  private static String xpath(Deque<String> elementStack) {
-    return String.join("/", elementStack);
+  private static boolean isCharacters(int event) {
+    return event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE;
+  }
+
+  /**
+   * The root element being always 'BugCollection', its depth and its parent are enough to identify the current element.
+   */
+  private Element currentElement() {
+    int depth = elementStack.size();
+    String name = elementStack.get(depth - 1);
+    if (depth == 2) {
+      return "BugInstance".equals(name) ? Element.BUG_INSTANCE : Element.OTHER;
+    }
+    if (depth == 3) {
+      String parent = elementStack.get(1);
+      if ("BugInstance".equals(parent)) {
+        if ("SourceLine".equals(name)) {
+          return Element.SOURCE_LINE;
+        }
+        return "LongMessage".equals(name) ? Element.LONG_MESSAGE : Element.OTHER;
+      }
+      return "Project".equals(parent) && "SrcDir".equals(name) ? Element.SRC_DIR : Element.OTHER;
+    }
+    return Element.OTHER;
   }
 
-  private void onStartElement(String xpath, StartElement element) {
-    switch (xpath) {
-      case "BugCollection/BugInstance":
-        bugInstanceType = getAttributeValue(element, TYPE_ATTRIBUTE);
+  private void onStartElement(Element element, XMLStreamReader reader) {
+    switch (element) {
+      case BUG_INSTANCE:
+        bugInstanceType = getAttributeValue(reader, TYPE_ATTRIBUTE);
         bugInstanceLongMessage = "";
         sourceLinePath = "";
         sourceLineStart = "";
         break;
-      case "BugCollection/BugInstance/SourceLine":
-        sourceLinePath = getAttributeValue(element, SOURCE_PATH_ATTRIBUTE);
-        sourceLineStart = getAttributeValue(element, START_ATTRIBUTE);
+      case SOURCE_LINE:
+        sourceLinePath = getAttributeValue(reader, SOURCE_PATH_ATTRIBUTE);
+        sourceLineStart = getAttributeValue(reader, START_ATTRIBUTE);
         break;
-      case "BugCollection/BugInstance/LongMessage",
-        "BugCollection/Project/SrcDir":
-        textBuilder = new StringBuilder();
+      case LONG_MESSAGE,
+        SRC_DIR:
+        textBuilder.setLength(0);
+        collectingText = true;
         break;
       default:
         // ignore
@@ -115,21 +154,22 @@ public class SpotBugsXmlReportReader {
     }
   }
 
-  private void onEndElement(String xpath) {
-    switch (xpath) {
-      case "BugCollection/BugInstance":
+  private void onEndElement(Element element) {
+    switch (element) {
+      case BUG_INSTANCE:
         consumeBugInstance();
         break;
-      case "BugCollection/BugInstance/LongMessage":
-        if(textBuilder != null) {
+      case LONG_MESSAGE:
+        if (collectingText) {
           bugInstanceLongMessage = textBuilder.toString();
-          textBuilder = null;
+          collectingText = false;
         }
         break;
-      case "BugCollection/Project/SrcDir":
-        if(textBuilder != null) {
+      case SRC_DIR:
+        if (collectingText) {
           sourceDirs.add(textBuilder.toString());
-          textBuilder = null;
+          inputFileBySourcePath.clear();
+          collectingText = false;
         }
         break;
       default:
@@ -137,7 +177,6 @@ public class SpotBugsXmlReportReader {
         break;
     }
   }
-
   private void consumeBugInstance() {
     if (sourceDirs.isEmpty()) {
       LOG.debug("Unexpected missing 'BugCollection/Project/SrcDir/text()'.");
@@ -155,7 +194,7 @@ public class SpotBugsXmlReportReader {
       LOG.debug("Unexpected empty 'BugCollection/BugInstance/LongMessage/text()' for bug '{}'", bugInstanceType);
       return;
     }
-    InputFile inputFile = findInputFile(context, sourceDirs, sourceLinePath);
+    InputFile inputFile = inputFileBySourcePath.computeIfAbsent(sourceLinePath, path -> Optional.ofNullable(findInputFile(path))).orElse(null);
     if (inputFile == null) {
       LOG.warn("No input file found for '{}'. No SpotBugs issues will be imported on this file.", sourceLinePath);
       return;
@@ -172,17 +211,16 @@ public class SpotBugsXmlReportReader {
     ExternalIssueUtils.saveIssue(context, ruleLoader, inputFile, engineId, bugInstanceType, sourceLineStart, bugInstanceLongMessage);
   }
 
-  private static String getAttributeValue(StartElement element, QName attributeName) {
-    Attribute attribute = element.getAttributeByName(attributeName);
-    return attribute != null ? attribute.getValue() : "";
+  private static String getAttributeValue(XMLStreamReader element, String attributeName) {
+    String value = element.getAttributeValue(null, attributeName);
+    return value != null ? value : "";
   }
 
-  private static InputFile findInputFile(SensorContext context, List<String> sourceDirs, String relativeLinuxPath) {
-    FilePredicates predicates = context.fileSystem().predicates();
+  private InputFile findInputFile(String relativeLinuxPath) {
     InputFile inputFile = null;
     for (String sourceDir : sourceDirs) {
       File sourceFile = new File(sourceDir, relativeLinuxPath);
-      inputFile = context.fileSystem().inputFile(predicates.hasPath(sourceFile.toString()));
+      inputFile = inputFiles.inputFile(sourceFile.toString());
       if (inputFile != null) {
         break;
       }
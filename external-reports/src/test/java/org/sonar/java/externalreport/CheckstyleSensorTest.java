@@ -174,6 +174,21 @@ class CheckstyleSensorTest {
       "Unexpected rule key without 'com.puppycrawl.tools.checkstyle.checks.' prefix: 'invalid-format'");
   }
 
+  @Test
+  void issues_from_several_reports() throws IOException {
+    SensorContextTester context = ExternalReportTestUtils.createContext(PROJECT_DIR);
+    File firstReport = ExternalReportTestUtils.generateReport(PROJECT_DIR, tmp, "checkstyle-result.xml");
+    File secondReport = ExternalReportTestUtils.generateReport(PROJECT_DIR, tmp, "checkstyle-with-errors.xml");
+    context.settings().setProperty("sonar.java.checkstyle.reportPaths", firstReport.getPath() + "," + secondReport.getPath());
+    checkstyleSensor.execute(context);
+
+    // reports are imported concurrently, so the issues of both reports can be interleaved
+    assertThat(context.allExternalIssues())
+      .extracting(issue -> issue.ruleKey().rule())
+      .containsExactlyInAnyOrder("javadoc.JavadocPackageCheck", "modifier.ModifierOrderCheck", "javadoc.JavadocTypeCheck", "UnknownRuleKey");
+    assertThat(logTester.logs(Level.ERROR)).isEmpty();
+  }
+
   private List<ExternalIssue> executeSensorImporting(@Nullable String fileName) throws IOException {
     SensorContextTester context = ExternalReportTestUtils.createContext(PROJECT_DIR);
     if (fileName != null) {
@@ -17,12 +17,25 @@
 package org.sonar.java.externalreport;
 
 import com.sonarsource.scanner.engine.sensor.test.fixtures.SensorContextTester;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -37,6 +50,7 @@ import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.scanner.plugin.api.impl.sensor.DefaultSensorDescriptor;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.sonar.java.externalreport.ExternalReportTestUtils.onlyOneLogElement;
@@ -207,6 +221,112 @@ class SpotBugsSensorTest {
       "Unexpected missing 'BugCollection/Project/SrcDir/text()'.");
   }
 
+  @Test
+  void issues_from_several_reports() throws IOException {
+    SensorContextTester context = ExternalReportTestUtils.createContext(PROJECT_DIR);
+    String reportPaths = Stream.of("spotbugsXml.xml", "spotbugsXml-findsecbugs.xml", "spotbugsXml-fbcontrib.xml", "spotbugsXml-with-errors.xml")
+      .map(fileName -> generateReport(tmp, fileName).getPath())
+      .collect(Collectors.joining(","));
+    context.settings().setProperty("sonar.java.spotbugs.reportPaths", reportPaths);
+    spotBugsSensor.execute(context);
+
+    // reports are imported concurrently, each of them being read by its own reader
+    assertThat(context.allExternalIssues())
+      .extracting(ExternalIssue::engineId, ExternalIssue::ruleId, i -> i.primaryLocation().message())
+      .containsExactlyInAnyOrder(
+        tuple("spotbugs", "HE_EQUALS_USE_HASHCODE", "org.myapp.Main defines equals and uses Object.hashCode()"),
+        tuple("findsecbugs", "RSA_KEY_SIZE", "org.myapp.Main defines equals and uses Object.hashCode()"),
+        tuple("fbcontrib", "ABC_ARRAY_BASED_COLLECTIONS", "Method org.myapp.App.getGreeting(int[]) uses array as basis of collection"),
+        tuple("spotbugs", "UNKNOWN_RULE", "Message for unknown rule."));
+    assertThat(logTester.logs(Level.ERROR)).isEmpty();
+  }
+
+  @Test
+  void reports_of_several_contexts_imported_concurrently() throws Exception {
+    int modules = 4;
+    List<SensorContextTester> contexts = new ArrayList<>();
+    List<Callable<Void>> imports = new ArrayList<>();
+    for (int i = 0; i < modules; i++) {
+      SensorContextTester context = ExternalReportTestUtils.createContext(PROJECT_DIR);
+      Path moduleDir = Files.createDirectory(tmp.resolve("module" + i));
+      context.settings().setProperty("sonar.java.spotbugs.reportPaths",
+        generateReport(moduleDir, "spotbugsXml.xml").getPath() + "," + generateReport(moduleDir, "spotbugsXml-findsecbugs.xml").getPath());
+      contexts.add(context);
+      imports.add(() -> {
+        spotBugsSensor.execute(context);
+        return null;
+      });
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(modules);
+    try {
+      for (Future<Void> moduleImport : executor.invokeAll(imports)) {
+        moduleImport.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    for (SensorContextTester context : contexts) {
+      assertThat(context.allExternalIssues())
+        .extracting(ExternalIssue::ruleId)
+        .containsExactlyInAnyOrder("HE_EQUALS_USE_HASHCODE", "RSA_KEY_SIZE");
+    }
+    // imports into different contexts do not wait for each other
+    assertThat(contexts.stream().map(ExternalIssueUtils::saveLock).distinct()).hasSize(modules);
+    assertThat(logTester.logs(Level.ERROR)).isEmpty();
+  }
+
+  @Test
+  void reports_imported_into_one_context_from_several_threads_save_each_issue_once() throws Exception {
+    int threads = 8;
+    int issuesPerReport = 200;
+    SensorContextTester context = ExternalReportTestUtils.createContext(PROJECT_DIR);
+    InputFileCache inputFiles = new InputFileCache(context);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Callable<Void>> imports = new ArrayList<>();
+    Set<String> expectedMessages = new HashSet<>();
+    for (int report = 0; report < threads; report++) {
+      StringBuilder xml = new StringBuilder("<BugCollection><Project><SrcDir>")
+        .append(PROJECT_DIR.toRealPath().resolve("src/main/java"))
+        .append("</SrcDir></Project>");
+      for (int issue = 0; issue < issuesPerReport; issue++) {
+        String message = "issue " + issue + " of report " + report;
+        expectedMessages.add(message);
+        xml.append("<BugInstance type='HE_EQUALS_USE_HASHCODE'><LongMessage>").append(message)
+          .append("</LongMessage><SourceLine start='6' end='6' sourcepath='org/myapp/Main.java'/></BugInstance>");
+      }
+      byte[] content = xml.append("</BugCollection>").toString().getBytes(UTF_8);
+      imports.add(() -> {
+        start.await();
+        SpotBugsXmlReportReader.read(context, inputFiles, new ByteArrayInputStream(content), spotBugsSensor.ruleLoader(), Map.of());
+        return null;
+      });
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Void>> futures = imports.stream().map(executor::submit).toList();
+      start.countDown();
+      for (Future<Void> reportImport : futures) {
+        reportImport.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(context.allExternalIssues())
+      .extracting(issue -> issue.primaryLocation().message())
+      .hasSize(threads * issuesPerReport)
+      .containsExactlyInAnyOrderElementsOf(expectedMessages);
+  }
+
+  private static File generateReport(Path dir, String fileName) {
+    try {
+      return ExternalReportTestUtils.generateReport(PROJECT_DIR, dir, fileName);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
   private List<ExternalIssue> executeSensorImporting(@Nullable String fileName) throws IOException {
     SensorContextTester context = ExternalReportTestUtils.createContext(PROJECT_DIR);
     if (fileName != null) {
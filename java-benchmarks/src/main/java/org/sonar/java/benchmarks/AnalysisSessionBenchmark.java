@@ -0,0 +1,85 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.JavaAnalysisSession;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.ast.JavaAstScanner;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.java.telemetry.NoOpTelemetry;
+import org.sonar.java.telemetry.TelemetryKey;
+import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.internal.EndOfAnalysis;
+
+/**
+ * Analysis of an edited file with all the rules for main sources, from parsing to the reporting of the issues, in a
+ * {@link JavaAnalysisSession} kept between analyses, compared to the same analysis with a scanner set up for the file.
+ * The checks running at the end of the analysis are left out of both, as they are not part of a session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AnalysisSessionBenchmark {
+
+  @Param({BenchmarkSources.METHOD_INVOCATIONS, BenchmarkSources.DATA_FLOW})
+  public String file;
+
+  private InputFile inputFile;
+  private SonarComponents sonarComponents;
+  private List<JavaCheck> checks;
+  private JavaAnalysisSession session;
+
+  @Setup
+  public void setup() {
+    inputFile = BenchmarkSources.inputFile(file);
+    sonarComponents = BenchmarkSources.sonarComponents();
+    checks = BenchmarkSources.javaChecks().stream()
+      .filter(check -> !(check instanceof EndOfAnalysis))
+      .toList();
+    session = new JavaAnalysisSession(BenchmarkSources.JAVA_VERSION, sonarComponents, new NoOpTelemetry(), checks, List.of());
+  }
+
+  @TearDown
+  public void tearDown() {
+    session.close();
+  }
+
+  @Benchmark
+  public void analyzeInSession() {
+    session.analyze(inputFile);
+  }
+
+  @Benchmark
+  public void analyzeWithNewScanner() {
+    JavaAstScanner scanner = new JavaAstScanner(sonarComponents, new NoOpTelemetry(), TelemetryKey.JAVA_ANALYSIS_MAIN);
+    scanner.setVisitorBridge(new VisitorsBridge(checks, sonarComponents.getJavaClasspath(), sonarComponents, BenchmarkSources.JAVA_VERSION));
+    scanner.scan(List.of(inputFile));
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Runs the benchmarks with the usual JMH command line options, and defaults short enough to run all of them locally.
+ * Besides the JMH JSON results, writes a summary sorted by benchmark and file, meant to be diffed across versions.
+ */
+public final class BenchmarkRunner {
+
+  private static final String DEFAULT_RESULT = "target/benchmark-results.json";
+
+  private BenchmarkRunner() {
+    // main class
+  }
+
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldList() || commandLine.shouldListWithParams()) {
+      new Runner(commandLine).list();
+      return;
+    }
+    // options set on the builder take precedence over the ones of its parent, so defaults only apply when not given
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+    if (!commandLine.getForkCount().hasValue()) {
+      options.forks(1);
+    }
+    if (!commandLine.getWarmupIterations().hasValue()) {
+      options.warmupIterations(3);
+    }
+    if (!commandLine.getWarmupTime().hasValue()) {
+      options.warmupTime(TimeValue.seconds(1));
+    }
+    if (!commandLine.getMeasurementIterations().hasValue()) {
+      options.measurementIterations(5);
+    }
+    if (!commandLine.getMeasurementTime().hasValue()) {
+      options.measurementTime(TimeValue.seconds(1));
+    }
+    Path result = Path.of(commandLine.getResult().orElse(DEFAULT_RESULT));
+    Files.createDirectories(result.toAbsolutePath().getParent());
+    options.result(result.toString()).resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON));
+
+    Collection<RunResult> results = new Runner(options.build()).run();
+
+    Path summary = result.resolveSibling("benchmark-summary.txt");
+    Files.write(summary, summary(results), UTF_8);
+    System.out.println("Summary written to " + summary.toAbsolutePath());
+  }
+
+  private static List<String> summary(Collection<RunResult> results) {
+    return results.stream()
+      .map(BenchmarkRunner::summaryLine)
+      .sorted(Comparator.naturalOrder())
+      .toList();
+  }
+
+  private static String summaryLine(RunResult runResult) {
+    BenchmarkParams params = runResult.getParams();
+    String benchmark = params.getBenchmark();
+    String param = params.getParamsKeys().isEmpty() ? "-" : params.getParamsKeys().stream()
+      .map(params::getParam)
+      .collect(Collectors.joining(","));
+    Result<?> result = runResult.getPrimaryResult();
+    return String.format(Locale.ROOT, "%s\t%s\t%.3f ± %.3f %s", benchmark, param,
+      result.getScore(), result.getScoreError(), result.getScoreUnit());
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.config.Configuration;
+import org.sonar.java.GeneratedCheckList;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.checks.verifier.internal.InternalInputFile;
+import org.sonar.java.checks.verifier.internal.InternalSensorContext;
+import org.sonar.java.classpath.ClasspathForMain;
+import org.sonar.java.classpath.ClasspathForTest;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.JavaVersionImpl;
+import org.sonar.java.test.classpath.TestClasspathUtils;
+import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.JavaVersion;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Representative sources of "java-checks-test-sources/default", which must have been built beforehand so that their
+ * classpath is available, and the helpers to parse them the same way as the analyzer does.
+ * Every benchmark is parameterized by the file it runs on, to keep results comparable from one version to another.
+ */
+public final class BenchmarkSources {
+
+  /** Long file with many method invocations, on types from the JDK. */
+  public static final String METHOD_INVOCATIONS = "checks/PrintfMisuseCheckSample.java";
+  /** Many small methods with boolean expressions and conditions. */
+  public static final String CONDITIONS = "checks/BoxedBooleanExpressionsCheckSample.java";
+  /** Lambdas and method references, relying on type inference. */
+  public static final String LAMBDAS = "checks/ReplaceLambdaByMethodRefCheckSample.java";
+  /** Assignments, loops and try statements, exercising the data flow. */
+  public static final String DATA_FLOW = "checks/DeadStoreCheckSample.java";
+  /** Comments mixing prose and commented-out code. */
+  public static final String COMMENTED_CODE = "checks/CommentedCode.java";
+
+  public static final JavaVersion JAVA_VERSION = new JavaVersionImpl(JavaVersionImpl.MAX_SUPPORTED);
+
+  private BenchmarkSources() {
+    // utility class
+  }
+
+  public static Path path(String file) {
+    String modulePath = TestClasspathUtils.DEFAULT_MODULE.getPath();
+    if (modulePath == null) {
+      throw new IllegalStateException("Unable to find the java-checks-test-sources/default module, benchmarks must be run from the repository");
+    }
+    return Path.of(modulePath, "src", "main", "java").resolve(file);
+  }
+
+  public static String read(String file) {
+    try {
+      return Files.readString(path(file), UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static InputFile inputFile(String file) {
+    return InternalInputFile.inputFile("", path(file).toFile());
+  }
+
+  public static List<File> classpath() {
+    return TestClasspathUtils.DEFAULT_MODULE.getClassPath();
+  }
+
+  public static JParserConfig parserConfig() {
+    return JParserConfig.Mode.FILE_BY_FILE.create(JAVA_VERSION, classpath());
+  }
+
+  /**
+   * Components of an analysis without quality profile nor cache, as given to the checks by the check verifiers, with the
+   * classpath of the sources.
+   */
+  public static SonarComponents sonarComponents() {
+    SensorContext sensorContext = new InternalSensorContext();
+    FileSystem fileSystem = sensorContext.fileSystem();
+    Configuration config = sensorContext.config();
+    List<File> classpath = classpath();
+    SonarComponents sonarComponents = new SonarComponents(null, fileSystem, new ClasspathForMain(config, fileSystem),
+      new ClasspathForTest(config, fileSystem), null, null) {
+      @Override
+      public List<File> getJavaClasspath() {
+        return classpath;
+      }
+
+      @Override
+      public List<File> getJavaTestClasspath() {
+        return classpath;
+      }
+
+      @Override
+      public boolean isQuickFixCompatible() {
+        // the runtime of the check verifiers is a SonarLint one, without the version of its plugin API
+        return false;
+      }
+    };
+    sonarComponents.setSensorContext(sensorContext);
+    return sonarComponents;
+  }
+
+  /**
+   * New instances of all the rules for main sources.
+   */
+  public static List<JavaCheck> javaChecks() {
+    List<JavaCheck> checks = new ArrayList<>();
+    for (Class<? extends JavaCheck> checkClass : GeneratedCheckList.getJavaChecks()) {
+      checks.add(instantiate(checkClass));
+    }
+    return checks;
+  }
+
+  static JavaCheck instantiate(Class<? extends JavaCheck> checkClass) {
+    try {
+      return checkClass.getDeclaredConstructor().newInstance();
+    } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+      throw new IllegalStateException("Unable to instantiate " + checkClass.getName(), e);
+    }
+  }
+
+  /**
+   * Parses the file and converts it to a tree with its semantic, as during the analysis.
+   */
+  public static JavaTree.CompilationUnitTreeImpl parse(String file) {
+    return JParser.parse(parserConfig().astParser(), JAVA_VERSION.effectiveJavaVersionAsString(), path(file).getFileName().toString(), read(file));
+  }
+
+}
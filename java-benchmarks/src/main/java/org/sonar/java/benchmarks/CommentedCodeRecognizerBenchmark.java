@@ -0,0 +1,104 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sonar.java.checks.CommentedCodeRecognizer;
+import org.sonar.java.checks.CommentedOutCodeLineCheck;
+import org.sonar.java.checks.JavaFootprint;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.LineUtils;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonarsource.analyzer.commons.recognizers.CodeRecognizer;
+
+/**
+ * Recognition of the lines of code in all the comments of a file, as done by {@link CommentedOutCodeLineCheck}: with the
+ * {@link CodeRecognizer} on every line, and with the {@link CommentedCodeRecognizer} skipping the comments and lines
+ * that are obviously prose.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommentedCodeRecognizerBenchmark {
+
+  private static final double THRESHOLD = 0.9;
+
+  @Param({BenchmarkSources.COMMENTED_CODE, BenchmarkSources.METHOD_INVOCATIONS, BenchmarkSources.DATA_FLOW})
+  public String file;
+
+  private final CodeRecognizer codeRecognizer = new CodeRecognizer(THRESHOLD, new JavaFootprint());
+  private final CommentedCodeRecognizer commentedCodeRecognizer = new CommentedCodeRecognizer(THRESHOLD);
+  private final List<String> comments = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    collectComments(BenchmarkSources.parse(file));
+  }
+
+  @Benchmark
+  public int codeRecognizer() {
+    int linesOfCode = 0;
+    for (String comment : comments) {
+      for (String line : LineUtils.splitLines(comment)) {
+        if (codeRecognizer.isLineOfCode(line)) {
+          linesOfCode++;
+        }
+      }
+    }
+    return linesOfCode;
+  }
+
+  @Benchmark
+  public int commentedCodeRecognizer() {
+    int linesOfCode = 0;
+    for (String comment : comments) {
+      if (!commentedCodeRecognizer.mayContainCode(comment)) {
+        continue;
+      }
+      for (String line : LineUtils.splitLines(comment)) {
+        if (commentedCodeRecognizer.isLineOfCode(line)) {
+          linesOfCode++;
+        }
+      }
+    }
+    return linesOfCode;
+  }
+
+  private void collectComments(Tree tree) {
+    if (tree.is(Tree.Kind.TOKEN)) {
+      ((SyntaxToken) tree).trivias().stream().map(SyntaxTrivia::comment).forEach(comments::add);
+      return;
+    }
+    JavaTree javaTree = (JavaTree) tree;
+    if (!javaTree.isLeaf()) {
+      javaTree.getChildren().forEach(this::collectComments);
+    }
+  }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sonar.java.cfg.CFG;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+
+/**
+ * Parsing and construction of the control flow graph of generated-like code, made of a single method with a very deep
+ * chain of "else if", of arithmetic or conditional operators. Run with {@code -prof gc} to also get the allocations.
+ * ECJ parses such chains recursively, so the benchmark threads get a large stack.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = "-Xss512m")
+public class DeepNestingBenchmark {
+
+  public enum Shape {
+    ELSE_IF, BINARY_OPERATORS, CONDITIONAL_OPERATORS, CONDITION
+  }
+
+  @Param
+  public Shape shape;
+
+  @Param({"1000", "5000", "10000", "20000"})
+  public int depth;
+
+  private JParserConfig parserConfig;
+  private String version;
+  private String source;
+  private MethodTree method;
+
+  @Setup
+  public void setup() {
+    parserConfig = BenchmarkSources.parserConfig();
+    version = BenchmarkSources.JAVA_VERSION.effectiveJavaVersionAsString();
+    source = source(shape, depth);
+    method = firstMethod(parse());
+  }
+
+  @Benchmark
+  public JavaTree.CompilationUnitTreeImpl parse() {
+    return JParser.parse(parserConfig.astParser(), version, "A.java", source);
+  }
+
+  @Benchmark
+  public CFG buildCfg() {
+    return CFG.build(method);
+  }
+
+  private static MethodTree firstMethod(JavaTree.CompilationUnitTreeImpl compilationUnit) {
+    return (MethodTree) ((ClassTree) compilationUnit.types().get(0)).members().get(0);
+  }
+
+  private static String source(Shape shape, int depth) {
+    StringBuilder sb = new StringBuilder();
+    switch (shape) {
+      case ELSE_IF:
+        sb.append("class A { int f(int x) {\n");
+        for (int i = 0; i < depth; i++) {
+          sb.append(i == 0 ? "" : "else ").append("if (x == ").append(i).append(") { return ").append(i).append("; }\n");
+        }
+        return sb.append("else { return -1; }\n} }").toString();
+      case BINARY_OPERATORS:
+        sb.append("class A { int f(int x) {\nreturn x");
+        operatorChain(sb, depth, " + x", " - x");
+        return sb.append(";\n} }").toString();
+      case CONDITIONAL_OPERATORS:
+        sb.append("class A { boolean f(boolean x) {\nreturn x");
+        operatorChain(sb, depth, " && x", " || x");
+        return sb.append(";\n} }").toString();
+      default:
+        sb.append("class A { void f(boolean x) {\nif (x");
+        operatorChain(sb, depth, " && x", " || x");
+        return sb.append(") { f(x); }\n} }").toString();
+    }
+  }
+
+  private static void operatorChain(StringBuilder sb, int depth, String even, String odd) {
+    for (int i = 0; i < depth; i++) {
+      sb.append(i % 2 == 0 ? even : odd).append(i % 10 == 9 ? "\n" : "");
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sonar.plugins.java.api.semantic.MethodMatchers;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.MethodReferenceTree;
+import org.sonar.plugins.java.api.tree.NewClassTree;
+
+/**
+ * Evaluation of method matchers typical of the checks, on all the invocations, instantiations and method references of
+ * a file. The trees are collected beforehand so that only the matching is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MethodMatchersBenchmark {
+
+  private static final String JAVA_LANG_STRING = "java.lang.String";
+
+  private static final MethodMatchers MATCHERS = MethodMatchers.or(
+    MethodMatchers.create().ofTypes(JAVA_LANG_STRING).names("format", "formatted").withAnyParameters().build(),
+    MethodMatchers.create().ofSubTypes("java.io.PrintStream").names("printf", "format").withAnyParameters().build(),
+    MethodMatchers.create().ofTypes("java.lang.Object").names("equals").addParametersMatcher("java.lang.Object").build(),
+    MethodMatchers.create().ofSubTypes("java.util.Collection").names("size", "isEmpty").addWithoutParametersMatcher().build(),
+    MethodMatchers.create().ofSubTypes("java.util.Map").names("get", "containsKey").addParametersMatcher("java.lang.Object").build(),
+    MethodMatchers.create().ofTypes("java.lang.Boolean").names("valueOf", "booleanValue").withAnyParameters().build(),
+    MethodMatchers.create().ofSubTypes("org.slf4j.Logger").name(name -> name.startsWith("info") || name.startsWith("debug")).withAnyParameters().build(),
+    MethodMatchers.create().ofTypes(JAVA_LANG_STRING, "java.lang.StringBuilder").constructor().withAnyParameters().build());
+
+  @Param({BenchmarkSources.METHOD_INVOCATIONS, BenchmarkSources.CONDITIONS, BenchmarkSources.LAMBDAS, BenchmarkSources.DATA_FLOW})
+  public String file;
+
+  private final List<MethodInvocationTree> methodInvocations = new ArrayList<>();
+  private final List<NewClassTree> newClasses = new ArrayList<>();
+  private final List<MethodReferenceTree> methodReferences = new ArrayList<>();
+
+  @Setup
+  public void setup() {
+    BenchmarkSources.parse(file).accept(new BaseTreeVisitor() {
+      @Override
+      public void visitMethodInvocation(MethodInvocationTree tree) {
+        methodInvocations.add(tree);
+        super.visitMethodInvocation(tree);
+      }
+
+      @Override
+      public void visitNewClass(NewClassTree tree) {
+        newClasses.add(tree);
+        super.visitNewClass(tree);
+      }
+
+      @Override
+      public void visitMethodReference(MethodReferenceTree tree) {
+        methodReferences.add(tree);
+        super.visitMethodReference(tree);
+      }
+    });
+  }
+
+  @Benchmark
+  public int matches() {
+    int matches = 0;
+    for (MethodInvocationTree methodInvocation : methodInvocations) {
+      if (MATCHERS.matches(methodInvocation)) {
+        matches++;
+      }
+    }
+    for (NewClassTree newClass : newClasses) {
+      if (MATCHERS.matches(newClass)) {
+        matches++;
+      }
+    }
+    for (MethodReferenceTree methodReference : methodReferences) {
+      if (MATCHERS.matches(methodReference)) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+
+}
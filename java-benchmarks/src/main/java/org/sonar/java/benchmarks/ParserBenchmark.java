@@ -0,0 +1,143 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTSessionParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.java.model.JParser;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaTree;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.MethodInvocationTree;
+import org.sonar.plugins.java.api.tree.NewClassTree;
+
+/**
+ * Parsing with ECJ, with and without resolution of the bindings, then conversion of the ECJ AST into our tree and
+ * resolution of the symbols of this tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParserBenchmark {
+
+  @Param({BenchmarkSources.METHOD_INVOCATIONS, BenchmarkSources.CONDITIONS, BenchmarkSources.LAMBDAS, BenchmarkSources.DATA_FLOW})
+  public String file;
+
+  private JParserConfig parserConfig;
+  private String version;
+  private String unitName;
+  private String source;
+  private CompilationUnit parsedUnit;
+  private ASTSessionParser sessionParser;
+
+  @Setup
+  public void setup() {
+    parserConfig = BenchmarkSources.parserConfig();
+    sessionParser = parserConfig.sessionParser();
+    version = BenchmarkSources.JAVA_VERSION.effectiveJavaVersionAsString();
+    unitName = BenchmarkSources.path(file).getFileName().toString();
+    source = BenchmarkSources.read(file);
+    parsedUnit = ecjParse(true);
+  }
+
+  @TearDown
+  public void tearDown() {
+    sessionParser.close();
+  }
+
+  @Benchmark
+  public CompilationUnit parseWithoutBindings() {
+    return ecjParse(false);
+  }
+
+  @Benchmark
+  public CompilationUnit parseWithBindings() {
+    return ecjParse(true);
+  }
+
+  /**
+   * Same as {@link #parseWithBindings()}, with the name environment of the classpath kept from one parsing to the next.
+   */
+  @Benchmark
+  public CompilationUnit parseWithBindingsInSession() {
+    return sessionParser.createAST(unitName, source.toCharArray());
+  }
+
+  /**
+   * ECJ caches the bindings it has already resolved for the AST, so this measures the conversion without the cost of
+   * their first resolution, which is part of {@link #parseAndConvert()}.
+   */
+  @Benchmark
+  public JavaTree.CompilationUnitTreeImpl convert() {
+    return JParser.convert(version, unitName, source, parsedUnit);
+  }
+
+  @Benchmark
+  public JavaTree.CompilationUnitTreeImpl parseAndConvert() {
+    return JParser.parse(parserConfig.astParser(), version, unitName, source);
+  }
+
+  /**
+   * Converts the AST, then resolves the symbols and types of the identifiers and invocations of the new tree, which
+   * are computed lazily from the bindings.
+   */
+  @Benchmark
+  public void convertAndResolveSymbols(Blackhole blackhole) {
+    JParser.convert(version, unitName, source, parsedUnit).accept(new BaseTreeVisitor() {
+      @Override
+      public void visitIdentifier(IdentifierTree tree) {
+        blackhole.consume(tree.symbol());
+        blackhole.consume(tree.symbolType());
+      }
+
+      @Override
+      public void visitMethodInvocation(MethodInvocationTree tree) {
+        blackhole.consume(tree.methodSymbol());
+        super.visitMethodInvocation(tree);
+      }
+
+      @Override
+      public void visitNewClass(NewClassTree tree) {
+        blackhole.consume(tree.methodSymbol());
+        super.visitNewClass(tree);
+      }
+    });
+  }
+
+  private CompilationUnit ecjParse(boolean resolveBindings) {
+    ASTParser astParser = parserConfig.astParser();
+    astParser.setResolveBindings(resolveBindings);
+    astParser.setBindingsRecovery(resolveBindings);
+    astParser.setUnitName(unitName);
+    astParser.setSource(source.toCharArray());
+    return (CompilationUnit) astParser.createAST(null);
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.testing.JavaFileScannerContextForTests;
+import org.sonar.java.testing.VisitorsBridgeForTests;
+import org.sonar.plugins.java.api.JavaCheck;
+
+/**
+ * Analysis of a file with all the rules for main sources, from parsing to the reporting of the issues, as done for
+ * every file of a project with a quality profile activating every rule. The end of analysis of the checks, done once per
+ * project, is not part of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RuleSetBenchmark {
+
+  @Param({BenchmarkSources.METHOD_INVOCATIONS, BenchmarkSources.CONDITIONS, BenchmarkSources.LAMBDAS, BenchmarkSources.DATA_FLOW})
+  public String file;
+
+  private InputFile inputFile;
+  private List<File> classpath;
+  private SonarComponents sonarComponents;
+  private List<JavaCheck> checks;
+
+  @Setup
+  public void setup() {
+    inputFile = BenchmarkSources.inputFile(file);
+    classpath = BenchmarkSources.classpath();
+    sonarComponents = BenchmarkSources.sonarComponents();
+    checks = BenchmarkSources.javaChecks();
+  }
+
+  /**
+   * The checks are shared between invocations, as between the files of a project, but the bridge is not, as it keeps
+   * the scanner contexts of the visited files.
+   */
+  @Benchmark
+  public int analyzeFile() {
+    VisitorsBridgeForTests visitorsBridge = new VisitorsBridgeForTests.Builder(checks)
+      .withJavaVersion(BenchmarkSources.JAVA_VERSION)
+      .enableSemanticWithProjectClasspath(classpath)
+      .withSonarComponents(sonarComponents)
+      .build();
+    visitorsBridge.setCurrentFile(inputFile);
+    visitorsBridge.visitFile(BenchmarkSources.parse(file), false);
+    int issues = 0;
+    for (JavaFileScannerContextForTests context : visitorsBridge.testContexts()) {
+      issues += context.getIssues().size();
+    }
+    return issues;
+  }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.sonar.api.utils.AnnotationUtils;
+import org.sonar.check.Rule;
+import org.sonar.java.CheckListIndex;
+import org.sonar.java.GeneratedCheckList;
+import org.sonar.plugins.java.api.JavaCheck;
+
+/**
+ * Start of an analysis, from the list of the checks of the analyzer to the instances of the checks of the active rules, as
+ * done by the sensor of the plugin before analyzing the first file. Every invocation runs in a new class loader, so that the
+ * classes of the checks are loaded again as in a new JVM.
+ * <p>
+ * About one rule out of {@code activeRuleStep} is active: 1 for a quality profile activating every rule, 10 for a small one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+  @Param({"1", "10"})
+  public int activeRuleStep;
+
+  private URLClassLoader classLoader;
+
+  @Setup(Level.Invocation)
+  public void setup() {
+    classLoader = new URLClassLoader(classpath(), ClassLoader.getPlatformClassLoader());
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDown() throws IOException {
+    classLoader.close();
+  }
+
+  /**
+   * As before the index of the checks: the classes of all the checks are loaded, and the rule key of each one is read from its
+   * annotation to know if its rule is active.
+   */
+  @Benchmark
+  public int checksFromCheckList() {
+    return start(ChecksFromCheckList.class);
+  }
+
+  /**
+   * Only the classes of the checks of active rules are loaded, their rule keys being read from the index of the checks.
+   */
+  @Benchmark
+  public int checksFromIndex() {
+    return start(ChecksFromIndex.class);
+  }
+
+  private int start(Class<? extends IntUnaryOperator> startup) {
+    try {
+      IntUnaryOperator isolatedStartup = (IntUnaryOperator) classLoader.loadClass(startup.getName()).getDeclaredConstructor().newInstance();
+      return isolatedStartup.applyAsInt(activeRuleStep);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to load " + startup.getName(), e);
+    }
+  }
+
+  private static URL[] classpath() {
+    String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+    URL[] urls = new URL[entries.length];
+    for (int i = 0; i < entries.length; i++) {
+      try {
+        urls[i] = new File(entries[i]).toURI().toURL();
+      } catch (MalformedURLException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return urls;
+  }
+
+  static boolean isActive(String ruleKey, int activeRuleStep) {
+    // the hash code of strings is specified, so the same rules are active from one run to another
+    return Math.floorMod(ruleKey.hashCode(), activeRuleStep) == 0;
+  }
+
+  static int instantiate(List<Class<? extends JavaCheck>> checkClasses) {
+    checkClasses.forEach(BenchmarkSources::instantiate);
+    return checkClasses.size();
+  }
+
+  public static final class ChecksFromCheckList implements IntUnaryOperator {
+
+    @Override
+    public int applyAsInt(int activeRuleStep) {
+      return instantiate(activeChecks(GeneratedCheckList.getJavaChecks(), activeRuleStep))
+        + instantiate(activeChecks(GeneratedCheckList.getJavaTestChecks(), activeRuleStep));
+    }
+
+    private static List<Class<? extends JavaCheck>> activeChecks(List<Class<? extends JavaCheck>> checkClasses, int activeRuleStep) {
+      return checkClasses.stream()
+        .filter(checkClass -> isActive(AnnotationUtils.getAnnotation(checkClass, Rule.class).key(), activeRuleStep))
+        .toList();
+    }
+  }
+
+  public static final class ChecksFromIndex implements IntUnaryOperator {
+
+    @Override
+    public int applyAsInt(int activeRuleStep) {
+      CheckListIndex index = CheckListIndex.getInstance();
+      return instantiate(index.getJavaChecks(ruleKey -> isActive(ruleKey, activeRuleStep)))
+        + instantiate(index.getJavaTestChecks(ruleKey -> isActive(ruleKey, activeRuleStep)));
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.model.JavaTree;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
+import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Traversal of a converted tree, by a single {@link BaseTreeVisitor} and by the subscription visitors dispatched by the
+ * {@link VisitorsBridge}, as most of the checks are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TreeTraversalBenchmark {
+
+  private static final Tree.Kind[][] SUBSCRIPTIONS = {
+    {Tree.Kind.CLASS, Tree.Kind.INTERFACE, Tree.Kind.ENUM, Tree.Kind.RECORD},
+    {Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR},
+    {Tree.Kind.METHOD_INVOCATION},
+    {Tree.Kind.NEW_CLASS},
+    {Tree.Kind.IDENTIFIER},
+    {Tree.Kind.MEMBER_SELECT},
+    {Tree.Kind.VARIABLE},
+    {Tree.Kind.BLOCK},
+    {Tree.Kind.IF_STATEMENT, Tree.Kind.CONDITIONAL_EXPRESSION},
+    {Tree.Kind.FOR_STATEMENT, Tree.Kind.FOR_EACH_STATEMENT, Tree.Kind.WHILE_STATEMENT, Tree.Kind.DO_STATEMENT},
+    {Tree.Kind.TRY_STATEMENT, Tree.Kind.CATCH},
+    {Tree.Kind.RETURN_STATEMENT, Tree.Kind.THROW_STATEMENT},
+    {Tree.Kind.ASSIGNMENT, Tree.Kind.PLUS_ASSIGNMENT, Tree.Kind.MINUS_ASSIGNMENT},
+    {Tree.Kind.EQUAL_TO, Tree.Kind.NOT_EQUAL_TO, Tree.Kind.CONDITIONAL_AND, Tree.Kind.CONDITIONAL_OR},
+    {Tree.Kind.STRING_LITERAL, Tree.Kind.INT_LITERAL, Tree.Kind.BOOLEAN_LITERAL, Tree.Kind.NULL_LITERAL},
+    {Tree.Kind.LAMBDA_EXPRESSION, Tree.Kind.METHOD_REFERENCE},
+    {Tree.Kind.ANNOTATION},
+    {Tree.Kind.SWITCH_STATEMENT, Tree.Kind.SWITCH_EXPRESSION, Tree.Kind.CASE_GROUP},
+    {Tree.Kind.TYPE_CAST, Tree.Kind.INSTANCE_OF, Tree.Kind.PATTERN_INSTANCE_OF},
+    {Tree.Kind.TOKEN}
+  };
+
+  @Param({BenchmarkSources.METHOD_INVOCATIONS, BenchmarkSources.CONDITIONS, BenchmarkSources.LAMBDAS, BenchmarkSources.DATA_FLOW})
+  public String file;
+
+  private InputFile inputFile;
+  private JavaTree.CompilationUnitTreeImpl tree;
+  private List<JavaCheck> subscriptionVisitors;
+
+  @Setup
+  public void setup() {
+    inputFile = BenchmarkSources.inputFile(file);
+    tree = BenchmarkSources.parse(file);
+    subscriptionVisitors = new ArrayList<>();
+    for (Tree.Kind[] kinds : SUBSCRIPTIONS) {
+      subscriptionVisitors.add(new CountingSubscriptionVisitor(kinds));
+    }
+  }
+
+  @Benchmark
+  public int baseTreeVisitor() {
+    NodeCounter counter = new NodeCounter();
+    tree.accept(counter);
+    return counter.count;
+  }
+
+  /**
+   * Dispatch of every node of the tree to the visitors subscribed to its kind. The bridge is created for every
+   * invocation, as it keeps the scanner contexts of the visited files.
+   */
+  @Benchmark
+  public VisitorsBridge subscriptionDispatch() {
+    VisitorsBridge visitorsBridge = new VisitorsBridge(subscriptionVisitors, Collections.emptyList(), null, BenchmarkSources.JAVA_VERSION);
+    visitorsBridge.setCurrentFile(inputFile);
+    visitorsBridge.visitFile(tree, false);
+    return visitorsBridge;
+  }
+
+  private static class NodeCounter extends BaseTreeVisitor {
+
+    private int count;
+
+    @Override
+    protected void scan(@Nullable Tree tree) {
+      if (tree != null) {
+        count++;
+      }
+      super.scan(tree);
+    }
+  }
+
+  private static class CountingSubscriptionVisitor extends IssuableSubscriptionVisitor {
+
+    private final List<Tree.Kind> nodesToVisit;
+    private int count;
+
+    CountingSubscriptionVisitor(Tree.Kind... nodesToVisit) {
+      this.nodesToVisit = List.of(nodesToVisit);
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      return nodesToVisit;
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      count++;
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      count++;
+    }
+  }
+
+}
@@ -22,12 +22,15 @@ import java.util.List;
 import java.util.Optional;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
+import org.sonar.java.cfg.CFG;
 import org.sonar.plugins.java.api.location.Position;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
 import org.sonar.plugins.java.api.tree.EnumConstantTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.VariableTree;
@@ -105,6 +108,46 @@ public final class ReassignmentFinder {
     return Optional.empty();
   }
 
+  /**
+   * Definitions of a local variable (declarations, parameters, assignments, increments) which can reach the given usage,
+   * following the control flow of the enclosing method or lambda. The analysis of a method is computed on the first query
+   * and kept with its CFG, so following queries are simple lookups.
+   *
+   * @return empty if the usage is not a read of a local variable defined in the enclosing method or lambda
+   */
+  public static Optional<List<Tree>> getReachingDefinitions(IdentifierTree usage) {
+    return Optional.ofNullable(enclosingCFG(usage))
+      .map(cfg -> cfg.reachingDefinitions().reachingDefinitions(usage));
+  }
+
+  /**
+   * Value of a local variable at the given usage, when all the definitions reaching it assign the same constant.
+   * See {@link #getReachingDefinitions(IdentifierTree)}.
+   */
+  public static Optional<Object> getReachingConstantValue(IdentifierTree usage) {
+    return Optional.ofNullable(enclosingCFG(usage))
+      .flatMap(cfg -> cfg.reachingDefinitions().constantValue(usage));
+  }
+
+  @CheckForNull
+  private static CFG enclosingCFG(Tree tree) {
+    Tree parent = tree.parent();
+    while (parent != null) {
+      switch (parent.kind()) {
+        case METHOD, CONSTRUCTOR:
+          return (CFG) ((MethodTree) parent).cfg();
+        case LAMBDA_EXPRESSION:
+          return (CFG) ((LambdaExpressionTree) parent).cfg();
+        case CLASS, ENUM, INTERFACE, RECORD, ANNOTATION_TYPE, INITIALIZER, STATIC_INITIALIZER:
+          return null;
+        default:
+          break;
+      }
+      parent = parent.parent();
+    }
+    return null;
+  }
+
   @CheckForNull
   private static Tree getClosestReassignment(SyntaxToken startToken, List<AssignmentExpressionTree> reassignments) {
     return reassignments.stream()
@@ -260,6 +260,122 @@ class ReassignmentFinderTest extends JParserTestUtils {
     assertThatLastReassignmentsOfReturnedVariableIsEqualTo(statements, expression);
   }
 
+  @Test
+  void reaching_definitions() {
+    String code = newCode(
+      "int foo(boolean test, int p) {",
+      "  int a = 0;",
+      "  int b = p;",
+      "  if (test) {",
+      "    a = 1;",
+      "  }",
+      "  b++;",
+      "  return a + b + p;",
+      "}");
+
+    MethodTree method = methodTree(code);
+    List<StatementTree> statements = method.block().body();
+    BinaryExpressionTree returned = (BinaryExpressionTree) ((ReturnStatementTree) statements.get(4)).expression();
+    IdentifierTree a = (IdentifierTree) ((BinaryExpressionTree) returned.leftOperand()).leftOperand();
+    IdentifierTree b = (IdentifierTree) ((BinaryExpressionTree) returned.leftOperand()).rightOperand();
+    IdentifierTree p = (IdentifierTree) returned.rightOperand();
+    StatementTree aAssignment = ((BlockTree) ((IfStatementTree) statements.get(2)).thenStatement()).body().get(0);
+
+    assertThat(ReassignmentFinder.getReachingDefinitions(a)).hasValueSatisfying(definitions -> assertThat(definitions)
+      .containsExactlyInAnyOrder(statements.get(0), ((ExpressionStatementTree) aAssignment).expression()));
+    assertThat(ReassignmentFinder.getReachingDefinitions(b)).hasValueSatisfying(definitions -> assertThat(definitions)
+      .containsExactly(((ExpressionStatementTree) statements.get(3)).expression()));
+    assertThat(ReassignmentFinder.getReachingDefinitions(p)).hasValueSatisfying(definitions -> assertThat(definitions)
+      .containsExactly(method.parameters().get(1)));
+  }
+
+  @Test
+  void reaching_constant_value() {
+    String code = newCode(
+      "void foo(boolean test, int p) {",
+      "  String a = \"x\";",
+      "  String b = a;",
+      "  if (test) {",
+      "    b = (\"x\");",
+      "  }",
+      "  bar(b);",
+      "  a = \"y\";",
+      "  if (test) {",
+      "    a = \"z\";",
+      "  }",
+      "  bar(a);",
+      "  bar(p);",
+      "}",
+      "void bar(Object o) {}");
+
+    List<StatementTree> statements = methodBody(code);
+    assertThat(ReassignmentFinder.getReachingConstantValue(firstArgument(statements.get(3)))).contains("x");
+    assertThat(ReassignmentFinder.getReachingConstantValue(firstArgument(statements.get(6)))).isEmpty();
+    assertThat(ReassignmentFinder.getReachingConstantValue(firstArgument(statements.get(7)))).isEmpty();
+  }
+
+  @Test
+  void reaching_constant_value_with_cyclic_definitions() {
+    String code = newCode(
+      "void foo(boolean test) {",
+      "  int a = 1;",
+      "  int b = 1;",
+      "  while (test) {",
+      "    a = b;",
+      "    b = a;",
+      "  }",
+      "  bar(a);",
+      "}",
+      "void bar(Object o) {}");
+
+    List<StatementTree> statements = methodBody(code);
+    assertThat(ReassignmentFinder.getReachingConstantValue(firstArgument(statements.get(3)))).isEmpty();
+  }
+
+  @Test
+  void reaching_constant_value_of_lambda_parameter() {
+    String code = newCode(
+      "void foo() {",
+      "  java.util.function.IntUnaryOperator op = (int x) -> {",
+      "    if (x > 3) {",
+      "      x = 1;",
+      "    }",
+      "    return x;",
+      "  };",
+      "}");
+
+    VariableTree operator = (VariableTree) methodBody(code).get(0);
+    LambdaExpressionTree lambda = (LambdaExpressionTree) operator.initializer();
+    IdentifierTree x = (IdentifierTree) ((ReturnStatementTree) ((BlockTree) lambda.body()).body().get(1)).expression();
+    assertThat(ReassignmentFinder.getReachingDefinitions(x)).hasValueSatisfying(definitions -> assertThat(definitions)
+      .hasSize(2)
+      .contains(lambda.parameters().get(0)));
+    assertThat(ReassignmentFinder.getReachingConstantValue(x)).isEmpty();
+  }
+
+  @Test
+  void reaching_definitions_outside_of_methods() {
+    ClassTree classTree = classTree(newCode(
+      "int f = 0;",
+      "int g = f;",
+      "void foo(int p) {",
+      "  Runnable r = () -> bar(p);",
+      "}",
+      "void bar(int i) {}"));
+    IdentifierTree fieldUsage = (IdentifierTree) ((VariableTree) classTree.members().get(1)).initializer();
+    assertThat(ReassignmentFinder.getReachingDefinitions(fieldUsage)).isEmpty();
+    assertThat(ReassignmentFinder.getReachingConstantValue(fieldUsage)).isEmpty();
+
+    VariableTree runnable = (VariableTree) ((MethodTree) classTree.members().get(2)).block().body().get(0);
+    MethodInvocationTree invocation = (MethodInvocationTree) ((LambdaExpressionTree) runnable.initializer()).body();
+    // captured variables are not defined in the lambda
+    assertThat(ReassignmentFinder.getReachingDefinitions((IdentifierTree) invocation.arguments().get(0))).isEmpty();
+  }
+
+  private static IdentifierTree firstArgument(StatementTree statement) {
+    return (IdentifierTree) ((MethodInvocationTree) ((ExpressionStatementTree) statement).expression()).arguments().get(0);
+  }
+
   private static void assertThatLastReassignmentsOfReturnedVariableIsEqualTo(List<StatementTree> statements, ExpressionTree target) {
     assertThat(getLastReassignment(statements)).isEqualTo(target);
   }
@@ -18,6 +18,25 @@ class IndexOfWithPositiveNumber {
     if (literal4 < "".indexOf(" ")) { // Noncompliant
     }
 
+    int literal5 = 2;
+    if (length > 2) {
+      literal5 = 0;
+    }
+    if ("".indexOf(" ") > literal5) { // Compliant - 0 only on some paths
+    }
+    int literal6 = 0;
+    if (length > 2) {
+      literal6 = 0;
+    }
+    if (literal6 < "".indexOf(" ")) { // Noncompliant
+    }
+    java.util.function.IntPredicate predicate = (int x) -> {
+      if (x > 3) {
+        x = 0;
+      }
+      return "".indexOf(" ") > x; // Compliant - unknown value of the parameter
+    };
+
     if ("".indexOf(' ') > literal1) { // Noncompliant
     }
     if (literal1 < "".indexOf(' ')) { // Noncompliant
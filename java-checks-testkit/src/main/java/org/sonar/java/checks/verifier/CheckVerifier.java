@@ -18,6 +18,7 @@ package org.sonar.java.checks.verifier;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputFile;
@@ -63,6 +64,25 @@ public interface CheckVerifier {
     return JavaCheckVerifier.newInstance();
   }
 
+  /**
+   * Runs several verifications, each of them on a new verifier, parsing only once the test files they have in common
+   * (up to 32 files, the least recently used ones being parsed again). The verifications of a batch visit the same trees,
+   * so the checks of a batch should not modify them. Outside of batches, parsed files can also be shared between all the
+   * verifiers of the JVM by setting the "sonar.java.verifier.parsedSourceCacheSize" system property to the number of files
+   * to keep (default: 0, disabled).
+   * All the verifications are run, failures being reported together at the end.
+   * <pre>
+   * CheckVerifier.verifyInBatch(List.of(
+   *   verifier -> verifier.onFile("src/test/files/MyCheck.java").withCheck(new MyCheck()).verifyIssues(),
+   *   verifier -> verifier.onFile("src/test/files/MyCheck.java").withCheck(new MyOtherCheck()).verifyNoIssues()));
+   * </pre>
+   *
+   * @param verifications each verification configures the verifier it receives, then calls one of its "verify..." methods
+   */
+  static void verifyInBatch(List<Consumer<CheckVerifier>> verifications) {
+    JavaCheckVerifier.verifyInBatch(verifications);
+  }
+
   /**
    * <p>
    * In the test file(s), lines on which it is expected to have issues being raised have to be flagged with a comment
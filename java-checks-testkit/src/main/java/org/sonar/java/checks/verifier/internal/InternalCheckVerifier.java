@@ -341,7 +341,7 @@ public class InternalCheckVerifier implements CheckVerifier {
       visitorsBridge.setCacheContext(cacheContext);
       filesToParse = astScanner.scanWithoutParsing(files).get(false);
     }
-    astScanner.scan(filesToParse);
+    ParsedSourceCache.shared().scan(astScanner, visitorsBridge, sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage(), filesToParse);
     return visitorsBridge;
   }
 
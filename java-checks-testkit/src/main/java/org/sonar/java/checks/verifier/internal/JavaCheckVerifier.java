@@ -76,6 +76,28 @@ public class JavaCheckVerifier implements CheckVerifier {
     return new JavaCheckVerifier();
   }
 
+  public static void verifyInBatch(List<Consumer<CheckVerifier>> verifications) {
+    requiresNonEmpty(verifications, "verification");
+    ParsedSourceCache batchParsedSources = new ParsedSourceCache(ParsedSourceCache.BATCH_SIZE);
+    List<String> failures = new ArrayList<>();
+    try {
+      for (int i = 0; i < verifications.size(); i++) {
+        JavaCheckVerifier verifier = newInstance();
+        verifier.parsedSources = batchParsedSources;
+        try {
+          verifications.get(i).accept(verifier);
+        } catch (AssertionError e) {
+          failures.add(String.format("Verification #%d failed: %s", i + 1, e.getMessage()));
+        }
+      }
+    } finally {
+      batchParsedSources.clear();
+    }
+    if (!failures.isEmpty()) {
+      throw new AssertionError(String.format("%d of %d verifications failed:%n%s", failures.size(), verifications.size(), String.join("\n", failures)));
+    }
+  }
+
   private List<JavaFileScanner> checks = null;
   private List<File> classpath = null;
   private List<String> jarsToAdd = new ArrayList<>();
@@ -87,14 +109,14 @@ public class JavaCheckVerifier implements CheckVerifier {
   private List<InputFile> files = null;
   private boolean withoutSemantic = false;
   private boolean isCacheEnabled = false;
-  private Consumer<CompilationUnitTree> compilationUnitModifier = unused -> {
-  };
+  private Consumer<CompilationUnitTree> compilationUnitModifier = null;
 
   @VisibleForTesting
   CacheContext cacheContext = null;
   private ReadCache readCache;
   private WriteCache writeCache;
   private File rootDirectory;
+  private ParsedSourceCache parsedSources = ParsedSourceCache.shared();
 
   private VisitorsBridgeForTests scanFiles(List<JavaFileScanner> visitors) {
     JavaVersion actualVersion = javaVersion == null ? DEFAULT_JAVA_VERSION : javaVersion;
@@ -118,7 +140,12 @@ public class JavaCheckVerifier implements CheckVerifier {
       visitorsBridge.setCacheContext(cacheContext);
       filesToParse = astScanner.scanWithoutParsing(files).get(false);
     }
-    astScanner.scanForTesting(filesToParse, compilationUnitModifier);
+    if (compilationUnitModifier == null) {
+      parsedSources.scan(astScanner, visitorsBridge, sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage(), filesToParse);
+    } else {
+      // modified trees can not be shared with other verifiers
+      astScanner.scanForTesting(filesToParse, compilationUnitModifier);
+    }
 
     return visitorsBridge;
   }
@@ -0,0 +1,202 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.checks.verifier.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.AnalysisProgress;
+import org.sonar.java.ast.JavaAstScanner;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.plugins.java.api.JavaVersion;
+
+/**
+ * Keeps the result of parsing the test sources, so that verifying several checks on the same file, with the same java
+ * version and classpath, parses the file only once.
+ * <p>
+ * The same tree instances being visited by all the verifiers using the cache, a check modifying the trees or keeping
+ * state on them would leak into the following verifications. The cache shared between all the verifiers of the JVM is
+ * then disabled by default, and only enabled by setting {@value #SIZE_PROPERTY} to its number of entries. Batches of
+ * verifications (see {@link JavaCheckVerifier#verifyInBatch}) have their own cache of {@value #BATCH_SIZE} entries,
+ * released at the end of the batch.
+ * </p>
+ * The least recently used entries are evicted first. Trees are visited by one verifier at a time, and the resources used
+ * for their semantic resolution, which are the largest part of an entry, are only released when they are evicted.
+ */
+final class ParsedSourceCache {
+
+  static final String SIZE_PROPERTY = "sonar.java.verifier.parsedSourceCacheSize";
+  static final int DEFAULT_SIZE = 0;
+  static final int BATCH_SIZE = 32;
+
+  private static final ParsedSourceCache SHARED = new ParsedSourceCache(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+
+  private final int maxSize;
+  private final Map<Key, ParsedSource> parsedSources;
+
+  ParsedSourceCache(int maxSize) {
+    this.maxSize = maxSize;
+    this.parsedSources = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, ParsedSource> eldest) {
+        if (size() > ParsedSourceCache.this.maxSize) {
+          eldest.getValue().release();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  static ParsedSourceCache shared() {
+    return SHARED;
+  }
+
+  /**
+   * Same as {@link JavaAstScanner#scan(Iterable)}, but only parses the files which are not already in the cache.
+   */
+  void scan(JavaAstScanner astScanner, VisitorsBridge visitorsBridge, boolean shouldIgnoreUnnamedModuleForSplitPackage,
+    List<InputFile> inputFiles) {
+    if (maxSize <= 0) {
+      astScanner.scan(inputFiles);
+      return;
+    }
+    try {
+      List<InputFile> filesToScan = astScanner.filterModuleInfo(inputFiles).toList();
+      JavaVersion javaVersion = visitorsBridge.getJavaVersion();
+      List<File> classpath = visitorsBridge.getClasspath();
+
+      Map<InputFile, Key> keys = new LinkedHashMap<>();
+      Map<InputFile, ParsedSource> sources = new LinkedHashMap<>();
+      List<InputFile> filesToParse = new ArrayList<>();
+      for (InputFile inputFile : filesToScan) {
+        Key key = key(inputFile, javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage);
+        ParsedSource parsedSource = key == null ? null : get(key);
+        if (parsedSource == null) {
+          filesToParse.add(inputFile);
+        } else {
+          sources.put(inputFile, parsedSource);
+        }
+        keys.put(inputFile, key);
+      }
+
+      if (!filesToParse.isEmpty()) {
+        JParserConfig.Mode.FILE_BY_FILE
+          .create(javaVersion, classpath, shouldIgnoreUnnamedModuleForSplitPackage)
+          .parse(filesToParse, () -> false, new AnalysisProgress(filesToParse.size()),
+            (inputFile, result) -> sources.put(inputFile, put(keys.get(inputFile), new ParsedSource(result))));
+      }
+
+      for (InputFile inputFile : filesToScan) {
+        sources.get(inputFile).scan(astScanner, inputFile);
+      }
+    } finally {
+      astScanner.endOfAnalysis();
+    }
+  }
+
+  /**
+   * Releases all the parsed sources.
+   */
+  void clear() {
+    synchronized (parsedSources) {
+      parsedSources.values().forEach(ParsedSource::release);
+      parsedSources.clear();
+    }
+  }
+
+  int size() {
+    synchronized (parsedSources) {
+      return parsedSources.size();
+    }
+  }
+
+  @CheckForNull
+  private ParsedSource get(Key key) {
+    synchronized (parsedSources) {
+      return parsedSources.get(key);
+    }
+  }
+
+  private ParsedSource put(@CheckForNull Key key, ParsedSource parsedSource) {
+    if (key == null) {
+      return parsedSource;
+    }
+    synchronized (parsedSources) {
+      // another verifier may have parsed the same source in the meantime, keep the first one
+      ParsedSource existing = parsedSources.putIfAbsent(key, parsedSource);
+      if (existing != null) {
+        parsedSource.release();
+        return existing;
+      }
+      return parsedSource;
+    }
+  }
+
+  @CheckForNull
+  private static Key key(InputFile inputFile, JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage) {
+    try {
+      return new Key(inputFile.filename(), inputFile.contents(), javaVersion.effectiveJavaVersionAsString(), javaVersion.arePreviewFeaturesEnabled(),
+        List.copyOf(classpath), shouldIgnoreUnnamedModuleForSplitPackage);
+    } catch (IOException e) {
+      // the parser will report the failure, do not cache it
+      return null;
+    }
+  }
+
+  /**
+   * The parser only depends on the name and content of the file, on the java version and on the classpath.
+   */
+  private record Key(String filename, String contents, String javaVersion, boolean previewFeatures, List<File> classpath,
+    boolean shouldIgnoreUnnamedModuleForSplitPackage) {
+  }
+
+  private static final class ParsedSource {
+    private final JParserConfig.Result result;
+    private Runnable environmentCleaner;
+
+    private ParsedSource(JParserConfig.Result result) {
+      this.result = result;
+      try {
+        this.environmentCleaner = result.get().sema.getEnvironmentCleaner();
+      } catch (Exception e) {
+        // parsing failed, there is no environment to release
+        this.environmentCleaner = null;
+      }
+    }
+
+    synchronized void scan(JavaAstScanner astScanner, InputFile inputFile) {
+      // the environment is kept, so that the semantic of the tree can still be queried when it is visited again
+      astScanner.simpleScan(inputFile, result, ast -> {
+      });
+    }
+
+    synchronized void release() {
+      if (environmentCleaner != null) {
+        environmentCleaner.run();
+        environmentCleaner = null;
+      }
+    }
+  }
+
+}
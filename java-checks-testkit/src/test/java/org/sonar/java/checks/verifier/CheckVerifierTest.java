@@ -23,6 +23,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import org.junit.jupiter.api.Test;
 import org.sonar.api.batch.fs.InputFile;
@@ -32,6 +33,7 @@ import org.sonar.java.model.statement.ReturnStatementTreeImpl;
 import org.sonar.java.reporting.AnalyzerMessage;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -89,6 +91,37 @@ class CheckVerifierTest {
       .hasMessageContaining("ERROR: Expect 9 issues instead of 10. In file (CommonsJavaCheckVerifier.java:7)");
   }
 
+  @Test
+  void verify_in_batch() {
+    List<CompilationUnitTree> trees = new ArrayList<>();
+    CheckVerifier.verifyInBatch(List.of(
+      verifier -> verifier.onFile(FILENAME_ISSUES_JAVA_CHECK_VERIFIER)
+        .withCheck(new FakeVisitor().withDefaultIssuesForJavaCheckVerifier().collectingTreesIn(trees))
+        .verifyIssues(),
+      verifier -> verifier.onFile(FILENAME_ISSUES_JAVA_CHECK_VERIFIER)
+        .withCheck(new FakeVisitor().collectingTreesIn(trees))
+        .verifyNoIssues()));
+
+    // the file is parsed only once for the two verifications
+    assertThat(trees).hasSize(2);
+    assertThat(trees.get(1)).isSameAs(trees.get(0));
+  }
+
+  @Test
+  void verify_in_batch_reports_all_failures() {
+    List<Consumer<CheckVerifier>> verifications = List.of(
+      verifier -> verifier.onFile(FILENAME_ISSUES_JAVA_CHECK_VERIFIER).withCheck(new FakeVisitor().withDefaultIssuesForJavaCheckVerifier()).verifyNoIssues(),
+      verifier -> verifier.onFile(FILENAME_ISSUES_JAVA_CHECK_VERIFIER).withCheck(new FakeVisitor().withDefaultIssuesForJavaCheckVerifier()).verifyIssues(),
+      verifier -> verifier.onFile(FILENAME_NO_ISSUE).withCheck(new FakeVisitor().withIssue(1, "message")).verifyNoIssues());
+
+    assertThatThrownBy(() -> CheckVerifier.verifyInBatch(verifications))
+      .isInstanceOf(AssertionError.class)
+      .hasMessageStartingWith("2 of 3 verifications failed:")
+      .hasMessageContaining("Verification #1 failed: ")
+      .hasMessageNotContaining("Verification #2 failed: ")
+      .hasMessageContaining("Verification #3 failed: ");
+  }
+
   @Test
   void verify_combined_missing_expected_and_unexpected_issues() {
     IssuableSubscriptionVisitor visitor = new FakeVisitor().withDefaultIssues().withIssue(4, "extra message").withoutIssue(1);
@@ -489,6 +522,7 @@ class CheckVerifierTest {
     private static final InputFile FAKE_INPUT_FILE = TestUtils.emptyInputFile("a");
     private static final InputFile OTHER_FAKE_INPUT_FILE = TestUtils.emptyInputFile("f");
     private AnalyzerMessage issueWithFlow;
+    private List<CompilationUnitTree> visitedTrees = new ArrayList<>();
 
     private FakeVisitor withDefaultIssuesForJavaCheckVerifier() {
       AnalyzerMessage withMultipleLocation = new AnalyzerMessage(this, FAKE_INPUT_FILE, new AnalyzerMessage.TextSpan(19, 24, 19, 30), "message12", 0);
@@ -583,6 +617,11 @@ class CheckVerifierTest {
       return this;
     }
 
+    private FakeVisitor collectingTreesIn(List<CompilationUnitTree> visitedTrees) {
+      this.visitedTrees = visitedTrees;
+      return this;
+    }
+
     private FakeVisitor add() {
       // flows are in reverse order the same way as real checks report in reverse order
       issueWithFlow.flows.forEach(Collections::reverse);
@@ -599,6 +638,7 @@ class CheckVerifierTest {
     @Override
     public void setContext(JavaFileScannerContext context) {
       super.setContext(context);
+      visitedTrees.add(context.getTree());
       for (Integer line : issues.keySet()) {
         for (String message : issues.get(line)) {
           addIssue(line, message);
@@ -0,0 +1,157 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.checks.verifier.internal;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.SonarComponents;
+import org.sonar.java.ast.JavaAstScanner;
+import org.sonar.java.model.JavaVersionImpl;
+import org.sonar.java.telemetry.NoOpTelemetry;
+import org.sonar.java.telemetry.TelemetryKey;
+import org.sonar.java.testing.VisitorsBridgeForTests;
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.java.checks.verifier.internal.CheckVerifierTestUtils.TEST_FILE;
+import static org.sonar.java.checks.verifier.internal.CheckVerifierTestUtils.TEST_FILE_2;
+import static org.sonar.java.checks.verifier.internal.CheckVerifierTestUtils.TEST_FILE_PARSE_ERROR;
+
+class ParsedSourceCacheTest {
+
+  private static final List<File> NO_CLASSPATH = Collections.emptyList();
+
+  @Test
+  void parsed_sources_are_reused() {
+    ParsedSourceCache cache = new ParsedSourceCache(10);
+
+    List<CompilationUnitTree> first = scan(cache, 17, NO_CLASSPATH, TEST_FILE, TEST_FILE_2);
+    List<CompilationUnitTree> second = scan(cache, 17, NO_CLASSPATH, TEST_FILE_2, TEST_FILE);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(second).hasSize(2);
+    assertThat(second.get(0)).isSameAs(first.get(1));
+    assertThat(second.get(1)).isSameAs(first.get(0));
+  }
+
+  @Test
+  void sources_are_parsed_again_for_another_java_version_or_classpath() {
+    ParsedSourceCache cache = new ParsedSourceCache(10);
+
+    CompilationUnitTree tree = scan(cache, 17, NO_CLASSPATH, TEST_FILE).get(0);
+
+    assertThat(scan(cache, 21, NO_CLASSPATH, TEST_FILE).get(0)).isNotSameAs(tree);
+    assertThat(scan(cache, 17, Collections.singletonList(new File("target/classes")), TEST_FILE).get(0)).isNotSameAs(tree);
+    assertThat(scan(cache, 17, NO_CLASSPATH, TEST_FILE).get(0)).isSameAs(tree);
+    assertThat(cache.size()).isEqualTo(3);
+  }
+
+  @Test
+  void least_recently_used_sources_are_evicted() {
+    ParsedSourceCache cache = new ParsedSourceCache(1);
+
+    CompilationUnitTree tree = scan(cache, 17, NO_CLASSPATH, TEST_FILE).get(0);
+    assertThat(scan(cache, 17, NO_CLASSPATH, TEST_FILE).get(0)).isSameAs(tree);
+
+    scan(cache, 17, NO_CLASSPATH, TEST_FILE_2);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(scan(cache, 17, NO_CLASSPATH, TEST_FILE).get(0)).isNotSameAs(tree);
+  }
+
+  @Test
+  void cache_can_be_disabled() {
+    ParsedSourceCache cache = new ParsedSourceCache(0);
+
+    CompilationUnitTree tree = scan(cache, 17, NO_CLASSPATH, TEST_FILE).get(0);
+
+    assertThat(scan(cache, 17, NO_CLASSPATH, TEST_FILE).get(0)).isNotSameAs(tree);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void parsing_failures_are_cached_and_reported_each_time() {
+    ParsedSourceCache cache = new ParsedSourceCache(10);
+
+    assertThat(scanContexts(cache, TEST_FILE_PARSE_ERROR)).isEqualTo(1);
+    assertThat(scanContexts(cache, TEST_FILE_PARSE_ERROR)).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void clear_releases_all_parsed_sources() {
+    ParsedSourceCache cache = new ParsedSourceCache(10);
+    scan(cache, 17, NO_CLASSPATH, TEST_FILE, TEST_FILE_2);
+
+    cache.clear();
+
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void shared_cache_is_disabled_by_default() {
+    assertThat(ParsedSourceCache.shared()).isSameAs(ParsedSourceCache.shared());
+    assertThat(System.getProperty(ParsedSourceCache.SIZE_PROPERTY)).isNull();
+
+    CompilationUnitTree tree = scan(ParsedSourceCache.shared(), 17, NO_CLASSPATH, TEST_FILE).get(0);
+
+    assertThat(scan(ParsedSourceCache.shared(), 17, NO_CLASSPATH, TEST_FILE).get(0)).isNotSameAs(tree);
+    assertThat(ParsedSourceCache.shared().size()).isZero();
+  }
+
+  private static List<CompilationUnitTree> scan(ParsedSourceCache cache, int javaVersion, List<File> classpath, String... files) {
+    TreeCollector collector = new TreeCollector();
+    VisitorsBridgeForTests visitorsBridge = new VisitorsBridgeForTests.Builder(collector)
+      .withJavaVersion(new JavaVersionImpl(javaVersion))
+      .enableSemanticWithProjectClasspath(classpath)
+      .build();
+    JavaAstScanner astScanner = new JavaAstScanner(null, new NoOpTelemetry(), TelemetryKey.JAVA_ANALYSIS_MAIN);
+    astScanner.setVisitorBridge(visitorsBridge);
+    cache.scan(astScanner, visitorsBridge, false, inputFiles(files));
+    return collector.trees;
+  }
+
+  private static int scanContexts(ParsedSourceCache cache, String file) {
+    VisitorsBridgeForTests visitorsBridge = new VisitorsBridgeForTests.Builder(new TreeCollector()).build();
+    JavaAstScanner astScanner = new JavaAstScanner((SonarComponents) null, new NoOpTelemetry(), TelemetryKey.JAVA_ANALYSIS_MAIN);
+    astScanner.setVisitorBridge(visitorsBridge);
+    cache.scan(astScanner, visitorsBridge, false, inputFiles(file));
+    return visitorsBridge.testContexts().size();
+  }
+
+  private static List<InputFile> inputFiles(String... files) {
+    return Arrays.stream(files)
+      .map(file -> InternalInputFile.inputFile("", new File(file)))
+      .toList();
+  }
+
+  private static class TreeCollector implements JavaFileScanner {
+    private final List<CompilationUnitTree> trees = new ArrayList<>();
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      trees.add(context.getTree());
+    }
+  }
+
+}
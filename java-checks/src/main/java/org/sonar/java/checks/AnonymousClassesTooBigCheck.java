@@ -18,7 +18,7 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
-import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
+import org.sonar.java.metrics.MetricsScannerContext;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
@@ -68,7 +68,7 @@ public class AnonymousClassesTooBigCheck extends BaseTreeVisitor implements Java
     super.visitEnumConstant(tree);
   }
 
-  private static int getNumberOfLines(Tree tree) {
-    return new LinesOfCodeVisitor().linesOfCode(tree);
+  private int getNumberOfLines(Tree tree) {
+    return ((MetricsScannerContext) context).getMetricsComputer().getLinesOfCode(tree);
   }
 }
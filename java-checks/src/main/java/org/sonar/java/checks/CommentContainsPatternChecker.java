@@ -16,10 +16,8 @@
  */
 package org.sonar.java.checks;
 
-import org.apache.commons.lang3.Strings;
-import org.sonar.java.model.LineUtils;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
-import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
 
 public class CommentContainsPatternChecker {
 
@@ -33,25 +31,12 @@ public class CommentContainsPatternChecker {
     this.message = message;
   }
 
-  private static boolean isLetterAround(String line, String pattern) {
-    int start = Strings.CI.indexOf(line, pattern);
-    int end = start + pattern.length();
-
-    boolean pre = start > 0 && Character.isLetter(line.charAt(start - 1));
-    boolean post = end < line.length() && Character.isLetter(line.charAt(end));
-
-    return pre || post;
-  }
-
-  public void checkTrivia(SyntaxTrivia syntaxTrivia) {
-    String comment = syntaxTrivia.comment();
-    if (Strings.CI.contains(comment, pattern)) {
-      String[] lines = comment.split("\r\n?|\n");
-      for (int i = 0; i < lines.length; i++) {
-        if (Strings.CI.contains(lines[i], pattern) && !isLetterAround(lines[i], pattern)) {
-          newCheck.addIssue(LineUtils.startLine(syntaxTrivia) + i, message);
-        }
-      }
+  /**
+   * Reports an issue on every comment line containing the pattern, ignoring case, when the pattern is not part of a word.
+   */
+  public void checkFile(JavaFileScannerContext context) {
+    for (int line : context.getFileTextIndex().commentLinesWithTag(pattern)) {
+      newCheck.addIssue(line, message);
     }
   }
 }
@@ -23,9 +23,9 @@ import javax.annotation.Nullable;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.java.IllegalRuleParameterException;
-import org.sonar.java.model.LineUtils;
+import org.sonar.plugins.java.api.FileTextIndex;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
-import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.Tree;
 
 @Rule(key = "S124")
@@ -51,11 +51,18 @@ public class CommentRegularExpressionCheck extends IssuableSubscriptionVisitor {
 
   @Override
   public List<Tree.Kind> nodesToVisit() {
-    return Collections.singletonList(Tree.Kind.TRIVIA);
+    return Collections.emptyList();
   }
 
   @Override
-  public void visitTrivia(SyntaxTrivia syntaxTrivia) {
+  public void setContext(JavaFileScannerContext context) {
+    super.setContext(context);
+    for (FileTextIndex.Comment comment : context.getFileTextIndex().comments()) {
+      checkComment(comment);
+    }
+  }
+
+  private void checkComment(FileTextIndex.Comment comment) {
     if (pattern == null && !isNullOrEmpty(regularExpression)) {
       try {
         pattern = Pattern.compile(regularExpression, Pattern.DOTALL);
@@ -63,8 +70,8 @@ public class CommentRegularExpressionCheck extends IssuableSubscriptionVisitor {
         throw new IllegalRuleParameterException("Unable to compile regular expression: " + regularExpression, e);
       }
     }
-    if (pattern != null && pattern.matcher(syntaxTrivia.comment()).matches()) {
-      addIssue(LineUtils.startLine(syntaxTrivia), message);
+    if (pattern != null && pattern.matcher(comment.trivia().comment()).matches()) {
+      addIssue(comment.startLine(), message);
     }
   }
 
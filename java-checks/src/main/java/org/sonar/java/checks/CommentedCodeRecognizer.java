@@ -0,0 +1,211 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.checks;
+
+import org.sonar.java.annotations.VisibleForTesting;
+import org.sonarsource.analyzer.commons.recognizers.CodeRecognizer;
+
+import static org.sonar.java.checks.JavaFootprint.BRACES;
+import static org.sonar.java.checks.JavaFootprint.BRACE_AT_END_PROBABILITY;
+import static org.sonar.java.checks.JavaFootprint.CAMEL_CASE_PROBABILITY;
+import static org.sonar.java.checks.JavaFootprint.CODE_FRAGMENT_PROBABILITY;
+import static org.sonar.java.checks.JavaFootprint.KEYWORDS;
+import static org.sonar.java.checks.JavaFootprint.KEYWORD_PROBABILITY;
+import static org.sonar.java.checks.JavaFootprint.OPERATORS;
+import static org.sonar.java.checks.JavaFootprint.OPERATOR_PROBABILITY;
+import static org.sonar.java.checks.JavaFootprint.SEMICOLON_AT_END_PROBABILITY;
+
+/**
+ * Recognizes lines of code in comments with the same result as a {@link CodeRecognizer} using the {@link JavaFootprint},
+ * but rejects obvious prose without running the detectors of the footprint.
+ * <p>
+ * The probability computed by the code recognizer is {@code 1 - Π (1 - p) ^ n} over the detectors of the footprint, where
+ * {@code p} is the probability of a detector and {@code n} the number of matches it found in the line: it only grows with
+ * the number of matches. In a single pass over the characters, this class counts exactly the matches of the end-of-line,
+ * camel case and keywords detectors (the keywords and operators being looked up in a trie, without creating the tokens),
+ * and bounds the matches of the code fragments detector. When the probability computed from those counts does not reach
+ * the threshold, the line cannot be code. Otherwise, the code recognizer is called to get the exact answer.
+ * <p>
+ * The same counts computed on a whole comment bound the counts of every of its lines, {@link #mayContainCode(String)} uses
+ * them to skip the comments whose lines are all prose.
+ * <p>
+ * Only used by {@link CommentedOutCodeLineCheck}, this class is not an API: it is public to be benchmarked from another package.
+ */
+@VisibleForTesting
+public final class CommentedCodeRecognizer {
+
+  /**
+   * Margin kept when rejecting a line, the order of the multiplications may not be the one of the code recognizer.
+   */
+  private static final double EPSILON = 1e-9;
+
+  private static final int KEYWORD = 1;
+  private static final int OPERATOR = 2;
+  private static final int ALPHABET_SIZE = 128;
+  private static final int[][] TRIE_CHILDREN;
+  private static final int[] TRIE_MATCH;
+
+  static {
+    int nodeCount = 1;
+    for (String keyword : KEYWORDS) {
+      nodeCount += keyword.length();
+    }
+    for (String operator : OPERATORS) {
+      nodeCount += operator.length();
+    }
+    TRIE_CHILDREN = new int[nodeCount][];
+    TRIE_MATCH = new int[nodeCount];
+    int[] size = {1};
+    for (String keyword : KEYWORDS) {
+      addToTrie(keyword, KEYWORD, size);
+    }
+    for (String operator : OPERATORS) {
+      addToTrie(operator, OPERATOR, size);
+    }
+  }
+
+  private final double threshold;
+  private final CodeRecognizer codeRecognizer;
+
+  @VisibleForTesting
+  public CommentedCodeRecognizer(double threshold) {
+    this.threshold = threshold;
+    this.codeRecognizer = new CodeRecognizer(threshold, new JavaFootprint());
+  }
+
+  /**
+   * Same result as {@link CodeRecognizer#isLineOfCode(String)}.
+   */
+  @VisibleForTesting
+  public boolean isLineOfCode(String line) {
+    return mayReachThreshold(line, false) && codeRecognizer.isLineOfCode(line);
+  }
+
+  /**
+   * Returns false when none of the lines of the given comment, split on line terminators, is a line of code.
+   */
+  @VisibleForTesting
+  public boolean mayContainCode(String comment) {
+    return mayReachThreshold(comment, true);
+  }
+
+  private boolean mayReachThreshold(String text, boolean multiline) {
+    int keywords = 0;
+    int operators = 0;
+    // every code fragment of the footprint ends with '(' or '{', or starts with "System": counting those characters
+    // bounds the number of fragments, even when the detector removes the whitespaces of the line before looking for them
+    int fragments = 0;
+    boolean camelCase = false;
+    boolean braceAtEnd = false;
+    boolean semicolonAtEnd = false;
+    char lastSignificant = 0;
+
+    int node = 0;
+    char previous = ' ';
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (isTokenDelimiter(c) || (multiline && (c == '\n' || c == '\r'))) {
+        keywords += matches(node, KEYWORD);
+        operators += matches(node, OPERATOR);
+        node = 0;
+      } else {
+        node = next(node, c);
+      }
+      if (c == '(' || c == '{' || c == 'S') {
+        fragments++;
+      }
+      if (!camelCase && isLowerCaseThenUpperCase(previous, c)) {
+        camelCase = true;
+      }
+      if (!Character.isWhitespace(c) && c != '*' && c != '/') {
+        lastSignificant = c;
+        if (multiline) {
+          braceAtEnd |= isBrace(c);
+          semicolonAtEnd |= c == ';';
+        }
+      }
+      previous = c;
+    }
+    keywords += matches(node, KEYWORD);
+    operators += matches(node, OPERATOR);
+    if (!multiline) {
+      braceAtEnd = isBrace(lastSignificant);
+      semicolonAtEnd = lastSignificant == ';';
+    }
+
+    double notCode = Math.pow(1 - KEYWORD_PROBABILITY, keywords)
+      * Math.pow(1 - OPERATOR_PROBABILITY, operators)
+      * Math.pow(1 - CODE_FRAGMENT_PROBABILITY, fragments)
+      * (camelCase ? (1 - CAMEL_CASE_PROBABILITY) : 1)
+      * (braceAtEnd ? (1 - BRACE_AT_END_PROBABILITY) : 1)
+      * (semicolonAtEnd ? (1 - SEMICOLON_AT_END_PROBABILITY) : 1);
+    return 1 - notCode > threshold - EPSILON;
+  }
+
+  private static void addToTrie(String word, int match, int[] size) {
+    int node = 0;
+    for (int i = 0; i < word.length(); i++) {
+      char c = word.charAt(i);
+      if (TRIE_CHILDREN[node] == null) {
+        TRIE_CHILDREN[node] = new int[ALPHABET_SIZE];
+      }
+      if (TRIE_CHILDREN[node][c] == 0) {
+        TRIE_CHILDREN[node][c] = size[0];
+        size[0]++;
+      }
+      node = TRIE_CHILDREN[node][c];
+    }
+    TRIE_MATCH[node] = match;
+  }
+
+  /**
+   * Node of the trie reached from the given node with the given character, or -1 when the token being read is not a
+   * prefix of a keyword or operator. The root, 0, is never the child of a node.
+   */
+  private static int next(int node, char c) {
+    if (node < 0 || c >= ALPHABET_SIZE || TRIE_CHILDREN[node] == null) {
+      return -1;
+    }
+    int child = TRIE_CHILDREN[node][c];
+    return child == 0 ? -1 : child;
+  }
+
+  private static int matches(int node, int match) {
+    return node >= 0 && TRIE_MATCH[node] == match ? 1 : 0;
+  }
+
+  /**
+   * Same delimiters as the keywords detectors.
+   */
+  private static boolean isTokenDelimiter(char c) {
+    return c == ' ' || c == '\t' || c == '(' || c == ')' || c == ',' || c == '{' || c == '}';
+  }
+
+  private static boolean isBrace(char c) {
+    for (char brace : BRACES) {
+      if (c == brace) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isLowerCaseThenUpperCase(char previous, char c) {
+    return Character.getType(previous) == Character.LOWERCASE_LETTER && Character.getType(c) == Character.UPPERCASE_LETTER;
+  }
+
+}
@@ -35,7 +35,6 @@ import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia.CommentKind;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonarsource.analyzer.commons.annotations.DeprecatedRuleKey;
-import org.sonarsource.analyzer.commons.recognizers.CodeRecognizer;
 
 @DeprecatedRuleKey(ruleKey = "CommentedOutCodeLine", repositoryKey = "squid")
 @Rule(key = "S125")
@@ -46,12 +45,12 @@ public class CommentedOutCodeLineCheck extends IssuableSubscriptionVisitor {
   private static final String END_JSNI = "}-*/";
   private static final String MESSAGE = "This block of commented-out lines of code should be removed.";
 
-  private final CodeRecognizer codeRecognizer;
+  private final CommentedCodeRecognizer codeRecognizer;
   private static final Position FILE_START = Position.at(Position.FIRST_LINE, Position.FIRST_COLUMN);
   private Position compilationUnitFirstTokenPosition = FILE_START;
 
   public CommentedOutCodeLineCheck() {
-    codeRecognizer = new CodeRecognizer(THRESHOLD, new JavaFootprint());
+    codeRecognizer = new CommentedCodeRecognizer(THRESHOLD);
   }
 
   @Override
@@ -86,8 +85,12 @@ public class CommentedOutCodeLineCheck extends IssuableSubscriptionVisitor {
         previousRelatedIssue = null;
       }
       boolean isJavadocOrMarkdownComment = syntaxTrivia.isComment(CommentKind.JAVADOC, CommentKind.MARKDOWN);
-      if (!isHeader(syntaxTrivia) && !isJavadocOrMarkdownComment && !isJSNI(syntaxTrivia.comment())) {
-        previousRelatedIssue = collectIssues(issues, syntaxTrivia, previousRelatedIssue);
+      String comment = syntaxTrivia.comment();
+      if (!isHeader(syntaxTrivia) && !isJavadocOrMarkdownComment && !isJSNI(comment)) {
+        // a comment without any line of code would not change the issue its following comments are related to
+        if (codeRecognizer.mayContainCode(comment)) {
+          previousRelatedIssue = collectIssues(issues, syntaxTrivia, previousRelatedIssue);
+        }
         previousCommentLine = currentCommentLine;
       }
     }
@@ -96,10 +99,10 @@ public class CommentedOutCodeLineCheck extends IssuableSubscriptionVisitor {
   }
 
   public AnalyzerMessage collectIssues(List<AnalyzerMessage> issues, SyntaxTrivia syntaxTrivia, @Nullable AnalyzerMessage previousRelatedIssue) {
-    String[] lines = syntaxTrivia.comment().split("\r\n?|\n");
+    List<String> lines = LineUtils.splitLines(syntaxTrivia.comment());
     AnalyzerMessage issue = previousRelatedIssue;
-    for (int lineOffset = 0; lineOffset < lines.length; lineOffset++) {
-      String line = lines[lineOffset];
+    for (int lineOffset = 0; lineOffset < lines.size(); lineOffset++) {
+      String line = lines.get(lineOffset);
       if (!isJavadocLink(line) && codeRecognizer.isLineOfCode(line)) {
         int startLine = LineUtils.startLine(syntaxTrivia) + lineOffset;
         int startColumnOffset = (lineOffset == 0 ? Position.startOf(syntaxTrivia).columnOffset() : 0);
@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.Set;
 import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.DataFlowComputer;
+import org.sonar.java.cfg.DataFlowScannerContext;
 import org.sonar.java.cfg.LiveVariables;
 import org.sonar.java.cfg.VariableReadExtractor;
 import org.sonar.java.checks.helpers.UnresolvedIdentifiersVisitor;
@@ -73,8 +75,9 @@ public class DeadStoreCheck extends IssuableSubscriptionVisitor {
     UNRESOLVED_IDENTIFIERS_VISITOR.check(methodTree);
 
     Symbol.MethodSymbol methodSymbol = methodTree.symbol();
-    CFG cfg = (CFG) methodTree.cfg();
-    LiveVariables liveVariables = LiveVariables.analyze(cfg);
+    DataFlowComputer dataFlowComputer = ((DataFlowScannerContext) context).getDataFlowComputer();
+    CFG cfg = dataFlowComputer.methodCFG(methodTree);
+    LiveVariables liveVariables = dataFlowComputer.liveVariables(cfg);
     // Liveness analysis provides information only for block boundaries, so we should do analysis between elements within blocks
     for (CFG.Block block : cfg.blocks()) {
       checkElements(block, liveVariables.getOut(block), methodSymbol);
@@ -25,7 +25,6 @@ import org.sonar.check.RuleProperty;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.semantic.Type;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.NewClassTree;
@@ -74,15 +73,12 @@ public class DepthOfInheritanceTreeCheck extends BaseTreeVisitor implements Java
   @Override
   public void visitClass(ClassTree tree) {
     if (!isBodyOfEnumConstantTree(tree)) {
-      Type superClass = tree.symbol().superClass();
       int dit = 0;
-      while (superClass != null) {
-        String fullyQualifiedName = superClass.fullyQualifiedName();
+      for (String fullyQualifiedName : context.getTypeHierarchy().superClasses(tree.symbol().type())) {
         if (getPatterns().stream().anyMatch(pattern -> pattern.match(fullyQualifiedName))) {
           break;
         }
         dit++;
-        superClass = superClass.symbol().superClass();
       }
       if (dit > max) {
         Tree reportTree = tree.simpleName();
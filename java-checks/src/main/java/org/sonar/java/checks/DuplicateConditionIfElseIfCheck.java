@@ -44,11 +44,12 @@ public class DuplicateConditionIfElseIfCheck extends BaseTreeVisitor implements
   @Override
   public void visitIfStatement(IfStatementTree tree) {
     ExpressionTree condition = tree.condition();
+    int conditionHash = triviallyEquivalentHash(condition);
 
     StatementTree statement = tree.elseStatement();
     while (statement != null && statement.is(Tree.Kind.IF_STATEMENT)) {
       IfStatementTree ifStatement = (IfStatementTree) statement;
-      if (areTriviallyEquivalent(condition, ifStatement.condition())) {
+      if (conditionHash == triviallyEquivalentHash(ifStatement.condition()) && areTriviallyEquivalent(condition, ifStatement.condition())) {
         context.reportIssue(
           this,
           ifStatement.condition(),
@@ -79,4 +80,16 @@ public class DuplicateConditionIfElseIfCheck extends BaseTreeVisitor implements
     return SyntacticEquivalence.areEquivalent(cleanCondition1, cleanCondition2);
   }
 
+  /**
+   * Hash consistent with {@link #areTriviallyEquivalent(ExpressionTree, ExpressionTree)}, symmetric for the operands of "==".
+   */
+  private static int triviallyEquivalentHash(ExpressionTree condition) {
+    ExpressionTree cleanCondition = ExpressionUtils.skipParentheses(condition);
+    if (cleanCondition.is(Tree.Kind.EQUAL_TO)) {
+      BinaryExpressionTree binary = (BinaryExpressionTree) cleanCondition;
+      return Tree.Kind.EQUAL_TO.ordinal() + triviallyEquivalentHash(binary.leftOperand()) + triviallyEquivalentHash(binary.rightOperand());
+    }
+    return SyntacticEquivalence.syntacticHash(cleanCondition);
+  }
+
 }
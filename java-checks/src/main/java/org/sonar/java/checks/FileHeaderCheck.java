@@ -18,12 +18,12 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
+import org.sonar.plugins.java.api.FileTextIndex;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.Tree;
 
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -88,7 +88,7 @@ public class FileHeaderCheck extends IssuableSubscriptionVisitor {
   }
 
   private void checkExpectedLines(String[] expectedLines) {
-    if (!matches(expectedLines, context.getFileLines())) {
+    if (!matches(expectedLines, context.getFileContent(), context.getFileTextIndex())) {
       addIssueOnFile(MESSAGE);
     }
   }
@@ -100,25 +100,19 @@ public class FileHeaderCheck extends IssuableSubscriptionVisitor {
     }
   }
 
-  private static boolean matches(String[] expectedLines, List<String> lines) {
-    boolean result;
-
-    if (expectedLines.length <= lines.size()) {
-      result = true;
-
-      Iterator<String> it = lines.iterator();
-      for (String expectedLine : expectedLines) {
-        String line = it.next();
-        if (!line.equals(expectedLine)) {
-          result = false;
-          break;
-        }
+  private static boolean matches(String[] expectedLines, String content, FileTextIndex textIndex) {
+    if (expectedLines.length > textIndex.lineCount()) {
+      return false;
+    }
+    for (int i = 0; i < expectedLines.length; i++) {
+      String expectedLine = expectedLines[i];
+      int line = i + 1;
+      if (textIndex.lineLength(line) != expectedLine.length()
+        || !content.regionMatches(textIndex.lineStartOffset(line), expectedLine, 0, expectedLine.length())) {
+        return false;
       }
-    } else {
-      result = false;
     }
-
-    return result;
+    return true;
   }
 
 }
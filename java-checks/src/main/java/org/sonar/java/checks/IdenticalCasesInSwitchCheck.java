@@ -82,6 +82,8 @@ public class IdenticalCasesInSwitchCheck extends IssuableSubscriptionVisitor {
     Map<CaseGroupTree, Set<CaseGroupTree>> identicalBranches = new HashMap<>();
     int index = 0;
     List<CaseGroupTree> cases = node.cases();
+    // bodies with different hashes are not equivalent, so there is no need to compare them
+    int[] hashes = cases.stream().mapToInt(caseGroupTree -> SyntacticEquivalence.syntacticHash(caseGroupTree.body())).toArray();
     Set<CaseGroupTree> duplicates = new HashSet<>();
     for (CaseGroupTree caseGroupTree : cases) {
       index++;
@@ -90,7 +92,7 @@ public class IdenticalCasesInSwitchCheck extends IssuableSubscriptionVisitor {
       }
       for (int i = index; i < cases.size(); i++) {
         CaseGroupTree caseI = cases.get(i);
-        if (SyntacticEquivalence.areEquivalent(caseGroupTree.body(), caseI.body())) {
+        if (hashes[index - 1] == hashes[i] && SyntacticEquivalence.areEquivalent(caseGroupTree.body(), caseI.body())) {
           duplicates.add(caseI);
           identicalBranches.computeIfAbsent(caseGroupTree, k -> new HashSet<>()).add(caseI);
         }
@@ -123,6 +125,7 @@ public class IdenticalCasesInSwitchCheck extends IssuableSubscriptionVisitor {
 
   private static IfElseChain collectIdenticalBranches(List<StatementTree> allBranches) {
     IfElseChain ifElseChain = new IfElseChain();
+    int[] hashes = allBranches.stream().mapToInt(SyntacticEquivalence::syntacticHashIncludingSameVariables).toArray();
     Set<StatementTree> duplicates = new HashSet<>();
     for (int i = 0; i < allBranches.size(); i++) {
       if (duplicates.contains(allBranches.get(i))) {
@@ -131,7 +134,7 @@ public class IdenticalCasesInSwitchCheck extends IssuableSubscriptionVisitor {
       for (int j = i + 1; j < allBranches.size(); j++) {
         StatementTree statement1 = allBranches.get(i);
         StatementTree statement2 = allBranches.get(j);
-        if (SyntacticEquivalence.areEquivalentIncludingSameVariables(statement1, statement2)) {
+        if (hashes[i] == hashes[j] && SyntacticEquivalence.areEquivalentIncludingSameVariables(statement1, statement2)) {
           duplicates.add(statement2);
           ifElseChain.branches.computeIfAbsent(statement1, k -> new HashSet<>()).add(statement2);
         }
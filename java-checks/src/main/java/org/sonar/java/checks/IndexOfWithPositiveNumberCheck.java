@@ -18,6 +18,7 @@ package org.sonar.java.checks;
 
 import java.util.Arrays;
 import java.util.List;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.check.Rule;
 import org.sonar.java.checks.helpers.ReassignmentFinder;
@@ -58,24 +59,30 @@ public class IndexOfWithPositiveNumberCheck extends IssuableSubscriptionVisitor
   public void visitNode(Tree tree) {
     BinaryExpressionTree binaryTree = (BinaryExpressionTree) tree;
     if (tree.is(Tree.Kind.GREATER_THAN)) {
-      checkForIssue(tree, binaryTree.leftOperand(),
-        LiteralUtils.longLiteralValue(retrieveClosestAssignmentIfAny(binaryTree.rightOperand())));
+      checkForIssue(tree, binaryTree.leftOperand(), longValue(binaryTree.rightOperand()));
     } else {
-      checkForIssue(tree, binaryTree.rightOperand(),
-        LiteralUtils.longLiteralValue(retrieveClosestAssignmentIfAny(binaryTree.leftOperand())));
+      checkForIssue(tree, binaryTree.rightOperand(), longValue(binaryTree.leftOperand()));
     }
   }
 
-  private static ExpressionTree retrieveClosestAssignmentIfAny(ExpressionTree expression) {
+  @CheckForNull
+  private static Long longValue(ExpressionTree expression) {
     if (expression.is(Tree.Kind.IDENTIFIER)) {
       IdentifierTree identifier = (IdentifierTree) expression;
+      if (ReassignmentFinder.getReachingDefinitions(identifier).isPresent()) {
+        // local variable: only report when all the paths leading to the comparison assign the same value
+        return ReassignmentFinder.getReachingConstantValue(identifier)
+          .filter(value -> value instanceof Integer || value instanceof Long)
+          .map(value -> ((Number) value).longValue())
+          .orElse(null);
+      }
       ExpressionTree reassignmentOrDeclaration = ReassignmentFinder.getClosestReassignmentOrDeclarationExpression(expression,
         identifier.symbol());
       if (reassignmentOrDeclaration != null) {
-        return reassignmentOrDeclaration;
+        return LiteralUtils.longLiteralValue(reassignmentOrDeclaration);
       }
     }
-    return expression;
+    return LiteralUtils.longLiteralValue(expression);
   }
 
   private void checkForIssue(Tree tree, ExpressionTree operand, @Nullable Long constant) {
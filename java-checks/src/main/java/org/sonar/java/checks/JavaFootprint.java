@@ -27,18 +27,29 @@ import org.sonarsource.analyzer.commons.recognizers.LanguageFootprint;
 
 public final class JavaFootprint implements LanguageFootprint {
 
+  static final double BRACE_AT_END_PROBABILITY = 0.95;
+  static final char[] BRACES = {'}', '{'};
+  // add detection of ';' at the end of a line, it is less than a threshold used in the detector to avoid false positives
+  static final double SEMICOLON_AT_END_PROBABILITY = 0.87;
+  static final double OPERATOR_PROBABILITY = 0.7;
+  static final String[] OPERATORS = {"++", "||", "&&"};
+  static final double KEYWORD_PROBABILITY = 0.3;
+  static final String[] KEYWORDS = {"public", "abstract", "class", "implements", "extends", "return", "throw",
+    "private", "protected", "enum", "continue", "assert", "package", "synchronized", "boolean", "this", "double", "instanceof",
+    "final", "interface", "static", "void", "long", "int", "float", "super", "true", "case:"};
+  static final double CODE_FRAGMENT_PROBABILITY = 0.95;
+  static final String[] CODE_FRAGMENTS = {"for(", "if(", "while(", "catch(", "switch(", "try{", "else{", "System.out.print", "System.err.print"};
+  static final double CAMEL_CASE_PROBABILITY = 0.5;
+
   private final Set<Detector> detectors = new HashSet<>();
 
   public JavaFootprint() {
-    detectors.add(new EndWithDetector(0.95, '}', '{'));
-    // add detection of ';' at the end of a line, it is less than a threshold used in the detector to avoid false positives
-    detectors.add(new EndWithDetector(0.87, ';'));
-    detectors.add(new KeywordsDetector(0.7, "++", "||", "&&"));
-    detectors.add(new KeywordsDetector(0.3, "public", "abstract", "class", "implements", "extends", "return", "throw",
-        "private", "protected", "enum", "continue", "assert", "package", "synchronized", "boolean", "this", "double", "instanceof",
-        "final", "interface", "static", "void", "long", "int", "float", "super", "true", "case:"));
-    detectors.add(new ContainsDetector(0.95, "for(", "if(", "while(", "catch(", "switch(", "try{", "else{", "System.out.print", "System.err.print"));
-    detectors.add(new CamelCaseDetector(0.5));
+    detectors.add(new EndWithDetector(BRACE_AT_END_PROBABILITY, BRACES));
+    detectors.add(new EndWithDetector(SEMICOLON_AT_END_PROBABILITY, ';'));
+    detectors.add(new KeywordsDetector(OPERATOR_PROBABILITY, OPERATORS));
+    detectors.add(new KeywordsDetector(KEYWORD_PROBABILITY, KEYWORDS));
+    detectors.add(new ContainsDetector(CODE_FRAGMENT_PROBABILITY, CODE_FRAGMENTS));
+    detectors.add(new CamelCaseDetector(CAMEL_CASE_PROBABILITY));
   }
 
   @Override
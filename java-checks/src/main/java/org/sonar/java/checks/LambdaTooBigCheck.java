@@ -19,7 +19,7 @@ package org.sonar.java.checks;
 import java.util.Collections;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
-import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
+import org.sonar.java.metrics.MetricsScannerContext;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
@@ -58,7 +58,7 @@ public class LambdaTooBigCheck extends BaseTreeVisitor implements JavaFileScanne
     super.visitLambdaExpression(lambdaExpressionTree);
   }
 
-  private static int getNumberOfLines(Tree tree) {
-    return new LinesOfCodeVisitor().linesOfCode(tree);
+  private int getNumberOfLines(Tree tree) {
+    return ((MetricsScannerContext) context).getMetricsComputer().getLinesOfCode(tree);
   }
 }
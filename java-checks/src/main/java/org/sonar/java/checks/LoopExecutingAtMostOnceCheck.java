@@ -21,6 +21,8 @@ import java.util.Arrays;
 import java.util.List;
 import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.DataFlowComputer;
+import org.sonar.java.cfg.DataFlowScannerContext;
 import org.sonar.java.model.ExpressionUtils;
 import org.sonar.java.model.LiteralUtils;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
@@ -138,7 +140,7 @@ public class LoopExecutingAtMostOnceCheck extends IssuableSubscriptionVisitor {
     return false;
   }
 
-  private static boolean executeUnconditionnally(Tree loopTree) {
+  private boolean executeUnconditionnally(Tree loopTree) {
     CFG cfg = getCFG(loopTree);
     CFG.Block loopBlock = getLoopBlock(cfg, loopTree);
     // we cannot find a path in the CFG that goes twice through this instruction.
@@ -215,20 +217,21 @@ public class LoopExecutingAtMostOnceCheck extends IssuableSubscriptionVisitor {
     }
   }
 
-  private static CFG getCFG(Tree loop) {
+  private CFG getCFG(Tree loop) {
     Tree currentTree = loop;
     do {
       currentTree = currentTree.parent();
     } while (!currentTree.is(Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR, Tree.Kind.LAMBDA_EXPRESSION, Tree.Kind.INITIALIZER, Tree.Kind.STATIC_INITIALIZER));
 
+    DataFlowComputer dataFlowComputer = ((DataFlowScannerContext) context).getDataFlowComputer();
     switch(currentTree.kind()) {
       case METHOD,
         CONSTRUCTOR:
-        return (CFG) ((MethodTree) currentTree).cfg();
+        return dataFlowComputer.methodCFG((MethodTree) currentTree);
       case LAMBDA_EXPRESSION:
-        return (CFG) ((LambdaExpressionTree) currentTree).cfg();
+        return dataFlowComputer.lambdaCFG((LambdaExpressionTree) currentTree);
       default:
-        return CFG.buildCFG(((BlockTree) currentTree).body());
+        return dataFlowComputer.blockCFG((BlockTree) currentTree);
     }
   }
 }
@@ -33,9 +33,11 @@ import org.sonar.plugins.java.api.tree.StatementTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -53,15 +55,22 @@ public class MethodIdenticalImplementationsCheck extends IssuableSubscriptionVis
   @Override
   public void visitNode(Tree tree) {
     ClassTree classTree = (ClassTree) tree;
-    List<MethodWithUsedVariables> methods = classTree.members().stream()
-      .filter(member -> member.is(Tree.Kind.METHOD))
-      .map(MethodTree.class::cast)
-      .filter(methodTree -> isDuplicateCandidate(methodTree, classTree))
-      .map(MethodWithUsedVariables::new)
-      .toList();
-    if (methods.size() <= 1) {
-      return;
+    // only methods with bodies having the same syntactic hash can be equivalent, they are compared by buckets
+    Map<Integer, List<MethodTree>> candidatesByHash = new LinkedHashMap<>();
+    for (Tree member : classTree.members()) {
+      if (member.is(Tree.Kind.METHOD) && isDuplicateCandidate((MethodTree) member, classTree)) {
+        MethodTree method = (MethodTree) member;
+        candidatesByHash.computeIfAbsent(SyntacticEquivalence.syntacticHash(method.block().body()), k -> new ArrayList<>()).add(method);
+      }
+    }
+    for (List<MethodTree> candidates : candidatesByHash.values()) {
+      if (candidates.size() > 1) {
+        checkMethods(candidates.stream().map(MethodWithUsedVariables::new).toList());
+      }
     }
+  }
+
+  private void checkMethods(List<MethodWithUsedVariables> methods) {
     Set<MethodTree> reported = new HashSet<>();
     for (int i = 0; i < methods.size(); i++) {
       MethodWithUsedVariables methodWithVariables = methods.get(i);
@@ -18,6 +18,8 @@ package org.sonar.java.checks;
 
 import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.DataFlowComputer;
+import org.sonar.java.cfg.DataFlowScannerContext;
 import org.sonar.java.cfg.LiveVariables;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
@@ -33,7 +35,6 @@ import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -43,10 +44,12 @@ public class ParameterReassignedToCheck extends BaseTreeVisitor implements JavaF
   private final Set<Symbol> variables = new HashSet<>();
 
   private JavaFileScannerContext context;
+  private DataFlowComputer dataFlowComputer;
 
   @Override
   public void scanFile(final JavaFileScannerContext context) {
     this.context = context;
+    this.dataFlowComputer = ((DataFlowScannerContext) context).getDataFlowComputer();
     variables.clear();
     if (context.getSemanticModel() != null) {
       scan(context.getTree());
@@ -59,8 +62,8 @@ public class ParameterReassignedToCheck extends BaseTreeVisitor implements JavaF
     if(block == null) {
       return;
     }
-    CFG cfg = (CFG) tree.cfg();
-    LiveVariables analyze = LiveVariables.analyze(cfg);
+    CFG cfg = dataFlowComputer.methodCFG(tree);
+    LiveVariables analyze = dataFlowComputer.liveVariables(cfg);
     Set<Symbol> live = analyze.getIn(cfg.entryBlock());
     for (VariableTree parameterTree : tree.parameters()) {
       if(!live.contains(parameterTree.symbol())) {
@@ -77,12 +80,11 @@ public class ParameterReassignedToCheck extends BaseTreeVisitor implements JavaF
 
   @Override
   public void visitCatch(CatchTree tree) {
-    CFG cfg = CFG.buildCFG(tree.block().body());
     Symbol variable = tree.parameter().symbol();
     boolean liveVar = true;
     if(variable.owner().isMethodSymbol()) {
-      cfg.setMethodSymbol((Symbol.MethodSymbol) variable.owner());
-      LiveVariables analyze = LiveVariables.analyze(cfg);
+      CFG cfg = dataFlowComputer.blockCFG(tree.block(), (Symbol.MethodSymbol) variable.owner());
+      LiveVariables analyze = dataFlowComputer.liveVariables(cfg);
       Set<Symbol> live = analyze.getIn(cfg.entryBlock());
       liveVar = live.contains(variable);
     }
@@ -97,12 +99,11 @@ public class ParameterReassignedToCheck extends BaseTreeVisitor implements JavaF
 
   @Override
   public void visitForEachStatement(ForEachStatement tree) {
-    CFG cfg = CFG.buildCFG(Collections.singletonList(tree));
     Symbol variable = tree.variable().symbol();
     boolean liveVar = true;
     if(variable.owner().isMethodSymbol()) {
-      cfg.setMethodSymbol((Symbol.MethodSymbol) variable.owner());
-      LiveVariables analyze = LiveVariables.analyze(cfg);
+      CFG cfg = dataFlowComputer.treeCFG(tree, (Symbol.MethodSymbol) variable.owner());
+      LiveVariables analyze = dataFlowComputer.liveVariables(cfg);
       Set<Symbol> live = analyze.getOut(cfg.reversedBlocks().get(1));
       liveVar = live.contains(variable);
     }
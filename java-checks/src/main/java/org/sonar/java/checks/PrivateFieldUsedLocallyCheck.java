@@ -23,6 +23,8 @@ import java.util.Set;
 import javax.annotation.CheckForNull;
 import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.DataFlowComputer;
+import org.sonar.java.cfg.DataFlowScannerContext;
 import org.sonar.java.cfg.LiveVariables;
 import org.sonar.java.checks.helpers.QuickFixHelper;
 import org.sonar.java.model.ExpressionUtils;
@@ -149,9 +151,10 @@ public class PrivateFieldUsedLocallyCheck extends IssuableSubscriptionVisitor {
       .toList();
   }
 
-  private static boolean isLiveInMethodEntry(Symbol privateFieldSymbol, MethodTree methodTree) {
-    CFG cfg = (CFG) methodTree.cfg();
-    LiveVariables liveVariables = LiveVariables.analyzeWithFields(cfg);
+  private boolean isLiveInMethodEntry(Symbol privateFieldSymbol, MethodTree methodTree) {
+    DataFlowComputer dataFlowComputer = ((DataFlowScannerContext) context).getDataFlowComputer();
+    CFG cfg = dataFlowComputer.methodCFG(methodTree);
+    LiveVariables liveVariables = dataFlowComputer.liveVariablesWithFields(cfg);
     return liveVariables.getIn(cfg.entryBlock()).contains(privateFieldSymbol);
   }
 
@@ -23,6 +23,7 @@ import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
 import org.sonar.java.cfg.CFG.Block;
 import org.sonar.java.cfg.CFGUtils;
+import org.sonar.java.cfg.DataFlowScannerContext;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.ReturnStatementTree;
@@ -42,7 +43,7 @@ public class RedundantJumpCheck extends IssuableSubscriptionVisitor {
   public void visitNode(Tree tree) {
     MethodTree methodTree = (MethodTree) tree;
     if (methodTree.block() != null) {
-      CFG cfg = (CFG) methodTree.cfg();
+      CFG cfg = ((DataFlowScannerContext) context).getDataFlowComputer().methodCFG(methodTree);
       cfg.blocks().forEach(this::checkBlock);
     }
   }
@@ -37,12 +37,9 @@ public class TabCharacterCheck extends IssuableSubscriptionVisitor {
   @Override
   public void setContext(JavaFileScannerContext context) {
     super.context = context;
-    List<String> lines = context.getFileLines();
-    for (String line : lines) {
-      if (line.contains("\t")) {
-        addIssueOnFile("Replace all tab characters in this file by sequences of white-spaces.");
-        break;
-      }
+    // lines do not contain line terminators, a tab in the content is a tab in a line
+    if (context.getFileContent().indexOf('\t') >= 0) {
+      addIssueOnFile("Replace all tab characters in this file by sequences of white-spaces.");
     }
   }
 
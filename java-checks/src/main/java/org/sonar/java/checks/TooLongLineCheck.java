@@ -19,6 +19,7 @@ package org.sonar.java.checks;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.java.model.LineUtils;
+import org.sonar.plugins.java.api.FileTextIndex;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
@@ -84,12 +85,15 @@ public class TooLongLineCheck extends IssuableSubscriptionVisitor {
   }
 
   private void visitFile() {
-    List<String> lines = context.getFileLines();
-    for (int i = 0; i < lines.size(); i++) {
-      if (!ignoredLines.contains(i + 1)) {
-        String origLine = lines.get(i);
-        if (origLine.length() > maximumLineLength && removeIgnoredPatterns(origLine).length() > maximumLineLength) {
-          addIssue(i + 1, MessageFormat.format("Split this {0} characters long line (which is greater than {1} authorized).", origLine.length(), maximumLineLength));
+    FileTextIndex textIndex = context.getFileTextIndex();
+    for (int line = 1; line <= textIndex.lineCount(); line++) {
+      int lineLength = textIndex.lineLength(line);
+      // the text of the line is only needed for the few lines which are too long
+      if (lineLength > maximumLineLength && !ignoredLines.contains(line)) {
+        int start = textIndex.lineStartOffset(line);
+        String origLine = context.getFileContent().substring(start, start + lineLength);
+        if (removeIgnoredPatterns(origLine).length() > maximumLineLength) {
+          addIssue(line, MessageFormat.format("Split this {0} characters long line (which is greater than {1} authorized).", lineLength, maximumLineLength));
         }
       }
     }
@@ -18,12 +18,12 @@ package org.sonar.java.checks;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
 import org.sonar.check.Rule;
 import org.sonar.java.cfg.CFG;
+import org.sonar.java.cfg.DataFlowScannerContext;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaVersion;
@@ -108,14 +108,14 @@ public class TryWithResourcesCheck extends IssuableSubscriptionVisitor implement
     }
   }
 
-  private static boolean isFollowedByTryWithFinally(Tree tree) {
+  private boolean isFollowedByTryWithFinally(Tree tree) {
     Tree blockParent = tree.parent();
     while (blockParent != null && !blockParent.is(Tree.Kind.BLOCK)) {
       blockParent = blockParent.parent();
     }
 
     if (blockParent != null) {
-      CFG cfg = CFG.buildCFG(Collections.singletonList(blockParent));
+      CFG cfg = ((DataFlowScannerContext) context).getDataFlowComputer().treeCFG(blockParent);
       if (!cfg.blocks().isEmpty()) {
         return newFollowedByTryStatement(cfg.blocks().get(0));
       }
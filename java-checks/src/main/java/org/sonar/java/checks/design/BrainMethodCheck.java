@@ -16,17 +16,24 @@
  */
 package org.sonar.java.checks.design;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.java.caching.FileSummaries;
 import org.sonar.java.checks.helpers.MethodTreeUtils;
 import org.sonar.java.metrics.MetricsScannerContext;
 import org.sonar.java.model.DefaultModuleScannerContext;
 import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.plugins.java.api.InputFileScannerContext;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.ModuleScannerContext;
 import org.sonar.plugins.java.api.internal.EndOfAnalysis;
 import org.sonar.plugins.java.api.tree.MethodTree;
@@ -73,7 +80,18 @@ public class BrainMethodCheck extends IssuableSubscriptionVisitor implements End
   int numberOfAdditionalIssuesThreshold = 20;
   @VisibleForTesting
   int issuesToReportPercentage = 10;
-  private final List<IssueFound> issuesFound = new ArrayList<>();
+
+  /**
+   * Brain methods of each file of the module, cached with the file so that unchanged files do not have to be parsed again.
+   */
+  private final FileSummaries<FileSummary> summaries = new FileSummaries<>("java:S6541:summary:", new FileSummaryCodec());
+  private final List<BrainMethod> currentFileBrainMethods = new ArrayList<>();
+
+  @Override
+  public boolean scanWithoutParsing(InputFileScannerContext inputFileScannerContext) {
+    String thresholds = thresholds();
+    return summaries.addFromCache(inputFileScannerContext, summary -> summary.thresholds().equals(thresholds));
+  }
 
   @Override
   public void visitNode(Tree tree) {
@@ -102,19 +120,33 @@ public class BrainMethodCheck extends IssuableSubscriptionVisitor implements End
         maxNestingLevel, nestingThreshold - 1,
         numberOfDefinedVariables, nodvThreshold - 1);
 
-      AnalyzerMessage analyzerMessage = new AnalyzerMessage(this, context.getInputFile(),
-        AnalyzerMessage.textSpanFor(methodTree.simpleName()), issueMessage, 0);
-      issuesFound.add(new IssueFound(brainScore, analyzerMessage));
+      currentFileBrainMethods.add(new BrainMethod(brainScore, AnalyzerMessage.textSpanFor(methodTree.simpleName()), issueMessage));
     }
 
   }
 
+  @Override
+  public void leaveFile(JavaFileScannerContext context) {
+    summaries.add(context, new FileSummary(thresholds(), List.copyOf(currentFileBrainMethods)));
+    currentFileBrainMethods.clear();
+    super.leaveFile(context);
+  }
+
+  private String thresholds() {
+    return locThreshold + "," + cyclomaticThreshold + "," + nestingThreshold + "," + nodvThreshold;
+  }
+
   private static boolean isExcluded(MethodTree methodTree) {
     return methodTree.symbol().isAbstract() || methodTree.block() == null || MethodTreeUtils.isEqualsMethod(methodTree) || MethodTreeUtils.isHashCodeMethod(methodTree);
   }
 
   @Override
   public void endOfAnalysis(ModuleScannerContext context) {
+    List<IssueFound> issuesFound = new ArrayList<>();
+    summaries.summaries().forEach((inputFile, summary) -> summary.brainMethods()
+      .forEach(brainMethod -> issuesFound.add(new IssueFound(brainMethod.brainScore(), brainMethod.toAnalyzerMessage(this, inputFile)))));
+    summaries.clear();
+
     int numberOfIssuesToReport = issuesFound.size();
     if (numberOfIssuesToReport > numberOfFoundIssuesThreshold) {
       // To reduce noise in large codebases, always report at least numberOfFoundIssuesThreshold issues,
@@ -142,4 +174,48 @@ public class BrainMethodCheck extends IssuableSubscriptionVisitor implements End
 
   }
 
+  /**
+   * @param thresholds the thresholds the brain methods have been found with, a cached summary is outdated when they change
+   */
+  record FileSummary(String thresholds, List<BrainMethod> brainMethods) {
+  }
+
+  record BrainMethod(int brainScore, AnalyzerMessage.TextSpan textSpan, String message) {
+
+    AnalyzerMessage toAnalyzerMessage(BrainMethodCheck check, InputFile inputFile) {
+      return new AnalyzerMessage(check, inputFile, textSpan, message, 0);
+    }
+  }
+
+  static class FileSummaryCodec implements FileSummaries.Codec<FileSummary> {
+
+    @Override
+    public void write(FileSummary summary, DataOutput out) throws IOException {
+      out.writeUTF(summary.thresholds());
+      out.writeInt(summary.brainMethods().size());
+      for (BrainMethod brainMethod : summary.brainMethods()) {
+        out.writeInt(brainMethod.brainScore());
+        AnalyzerMessage.TextSpan textSpan = brainMethod.textSpan();
+        out.writeInt(textSpan.startLine);
+        out.writeInt(textSpan.startCharacter);
+        out.writeInt(textSpan.endLine);
+        out.writeInt(textSpan.endCharacter);
+        out.writeUTF(brainMethod.message());
+      }
+    }
+
+    @Override
+    public FileSummary read(DataInput in) throws IOException {
+      String thresholds = in.readUTF();
+      int size = in.readInt();
+      List<BrainMethod> brainMethods = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        int brainScore = in.readInt();
+        AnalyzerMessage.TextSpan textSpan = new AnalyzerMessage.TextSpan(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+        brainMethods.add(new BrainMethod(brainScore, textSpan, in.readUTF()));
+      }
+      return new FileSummary(thresholds, brainMethods);
+    }
+  }
+
 }
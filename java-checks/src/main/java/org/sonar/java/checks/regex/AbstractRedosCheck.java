@@ -26,6 +26,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonarsource.analyzer.commons.regex.MatchType;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
@@ -50,6 +52,8 @@ import static org.sonarsource.analyzer.commons.regex.helpers.RegexTreeHelper.isA
 
 public abstract class AbstractRedosCheck extends AbstractRegexCheckTrackingMatchType {
 
+  private static final Logger LOG = LoggerFactory.getLogger(AbstractRedosCheck.class);
+
   /**
    * The maximum number of repetitions we keep track of in order to find overlapping consecutive repetitions.
    * If a regex contains more repetitions than this, we will ignore some combinations of them to avoid performance
@@ -67,7 +71,13 @@ public abstract class AbstractRedosCheck extends AbstractRegexCheckTrackingMatch
   protected BacktrackingType foundBacktrackingType;
 
   private final RegexReachabilityChecker reachabilityChecker = new RegexReachabilityChecker(false);
-  private final IntersectAutomataChecker intersectionChecker = new IntersectAutomataChecker(false);
+  private final IntersectAutomataChecker intersectionChecker = new BudgetedIntersectAutomataChecker();
+
+  /**
+   * Number of steps (automata states explored) left before the analysis of the current regex is stopped, see
+   * {@link org.sonar.java.SonarComponents#SONAR_REGEX_ANALYSIS_MAX_STEPS_KEY}.
+   */
+  private int remainingSteps;
 
   // Java 9 introduced a loop optimization that's applied to greedy repetitions in regexes that don't use capturing groups.
   // Without this optimization any loop where for the same input multiple paths can be taken through the loop's body,
@@ -94,17 +104,64 @@ public abstract class AbstractRedosCheck extends AbstractRegexCheckTrackingMatch
     if (regexForLiterals.getResult().getText().length() > MAX_REGEX_LENGTH) {
       return;
     }
+    RedosAnalysis analysis = regexAnalysis("RedosAnalysis:" + matchType, regexForLiterals, regex -> analyze(regex, matchType));
+    regexContainsBackReference = analysis.containsBackReference();
+    foundBacktrackingType = analysis.backtrackingType();
+    buildMessage().ifPresent(message ->
+      reportIssue(methodOrAnnotationName(methodInvocationOrAnnotation), message, null, Collections.emptyList())
+    );
+  }
+
+  private RedosAnalysis analyze(RegexParseResult regex, MatchType matchType) {
     regexContainsBackReference = false;
     foundBacktrackingType = BacktrackingType.NO_ISSUE;
     reachabilityChecker.clearCache();
     intersectionChecker.clearCache();
     boolean isUsedForFullMatch = matchType == MatchType.FULL || matchType == MatchType.BOTH;
     boolean isUsedForPartialMatch = matchType == MatchType.PARTIAL || matchType == MatchType.BOTH;
-    RedosFinder visitor = new RedosFinder(regexForLiterals.getStartState(), regexForLiterals.getFinalState(), isUsedForFullMatch, isUsedForPartialMatch);
-    visitor.visit(regexForLiterals);
-    buildMessage().ifPresent(message ->
-      reportIssue(methodOrAnnotationName(methodInvocationOrAnnotation), message, null, Collections.emptyList())
-    );
+    RedosFinder visitor = new RedosFinder(regex.getStartState(), regex.getFinalState(), isUsedForFullMatch, isUsedForPartialMatch);
+    int maxSteps = regexAnalysisMaxSteps();
+    remainingSteps = maxSteps;
+    try {
+      visitor.visit(regex);
+    } catch (StepBudgetExceededException e) {
+      // inconclusive: only the backtracking found so far is reported
+      LOG.debug("Analysis of regex /{}/ stopped after {} steps, catastrophic backtracking may be missed", regex.getResult().getText(), maxSteps);
+    }
+    return new RedosAnalysis(regexContainsBackReference, foundBacktrackingType);
+  }
+
+  private void step() {
+    remainingSteps--;
+    if (remainingSteps < 0) {
+      throw new StepBudgetExceededException();
+    }
+  }
+
+  /**
+   * Outcome of the analysis of a regex, independent of the rule reporting on it, so that it can be shared between
+   * the ReDoS rules through the regex analysis cache.
+   */
+  private record RedosAnalysis(boolean containsBackReference, BacktrackingType backtrackingType) {
+  }
+
+  private static final class StepBudgetExceededException extends RuntimeException {
+    StepBudgetExceededException() {
+      super(null, null, false, false);
+    }
+  }
+
+  private class BudgetedIntersectAutomataChecker extends IntersectAutomataChecker {
+
+    BudgetedIntersectAutomataChecker() {
+      super(false);
+    }
+
+    @Override
+    protected boolean check(SubAutomaton auto1, SubAutomaton auto2, boolean hasConsumedInput) {
+      step();
+      return super.check(auto1, auto2, hasConsumedInput);
+    }
   }
 
   private void addBacktracking(BacktrackingType newBacktrackingType) {
@@ -132,6 +189,7 @@ public abstract class AbstractRedosCheck extends AbstractRegexCheckTrackingMatch
 
     @Override
     public void visitRepetition(RepetitionTree tree) {
+      step();
       if (canFail(tree.continuation())) {
         if (!tree.isPossessive() && tree.getQuantifier().isOpenEnded()) {
           new BacktrackingFinder(tree.isReluctant(), tree.continuation()).visit(tree.getElement());
@@ -145,6 +203,7 @@ public abstract class AbstractRedosCheck extends AbstractRegexCheckTrackingMatch
     private void checkForOverlappingRepetitions(RepetitionTree tree) {
       if (tree.getQuantifier().isOpenEnded() && canFail(tree)) {
         for (RepetitionTree repetition : nonPossessiveRepetitions) {
+          step();
           if (reachabilityChecker.canReach(repetition, tree)) {
             SubAutomaton repetitionAuto = new SubAutomaton(repetition.getElement(), repetition.continuation(), false);
             SubAutomaton continuationAuto = new SubAutomaton(repetition.continuation(), tree, false);
@@ -202,6 +261,7 @@ public abstract class AbstractRedosCheck extends AbstractRegexCheckTrackingMatch
       if (canFailCache.containsKey(state)) {
         return canFailCache.get(state);
       }
+      step();
       canFailCache.put(state, true);
       if (state.incomingTransitionType() != AutomatonState.TransitionType.EPSILON) {
         return true;
@@ -283,6 +343,7 @@ public abstract class AbstractRedosCheck extends AbstractRegexCheckTrackingMatch
 
     @Override
     public void visitRepetition(RepetitionTree tree) {
+      step();
       if (tree.isPossessive()) {
         new RedosFinder(tree, tree.continuation(), false, false).visit(tree);
       } else if (containsIntersections(Arrays.asList(tree.getElement(), tree.continuation()))) {
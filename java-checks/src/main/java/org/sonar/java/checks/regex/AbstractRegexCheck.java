@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -224,6 +225,18 @@ public abstract class AbstractRegexCheck extends IssuableSubscriptionVisitor imp
     return regexContext.regexForLiterals(flags, literals);
   }
 
+  /**
+   * Computes a result derived from the given regex, or returns the one already computed for an identical regex (same
+   * source text and flags) in this or another file. The analysis must not depend on the location of the regex.
+   */
+  protected final <T> T regexAnalysis(String analysisKey, RegexParseResult regex, Function<RegexParseResult, T> analysis) {
+    return regexContext.regexAnalysis(analysisKey, regex, analysis);
+  }
+
+  protected final int regexAnalysisMaxSteps() {
+    return regexContext.regexAnalysisMaxSteps();
+  }
+
   @VisibleForTesting
   protected static Optional<LiteralTree[]> getLiterals(ExpressionTree expr) {
     switch (expr.kind()) {
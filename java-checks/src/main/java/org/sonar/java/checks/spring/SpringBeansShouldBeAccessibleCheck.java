@@ -16,6 +16,12 @@
  */
 package org.sonar.java.checks.spring;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -40,7 +46,8 @@ import org.sonar.plugins.java.api.InputFileScannerContext;
 import org.sonar.plugins.java.api.IssuableSubscriptionVisitor;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.ModuleScannerContext;
-import org.sonar.plugins.java.api.internal.EndOfAnalysis;
+import org.sonar.plugins.java.api.internal.ProjectEndOfAnalysis;
+import org.sonar.plugins.java.api.internal.ProjectScannerContext;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.semantic.SymbolMetadata;
 import org.sonar.plugins.java.api.tree.ClassTree;
@@ -49,7 +56,7 @@ import org.sonar.plugins.java.api.tree.Tree;
 import org.sonarsource.analyzer.commons.collections.SetUtils;
 
 @Rule(key = "S4605")
-public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisitor implements EndOfAnalysis {
+public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisitor implements ProjectEndOfAnalysis {
 
   private static final Logger LOG = LoggerFactory.getLogger(SpringBeansShouldBeAccessibleCheck.class);
 
@@ -101,12 +108,36 @@ public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisi
   @Override
   public void endOfAnalysis(ModuleScannerContext context) {
     var defaultContext = (DefaultModuleScannerContext) context;
+    if (defaultContext.writeProjectSummary(this, projectSummary())) {
+      // beans of the module can be scanned from another module, issues are reported by endOfProjectAnalysis
+      return;
+    }
     messagesPerPackage.entrySet().stream()
-      // support sub-packages
-      .filter(entry -> packagesScannedBySpringAtProjectLevel.stream().noneMatch(entry.getKey()::contains))
+      .filter(entry -> isNotScanned(entry.getKey(), packagesScannedBySpringAtProjectLevel))
       .forEach(entry -> entry.getValue().forEach(defaultContext::reportIssue));
   }
 
+  @Override
+  public void endOfProjectAnalysis(ProjectScannerContext context) {
+    Set<String> scannedPackages = new HashSet<>();
+    Map<String, List<UnreachableBean>> beansPerPackage = new HashMap<>();
+    context.moduleSummaries(this).forEach((moduleKey, summary) -> {
+      try {
+        readProjectSummary(summary, scannedPackages, beansPerPackage);
+      } catch (IOException e) {
+        LOG.warn("Ignoring the unreadable summary of module '{}'", moduleKey);
+      }
+    });
+    beansPerPackage.entrySet().stream()
+      .filter(entry -> isNotScanned(entry.getKey(), scannedPackages))
+      .forEach(entry -> entry.getValue().forEach(bean -> context.reportIssue(this, bean.fileUri(), bean.textSpan(), bean.message())));
+  }
+
+  private static boolean isNotScanned(String packageName, Set<String> scannedPackages) {
+    // support sub-packages
+    return scannedPackages.stream().noneMatch(packageName::contains);
+  }
+
   @Override
   public void visitNode(Tree tree) {
     ClassTree classTree = (ClassTree) tree;
@@ -186,6 +217,59 @@ public class SpringBeansShouldBeAccessibleCheck extends IssuableSubscriptionVisi
     }
   }
 
+  /**
+   * The packages scanned by Spring in the module, then the beans of the module grouped by package.
+   */
+  private byte[] projectSummary() {
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeInt(packagesScannedBySpringAtProjectLevel.size());
+      for (String scannedPackage : packagesScannedBySpringAtProjectLevel) {
+        out.writeUTF(scannedPackage);
+      }
+      out.writeInt(messagesPerPackage.size());
+      for (Map.Entry<String, List<AnalyzerMessage>> entry : messagesPerPackage.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeInt(entry.getValue().size());
+        for (AnalyzerMessage message : entry.getValue()) {
+          AnalyzerMessage.TextSpan textSpan = Objects.requireNonNull(message.primaryLocation());
+          out.writeUTF(((InputFile) message.getInputComponent()).uri().toString());
+          out.writeInt(textSpan.startLine);
+          out.writeInt(textSpan.startCharacter);
+          out.writeInt(textSpan.endLine);
+          out.writeInt(textSpan.endCharacter);
+          out.writeUTF(message.getMessage());
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void readProjectSummary(byte[] summary, Set<String> scannedPackages, Map<String, List<UnreachableBean>> beansPerPackage)
+    throws IOException {
+    try (var in = new DataInputStream(new ByteArrayInputStream(summary))) {
+      int scannedPackageCount = in.readInt();
+      for (int i = 0; i < scannedPackageCount; i++) {
+        scannedPackages.add(in.readUTF());
+      }
+      int packageCount = in.readInt();
+      for (int i = 0; i < packageCount; i++) {
+        List<UnreachableBean> beans = beansPerPackage.computeIfAbsent(in.readUTF(), k -> new ArrayList<>());
+        int beanCount = in.readInt();
+        for (int j = 0; j < beanCount; j++) {
+          String fileUri = in.readUTF();
+          var textSpan = new AnalyzerMessage.TextSpan(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+          beans.add(new UnreachableBean(fileUri, textSpan, in.readUTF()));
+        }
+      }
+    }
+  }
+
+  private record UnreachableBean(String fileUri, AnalyzerMessage.TextSpan textSpan, String message) {
+  }
+
   private static List<String> targetedPackages(String classPackageName, SymbolMetadata classSymbolMetadata) {
     // annotation is necessarily there already
     var scanBaseValues = Objects.requireNonNull(classSymbolMetadata.valuesForAnnotation(SpringUtils.SPRING_BOOT_APP_ANNOTATION)).stream()
@@ -0,0 +1,86 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.filters;
+
+import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.BinaryExpressionTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Issue filter computing its excluded lines from a visit of the tree.
+ * <p>
+ * The filter can either visit the file on its own through {@link #scanFile(JavaFileScannerContext)}, or be driven node by node
+ * by a traversal shared with other filters (see {@link PostAnalysisIssueFilter}). In the latter case, the visit methods are
+ * called on each node without descending into its children, so implementations must not rely on state set before and reset
+ * after calling {@code super.visitXxx(...)}.
+ * </p>
+ */
+public abstract class AbstractTreeVisitorIssueFilter extends BaseTreeVisitor implements JavaIssueFilter {
+
+  private boolean visitingSingleNode = false;
+
+  @Override
+  public void scanFile(JavaFileScannerContext context) {
+    if (startFile(context)) {
+      scan(context.getTree());
+      endFile();
+    }
+  }
+
+  /**
+   * Resets the state of the filter for the given file.
+   *
+   * @return false if the file should not be visited by this filter
+   */
+  abstract boolean startFile(JavaFileScannerContext context);
+
+  /**
+   * Called once all the nodes of the file have been visited.
+   */
+  void endFile() {
+    // do nothing by default
+  }
+
+  /**
+   * Visit a single node, without visiting its children.
+   */
+  final void visitNode(Tree tree) {
+    visitingSingleNode = true;
+    try {
+      tree.accept(this);
+    } finally {
+      visitingSingleNode = false;
+    }
+  }
+
+  @Override
+  protected void scan(@Nullable Tree tree) {
+    if (!visitingSingleNode) {
+      super.scan(tree);
+    }
+  }
+
+  @Override
+  public void visitBinaryExpression(BinaryExpressionTree tree) {
+    // operands are visited without going through scan(Tree)
+    if (!visitingSingleNode) {
+      super.visitBinaryExpression(tree);
+    }
+  }
+}
@@ -17,13 +17,9 @@
 package org.sonar.java.filters;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import javax.annotation.Nullable;
 import org.sonar.api.scan.issue.filter.FilterableIssue;
 import org.sonar.api.utils.AnnotationUtils;
@@ -31,14 +27,13 @@ import org.sonar.check.Rule;
 import org.sonar.java.model.LineUtils;
 import org.sonar.plugins.java.api.JavaCheck;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
-import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 
-public abstract class BaseTreeVisitorIssueFilter extends BaseTreeVisitor implements JavaIssueFilter {
+public abstract class BaseTreeVisitorIssueFilter extends AbstractTreeVisitorIssueFilter {
 
   private String componentKey;
-  private final Map<String, Set<Integer>> excludedLinesByRule;
+  private final Map<String, LineIntervals> excludedLinesByRule;
   private final Map<Class<? extends JavaCheck>, String> rulesKeysByRulesClass;
 
   protected BaseTreeVisitorIssueFilter() {
@@ -62,23 +57,37 @@ public abstract class BaseTreeVisitorIssueFilter extends BaseTreeVisitor impleme
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  boolean startFile(JavaFileScannerContext context) {
     componentKey = context.getInputFile().key();
     excludedLinesByRule.clear();
-    scan(context.getTree());
+    return true;
   }
 
   @Override
   public boolean accept(FilterableIssue issue) {
-    return !(issue.componentKey().equals(componentKey) && excludedLinesByRule.getOrDefault(issue.ruleKey().rule(), new HashSet<>()).contains(issue.line()));
+    if (!issue.componentKey().equals(componentKey)) {
+      return true;
+    }
+    Integer line = issue.line();
+    LineIntervals excludedLines = excludedLinesByRule.get(issue.ruleKey().rule());
+    return line == null || excludedLines == null || !excludedLines.contains(line);
   }
 
+  /**
+   * Lines excluded for each rule key, materialized as sets of lines. Only meant for tests, see {@link #excludedLineIntervalsByRule()}.
+   */
   public Map<String, Set<Integer>> excludedLinesByRule() {
+    Map<String, Set<Integer>> result = new HashMap<>();
+    excludedLinesByRule.forEach((ruleKey, lines) -> result.put(ruleKey, lines.toSet()));
+    return result;
+  }
+
+  Map<String, LineIntervals> excludedLineIntervalsByRule() {
     return excludedLinesByRule;
   }
 
-  final void excludeLines(Set<Integer> lines, String ruleKey) {
-    computeFilteredLinesForRule(lines, ruleKey, true);
+  final void excludeLines(int startLine, int endLine, String ruleKey) {
+    computeFilteredLinesForRule(startLine, endLine, ruleKey, true);
   }
 
   final void excludeLines(@Nullable Tree tree, Class<? extends JavaCheck> rule) {
@@ -110,18 +119,18 @@ public abstract class BaseTreeVisitorIssueFilter extends BaseTreeVisitor impleme
     SyntaxToken firstSyntaxToken = tree.firstToken();
     SyntaxToken lastSyntaxToken = tree.lastToken();
     if (firstSyntaxToken != null && lastSyntaxToken != null) {
-      Set<Integer> filteredLines = IntStream.rangeClosed(LineUtils.startLine(firstSyntaxToken), LineUtils.startLine(lastSyntaxToken))
-        .boxed()
-        .collect(Collectors.toSet());
-      computeFilteredLinesForRule(filteredLines, ruleKey, excludeLine);
+      computeFilteredLinesForRule(LineUtils.startLine(firstSyntaxToken), LineUtils.startLine(lastSyntaxToken), ruleKey, excludeLine);
     }
   }
 
-  private void computeFilteredLinesForRule(Set<Integer> lines, String ruleKey, boolean excludeLine) {
+  private void computeFilteredLinesForRule(int startLine, int endLine, String ruleKey, boolean excludeLine) {
     if (excludeLine) {
-      excludedLinesByRule.computeIfAbsent(ruleKey, k -> new HashSet<>()).addAll(lines);
+      excludedLinesByRule.computeIfAbsent(ruleKey, k -> new LineIntervals()).add(startLine, endLine);
     } else {
-      excludedLinesByRule.getOrDefault(ruleKey, Collections.emptySet()).removeAll(lines);
+      LineIntervals excludedLines = excludedLinesByRule.get(ruleKey);
+      if (excludedLines != null) {
+        excludedLines.remove(startLine, endLine);
+      }
     }
   }
 }
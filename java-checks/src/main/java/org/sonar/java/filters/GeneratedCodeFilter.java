@@ -34,12 +34,12 @@ public class GeneratedCodeFilter extends AnyRuleIssueFilter {
   );
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
+  boolean startFile(JavaFileScannerContext context) {
     if (context.getSemanticModel() == null) {
       // Filter requires semantic
-      return;
+      return false;
     }
-    super.scanFile(context);
+    return super.startFile(context);
   }
 
   @Override
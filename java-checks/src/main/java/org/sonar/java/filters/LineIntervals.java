@@ -0,0 +1,152 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.filters;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Set of lines stored as sorted, disjoint and non-adjacent closed intervals.
+ * Excluding a whole class or method costs one interval instead of one boxed integer per line,
+ * and {@link #contains(int)} is a binary search which does not allocate.
+ */
+final class LineIntervals {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private int[] starts = new int[INITIAL_CAPACITY];
+  private int[] ends = new int[INITIAL_CAPACITY];
+  private int size = 0;
+
+  /**
+   * Adds all the lines from {@code startLine} to {@code endLine} (both included).
+   */
+  void add(int startLine, int endLine) {
+    if (startLine > endLine) {
+      return;
+    }
+    // first interval which overlaps or touches the new one
+    int first = firstIndexEndingAtOrAfter(startLine - 1);
+    // last interval which overlaps or touches the new one
+    int last = lastIndexStartingAtOrBefore(endLine + 1);
+    if (first > last) {
+      replace(first, first, startLine, endLine);
+    } else {
+      replace(first, last + 1, Math.min(startLine, starts[first]), Math.max(endLine, ends[last]));
+    }
+  }
+
+  /**
+   * Removes all the lines from {@code startLine} to {@code endLine} (both included).
+   */
+  void remove(int startLine, int endLine) {
+    if (startLine > endLine) {
+      return;
+    }
+    int first = firstIndexEndingAtOrAfter(startLine);
+    int last = lastIndexStartingAtOrBefore(endLine);
+    if (first > last) {
+      return;
+    }
+    boolean keepLeft = starts[first] < startLine;
+    boolean keepRight = ends[last] > endLine;
+    int leftStart = starts[first];
+    int rightEnd = ends[last];
+    if (keepLeft && keepRight) {
+      replace(first, last + 1, leftStart, startLine - 1, endLine + 1, rightEnd);
+    } else if (keepLeft) {
+      replace(first, last + 1, leftStart, startLine - 1);
+    } else if (keepRight) {
+      replace(first, last + 1, endLine + 1, rightEnd);
+    } else {
+      replace(first, last + 1);
+    }
+  }
+
+  boolean contains(int line) {
+    int index = lastIndexStartingAtOrBefore(line);
+    return index >= 0 && ends[index] >= line;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Materializes the lines of the intervals. Only meant for debugging and tests.
+   */
+  Set<Integer> toSet() {
+    Set<Integer> lines = new HashSet<>();
+    for (int i = 0; i < size; i++) {
+      for (int line = starts[i]; line <= ends[i]; line++) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  private int firstIndexEndingAtOrAfter(int line) {
+    // ends are sorted as intervals are disjoint
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (ends[mid] < line) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int lastIndexStartingAtOrBefore(int line) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (starts[mid] <= line) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low - 1;
+  }
+
+  /**
+   * Replaces the intervals in range [from, to[ by the given (start, end) pairs.
+   */
+  private void replace(int from, int to, int... bounds) {
+    int inserted = bounds.length / 2;
+    int newSize = size - (to - from) + inserted;
+    if (newSize > starts.length) {
+      int capacity = Math.max(newSize, starts.length * 2);
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+    }
+    int tail = size - to;
+    System.arraycopy(starts, to, starts, from + inserted, tail);
+    System.arraycopy(ends, to, ends, from + inserted, tail);
+    for (int i = 0; i < inserted; i++) {
+      starts[from + i] = bounds[2 * i];
+      ends[from + i] = bounds[2 * i + 1];
+    }
+    size = newSize;
+  }
+}
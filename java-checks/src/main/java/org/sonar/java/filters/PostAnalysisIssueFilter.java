@@ -16,14 +16,20 @@
  */
 package org.sonar.java.filters;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.sonar.api.scan.issue.filter.FilterableIssue;
 import org.sonar.api.scan.issue.filter.IssueFilterChain;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.BinaryExpressionTree;
+import org.sonar.plugins.java.api.tree.ListTree;
+import org.sonar.plugins.java.api.tree.Tree;
 
 public class PostAnalysisIssueFilter implements JavaFileScanner, SonarJavaIssueFilter {
 
@@ -50,8 +56,53 @@ public class PostAnalysisIssueFilter implements JavaFileScanner, SonarJavaIssueF
       && chain.accept(issue);
   }
 
+  /**
+   * Tree based filters are driven by a single traversal of the tree, instead of each of them visiting the whole file.
+   */
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    issueFilters().forEach(filter -> filter.scanFile(context));
+    List<AbstractTreeVisitorIssueFilter> treeVisitorFilters = new ArrayList<>();
+    for (JavaIssueFilter filter : issueFilters()) {
+      if (filter instanceof AbstractTreeVisitorIssueFilter treeVisitorFilter) {
+        if (treeVisitorFilter.startFile(context)) {
+          treeVisitorFilters.add(treeVisitorFilter);
+        }
+      } else {
+        filter.scanFile(context);
+      }
+    }
+    if (!treeVisitorFilters.isEmpty()) {
+      new SharedTraversal(treeVisitorFilters).scan(context.getTree());
+      treeVisitorFilters.forEach(AbstractTreeVisitorIssueFilter::endFile);
+    }
+  }
+
+  private static class SharedTraversal extends BaseTreeVisitor {
+
+    private final List<AbstractTreeVisitorIssueFilter> filters;
+
+    private SharedTraversal(List<AbstractTreeVisitorIssueFilter> filters) {
+      this.filters = filters;
+    }
+
+    @Override
+    protected void scan(@Nullable Tree tree) {
+      if (tree instanceof ListTree<?> listTree) {
+        // lists dispatch to their elements without going through scan(Tree)
+        scan((List<? extends Tree>) listTree);
+      } else if (tree != null) {
+        for (AbstractTreeVisitorIssueFilter filter : filters) {
+          filter.visitNode(tree);
+        }
+        tree.accept(this);
+      }
+    }
+
+    @Override
+    public void visitBinaryExpression(BinaryExpressionTree tree) {
+      // default implementation does not go through scan(Tree), which would skip the filters on operands
+      scan(tree.leftOperand());
+      scan(tree.rightOperand());
+    }
   }
 }
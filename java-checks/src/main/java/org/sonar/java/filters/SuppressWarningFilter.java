@@ -23,8 +23,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.scan.issue.filter.FilterableIssue;
 import org.sonar.api.utils.AnnotationUtils;
@@ -34,7 +32,6 @@ import org.sonar.java.model.LineUtils;
 import org.sonarsource.analyzer.commons.collections.MapBuilder;
 import org.sonarsource.analyzer.commons.collections.SetUtils;
 import org.sonar.plugins.java.api.JavaCheck;
-import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.ExpressionTree;
@@ -75,7 +72,7 @@ public class SuppressWarningFilter extends BaseTreeVisitorIssueFilter {
         "java:S3985", "java:S2326", "java:S1144", "java:S1128", "java:S2583"))
       .build();
 
-  private final Map<String, Map<String, Set<Integer>>> excludedLinesByComponent = new HashMap<>();
+  private final Map<String, Map<String, LineIntervals>> excludedLinesByComponent = new HashMap<>();
 
   private static final String SUPPRESS_WARNING_RULE_KEY = getSuppressWarningRuleKey();
 
@@ -142,9 +139,8 @@ public class SuppressWarningFilter extends BaseTreeVisitorIssueFilter {
   }
 
   @Override
-  public void scanFile(JavaFileScannerContext context) {
-    super.scanFile(context);
-    excludedLinesByComponent.put(getComponentKey(), new HashMap<>(excludedLinesByRule()));
+  void endFile() {
+    excludedLinesByComponent.put(getComponentKey(), new HashMap<>(excludedLineIntervalsByRule()));
   }
 
   @Override
@@ -152,13 +148,17 @@ public class SuppressWarningFilter extends BaseTreeVisitorIssueFilter {
     return !issueShouldNotBeReported(issue, excludedLinesByComponent.getOrDefault(issue.componentKey(), Collections.emptyMap()));
   }
 
-  private static boolean issueShouldNotBeReported(FilterableIssue issue, Map<String, Set<Integer>> excludedLineByRule) {
+  private static boolean issueShouldNotBeReported(FilterableIssue issue, Map<String, LineIntervals> excludedLineByRule) {
+    Integer line = issue.line();
+    if (line == null || excludedLineByRule.isEmpty()) {
+      return false;
+    }
     RuleKey issueRuleKey = issue.ruleKey();
     return excludedLineByRule.entrySet().stream().anyMatch(excludedRule -> {
       String suppressedWarning = excludedRule.getKey();
       return ("all".equals(suppressedWarning) || isRuleKey(suppressedWarning, issueRuleKey))
         && !isSuppressWarningRule(issueRuleKey)
-        && excludedRule.getValue().contains(issue.line());
+        && excludedRule.getValue().contains(line);
     });
   }
 
@@ -209,9 +209,8 @@ public class SuppressWarningFilter extends BaseTreeVisitorIssueFilter {
 
     if (startLine != -1) {
       int endLine = LineUtils.startLine(tree.lastToken());
-      Set<Integer> filteredlines = IntStream.rangeClosed(startLine, endLine).boxed().collect(Collectors.toSet());
       for (String rule : rules) {
-        excludeLines(filteredlines, rule);
+        excludeLines(startLine, endLine, rule);
       }
     }
   }
@@ -0,0 +1,107 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.checks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.LineUtils;
+import org.sonarsource.analyzer.commons.recognizers.CodeRecognizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.java.checks.verifier.TestUtils.mainCodeSourcesPath;
+
+class CommentedCodeRecognizerTest {
+
+  private static final double THRESHOLD = 0.9;
+
+  private final CommentedCodeRecognizer recognizer = new CommentedCodeRecognizer(THRESHOLD);
+  private final CodeRecognizer codeRecognizer = new CodeRecognizer(THRESHOLD, new JavaFootprint());
+
+  @Test
+  void recognizes_lines_of_code() {
+    assertThat(recognizer.isLineOfCode("// foo.setValue(a);")).isTrue();
+    assertThat(recognizer.isLineOfCode("// foo();")).isFalse();
+    assertThat(recognizer.isLineOfCode("   if (a) {")).isTrue();
+    assertThat(recognizer.isLineOfCode(" * }")).isTrue();
+    assertThat(recognizer.isLineOfCode("System . out . println(\"\")")).isTrue();
+    assertThat(recognizer.isLineOfCode("public static final int myValue = 2;")).isTrue();
+    assertThat(recognizer.isLineOfCode("public static final int myValue = 2")).isFalse();
+    assertThat(recognizer.isLineOfCode("a && b")).isFalse();
+    assertThat(recognizer.isLineOfCode("a && b || c")).isTrue();
+  }
+
+  @Test
+  void rejects_prose() {
+    assertThat(recognizer.isLineOfCode("")).isFalse();
+    assertThat(recognizer.isLineOfCode("// This is the final value of the counter")).isFalse();
+    assertThat(recognizer.isLineOfCode("// Returns true when the class is static (see the spec)")).isFalse();
+    assertThat(recognizer.isLineOfCode("// {@link Foo#bar}, but only this")).isFalse();
+    assertThat(recognizer.isLineOfCode("// café à la crème, void")).isFalse();
+  }
+
+  @Test
+  void rejects_comments_without_code() {
+    assertThat(recognizer.mayContainCode("/* This is the final value\n * of the counter\n */")).isFalse();
+    assertThat(recognizer.mayContainCode("// nothing here")).isFalse();
+    assertThat(recognizer.mayContainCode("/* The first line\r\n * foo(); */")).isTrue();
+    assertThat(recognizer.mayContainCode("/*\n * int\rvoid\n */")).isFalse();
+  }
+
+  @Test
+  void same_result_as_code_recognizer_on_test_sources() throws IOException {
+    List<String> lines = testSourcesLines();
+    assertThat(lines).hasSizeGreaterThan(10_000);
+    int linesOfCode = 0;
+    for (String line : lines) {
+      boolean expected = codeRecognizer.isLineOfCode(line);
+      assertThat(recognizer.isLineOfCode(line)).as(line).isEqualTo(expected);
+      linesOfCode += expected ? 1 : 0;
+    }
+    assertThat(linesOfCode).isPositive();
+  }
+
+  @Test
+  void comments_are_rejected_only_when_none_of_their_lines_is_code() throws IOException {
+    List<String> lines = testSourcesLines();
+    int rejected = 0;
+    for (int i = 0; i + 3 <= lines.size(); i += 3) {
+      List<String> block = lines.subList(i, i + 3);
+      if (!recognizer.mayContainCode(String.join(i % 2 == 0 ? "\n" : "\r\n", block))) {
+        rejected++;
+        assertThat(block).noneMatch(codeRecognizer::isLineOfCode);
+      }
+    }
+    assertThat(rejected).isPositive();
+  }
+
+  private static List<String> testSourcesLines() throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (Stream<Path> files = Files.walk(Path.of(mainCodeSourcesPath("checks")))) {
+      for (Path file : files.filter(f -> f.toString().endsWith(".java")).toList()) {
+        lines.addAll(LineUtils.splitLines(Files.readString(file, StandardCharsets.UTF_8)));
+      }
+    }
+    return lines;
+  }
+
+}
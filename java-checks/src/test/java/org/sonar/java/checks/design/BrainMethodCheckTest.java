@@ -17,8 +17,24 @@
 package org.sonar.java.checks.design;
 
 import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.caching.JavaReadCacheImpl;
+import org.sonar.java.caching.JavaWriteCacheImpl;
+import org.sonar.java.checks.helpers.HashCacheTestHelper;
 import org.sonar.java.checks.verifier.CheckVerifier;
-
+import org.sonar.java.checks.verifier.internal.InternalReadCache;
+import org.sonar.java.checks.verifier.internal.InternalWriteCache;
+import org.sonar.java.model.DefaultModuleScannerContext;
+import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.plugins.java.api.InputFileScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.sonar.java.checks.verifier.TestUtils.mainCodeSourcesPath;
 
 class BrainMethodCheckTest {
@@ -146,4 +162,46 @@ class BrainMethodCheckTest {
       .withoutSemantic()
       .verifyIssues();
   }
+
+  @Test
+  void brain_methods_of_unchanged_files_are_read_from_the_cache() {
+    InternalReadCache readCache = new InternalReadCache();
+    InternalWriteCache writeCache = new InternalWriteCache().bind(readCache);
+    CheckVerifier.newVerifier()
+      .onFile(HIGH_COMPLEXITY_FILE_PATH)
+      .withChecks(new BrainMethodCheck())
+      .withCache(readCache, writeCache)
+      .verifyIssues();
+
+    InputFile inputFile = HashCacheTestHelper.inputFileFromPath(HIGH_COMPLEXITY_FILE_PATH);
+    String cacheKey = "java:S6541:summary:" + inputFile.key();
+    assertThat(writeCache.getData()).containsKey(cacheKey);
+
+    InternalReadCache nextReadCache = new InternalReadCache().putAll(writeCache);
+    InternalWriteCache nextWriteCache = new InternalWriteCache().bind(nextReadCache);
+    InputFileScannerContext context = unchangedFileContext(inputFile, nextReadCache, nextWriteCache);
+
+    var check = new BrainMethodCheck();
+    assertThat(check.scanWithoutParsing(context)).isTrue();
+    assertThat(nextWriteCache.getData()).containsKey(cacheKey);
+    DefaultModuleScannerContext moduleContext = mock(DefaultModuleScannerContext.class);
+    check.endOfAnalysis(moduleContext);
+    verify(moduleContext, times(1)).reportIssue(any(AnalyzerMessage.class));
+
+    // summaries found with other thresholds are outdated, the file has to be parsed again
+    var checkWithOtherThresholds = new BrainMethodCheck();
+    checkWithOtherThresholds.locThreshold = 120;
+    assertThat(checkWithOtherThresholds.scanWithoutParsing(unchangedFileContext(inputFile, nextReadCache, new InternalWriteCache()))).isFalse();
+  }
+
+  private static InputFileScannerContext unchangedFileContext(InputFile inputFile, InternalReadCache readCache, InternalWriteCache writeCache) {
+    CacheContext cacheContext = mock(CacheContext.class);
+    when(cacheContext.isCacheEnabled()).thenReturn(true);
+    when(cacheContext.getReadCache()).thenReturn(new JavaReadCacheImpl(readCache));
+    when(cacheContext.getWriteCache()).thenReturn(new JavaWriteCacheImpl(writeCache));
+    InputFileScannerContext context = mock(InputFileScannerContext.class);
+    when(context.getInputFile()).thenReturn(inputFile);
+    when(context.getCacheContext()).thenReturn(cacheContext);
+    return context;
+  }
 }
@@ -20,12 +20,15 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.cache.ReadCache;
@@ -36,13 +39,21 @@ import org.sonar.java.checks.helpers.HashCacheTestHelper;
 import org.sonar.java.checks.verifier.CheckVerifier;
 import org.sonar.java.checks.verifier.internal.InternalReadCache;
 import org.sonar.java.checks.verifier.internal.InternalWriteCache;
+import org.sonar.java.model.DefaultModuleScannerContext;
+import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.internal.ProjectScannerContext;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -297,4 +308,78 @@ class SpringBeansShouldBeAccessibleCheckTest {
       msg -> msg.matches("Cache miss for key '[^']+'")
     )).hasSize(1);
   }
+
+  @Test
+  void beans_are_reported_at_project_level_when_scanned_by_no_module() {
+    String testFolder = BASE_PATH + "springBootApplication/";
+    byte[] componentsSummary = moduleSummary(List.of(
+      mainCodeSourcesPath(testFolder + "app/Ok/Ok.java"),
+      mainCodeSourcesPath(testFolder + "Ko/Ko.java")));
+    byte[] applicationSummary = moduleSummary(List.of(
+      mainCodeSourcesPath(testFolder + "app/SpringBootApp1.java")));
+
+    var projectContext = new ProjectScannerContextForTests(Map.of(
+      "project:components", componentsSummary,
+      "project:application", applicationSummary));
+    new SpringBeansShouldBeAccessibleCheck().endOfProjectAnalysis(projectContext);
+
+    // beans of the "Ok" package are scanned by the application of the other module
+    assertThat(projectContext.issues)
+      .extracting(issue -> issue.textSpan().startLine)
+      .containsExactlyInAnyOrder(9, 13, 16, 19);
+    ProjectIssue firstIssue = projectContext.issues.stream().filter(issue -> issue.textSpan().startLine == 9).findFirst().orElseThrow();
+    assertThat(firstIssue.fileUri()).endsWith("springBootApplication/Ko/Ko.java");
+    assertThat(firstIssue.textSpan()).isEqualTo(new AnalyzerMessage.TextSpan(9, 6, 9, 9));
+    assertThat(firstIssue.message()).isEqualTo("'Ko1' is not reachable by @ComponentScan or @SpringBootApplication. "
+      + "Either move it to a package configured in @ComponentScan or update your @ComponentScan configuration.");
+  }
+
+  @Test
+  void unreadable_module_summary_is_ignored() {
+    var projectContext = new ProjectScannerContextForTests(Map.of("project:module", new byte[] {0, 0, 0, 1}));
+    new SpringBeansShouldBeAccessibleCheck().endOfProjectAnalysis(projectContext);
+    assertThat(projectContext.issues).isEmpty();
+    assertThat(logTester.logs(Level.WARN)).containsExactly("Ignoring the unreadable summary of module 'project:module'");
+  }
+
+  private static byte[] moduleSummary(List<String> files) {
+    var check = spy(new SpringBeansShouldBeAccessibleCheck());
+    // the issues of the module are only checked at project level
+    doNothing().when(check).endOfAnalysis(any());
+    CheckVerifier.newVerifier()
+      .onFiles(files)
+      .withCheck(check)
+      .verifyNoIssues();
+    doCallRealMethod().when(check).endOfAnalysis(any());
+
+    var moduleContext = mock(DefaultModuleScannerContext.class);
+    ArgumentCaptor<byte[]> summary = ArgumentCaptor.forClass(byte[].class);
+    doReturn(true).when(moduleContext).writeProjectSummary(eq(check), summary.capture());
+    check.endOfAnalysis(moduleContext);
+    verify(moduleContext, never()).reportIssue(any());
+    return summary.getValue();
+  }
+
+  private record ProjectIssue(String fileUri, AnalyzerMessage.TextSpan textSpan, String message) {
+  }
+
+  private static class ProjectScannerContextForTests implements ProjectScannerContext {
+
+    private final Map<String, byte[]> moduleSummaries;
+    private final List<ProjectIssue> issues = new ArrayList<>();
+
+    private ProjectScannerContextForTests(Map<String, byte[]> moduleSummaries) {
+      this.moduleSummaries = moduleSummaries;
+    }
+
+    @Override
+    public Map<String, byte[]> moduleSummaries(JavaCheck check) {
+      return moduleSummaries;
+    }
+
+    @Override
+    public void reportIssue(JavaCheck check, String fileUri, AnalyzerMessage.TextSpan textSpan, String message) {
+      issues.add(new ProjectIssue(fileUri, textSpan, message));
+    }
+  }
 }
@@ -0,0 +1,95 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.filters;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineIntervalsTest {
+
+  @Test
+  void empty() {
+    LineIntervals lines = new LineIntervals();
+    assertThat(lines.isEmpty()).isTrue();
+    assertThat(lines.contains(1)).isFalse();
+    assertThat(lines.toSet()).isEmpty();
+  }
+
+  @Test
+  void add_disjoint_intervals() {
+    LineIntervals lines = new LineIntervals();
+    lines.add(10, 12);
+    lines.add(1, 2);
+    lines.add(20, 20);
+    lines.add(5, 6);
+    lines.add(30, 31);
+    assertThat(lines.isEmpty()).isFalse();
+    assertThat(lines.toSet()).containsOnly(1, 2, 5, 6, 10, 11, 12, 20, 30, 31);
+    assertThat(lines.contains(0)).isFalse();
+    assertThat(lines.contains(3)).isFalse();
+    assertThat(lines.contains(11)).isTrue();
+    assertThat(lines.contains(32)).isFalse();
+  }
+
+  @Test
+  void add_merges_overlapping_and_adjacent_intervals() {
+    LineIntervals lines = new LineIntervals();
+    lines.add(1, 2);
+    lines.add(5, 6);
+    lines.add(10, 12);
+    lines.add(3, 4);
+    assertThat(lines.toSet()).containsOnly(1, 2, 3, 4, 5, 6, 10, 11, 12);
+    lines.add(2, 11);
+    assertThat(lines.toSet()).containsOnly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+    lines.add(4, 4);
+    assertThat(lines.toSet()).hasSize(12);
+  }
+
+  @Test
+  void add_ignores_empty_interval() {
+    LineIntervals lines = new LineIntervals();
+    lines.add(4, 3);
+    assertThat(lines.isEmpty()).isTrue();
+  }
+
+  @Test
+  void remove() {
+    LineIntervals lines = new LineIntervals();
+    lines.add(1, 10);
+    lines.add(20, 30);
+
+    lines.remove(4, 5);
+    assertThat(lines.toSet()).containsOnly(1, 2, 3, 6, 7, 8, 9, 10, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30);
+
+    lines.remove(8, 22);
+    assertThat(lines.toSet()).containsOnly(1, 2, 3, 6, 7, 23, 24, 25, 26, 27, 28, 29, 30);
+
+    lines.remove(1, 3);
+    assertThat(lines.toSet()).containsOnly(6, 7, 23, 24, 25, 26, 27, 28, 29, 30);
+
+    lines.remove(25, 40);
+    assertThat(lines.toSet()).containsOnly(6, 7, 23, 24);
+
+    lines.remove(11, 12);
+    lines.remove(7, 6);
+    assertThat(lines.toSet()).containsOnly(6, 7, 23, 24);
+
+    lines.remove(0, 100);
+    assertThat(lines.isEmpty()).isTrue();
+  }
+}
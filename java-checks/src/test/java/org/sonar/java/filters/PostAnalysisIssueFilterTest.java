@@ -16,6 +16,8 @@
  */
 package org.sonar.java.filters;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,8 +27,11 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.scan.issue.filter.FilterableIssue;
 import org.sonar.api.scan.issue.filter.IssueFilterChain;
+import org.sonar.java.ast.JavaAstScanner;
 import org.sonar.java.checks.verifier.TestUtils;
 import org.sonar.java.model.InternalSyntaxToken;
+import org.sonar.java.testing.VisitorsBridgeForTests;
+import org.sonar.plugins.java.api.JavaFileScanner;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.semantic.Sema;
 
@@ -36,6 +41,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.sonar.java.test.classpath.TestClasspathUtils.DEFAULT_MODULE;
 
 class PostAnalysisIssueFilterTest {
 
@@ -110,4 +116,34 @@ class PostAnalysisIssueFilterTest {
     verify(context, times(7)).getInputFile();
   }
 
+  @Test
+  void shared_traversal_excludes_same_lines_as_individual_scans() {
+    InputFile suppressWarningInputFile = TestUtils.inputFile("src/test/files/filters/SuppressWarningFilter.java");
+    scanFile(suppressWarningInputFile, postAnalysisIssueFilter);
+    SuppressWarningFilter individualSuppressWarningFilter = new SuppressWarningFilter();
+    scanFile(suppressWarningInputFile, individualSuppressWarningFilter);
+    SuppressWarningFilter sharedSuppressWarningFilter = (SuppressWarningFilter) postAnalysisIssueFilter.issueFilters().get(3);
+    assertThat(sharedSuppressWarningFilter.excludedLinesByRule())
+      .isNotEmpty()
+      .isEqualTo(individualSuppressWarningFilter.excludedLinesByRule());
+
+    InputFile lombokInputFile = TestUtils.inputFile("src/test/files/filters/LombokFilter.java");
+    scanFile(lombokInputFile, postAnalysisIssueFilter);
+    LombokFilter individualLombokFilter = new LombokFilter();
+    scanFile(lombokInputFile, individualLombokFilter);
+    LombokFilter sharedLombokFilter = (LombokFilter) postAnalysisIssueFilter.issueFilters().get(1);
+    assertThat(sharedLombokFilter.excludedLinesByRule())
+      .isNotEmpty()
+      .isEqualTo(individualLombokFilter.excludedLinesByRule());
+  }
+
+  private static void scanFile(InputFile inputFile, JavaFileScanner scanner) {
+    List<File> projectClasspath = new ArrayList<>(DEFAULT_MODULE.getClassPath());
+    projectClasspath.add(new File("target/test-classes"));
+    VisitorsBridgeForTests visitorsBridge = new VisitorsBridgeForTests.Builder(scanner)
+      .enableSemanticWithProjectClasspath(projectClasspath)
+      .build();
+    JavaAstScanner.scanSingleFileForTests(inputFile, visitorsBridge);
+  }
+
 }
@@ -0,0 +1,339 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.daemon;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputComponent;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.batch.sensor.issue.Issue;
+import org.sonar.api.batch.sensor.issue.IssueLocation;
+import org.sonar.java.annotations.VisibleForTesting;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Analyzer staying resident between the analyses of the modules built on the same machine, so that the start of the JVM, the
+ * loading of the rules and the warm-up of the parser are paid once instead of once per module.
+ * <p>
+ * The daemon listens on a port of the loopback interface, that it writes with a secret to its connection file, readable by
+ * its owner only. The first line of a connection must be {@code AUTH <secret>}, then the requests are made of UTF-8 lines:
+ * <ul>
+ *   <li>{@code ANALYZE <module key>}, followed by the paths of the files of the module, one per line, and an empty line;</li>
+ *   <li>{@code RELEASE <module key>}, to forget a module whose rules or classpath changed;</li>
+ *   <li>{@code STOP}, to stop the daemon.</li>
+ * </ul>
+ * Each request is answered by a line {@code OK <number of analyzed files>} or {@code ERROR <message>}. An analysis request is
+ * first answered by a line {@code ISSUE <rule key>\t<path>\t<line>\t<message>} for each issue, the line being 0 for an issue on
+ * a whole file, and the path empty for an issue on the module.
+ * <p>
+ * Modules are loaded on their first request and then kept with their {@link DaemonModule#session() session}. The sessions not
+ * being thread-safe, the connections are served one after the other. A connection is closed when it fails to authenticate,
+ * when its client sends nothing for {@link #CONNECTION_TIMEOUT}, and when a request does not fit in {@link #MAX_LINE_LENGTH}
+ * and {@link #MAX_PATHS}. The connection file is deleted when the daemon stops, whatever the reason.
+ */
+public class AnalysisDaemon implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AnalysisDaemon.class);
+
+  static final Duration CONNECTION_TIMEOUT = Duration.ofMinutes(1);
+  static final int MAX_LINE_LENGTH = 4096;
+  static final int MAX_PATHS = 50_000;
+
+  private static final String AUTH_PREFIX = "AUTH ";
+
+  private final Path connectionFile;
+  private final DaemonModuleLoader moduleLoader;
+  private final Duration connectionTimeout;
+  private final Map<String, DaemonModule> modules = new HashMap<>();
+  private final String secret;
+  private final ServerSocket serverSocket;
+  private final Thread thread;
+  private volatile boolean started = false;
+
+  /**
+   * @param connectionFile the file in which the port and the secret of the daemon are written when it starts
+   * @param moduleLoader loads the module having the given key, the first time it is requested
+   */
+  public AnalysisDaemon(Path connectionFile, DaemonModuleLoader moduleLoader) throws IOException {
+    this(connectionFile, moduleLoader, CONNECTION_TIMEOUT);
+  }
+
+  @VisibleForTesting
+  AnalysisDaemon(Path connectionFile, DaemonModuleLoader moduleLoader, Duration connectionTimeout) throws IOException {
+    this.connectionFile = connectionFile;
+    this.moduleLoader = moduleLoader;
+    this.connectionTimeout = connectionTimeout;
+    secret = newSecret();
+    serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+    thread = new Thread(this::serve);
+    thread.setName("Java analysis daemon");
+    thread.setDaemon(true);
+  }
+
+  /**
+   * Writes the connection file, then serves the requests until the daemon is stopped.
+   */
+  public void start() throws IOException {
+    writeConnectionFile(connectionFile, List.of("port=" + port(), "secret=" + secret));
+    started = true;
+    thread.start();
+    LOG.info("Java analysis daemon listening on port {}, connection file: {}", port(), connectionFile);
+  }
+
+  public int port() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Waits for the daemon to be stopped, by a {@code STOP} request or by {@link #close()}.
+   */
+  public void join() throws InterruptedException {
+    thread.join();
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    if (started) {
+      Files.deleteIfExists(connectionFile);
+    }
+  }
+
+  private void serve() {
+    try {
+      while (!serverSocket.isClosed()) {
+        try (Socket socket = serverSocket.accept()) {
+          socket.setSoTimeout((int) connectionTimeout.toMillis());
+          serve(socket);
+        } catch (IOException e) {
+          if (!serverSocket.isClosed()) {
+            LOG.warn("Connection to the Java analysis daemon failed: {}", e.getMessage());
+          }
+        }
+      }
+    } finally {
+      // also when the daemon dies, so that clients do not connect to a daemon which does not serve anymore
+      closeQuietly();
+      modules.values().forEach(module -> module.session().close());
+      modules.clear();
+    }
+  }
+
+  private void closeQuietly() {
+    try {
+      close();
+    } catch (IOException e) {
+      LOG.warn("Failed to stop the Java analysis daemon: {}", e.getMessage());
+    }
+  }
+
+  private void serve(Socket socket) throws IOException {
+    var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+    var writer = new PrintWriter(socket.getOutputStream(), false, UTF_8);
+    try {
+      authenticate(readLine(reader));
+      String request;
+      while ((request = readLine(reader)) != null) {
+        if (request.isBlank()) {
+          continue;
+        }
+        String response;
+        try {
+          response = "OK " + handle(request, reader, writer);
+        } catch (RuntimeException | Error e) {
+          // errors thrown by rules, like StackOverflowError or NoClassDefFoundError, fail the request but not the daemon
+          LOG.error("Java analysis daemon request failed: {}", request, e);
+          response = "ERROR " + firstLine(Objects.requireNonNullElse(e.getMessage(), e.getClass().getName()));
+        }
+        writer.println(response);
+        writer.flush();
+        if (serverSocket.isClosed()) {
+          return;
+        }
+      }
+    } catch (InvalidRequestException e) {
+      LOG.warn("Java analysis daemon closed a connection: {}", e.getMessage());
+      writer.println("ERROR " + e.getMessage());
+      writer.flush();
+    }
+  }
+
+  private void authenticate(@Nullable String line) throws InvalidRequestException {
+    boolean authenticated = line != null
+      && line.startsWith(AUTH_PREFIX)
+      && MessageDigest.isEqual(secret.getBytes(UTF_8), line.substring(AUTH_PREFIX.length()).getBytes(UTF_8));
+    if (!authenticated) {
+      throw new InvalidRequestException("Authentication failed");
+    }
+  }
+
+  private int handle(String request, BufferedReader reader, PrintWriter writer) throws IOException {
+    int separator = request.indexOf(' ');
+    String command = separator < 0 ? request : request.substring(0, separator);
+    String argument = separator < 0 ? "" : request.substring(separator + 1).trim();
+    switch (command) {
+      case "ANALYZE":
+        // the paths are read first, so that the connection can still be used after a failure
+        return analyze(requireModuleKey(argument), readPaths(reader), writer);
+      case "RELEASE":
+        DaemonModule module = modules.remove(requireModuleKey(argument));
+        if (module != null) {
+          module.session().close();
+        }
+        return 0;
+      case "STOP":
+        close();
+        return 0;
+      default:
+        throw new IllegalArgumentException("Unknown request: " + command);
+    }
+  }
+
+  private int analyze(String moduleKey, List<String> paths, PrintWriter writer) {
+    DaemonModule module = modules.computeIfAbsent(moduleKey, moduleLoader::load);
+    List<InputFile> inputFiles = new ArrayList<>(paths.size());
+    Map<InputComponent, String> pathsByFile = new HashMap<>();
+    for (String path : paths) {
+      InputFile inputFile = module.inputFile(path);
+      if (inputFile == null) {
+        throw new IllegalArgumentException("Unknown file in module " + moduleKey + ": " + path);
+      }
+      inputFiles.add(inputFile);
+      pathsByFile.put(inputFile, path);
+    }
+    // issues left by a failed analysis of the module
+    module.takeIssues();
+    module.session().analyzeModule(inputFiles, module.mainEndOfAnalysisChecks(), module.testEndOfAnalysisChecks());
+    module.takeIssues().forEach(issue -> writer.println(issueLine(issue, pathsByFile)));
+    return inputFiles.size();
+  }
+
+  private static String issueLine(Issue issue, Map<InputComponent, String> pathsByFile) {
+    IssueLocation location = issue.primaryLocation();
+    TextRange textRange = location.textRange();
+    return "ISSUE " + issue.ruleKey()
+      + '\t' + pathsByFile.getOrDefault(location.inputComponent(), "")
+      + '\t' + (textRange != null ? textRange.start().line() : 0)
+      + '\t' + singleLine(location.message());
+  }
+
+  private static List<String> readPaths(BufferedReader reader) throws IOException {
+    List<String> paths = new ArrayList<>();
+    String path;
+    while ((path = readLine(reader)) != null && !path.isEmpty()) {
+      if (paths.size() == MAX_PATHS) {
+        throw new InvalidRequestException("Too many files, at most " + MAX_PATHS + " files can be analyzed by request");
+      }
+      paths.add(path);
+    }
+    return paths;
+  }
+
+  /**
+   * Same as {@link BufferedReader#readLine()}, but failing on lines longer than {@link #MAX_LINE_LENGTH}.
+   */
+  @CheckForNull
+  private static String readLine(BufferedReader reader) throws IOException {
+    StringBuilder line = new StringBuilder();
+    int c;
+    while ((c = reader.read()) != -1 && c != '\n') {
+      if (line.length() == MAX_LINE_LENGTH) {
+        throw new InvalidRequestException("Line longer than " + MAX_LINE_LENGTH + " characters");
+      }
+      line.append((char) c);
+    }
+    if (c == -1 && line.isEmpty()) {
+      return null;
+    }
+    int length = line.length();
+    if (length > 0 && line.charAt(length - 1) == '\r') {
+      line.setLength(length - 1);
+    }
+    return line.toString();
+  }
+
+  private static String requireModuleKey(String moduleKey) {
+    if (moduleKey.isEmpty()) {
+      throw new IllegalArgumentException("Missing module key");
+    }
+    return moduleKey;
+  }
+
+  private static String firstLine(@CheckForNull String message) {
+    if (message == null) {
+      return "";
+    }
+    int endOfLine = message.indexOf('\n');
+    return endOfLine < 0 ? message : message.substring(0, endOfLine);
+  }
+
+  private static String singleLine(@CheckForNull String message) {
+    return message == null ? "" : message.replaceAll("[\t\r\n]", " ");
+  }
+
+  private static String newSecret() {
+    byte[] secret = new byte[32];
+    new SecureRandom().nextBytes(secret);
+    return HexFormat.of().formatHex(secret);
+  }
+
+  /**
+   * Creates the connection file readable by its owner only, the file systems without POSIX permissions are not supported.
+   */
+  private static void writeConnectionFile(Path file, List<String> lines) throws IOException {
+    if (!file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      throw new IOException("The connection file of the Java analysis daemon requires a file system with POSIX permissions: " + file);
+    }
+    Files.deleteIfExists(file);
+    Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    Files.write(file, lines, UTF_8);
+  }
+
+  /**
+   * A request after which the connection cannot be used anymore, answered by an error before the connection is closed.
+   */
+  private static class InvalidRequestException extends IOException {
+    InvalidRequestException(String message) {
+      super(message);
+    }
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.daemon;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.sonar.java.annotations.VisibleForTesting;
+
+/**
+ * Starts an {@link AnalysisDaemon} and waits for it to be stopped:
+ * <pre>
+ * java -cp &lt;analyzer and module loader classpath&gt; org.sonar.java.daemon.AnalysisDaemonLauncher &lt;connection file&gt; &lt;module loader class&gt;
+ * </pre>
+ * The module loader is the {@link DaemonModuleLoader} of the build tool starting the daemon, which knows the rules, the files
+ * and the classpath of its modules. The clients read the port and the secret of the daemon from the connection file, which
+ * is deleted when the daemon stops.
+ */
+public final class AnalysisDaemonLauncher {
+
+  private AnalysisDaemonLauncher() {
+    // main class
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    try (AnalysisDaemon daemon = start(args)) {
+      daemon.join();
+    }
+  }
+
+  @VisibleForTesting
+  static AnalysisDaemon start(String[] args) throws IOException {
+    if (args.length != 2) {
+      throw new IllegalArgumentException("Usage: AnalysisDaemonLauncher <connection file> <module loader class>");
+    }
+    AnalysisDaemon daemon = new AnalysisDaemon(Path.of(args[0]), moduleLoader(args[1]));
+    daemon.start();
+    return daemon;
+  }
+
+  private static DaemonModuleLoader moduleLoader(String className) {
+    try {
+      return Class.forName(className).asSubclass(DaemonModuleLoader.class).getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      throw new IllegalArgumentException("Unable to create the module loader " + className, e);
+    }
+  }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.daemon;
+
+import java.util.List;
+import javax.annotation.CheckForNull;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.issue.Issue;
+import org.sonar.java.JavaAnalysisSession;
+import org.sonar.plugins.java.api.JavaCheck;
+
+/**
+ * A module kept loaded by the {@link AnalysisDaemon} between two analysis requests.
+ */
+public interface DaemonModule {
+
+  /**
+   * The session analyzing the files of the module, created once with the rules and the classpath of the module.
+   */
+  JavaAnalysisSession session();
+
+  /**
+   * @param path the path of the file, as sent by the client
+   * @return the file of the module at this path, with its current content, or null if the module has no such file
+   */
+  @CheckForNull
+  InputFile inputFile(String path);
+
+  /**
+   * New instances of the rules of the module implementing {@link org.sonar.plugins.java.api.internal.EndOfAnalysis} for its
+   * main files, run at the end of each analysis request.
+   */
+  List<JavaCheck> mainEndOfAnalysisChecks();
+
+  /**
+   * Same as {@link #mainEndOfAnalysisChecks()}, for the test files.
+   */
+  List<JavaCheck> testEndOfAnalysisChecks();
+
+  /**
+   * @return the issues saved in the sensor context of the session since the previous call, which forgets them
+   */
+  List<Issue> takeIssues();
+
+}
@@ -0,0 +1,34 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.daemon;
+
+/**
+ * Loads the modules analyzed by the {@link AnalysisDaemon}, from the configuration of the build requesting their analysis.
+ * The loader given to the {@link AnalysisDaemonLauncher} is created with its public constructor without parameters.
+ * <p>
+ * Loaders are provided by the build tools embedding the daemon: the daemon is not part of the plugin, whose analysis is
+ * started by the scanner.
+ */
+@FunctionalInterface
+public interface DaemonModuleLoader {
+
+  /**
+   * Loads the module having the given key, on its first request or on the first request after it was released.
+   */
+  DaemonModule load(String moduleKey);
+
+}
@@ -0,0 +1,94 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.daemon;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.StringJoiner;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Stand-in for the clients of the {@link AnalysisDaemon}, as a build would use it to analyze its modules.
+ */
+class AnalysisDaemonClient implements Closeable {
+
+  private final Socket socket;
+  private final BufferedReader reader;
+  private final PrintWriter writer;
+
+  AnalysisDaemonClient(int port, String secret) throws IOException {
+    socket = new Socket(InetAddress.getLoopbackAddress(), port);
+    reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+    writer = new PrintWriter(socket.getOutputStream(), true, UTF_8);
+    writer.println("AUTH " + secret);
+  }
+
+  static AnalysisDaemonClient connect(Path connectionFile) throws IOException {
+    Properties connection = new Properties();
+    try (Reader connectionReader = Files.newBufferedReader(connectionFile, UTF_8)) {
+      connection.load(connectionReader);
+    }
+    return new AnalysisDaemonClient(Integer.parseInt(connection.getProperty("port")), connection.getProperty("secret"));
+  }
+
+  String analyze(String moduleKey, List<String> paths) throws IOException {
+    StringBuilder request = new StringBuilder("ANALYZE ").append(moduleKey).append('\n');
+    paths.forEach(path -> request.append(path).append('\n'));
+    return send(request.toString());
+  }
+
+  String release(String moduleKey) throws IOException {
+    return send("RELEASE " + moduleKey + "\n");
+  }
+
+  String stop() throws IOException {
+    return send("STOP\n");
+  }
+
+  /**
+   * @return the lines of the response, up to the line of its status, or null if the connection was closed
+   */
+  String send(String request) throws IOException {
+    writer.println(request);
+    StringJoiner response = new StringJoiner("\n");
+    String line;
+    while ((line = reader.readLine()) != null) {
+      response.add(line);
+      if (line.startsWith("OK") || line.startsWith("ERROR")) {
+        return response.toString();
+      }
+    }
+    return response.length() == 0 ? null : response.toString();
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+  }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.daemon;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalysisDaemonLauncherTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void daemon_is_started_with_the_given_module_loader() throws Exception {
+    Path connectionFile = tempDir.resolve("daemon.properties");
+    AnalysisDaemon daemon = AnalysisDaemonLauncher.start(new String[] {connectionFile.toString(), NoModuleLoader.class.getName()});
+
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("ERROR No module moduleA");
+      assertThat(client.stop()).isEqualTo("OK 0");
+    }
+    daemon.join();
+    assertThat(connectionFile).doesNotExist();
+  }
+
+  @Test
+  void invalid_arguments_are_reported() {
+    String connectionFile = tempDir.resolve("daemon.properties").toString();
+
+    assertThatThrownBy(() -> AnalysisDaemonLauncher.start(new String[] {connectionFile}))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Usage: AnalysisDaemonLauncher <connection file> <module loader class>");
+    assertThatThrownBy(() -> AnalysisDaemonLauncher.start(new String[] {connectionFile, String.class.getName()}))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Unable to create the module loader java.lang.String");
+  }
+
+  public static class NoModuleLoader implements DaemonModuleLoader {
+
+    @Override
+    public DaemonModule load(String moduleKey) {
+      throw new IllegalStateException("No module " + moduleKey);
+    }
+  }
+
+}
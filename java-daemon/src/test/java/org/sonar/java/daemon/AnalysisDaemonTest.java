@@ -0,0 +1,290 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.daemon;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputComponent;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextPointer;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.batch.sensor.issue.Issue;
+import org.sonar.api.batch.sensor.issue.IssueLocation;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.java.JavaAnalysisSession;
+import org.sonar.plugins.java.api.JavaCheck;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AnalysisDaemonTest {
+
+  @TempDir
+  Path tempDir;
+
+  private final List<String> loadedModules = new ArrayList<>();
+  private final Map<String, FakeModule> modules = new HashMap<>();
+  private Path connectionFile;
+  private AnalysisDaemon daemon;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    connectionFile = tempDir.resolve("daemon.properties");
+    daemon = new AnalysisDaemon(connectionFile, this::loadModule);
+    daemon.start();
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    daemon.close();
+  }
+
+  @Test
+  void modules_are_loaded_once_and_analyzed_in_their_session() throws IOException {
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleA", List.of("A.java", "B.java"))).isEqualTo("OK 2");
+      assertThat(client.analyze("moduleB", List.of("C.java"))).isEqualTo("OK 1");
+    }
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("OK 1");
+    }
+
+    assertThat(loadedModules).containsExactly("moduleA", "moduleB");
+    FakeModule moduleA = modules.get("moduleA");
+    assertThat(moduleA.endOfAnalysisChecks).hasSize(2);
+    verify(moduleA.session).analyzeModule(List.of(moduleA.inputFile("A.java"), moduleA.inputFile("B.java")),
+      moduleA.endOfAnalysisChecks.get(0), List.of());
+    verify(moduleA.session).analyzeModule(List.of(moduleA.inputFile("A.java")), moduleA.endOfAnalysisChecks.get(1), List.of());
+  }
+
+  @Test
+  void issues_of_the_analysis_are_returned_with_the_paths_of_the_request() throws IOException {
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      // loads the module
+      assertThat(client.analyze("moduleA", List.of())).isEqualTo("OK 0");
+      FakeModule moduleA = modules.get("moduleA");
+      moduleA.issues.add(issue("S1", moduleA.inputFile("src/A.java"), 3, "Remove this\tunused field."));
+      doAnswer(invocation -> moduleA.issues.addAll(List.of(
+        issue("S2", moduleA.inputFile("src/A.java"), 7, "Rename this\nmethod."),
+        issue("S3", moduleA.inputFile("src/B.java"), null, "Split this file."),
+        issue("S4", mock(InputComponent.class), null, "Add a package-info.java file."))))
+        .when(moduleA.session).analyzeModule(anyList(), anyList(), anyList());
+
+      assertThat(client.analyze("moduleA", List.of("src/A.java", "src/B.java"))).isEqualTo("""
+        ISSUE java:S2\tsrc/A.java\t7\tRename this method.
+        ISSUE java:S3\tsrc/B.java\t0\tSplit this file.
+        ISSUE java:S4\t\t0\tAdd a package-info.java file.
+        OK 2""");
+    }
+  }
+
+  @Test
+  void released_modules_are_closed_and_loaded_again() throws IOException {
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("OK 1");
+      FakeModule released = modules.get("moduleA");
+      assertThat(client.release("moduleA")).isEqualTo("OK 0");
+      verify(released.session).close();
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("OK 1");
+      assertThat(client.release("unknown")).isEqualTo("OK 0");
+    }
+    assertThat(loadedModules).containsExactly("moduleA", "moduleA");
+  }
+
+  @Test
+  void failed_requests_are_reported_and_do_not_stop_the_daemon() throws IOException {
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleA", List.of("A.java", "unknown"))).isEqualTo("ERROR Unknown file in module moduleA: unknown");
+      FakeModule moduleA = modules.get("moduleA");
+      verify(moduleA.session, never()).analyzeModule(anyList(), anyList(), anyList());
+
+      doThrow(new IllegalStateException("Parse error\nat line 1")).when(moduleA.session).analyzeModule(anyList(), anyList(), anyList());
+      assertThat(client.analyze("moduleA", List.of("B.java"))).isEqualTo("ERROR Parse error");
+
+      assertThat(client.send("ANALYZE")).isEqualTo("ERROR Missing module key");
+      assertThat(client.send("CLEAN moduleA")).isEqualTo("ERROR Unknown request: CLEAN");
+    }
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleB", List.of("A.java"))).isEqualTo("OK 1");
+    }
+  }
+
+  @Test
+  void errors_of_requests_are_reported_and_do_not_stop_the_daemon() throws IOException {
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleA", List.of())).isEqualTo("OK 0");
+      FakeModule moduleA = modules.get("moduleA");
+      doThrow(new NoClassDefFoundError("org/foo/Rule")).when(moduleA.session).analyzeModule(anyList(), anyList(), anyList());
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("ERROR org/foo/Rule");
+      doThrow(new StackOverflowError()).when(moduleA.session).analyzeModule(anyList(), anyList(), anyList());
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("ERROR java.lang.StackOverflowError");
+    }
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleB", List.of("A.java"))).isEqualTo("OK 1");
+    }
+  }
+
+  @Test
+  void connection_file_is_deleted_when_the_daemon_dies() throws Exception {
+    daemon.close();
+    // a negative timeout makes the daemon fail on its first connection
+    daemon = new AnalysisDaemon(connectionFile, this::loadModule, Duration.ofMillis(-1));
+    daemon.start();
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      daemon.join();
+    }
+    assertThat(connectionFile).doesNotExist();
+  }
+
+  @Test
+  void connections_without_the_secret_are_closed() throws IOException {
+    assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(connectionFile))).isEqualTo("rw-------");
+
+    try (var client = new AnalysisDaemonClient(daemon.port(), "wrong secret")) {
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("ERROR Authentication failed");
+      assertThat(client.send("STOP")).isNull();
+    }
+    assertThat(loadedModules).isEmpty();
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("OK 1");
+    }
+  }
+
+  @Test
+  void connections_with_too_large_requests_are_closed() throws IOException {
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      List<String> paths = Collections.nCopies(AnalysisDaemon.MAX_PATHS + 1, "A.java");
+      assertThat(client.analyze("moduleA", paths)).isEqualTo("ERROR Too many files, at most 50000 files can be analyzed by request");
+      assertThat(client.send("STOP")).isNull();
+    }
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      String path = "A".repeat(AnalysisDaemon.MAX_LINE_LENGTH) + ".java";
+      assertThat(client.analyze("moduleA", List.of(path))).isEqualTo("ERROR Line longer than 4096 characters");
+      assertThat(client.send("STOP")).isNull();
+    }
+    assertThat(loadedModules).isEmpty();
+  }
+
+  @Test
+  void idle_connections_are_closed_after_the_timeout() throws Exception {
+    daemon.close();
+    daemon = new AnalysisDaemon(connectionFile, this::loadModule, Duration.ofMillis(200));
+    daemon.start();
+
+    try (var idleClient = AnalysisDaemonClient.connect(connectionFile);
+      var client = AnalysisDaemonClient.connect(connectionFile)) {
+      // served once the idle connection is closed
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("OK 1");
+      assertThat(idleClient.send("STOP")).isNull();
+    }
+  }
+
+  @Test
+  void stop_request_stops_the_daemon_and_closes_the_sessions() throws Exception {
+    try (var client = AnalysisDaemonClient.connect(connectionFile)) {
+      assertThat(client.analyze("moduleA", List.of("A.java"))).isEqualTo("OK 1");
+      assertThat(client.stop()).isEqualTo("OK 0");
+    }
+    daemon.join();
+    verify(modules.get("moduleA").session).close();
+    assertThat(connectionFile).doesNotExist();
+  }
+
+  private DaemonModule loadModule(String key) {
+    loadedModules.add(key);
+    FakeModule module = new FakeModule();
+    modules.put(key, module);
+    return module;
+  }
+
+  private static Issue issue(String rule, InputComponent component, Integer line, String message) {
+    IssueLocation location = mock(IssueLocation.class);
+    doReturn(component).when(location).inputComponent();
+    doReturn(message).when(location).message();
+    if (line != null) {
+      TextPointer start = mock(TextPointer.class);
+      doReturn(line).when(start).line();
+      TextRange textRange = mock(TextRange.class);
+      doReturn(start).when(textRange).start();
+      doReturn(textRange).when(location).textRange();
+    }
+    Issue issue = mock(Issue.class);
+    doReturn(RuleKey.of("java", rule)).when(issue).ruleKey();
+    doReturn(location).when(issue).primaryLocation();
+    return issue;
+  }
+
+  private static class FakeModule implements DaemonModule {
+
+    final JavaAnalysisSession session = mock(JavaAnalysisSession.class);
+    final Map<String, InputFile> inputFiles = new HashMap<>();
+    final List<List<JavaCheck>> endOfAnalysisChecks = new ArrayList<>();
+    final List<Issue> issues = new ArrayList<>();
+
+    @Override
+    public JavaAnalysisSession session() {
+      return session;
+    }
+
+    @Override
+    public InputFile inputFile(String path) {
+      if (path.equals("unknown")) {
+        return null;
+      }
+      return inputFiles.computeIfAbsent(path, p -> mock(InputFile.class));
+    }
+
+    @Override
+    public List<JavaCheck> mainEndOfAnalysisChecks() {
+      List<JavaCheck> checks = List.of(mock(JavaCheck.class));
+      endOfAnalysisChecks.add(checks);
+      return checks;
+    }
+
+    @Override
+    public List<JavaCheck> testEndOfAnalysisChecks() {
+      return List.of();
+    }
+
+    @Override
+    public List<Issue> takeIssues() {
+      List<Issue> taken = new ArrayList<>(issues);
+      issues.clear();
+      return taken;
+    }
+  }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.eclipse.jdt.core.dom;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.util.Util;
+import org.eclipse.jdt.internal.core.BasicCompilationUnit;
+import org.eclipse.jdt.internal.core.CancelableProblemFactory;
+import org.eclipse.jdt.internal.core.DefaultWorkingCopyOwner;
+
+/**
+ * Creates the ASTs of compilation units with their bindings, as {@link ASTParser#createAST} does for a source outside of
+ * any Java project, but with the same name environment for all of them: the entries of the classpath are opened, and the
+ * packages of the jars listed, once instead of for every compilation unit.
+ * <p>
+ * The classpath is read when the parser is created, a new parser has to be created when it changes. This parser is not
+ * thread safe, and its environment must be released by {@link #close()} once its ASTs are not used anymore.
+ */
+public final class ASTSessionParser implements AutoCloseable {
+
+  /**
+   * Same flags as {@link ASTParser} with bindings and their recovery, without statements recovery.
+   */
+  private static final int FLAGS = ICompilationUnit.ENABLE_BINDINGS_RECOVERY;
+
+  private final int apiLevel;
+  private final Map<String, String> compilerOptions;
+  private final NameEnvironmentWithProgress environment;
+
+  public ASTSessionParser(int apiLevel, Map<String, String> compilerOptions, String[] classpathEntries, boolean includeRunningVMBootclasspath) {
+    this.apiLevel = apiLevel;
+    this.compilerOptions = Collections.unmodifiableMap(new HashMap<>(compilerOptions));
+    this.environment = new NameEnvironmentWithProgress(classpath(classpathEntries, includeRunningVMBootclasspath), null, null);
+  }
+
+  /**
+   * @param unitName see {@link ASTParser#setUnitName(String)}
+   */
+  public CompilationUnit createAST(String unitName, char[] source) {
+    BasicCompilationUnit sourceUnit = new BasicCompilationUnit(source, null, unitName, (IJavaElement) null);
+    CompilationUnitDeclaration unit = null;
+    try {
+      unit = resolve(sourceUnit);
+      return CompilationUnitResolver.convert(unit, source, apiLevel, compilerOptions, true, DefaultWorkingCopyOwner.PRIMARY,
+        new DefaultBindingResolver.BindingTables(), FLAGS, null, false);
+    } finally {
+      if (unit != null) {
+        unit.cleanUp();
+      }
+    }
+  }
+
+  /**
+   * Same resolution as the one of {@link CompilationUnitResolver} for a source outside of any Java project, except for the
+   * name environment, which is not created for the compilation unit.
+   */
+  private CompilationUnitDeclaration resolve(BasicCompilationUnit sourceUnit) {
+    CompilerOptions options = CompilationUnitResolver.getCompilerOptions(compilerOptions, false);
+    CompilationUnitResolver resolver = new CompilationUnitResolver(environment, CompilationUnitResolver.getHandlingPolicy(), options,
+      CompilationUnitResolver.getRequestor(), new CancelableProblemFactory(null), null, false);
+    CompilationUnitDeclaration unit = resolver.resolve(null, sourceUnit, true, true, true);
+    if (resolver.hasCompilationAborted) {
+      // the bindings could not be resolved, the unit is only parsed and keeps the problems of the resolution
+      CompilationUnitDeclaration unitDeclaration = CompilationUnitResolver.parse(sourceUnit, null, compilerOptions, FLAGS);
+      if (unit != null) {
+        int problemCount = unit.compilationResult.problemCount;
+        if (problemCount != 0) {
+          unitDeclaration.compilationResult.problems = Arrays.copyOf(unit.compilationResult.problems, problemCount);
+          unitDeclaration.compilationResult.problemCount = problemCount;
+        }
+      } else if (resolver.abortProblem != null) {
+        unitDeclaration.compilationResult.problemCount = 1;
+        unitDeclaration.compilationResult.problems = new CategorizedProblem[] {resolver.abortProblem};
+      }
+      return unitDeclaration;
+    }
+    if (unit != null && unit.scope != null && unit.scope.environment != null && unit.scope.environment.unitBeingCompleted == null) {
+      unit.scope.environment.unitBeingCompleted = unit;
+    }
+    return unit;
+  }
+
+  /**
+   * Same entries as the ones of {@link ASTParser#setEnvironment(String[], String[], String[], boolean)} without source path.
+   */
+  private static Classpath[] classpath(String[] classpathEntries, boolean includeRunningVMBootclasspath) {
+    Main main = new Main(new PrintWriter(System.out), new PrintWriter(System.err), false, null, null);
+    ArrayList<Classpath> classpath = new ArrayList<>();
+    if (includeRunningVMBootclasspath) {
+      Util.collectRunningVMBootclasspath(classpath);
+    }
+    try {
+      for (String classpathEntry : classpathEntries) {
+        main.processPathEntries(Main.DEFAULT_SIZE_CLASSPATH, classpath, classpathEntry, null, false, false);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException("invalid environment settings", e);
+    }
+    if (main.pendingErrors != null && !main.pendingErrors.isEmpty()) {
+      throw new IllegalStateException("invalid environment settings");
+    }
+    return classpath.toArray(new Classpath[0]);
+  }
+
+  /**
+   * Closes the entries of the classpath, after which the bindings of the ASTs created by this parser cannot be resolved anymore.
+   */
+  @Override
+  public void close() {
+    environment.cleanup();
+  }
+
+}
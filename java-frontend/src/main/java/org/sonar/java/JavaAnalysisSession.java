@@ -0,0 +1,156 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.eclipse.jdt.core.dom.ASTSessionParser;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.ast.JavaAstScanner;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.VisitorsBridge;
+import org.sonar.java.telemetry.Telemetry;
+import org.sonar.java.telemetry.TelemetryKey;
+import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.JavaVersion;
+import org.sonar.plugins.java.api.internal.EndOfAnalysis;
+
+/**
+ * Analysis of the files of a module one at a time, as done by an IDE each time a file is edited.
+ * Unlike {@link JavaFrontend#scan}, the instances of the rules, the visitors bridges, the configuration of the parser and the
+ * name environment resolving the types of the classpath are kept from one file to the next, so that only the parsing and
+ * the visit of the edited file are left to do. The content of the classpath is read once: changes to its jars and
+ * directories are only seen after the session is closed, which also releases them.
+ * <p>
+ * The checks implementing {@link EndOfAnalysis} are not part of the session, as their issues depend on all the files of the
+ * module: they are only run by {@link #analyzeModule}, with instances given for each analysis of the module. Generated files
+ * are not supported.
+ */
+public class JavaAnalysisSession implements AutoCloseable {
+
+  private final JavaVersion javaVersion;
+  private final SonarComponents sonarComponents;
+  private final Telemetry telemetry;
+  private final List<JavaCheck> mainVisitors;
+  private final List<JavaCheck> testVisitors;
+  private final JavaAstScanner mainScanner;
+  private final JavaAstScanner testScanner;
+  private final JParserConfig mainParserConfig;
+  private final JParserConfig testParserConfig;
+  @Nullable
+  private ASTSessionParser mainSessionParser;
+  @Nullable
+  private ASTSessionParser testSessionParser;
+
+  public JavaAnalysisSession(JavaVersion javaVersion, SonarComponents sonarComponents, Telemetry telemetry,
+    List<? extends JavaCheck> mainVisitors, List<? extends JavaCheck> testVisitors) {
+    this.javaVersion = javaVersion;
+    this.sonarComponents = sonarComponents;
+    this.telemetry = telemetry;
+    this.mainVisitors = fileVisitors(mainVisitors);
+    this.testVisitors = fileVisitors(testVisitors);
+    mainScanner = mainScanner(List.of());
+    testScanner = testScanner(List.of());
+    mainParserConfig = mainScanner.fileByFileParserConfig();
+    testParserConfig = testScanner.fileByFileParserConfig();
+  }
+
+  /**
+   * Analyzes the current content of the file, reporting its issues through the {@link SonarComponents} of the session.
+   */
+  public void analyze(InputFile inputFile) {
+    analyze(inputFile, mainScanner, testScanner);
+    // undefined types are collected by file, and only reported for the last analyzed file
+    sonarComponents.logUndefinedTypes();
+  }
+
+  /**
+   * Analyzes the files as all the files of the module, then runs the given checks implementing {@link EndOfAnalysis} along
+   * with the rules of the session. These checks keep the state of the files until the end of the analysis, so they must be
+   * new instances for each call.
+   */
+  public void analyzeModule(List<InputFile> inputFiles, List<? extends JavaCheck> mainEndOfAnalysisChecks,
+    List<? extends JavaCheck> testEndOfAnalysisChecks) {
+    JavaAstScanner moduleMainScanner = mainScanner(mainEndOfAnalysisChecks);
+    JavaAstScanner moduleTestScanner = testScanner(testEndOfAnalysisChecks);
+    inputFiles.forEach(inputFile -> analyze(inputFile, moduleMainScanner, moduleTestScanner));
+    moduleMainScanner.endOfAnalysis();
+    moduleTestScanner.endOfAnalysis();
+  }
+
+  private void analyze(InputFile inputFile, JavaAstScanner mainFileScanner, JavaAstScanner testFileScanner) {
+    if (inputFile.type() == InputFile.Type.TEST) {
+      if (testSessionParser == null) {
+        testSessionParser = testParserConfig.sessionParser();
+      }
+      testFileScanner.scanSingleFile(inputFile, testParserConfig, testSessionParser);
+    } else {
+      if (mainSessionParser == null) {
+        mainSessionParser = mainParserConfig.sessionParser();
+      }
+      mainFileScanner.scanSingleFile(inputFile, mainParserConfig, mainSessionParser);
+    }
+  }
+
+  /**
+   * Releases the name environments of the session, a file analyzed afterward reads the classpath again.
+   */
+  @Override
+  public void close() {
+    if (mainSessionParser != null) {
+      mainSessionParser.close();
+      mainSessionParser = null;
+    }
+    if (testSessionParser != null) {
+      testSessionParser.close();
+      testSessionParser = null;
+    }
+  }
+
+  private JavaAstScanner mainScanner(List<? extends JavaCheck> endOfAnalysisChecks) {
+    return scanner(concat(mainVisitors, endOfAnalysisChecks), sonarComponents.getJavaClasspath(), TelemetryKey.JAVA_ANALYSIS_MAIN);
+  }
+
+  private JavaAstScanner testScanner(List<? extends JavaCheck> endOfAnalysisChecks) {
+    return scanner(concat(testVisitors, endOfAnalysisChecks), sonarComponents.getJavaTestClasspath(), TelemetryKey.JAVA_ANALYSIS_TEST);
+  }
+
+  private JavaAstScanner scanner(List<JavaCheck> visitors, List<File> classpath, TelemetryKey.JavaAnalysisKeys analysisKeys) {
+    JavaAstScanner scanner = new JavaAstScanner(sonarComponents, telemetry, analysisKeys);
+    scanner.setVisitorBridge(new VisitorsBridge(visitors, classpath, sonarComponents, javaVersion, sonarComponents.inAndroidContext()));
+    return scanner;
+  }
+
+  private static List<JavaCheck> concat(List<JavaCheck> visitors, List<? extends JavaCheck> endOfAnalysisChecks) {
+    if (endOfAnalysisChecks.isEmpty()) {
+      return visitors;
+    }
+    List<JavaCheck> allVisitors = new ArrayList<>(visitors);
+    allVisitors.addAll(endOfAnalysisChecks);
+    return allVisitors;
+  }
+
+  private static List<JavaCheck> fileVisitors(List<? extends JavaCheck> visitors) {
+    return visitors.stream()
+      .filter(visitor -> !(visitor instanceof EndOfAnalysis))
+      .map(JavaCheck.class::cast)
+      .toList();
+  }
+
+}
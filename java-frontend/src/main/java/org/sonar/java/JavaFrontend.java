@@ -70,6 +70,8 @@ public class JavaFrontend {
   private final SonarComponents sonarComponents;
   private final Telemetry telemetry;
   private final List<File> globalClasspath;
+  private final List<JavaCheck> sessionVisitors;
+  private final List<JavaCheck> sessionTestVisitors;
   private final JavaAstScanner astScanner;
   private final JavaAstScanner astScannerForTests;
   private final JavaAstScanner astScannerForGeneratedFiles;
@@ -103,6 +105,12 @@ public class JavaFrontend {
     List<File> testClasspath = sonarComponents.getJavaTestClasspath();
     List<File> jspClasspath = sonarComponents.getJspClasspath();
     testCodeVisitors.addAll(sonarComponents.testChecks());
+
+    // the session analyzes the files again: it keeps the rules and the filter of their issues, but not the visitors saving
+    // the measures, highlighting and telemetry of a file, which can only be saved once
+    List<JavaCheck> issueFilters = postAnalysisIssueFilter != null ? List.of(postAnalysisIssueFilter) : List.of();
+    sessionVisitors = Stream.of(issueFilters, Arrays.asList(visitors)).flatMap(List::stream).toList();
+    sessionTestVisitors = Stream.of(issueFilters, sonarComponents.testChecks()).flatMap(List::stream).toList();
     List<JavaCheck> jspCodeVisitors = sonarComponents.jspChecks();
     boolean inAndroidContext = sonarComponents.inAndroidContext();
 
@@ -175,6 +183,14 @@ public class JavaFrontend {
     }
   }
 
+  /**
+   * Starts a session analyzing files one at a time with the rules of this frontend, which stay loaded as long as the session
+   * is used. It does not end the analysis of the module, and is meant to analyze again the files edited in an IDE.
+   */
+  public JavaAnalysisSession newSession() {
+    return new JavaAnalysisSession(javaVersion, sonarComponents, telemetry, sessionVisitors, sessionTestVisitors);
+  }
+
   /**
    * Scans the files given as input in batch mode.
    *
@@ -0,0 +1,119 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Summaries written by the analyses of the modules of a project, for the checks implementing
+ * {@link org.sonar.plugins.java.api.internal.ProjectEndOfAnalysis} to be run once on the whole project.
+ * <p>
+ * The summaries are kept in the working directory of the root project, one file per rule and module, so that the memory
+ * used does not grow with the number of modules. A module analyzed again replaces its summary. The summaries are removed
+ * by {@link #clear()} once the project-level analysis has read them.
+ */
+public class ProjectSummaryStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ProjectSummaryStore.class);
+
+  static final String DIRECTORY_NAME = "sonar-java-project-summaries";
+  private static final String SUMMARY_FILE_SUFFIX = ".bin";
+
+  private final Path directory;
+
+  public ProjectSummaryStore(File projectWorkDir) {
+    this.directory = projectWorkDir.toPath().resolve(DIRECTORY_NAME);
+  }
+
+  /**
+   * @return false when the summary could not be written, in which case the project-level analysis will not see it
+   */
+  public boolean write(String ruleKey, String moduleKey, byte[] summary) {
+    Path file = ruleDirectory(ruleKey).resolve(encode(moduleKey) + SUMMARY_FILE_SUFFIX);
+    try {
+      Files.createDirectories(file.getParent());
+      Files.write(file, summary);
+      return true;
+    } catch (IOException e) {
+      LOG.warn("Unable to write the project summary of rule {} for module {}: {}", ruleKey, moduleKey, e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * @return the summaries written for the given rule, by module key
+   */
+  public Map<String, byte[]> read(String ruleKey) {
+    Map<String, byte[]> summaries = new TreeMap<>();
+    Path ruleDirectory = ruleDirectory(ruleKey);
+    if (!Files.isDirectory(ruleDirectory)) {
+      return summaries;
+    }
+    try (Stream<Path> files = Files.list(ruleDirectory)) {
+      for (Path file : files.toList()) {
+        String fileName = file.getFileName().toString();
+        if (fileName.endsWith(SUMMARY_FILE_SUFFIX)) {
+          summaries.put(decode(fileName.substring(0, fileName.length() - SUMMARY_FILE_SUFFIX.length())), Files.readAllBytes(file));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read the project summaries of rule " + ruleKey, e);
+    }
+    return summaries;
+  }
+
+  public void clear() {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    } catch (IOException e) {
+      LOG.debug("Unable to delete the project summaries: {}", e.getMessage());
+    }
+  }
+
+  private Path ruleDirectory(String ruleKey) {
+    return directory.resolve(encode(ruleKey));
+  }
+
+  private static String encode(String key) {
+    // "*" is kept by the URL encoding, but is not allowed in file names on every platform
+    return URLEncoder.encode(key, UTF_8).replace("*", "%2A");
+  }
+
+  private static String decode(String fileName) {
+    return URLDecoder.decode(fileName, UTF_8);
+  }
+
+}
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -64,8 +65,11 @@ import org.sonar.java.classpath.ClasspathForMain;
 import org.sonar.java.classpath.ClasspathForTest;
 import org.sonar.java.exceptions.ApiMismatchException;
 import org.sonar.java.model.GeneratedFile;
+import org.sonar.java.model.InheritedNullabilityCache;
 import org.sonar.java.model.JProblem;
 import org.sonar.java.model.LineUtils;
+import org.sonar.java.model.TypeHierarchyIndex;
+import org.sonar.java.regex.RegexAnalysisCache;
 import org.sonar.java.reporting.AnalyzerMessage;
 import org.sonar.java.reporting.JavaIssue;
 import org.sonar.java.utils.ModuleMetadataUtils;
@@ -111,6 +115,20 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
    */
   public static final String SONAR_FAIL_ON_STACKOVERFLOW = "sonar.java.internal.failOnStackOverflow";
 
+  /**
+   * Maximum number of lines of a file for which syntax highlighting and symbol references are reported.
+   * Not set by default, meaning that all the files are highlighted. Highlighting huge files (usually generated) is costly
+   * while being of little use when browsing them.
+   */
+  public static final String SONAR_HIGHLIGHTING_MAX_LINES_KEY = "sonar.java.highlighting.maxLines";
+
+  /**
+   * Maximum number of steps an analysis of a single regular expression (e.g. the detection of catastrophic backtracking) can take.
+   * Once reached, the analysis of the regex is stopped and considered as inconclusive.
+   */
+  public static final String SONAR_REGEX_ANALYSIS_MAX_STEPS_KEY = "sonar.java.regex.analysisMaxSteps";
+  public static final int DEFAULT_REGEX_ANALYSIS_MAX_STEPS = 100_000;
+
   private static final Version SONARLINT_6_3 = Version.parse("6.3");
   private static final Version SONARQUBE_9_2 = Version.parse("9.2");
   @VisibleForTesting
@@ -133,9 +151,16 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   private final List<JavaCheck> testChecks;
   private final List<JavaCheck> jspChecks;
   private final List<Checks<JavaCheck>> allChecks;
+  // rule keys resolved once per check instance, as they are needed for every reported issue
+  private final Map<JavaCheck, Optional<RuleKey>> ruleKeyByCheck = new IdentityHashMap<>();
   private SensorContext context;
   private UnaryOperator<List<JavaCheck>> checkFilter = UnaryOperator.identity();
   private final Set<RuleKey> additionalAutoScanCompatibleRuleKeys;
+  private final RegexAnalysisCache regexAnalysisCache = new RegexAnalysisCache();
+  private final TypeHierarchyIndex typeHierarchy = new TypeHierarchyIndex();
+  private final InheritedNullabilityCache inheritedNullabilityCache = new InheritedNullabilityCache();
+  @Nullable
+  private ProjectSummaryStore projectSummaryStore;
 
   private boolean alreadyLoggedSkipStatus = false;
 
@@ -252,6 +277,40 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     return context.newHighlighting().onFile(inputFile);
   }
 
+  /**
+   * Results of analyses of regular expressions, shared by all the files of the module
+   */
+  public RegexAnalysisCache regexAnalysisCache() {
+    return regexAnalysisCache;
+  }
+
+  /**
+   * Type hierarchy of the module, filled as its files are analyzed
+   */
+  public TypeHierarchyIndex typeHierarchy() {
+    return typeHierarchy;
+  }
+
+  /**
+   * Nullability inherited from packages and classes, shared by all the files of the module
+   */
+  public InheritedNullabilityCache inheritedNullabilityCache() {
+    return inheritedNullabilityCache;
+  }
+
+  /**
+   * Summaries of the module for the checks run at project level, only available when the project-level analysis of these
+   * checks is going to run.
+   */
+  @CheckForNull
+  public ProjectSummaryStore projectSummaryStore() {
+    return projectSummaryStore;
+  }
+
+  public void setProjectSummaryStore(@Nullable ProjectSummaryStore projectSummaryStore) {
+    this.projectSummaryStore = projectSummaryStore;
+  }
+
   public List<File> getJavaClasspath() {
     if (javaClasspath == null) {
       return new ArrayList<>();
@@ -335,6 +394,26 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     return additionalAutoScanCompatibleRuleKeys;
   }
 
+  /**
+   * @see #activeCheckRuleKeys(ActiveRules, String)
+   */
+  public Set<String> activeCheckRuleKeys(String repositoryKey) {
+    return activeCheckRuleKeys(activeRules, repositoryKey);
+  }
+
+  /**
+   * Keys of the {@code @Rule} annotations of the checks of the active rules of the repository, matched the same way as
+   * {@link Checks#addAnnotatedChecks}: a rule created from a template is run by the check of its template.
+   */
+  public static Set<String> activeCheckRuleKeys(ActiveRules activeRules, String repositoryKey) {
+    return activeRules.findByRepository(repositoryKey).stream()
+      .map(activeRule -> {
+        String templateRuleKey = activeRule.templateRuleKey();
+        return templateRuleKey == null || templateRuleKey.isBlank() ? activeRule.ruleKey().rule() : templateRuleKey;
+      })
+      .collect(Collectors.toSet());
+  }
+
   private boolean hasAtLeastOneActiveRule(Collection<RuleKey> ruleKeys) {
     return ruleKeys.stream().anyMatch(ruleKey -> activeRules.find(ruleKey) != null);
   }
@@ -345,6 +424,7 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
 
   private void registerCheckClasses(List<JavaCheck> destinationList, Checks<JavaCheck> createdChecks, Collection<?> javaCheckClassesAndInstances) {
     allChecks.add(createdChecks);
+    ruleKeyByCheck.clear();
     Map<Class<? extends JavaCheck>, Integer> classIndexes = new HashMap<>();
     int i = 0;
     for (Object javaCheckClassOrInstance : javaCheckClassesAndInstances) {
@@ -381,6 +461,10 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
   }
 
   public Optional<RuleKey> getRuleKey(JavaCheck check) {
+    return ruleKeyByCheck.computeIfAbsent(check, this::findRuleKey);
+  }
+
+  private Optional<RuleKey> findRuleKey(JavaCheck check) {
     return allChecks.stream()
       .map(sonarChecks -> sonarChecks.ruleKey(check))
       .filter(Objects::nonNull)
@@ -395,14 +479,11 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     JavaCheck check = analyzerMessage.getCheck();
     Objects.requireNonNull(check);
     Objects.requireNonNull(analyzerMessage.getMessage());
-    getRuleKey(check).ifPresent(key -> {
-      InputComponent inputComponent = analyzerMessage.getInputComponent();
-      if (inputComponent == null) {
-        return;
-      }
-      Double cost = analyzerMessage.getCost();
-      reportIssue(analyzerMessage, key, inputComponent, cost);
-    });
+    Optional<RuleKey> key = getRuleKey(check);
+    InputComponent inputComponent = analyzerMessage.getInputComponent();
+    if (key.isPresent() && inputComponent != null) {
+      reportIssue(analyzerMessage, key.get(), inputComponent, analyzerMessage.getCost());
+    }
   }
 
   @VisibleForTesting
@@ -505,6 +586,34 @@ public class SonarComponents extends CheckRegistrar.RegistrarContext {
     return context.config().getBoolean(SONAR_FAIL_ON_STACKOVERFLOW).orElse(true);
   }
 
+  /**
+   * @return true if the file is bigger than the configured {@link #SONAR_HIGHLIGHTING_MAX_LINES_KEY}, in which case neither
+   * syntax highlighting nor symbol references should be reported for it.
+   */
+  public boolean shouldSkipHighlighting(InputFile inputFile) {
+    Configuration config = context.config();
+    if (config == null) {
+      return false;
+    }
+    return config.getInt(SONAR_HIGHLIGHTING_MAX_LINES_KEY)
+      .map(maxLines -> maxLines >= 0 && inputFile.lines() > maxLines)
+      .orElse(false);
+  }
+
+  /**
+   * @return the configured {@link #SONAR_REGEX_ANALYSIS_MAX_STEPS_KEY}, or {@link #DEFAULT_REGEX_ANALYSIS_MAX_STEPS} when not set
+   * or not strictly positive
+   */
+  public int regexAnalysisMaxSteps() {
+    Configuration config = context == null ? null : context.config();
+    if (config == null) {
+      return DEFAULT_REGEX_ANALYSIS_MAX_STEPS;
+    }
+    return config.getInt(SONAR_REGEX_ANALYSIS_MAX_STEPS_KEY)
+      .filter(maxSteps -> maxSteps > 0)
+      .orElse(DEFAULT_REGEX_ANALYSIS_MAX_STEPS);
+  }
+
   private static long computeIdealBatchSize() {
     // We take a fraction of the total memory available though -Xmx.
     // If we assume that the average size of a file is 5KB and the average CI should have 1GB of memory,
@@ -30,6 +30,7 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.eclipse.jdt.core.dom.ASTSessionParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
@@ -109,10 +110,7 @@ public class JavaAstScanner {
     List<? extends InputFile> filesNames = filterModuleInfo(inputFiles).toList();
     AnalysisProgress analysisProgress = new AnalysisProgress(filesNames.size());
     try {
-      boolean shouldIgnoreUnnamedModuleForSplitPacakge = sonarComponents != null &&
-        sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage();
-      JParserConfig.Mode.FILE_BY_FILE
-        .create(visitor.getJavaVersion(), visitor.getClasspath(), shouldIgnoreUnnamedModuleForSplitPacakge)
+      fileByFileParserConfig()
         .parse(filesNames,
           this::analysisCancelled,
           analysisProgress,
@@ -125,6 +123,26 @@ public class JavaAstScanner {
     }
   }
 
+  /**
+   * @return the configuration of the parser analyzing the files one by one, which can be kept to analyze several files
+   */
+  public JParserConfig fileByFileParserConfig() {
+    boolean shouldIgnoreUnnamedModuleForSplitPackage = sonarComponents != null &&
+      sonarComponents.shouldIgnoreUnnamedModuleForSplitPackage();
+    return JParserConfig.Mode.FILE_BY_FILE
+      .create(visitor.getJavaVersion(), visitor.getClasspath(), shouldIgnoreUnnamedModuleForSplitPackage);
+  }
+
+  /**
+   * Analyzes a single file with the given parser, without ending the analysis, so that the files of a module can be analyzed
+   * again one at a time by the same visitors.
+   * The environment used for semantic resolution is the one of the parser, and is not released after the file.
+   */
+  public void scanSingleFile(InputFile inputFile, JParserConfig parserConfig, ASTSessionParser sessionParser) {
+    filterModuleInfo(List.of(inputFile))
+      .forEach(file -> parserConfig.parse(file, sessionParser, (i, r) -> simpleScan(i, r, ast -> {})));
+  }
+
   public <T extends InputFile> Stream<T> filterModuleInfo(Iterable<T> inputFiles) {
     JavaVersion javaVersion = visitor.getJavaVersion();
     return StreamSupport.stream(inputFiles.spliterator(), false)
@@ -116,9 +116,7 @@ public class CognitiveComplexityVisitor extends BaseTreeVisitor {
       @Override
       public void visitBlock(BlockTree tree) {
         if (tree.is(Tree.Kind.INITIALIZER, Tree.Kind.STATIC_INITIALIZER)) {
-          CognitiveComplexityVisitor visitor = new CognitiveComplexityVisitor();
-          tree.accept(visitor);
-          cutComplexity += visitor.complexity;
+          cutComplexity += initializerComplexity(tree);
         }
         super.visitBlock(tree);
       }
@@ -130,6 +128,15 @@ public class CognitiveComplexityVisitor extends BaseTreeVisitor {
   }
 
 
+  /**
+   * Complexity of an instance or static initializer, which is part of the complexity of the compilation unit
+   */
+  public static int initializerComplexity(BlockTree initializer) {
+    CognitiveComplexityVisitor visitor = new CognitiveComplexityVisitor();
+    initializer.accept(visitor);
+    return visitor.complexity;
+  }
+
   private static boolean shouldAnalyzeMethod(MethodTree methodTree) {
     return methodTree.block() != null && !memberOfAnonymousClass(methodTree) && !isWithinLocalClass(methodTree);
   }
@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
 import org.sonar.java.model.LineUtils;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -63,21 +64,36 @@ public class CommentLinesVisitor extends SubscriptionVisitor {
   }
 
   private void handleCommentsForTrivia(SyntaxTrivia trivia) {
+    boolean hasCommentLine = visitCommentLines(trivia, comments::add, noSonarLines::add);
+    if (hasCommentLine) {
+      Path path = Path.of("");
+      if (context != null) {
+        path = Paths.get(context.getInputFile().uri());
+      }
+      syntaxTrivia.computeIfAbsent(path, k -> new HashSet<>()).add(trivia);
+    }
+  }
+
+  /**
+   * Visits the lines of a comment: lines containing NOSONAR are passed to {@code noSonarLineConsumer}, other lines which are not
+   * blank are passed to {@code commentLineConsumer}.
+   *
+   * @return true if at least one line was passed to {@code commentLineConsumer}
+   */
+  public static boolean visitCommentLines(SyntaxTrivia trivia, IntConsumer commentLineConsumer, IntConsumer noSonarLineConsumer) {
     String[] commentLines = trivia.commentContent().split("\\R", -1);
     int line = LineUtils.startLine(trivia);
+    boolean hasCommentLine = false;
     for (String commentLine : commentLines) {
       if (commentLine.contains("NOSONAR")) {
-        noSonarLines.add(line);
+        noSonarLineConsumer.accept(line);
       } else if (!isBlank(commentLine)) {
-        Path path = Path.of("");
-        if (context != null) {
-          path = Paths.get(context.getInputFile().uri());
-        }
-        syntaxTrivia.computeIfAbsent(path, k -> new HashSet<>()).add(trivia);
-        comments.add(line);
+        commentLineConsumer.accept(line);
+        hasCommentLine = true;
       }
       line++;
     }
+    return hasCommentLine;
   }
 
   public Map<Path, Set<SyntaxTrivia>> getSyntaxTrivia() {
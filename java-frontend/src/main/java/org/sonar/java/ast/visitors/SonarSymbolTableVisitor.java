@@ -16,29 +16,42 @@
  */
 package org.sonar.java.ast.visitors;
 
+import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.CheckForNull;
 import org.sonar.api.batch.sensor.symbol.NewSymbol;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
+import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.declaration.VariableTreeImpl;
+import org.sonar.plugins.java.api.location.Position;
+import org.sonar.plugins.java.api.location.Range;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
-import org.sonar.plugins.java.api.tree.EnumConstantTree;
 import org.sonar.plugins.java.api.tree.IdentifierTree;
 import org.sonar.plugins.java.api.tree.ImportTree;
 import org.sonar.plugins.java.api.tree.LabeledStatementTree;
 import org.sonar.plugins.java.api.tree.MemberSelectExpressionTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
-import org.sonar.plugins.java.api.location.Range;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.TypeParameterTree;
 import org.sonar.plugins.java.api.tree.VariableTree;
 
+/**
+ * Builds the symbol table of a file from its tokens: a symbol is created for each identifier token declaring a class, a
+ * type parameter, a variable, an enum constant, a method, a label or an import, with the usages of the declared symbol as
+ * references. Symbols are then created in the order of their declarations, and their references in offset order.
+ * <p>
+ * Visiting a compilation unit walks its tokens and saves the symbol table. During the analysis, the tokens are instead
+ * fed by the walk of the syntax highlighting (see {@link SyntaxHighlighterVisitor}) through {@link #visitToken(SyntaxToken)},
+ * followed by {@link #save()}, so that a file is walked once for both.
+ * </p>
+ */
 public class SonarSymbolTableVisitor extends BaseTreeVisitor {
 
   private final NewSymbolTable newSymbolTable;
-  private CompilationUnitTree outerClass;
 
   public SonarSymbolTableVisitor(NewSymbolTable newSymbolTable) {
     this.newSymbolTable = newSymbolTable;
@@ -46,72 +59,98 @@ public class SonarSymbolTableVisitor extends BaseTreeVisitor {
 
   @Override
   public void visitCompilationUnit(CompilationUnitTree tree) {
-    if (outerClass == null) {
-      outerClass = tree;
-    }
-    super.visitCompilationUnit(tree);
-
-    if (tree.equals(outerClass)) {
-      newSymbolTable.save();
-    }
+    visitTokens(tree);
+    save();
   }
 
-  @Override
-  public void visitClass(ClassTree tree) {
-    IdentifierTree simpleName = tree.simpleName();
-    if (simpleName != null) {
-      createSymbol(simpleName, tree.symbol().usages());
+  private void visitTokens(Tree tree) {
+    if (tree.is(Tree.Kind.TOKEN)) {
+      visitToken((SyntaxToken) tree);
+      return;
     }
-    for (TypeParameterTree typeParameterTree : tree.typeParameters()) {
-      createSymbol(typeParameterTree.identifier(), typeParameterTree.symbol().usages());
+    JavaTree javaTree = (JavaTree) tree;
+    if (!javaTree.isLeaf()) {
+      for (Tree child : javaTree.getChildren()) {
+        if (child != null) {
+          visitTokens(child);
+        }
+      }
     }
-    super.visitClass(tree);
   }
 
-  @Override
-  public void visitVariable(VariableTree tree) {
-    createSymbol(tree.simpleName(), tree.symbol().usages());
-    super.visitVariable(tree);
+  public void visitToken(SyntaxToken syntaxToken) {
+    Tree parent = syntaxToken.parent();
+    if (parent != null && parent.is(Tree.Kind.IDENTIFIER)) {
+      IdentifierTree identifier = (IdentifierTree) parent;
+      List<IdentifierTree> usages = usagesOfDeclaredSymbol(identifier);
+      if (usages != null) {
+        createSymbol(identifier, usages);
+      }
+    }
   }
 
-  @Override
-  public void visitEnumConstant(EnumConstantTree tree) {
-    createSymbol(tree.simpleName(), ((VariableTreeImpl) tree).symbol().usages());
-    super.visitEnumConstant(tree);
+  public void save() {
+    newSymbolTable.save();
   }
 
-  @Override
-  public void visitMethod(MethodTree tree) {
-    List<IdentifierTree> usages = tree.symbol().usages();
-    createSymbol(tree.simpleName(), usages);
-    for (TypeParameterTree typeParameterTree : tree.typeParameters()) {
-      createSymbol(typeParameterTree.identifier(), typeParameterTree.symbol().usages());
+  /**
+   * @return the usages of the symbol declared by the identifier, or null if the identifier is not the name of a declaration
+   */
+  @CheckForNull
+  private static List<IdentifierTree> usagesOfDeclaredSymbol(IdentifierTree identifier) {
+    Tree declaration = identifier.parent();
+    if (declaration == null) {
+      return null;
+    }
+    switch (declaration.kind()) {
+      case CLASS, ENUM, INTERFACE, RECORD, ANNOTATION_TYPE:
+        ClassTree classTree = (ClassTree) declaration;
+        return identifier == classTree.simpleName() ? classTree.symbol().usages() : null;
+      case TYPE_PARAMETER:
+        TypeParameterTree typeParameterTree = (TypeParameterTree) declaration;
+        return identifier == typeParameterTree.identifier() ? typeParameterTree.symbol().usages() : null;
+      case VARIABLE:
+        VariableTree variableTree = (VariableTree) declaration;
+        return identifier == variableTree.simpleName() ? variableTree.symbol().usages() : null;
+      case ENUM_CONSTANT:
+        return enumConstantUsages(declaration, identifier);
+      case NEW_CLASS:
+        // the name of an enum constant is also the identifier of its initializer
+        Tree enumConstant = declaration.parent();
+        return enumConstant != null && enumConstant.is(Tree.Kind.ENUM_CONSTANT) ? enumConstantUsages(enumConstant, identifier) : null;
+      case METHOD, CONSTRUCTOR:
+        MethodTree methodTree = (MethodTree) declaration;
+        return identifier == methodTree.simpleName() ? methodTree.symbol().usages() : null;
+      case LABELED_STATEMENT:
+        LabeledStatementTree labeledStatementTree = (LabeledStatementTree) declaration;
+        return identifier == labeledStatementTree.label() ? labeledStatementTree.symbol().usages() : null;
+      case IMPORT:
+        return importedSymbolUsages((ImportTree) declaration, identifier);
+      case MEMBER_SELECT:
+        Tree importTree = declaration.parent();
+        if (importTree != null && importTree.is(Tree.Kind.IMPORT) && identifier == ((MemberSelectExpressionTree) declaration).identifier()) {
+          return importedSymbolUsages((ImportTree) importTree, identifier);
+        }
+        return null;
+      default:
+        return null;
     }
-    super.visitMethod(tree);
   }
 
-  @Override
-  public void visitLabeledStatement(LabeledStatementTree tree) {
-    createSymbol(tree.label(), tree.symbol().usages());
-    super.visitLabeledStatement(tree);
+  @CheckForNull
+  private static List<IdentifierTree> enumConstantUsages(Tree enumConstantTree, IdentifierTree identifier) {
+    VariableTreeImpl enumConstant = (VariableTreeImpl) enumConstantTree;
+    return identifier == enumConstant.simpleName() ? enumConstant.symbol().usages() : null;
   }
 
-  @Override
-  public void visitImport(ImportTree tree) {
-    IdentifierTree identifierTree;
-    if (tree.qualifiedIdentifier().is(Tree.Kind.IDENTIFIER)) {
-      identifierTree = (IdentifierTree) tree.qualifiedIdentifier();
-    } else {
-      identifierTree = ((MemberSelectExpressionTree) tree.qualifiedIdentifier()).identifier();
-    }
+  @CheckForNull
+  private static List<IdentifierTree> importedSymbolUsages(ImportTree importTree, IdentifierTree identifier) {
     // Exclude on demands imports
-    if (!"*".equals(identifierTree.name())) {
-      Symbol symbol = tree.symbol();
-      if (symbol != null) {
-        createSymbol(identifierTree, symbol.usages());
-      }
+    if ("*".equals(identifier.name())) {
+      return null;
     }
-    super.visitImport(tree);
+    Symbol symbol = importTree.symbol();
+    return symbol == null ? null : symbol.usages();
   }
 
   private void createSymbol(IdentifierTree declaration, List<IdentifierTree> usages) {
@@ -119,7 +158,7 @@ public class SonarSymbolTableVisitor extends BaseTreeVisitor {
     NewSymbol newSymbol = newSymbolTable.newSymbol(
       range.start().line(), range.start().columnOffset(),
       range.end().line(), range.end().columnOffset());
-    for (IdentifierTree usage : usages) {
+    for (IdentifierTree usage : inOffsetOrder(usages)) {
       range = usage.identifierToken().range();
       newSymbol.newReference(
         range.start().line(), range.start().columnOffset(),
@@ -127,4 +166,19 @@ public class SonarSymbolTableVisitor extends BaseTreeVisitor {
     }
   }
 
+  /**
+   * Usages are recorded in the order of the conversion of the tree, which is the order of the offsets but for a few
+   * constructs: they are only sorted when needed.
+   */
+  private static List<IdentifierTree> inOffsetOrder(List<IdentifierTree> usages) {
+    for (int i = 1; i < usages.size(); i++) {
+      if (Position.TREE_START_POSITION_COMPARATOR.compare(usages.get(i - 1), usages.get(i)) > 0) {
+        List<IdentifierTree> sorted = new ArrayList<>(usages);
+        sorted.sort(Position.TREE_START_POSITION_COMPARATOR);
+        return sorted;
+      }
+    }
+    return usages;
+  }
+
 }
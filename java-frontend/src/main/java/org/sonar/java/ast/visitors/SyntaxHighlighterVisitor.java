@@ -16,21 +16,21 @@
  */
 package org.sonar.java.ast.visitors;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
 import org.sonar.api.batch.sensor.highlighting.TypeOfText;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.ast.api.JavaKeyword;
 import org.sonar.java.ast.api.JavaRestrictedKeyword;
-import org.sonar.java.model.ModifiersUtils;
+import org.sonar.java.model.GeneratedFile;
 import org.sonar.java.model.declaration.ClassTreeImpl;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.location.Position;
@@ -38,13 +38,17 @@ import org.sonar.plugins.java.api.tree.AnnotationTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.GuardedPatternTree;
 import org.sonar.plugins.java.api.tree.Modifier;
-import org.sonar.plugins.java.api.tree.ModifiersTree;
+import org.sonar.plugins.java.api.tree.ModifierKeywordTree;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia.CommentKind;
 import org.sonar.plugins.java.api.tree.Tree;
 import org.sonar.plugins.java.api.tree.YieldStatementTree;
 
+/**
+ * Highlighting of a file, and its symbol table (see {@link SonarSymbolTableVisitor}), both fed by a single walk
+ * of the tokens of the file.
+ */
 public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
 
   private final SonarComponents sonarComponents;
@@ -53,6 +57,8 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
   private final Set<String> restrictedKeywords;
 
   private NewHighlighting highlighting;
+  @Nullable
+  private SonarSymbolTableVisitor symbolTable;
   private boolean withinModule = false;
 
   public SyntaxHighlighterVisitor(SonarComponents sonarComponents) {
@@ -76,76 +82,119 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
 
   @Override
   public List<Tree.Kind> nodesToVisit() {
-    List<Tree.Kind> list = new ArrayList<>(typesByKind.keySet());
-    list.add(Tree.Kind.TOKEN);
-    list.add(Tree.Kind.TRIVIA);
+    // highlighting is driven by the tokens, nodes are only needed for what is not part of the tokens of the tree:
     // modules have their own set of restricted keywords
-    list.add(Tree.Kind.MODULE);
-    // 'yield' is a restricted keyword
-    list.add(Tree.Kind.YIELD_STATEMENT);
-    // 'record' is a restricted keyword
-    list.add(Tree.Kind.RECORD);
-    // sealed classes comes with restricted keyword 'permits', applying on classes and interfaces
-    list.add(Tree.Kind.CLASS);
-    list.add(Tree.Kind.INTERFACE);
-    // sealed classes comes with restricted modifiers 'sealed' and 'non-sealed', applying on classes and interfaces
-    list.add(Tree.Kind.MODIFIERS);
-    // Guarded pattern should consider "when" as a keyword
-    list.add(Tree.Kind.GUARDED_PATTERN);
-    return Collections.unmodifiableList(list);
+    // 'permits' keyword of sealed classes and interfaces is not a child of the class
+    return List.of(Tree.Kind.TOKEN, Tree.Kind.MODULE, Tree.Kind.CLASS, Tree.Kind.INTERFACE);
   }
 
   @Override
   public void scanFile(JavaFileScannerContext context) {
-    highlighting = sonarComponents.highlightableFor(context.getInputFile());
+    InputFile inputFile = context.getInputFile();
+    if (sonarComponents.shouldSkipHighlighting(inputFile)) {
+      return;
+    }
+    highlighting = sonarComponents.highlightableFor(inputFile);
+    // don't provide semantic data (symbol highlighting) for generated files (jsp), nor for files which could not be parsed
+    symbolTable = inputFile instanceof GeneratedFile || !context.fileParsed()
+      ? null
+      : new SonarSymbolTableVisitor(sonarComponents.symbolizableFor(inputFile));
 
     super.scanFile(context);
 
     highlighting.save();
+    if (symbolTable != null) {
+      symbolTable.save();
+      symbolTable = null;
+    }
   }
 
   @Override
   public void visitNode(Tree tree) {
-    switch (tree.kind()) {
-      case MODULE:
-        withinModule = true;
-        return;
+    if (tree.is(Tree.Kind.MODULE)) {
+      withinModule = true;
+    } else {
+      // 'permits' is a 'restricted identifier' (JSL16, $3.9) only acting as keyword in a class/interface declaration
+      SyntaxToken permitsKeyword = ((ClassTree) tree).permitsKeyword();
+      if (permitsKeyword != null) {
+        highlight(permitsKeyword, TypeOfText.KEYWORD);
+      }
+    }
+  }
+
+  @Override
+  public void leaveNode(Tree tree) {
+    if (tree.is(Tree.Kind.MODULE)) {
+      withinModule = false;
+    }
+  }
+
+  /**
+   * Comments preceding the token are highlighted first, then the token itself, or the range starting with the token.
+   */
+  @Override
+  public void visitToken(SyntaxToken syntaxToken) {
+    for (SyntaxTrivia syntaxTrivia : syntaxToken.trivias()) {
+      highlightComment(syntaxTrivia);
+    }
+    String text = syntaxToken.text();
+    if (keywords.contains(text)) {
+      if (isInterfaceOfAnnotationType(syntaxToken)) {
+        ClassTreeImpl annotationType = (ClassTreeImpl) syntaxToken.parent();
+        highlight(annotationType.atToken(), annotationType.declarationKeyword(), TypeOfText.KEYWORD);
+      } else {
+        highlight(syntaxToken, TypeOfText.KEYWORD);
+      }
+    } else if (isRestrictedKeyword(syntaxToken)) {
+      highlight(syntaxToken, TypeOfText.KEYWORD);
+    }
+    highlightFromParent(syntaxToken);
+    if (symbolTable != null) {
+      symbolTable.visitToken(syntaxToken);
+    }
+  }
+
+  private void highlightFromParent(SyntaxToken syntaxToken) {
+    Tree parent = syntaxToken.parent();
+    if (parent == null) {
+      return;
+    }
+    switch (parent.kind()) {
       case ANNOTATION:
-        AnnotationTree annotationTree = (AnnotationTree) tree;
-        highlight(annotationTree.atToken(), annotationTree.annotationType(), typesByKind.get(Tree.Kind.ANNOTATION));
+        AnnotationTree annotationTree = (AnnotationTree) parent;
+        if (syntaxToken == annotationTree.atToken()) {
+          highlight(syntaxToken, annotationTree.annotationType(), typesByKind.get(Tree.Kind.ANNOTATION));
+        }
         return;
       case YIELD_STATEMENT:
         // 'yield' is a 'restricted identifier' (JSL16, $3.9) only acting as keyword in a yield statement
-        Optional.ofNullable(((YieldStatementTree) tree).yieldKeyword()).ifPresent(yieldKeyword -> highlight(yieldKeyword, TypeOfText.KEYWORD));
+        highlightIfSame(syntaxToken, ((YieldStatementTree) parent).yieldKeyword());
         return;
       case RECORD:
         // 'record' is a 'restricted identifier' (JSL16, $3.9) only acting as keyword in a record declaration
-        highlight(((ClassTree) tree).declarationKeyword(), TypeOfText.KEYWORD);
-        return;
-      case CLASS,
-        INTERFACE:
-        // 'permits' is a 'restricted identifier' (JSL16, $3.9) only acting as keyword in a class/interface declaration
-        Optional.ofNullable(((ClassTree) tree).permitsKeyword()).ifPresent(permitsKeyword -> highlight(permitsKeyword, TypeOfText.KEYWORD));
+        highlightIfSame(syntaxToken, ((ClassTree) parent).declarationKeyword());
         return;
       case MODIFIERS:
         // 'sealed' and 'non-sealed' are 'restricted identifier' (JSL16, $3.9) only acting as keyword in a class declaration
-        ModifiersTree modifiers = (ModifiersTree) tree;
-        ModifiersUtils.findModifier(modifiers, Modifier.SEALED).ifPresent(modifier -> highlight(modifier, TypeOfText.KEYWORD));
-        ModifiersUtils.findModifier(modifiers, Modifier.NON_SEALED).ifPresent(modifier -> highlight(modifier, TypeOfText.KEYWORD));
+        if (syntaxToken instanceof ModifierKeywordTree modifier && (modifier.modifier() == Modifier.SEALED || modifier.modifier() == Modifier.NON_SEALED)) {
+          highlight(syntaxToken, TypeOfText.KEYWORD);
+        }
         return;
       case GUARDED_PATTERN:
-        highlight(((GuardedPatternTree) tree).whenOperator(), TypeOfText.KEYWORD);
+        highlightIfSame(syntaxToken, ((GuardedPatternTree) parent).whenOperator());
         return;
       default:
-        highlight(tree, typesByKind.get(tree.kind()));
-        return;
+        // literals and 'var' are made of a single token
+        TypeOfText typeOfText = typesByKind.get(parent.kind());
+        if (typeOfText != null) {
+          highlight(syntaxToken, typeOfText);
+        }
     }
   }
 
-  @Override
-  public void leaveNode(Tree tree) {
-    if (tree.is(Tree.Kind.MODULE)) {
-      withinModule = false;
+  private void highlightIfSame(SyntaxToken syntaxToken, @Nullable SyntaxToken keyword) {
+    if (syntaxToken == keyword) {
+      highlight(syntaxToken, TypeOfText.KEYWORD);
     }
   }
 
@@ -162,21 +211,6 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
       typeOfText);
   }
 
-  @Override
-  public void visitToken(SyntaxToken syntaxToken) {
-    String text = syntaxToken.text();
-    if (keywords.contains(text)) {
-      if (isInterfaceOfAnnotationType(syntaxToken)) {
-        ClassTreeImpl annotationType = (ClassTreeImpl) syntaxToken.parent();
-        highlight(annotationType.atToken(), annotationType.declarationKeyword(), TypeOfText.KEYWORD);
-      } else {
-        highlight(syntaxToken, TypeOfText.KEYWORD);
-      }
-    } else if (isRestrictedKeyword(syntaxToken)) {
-      highlight(syntaxToken, TypeOfText.KEYWORD);
-    }
-  }
-
   private static boolean isInterfaceOfAnnotationType(SyntaxToken syntaxToken) {
     return JavaKeyword.INTERFACE.getValue().equals(syntaxToken.text()) && syntaxToken.parent().is(Tree.Kind.ANNOTATION_TYPE);
   }
@@ -187,8 +221,7 @@ public class SyntaxHighlighterVisitor extends SubscriptionVisitor {
       && !syntaxToken.parent().is(Tree.Kind.IDENTIFIER);
   }
 
-  @Override
-  public void visitTrivia(SyntaxTrivia syntaxTrivia) {
+  private void highlightComment(SyntaxTrivia syntaxTrivia) {
     boolean isJavadocOrMarkdown = syntaxTrivia.isComment(CommentKind.JAVADOC, CommentKind.MARKDOWN);
     TypeOfText typeOfText =  isJavadocOrMarkdown ? TypeOfText.STRUCTURED_COMMENT : TypeOfText.COMMENT;
     Position start = Position.startOf(syntaxTrivia);
@@ -0,0 +1,172 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.plugins.java.api.InputFileScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
+
+/**
+ * Module-wide state of a check implementing {@link org.sonar.plugins.java.api.internal.EndOfAnalysis}, kept as one summary
+ * per file and merged by the check at the end of the analysis.
+ * <p>
+ * The summary of a scanned file is written to the cache with the file. On the next analysis, an unchanged file contributes
+ * the summary read from the cache in {@link org.sonar.plugins.java.api.JavaFileScanner#scanWithoutParsing}, so it does not
+ * have to be parsed for this check. A missing or unreadable summary makes {@link #addFromCache} return false, and the file
+ * is then parsed and scanned as usual.
+ * <p>
+ * Summaries must not refer to trees nor symbols, which are not available for unchanged files and must not outlive the
+ * analysis of their file.
+ *
+ * @param <S> type of the summary of a file
+ */
+public class FileSummaries<S> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FileSummaries.class);
+
+  /**
+   * Serialization of the summaries to the cache.
+   */
+  public interface Codec<S> {
+
+    void write(S summary, DataOutput out) throws IOException;
+
+    S read(DataInput in) throws IOException;
+  }
+
+  private final String cacheKeyPrefix;
+  private final Codec<S> codec;
+  private final Map<InputFile, S> summaries = new LinkedHashMap<>();
+
+  /**
+   * @param cacheKeyPrefix prefix of the cache keys of the summaries, followed by the key of their file, for instance "java:S1234:summary:"
+   */
+  public FileSummaries(String cacheKeyPrefix, Codec<S> codec) {
+    this.cacheKeyPrefix = cacheKeyPrefix;
+    this.codec = codec;
+  }
+
+  /**
+   * Adds the summary of a scanned file, and writes it to the cache for the next analysis when caching is enabled.
+   */
+  public void add(InputFileScannerContext context, S summary) {
+    InputFile inputFile = context.getInputFile();
+    summaries.put(inputFile, summary);
+    CacheContext cacheContext = context.getCacheContext();
+    if (!cacheContext.isCacheEnabled()) {
+      return;
+    }
+    String cacheKey = cacheKey(inputFile);
+    try {
+      cacheContext.getWriteCache().write(cacheKey, toBytes(summary));
+    } catch (IOException | IllegalArgumentException e) {
+      LOG.trace("Could not store data to cache key '{}': {}", cacheKey, e.getMessage());
+    }
+  }
+
+  /**
+   * Adds the summary cached by the previous analysis for an unchanged file, and keeps it for the next analysis.
+   *
+   * @return false when there is no summary in the cache for this file, or when it cannot be read
+   */
+  public boolean addFromCache(InputFileScannerContext context) {
+    return addFromCache(context, summary -> true);
+  }
+
+  /**
+   * Same as {@link #addFromCache(InputFileScannerContext)}, for summaries depending on the configuration of the check: a
+   * cached summary which is not {@code upToDate} is ignored, and false is returned.
+   */
+  public boolean addFromCache(InputFileScannerContext context, Predicate<S> upToDate) {
+    CacheContext cacheContext = context.getCacheContext();
+    if (!cacheContext.isCacheEnabled()) {
+      return false;
+    }
+    InputFile inputFile = context.getInputFile();
+    String cacheKey = cacheKey(inputFile);
+    byte[] data = cacheContext.getReadCache().readBytes(cacheKey);
+    if (data == null) {
+      LOG.trace("No cached summary for key '{}'", cacheKey);
+      return false;
+    }
+    S summary;
+    try {
+      summary = fromBytes(data);
+    } catch (IOException | RuntimeException e) {
+      LOG.trace("Cached summary for key '{}' is unreadable: {}", cacheKey, e.getMessage());
+      return false;
+    }
+    if (!upToDate.test(summary)) {
+      LOG.trace("Cached summary for key '{}' is outdated", cacheKey);
+      return false;
+    }
+    try {
+      cacheContext.getWriteCache().copyFromPrevious(cacheKey);
+    } catch (IllegalArgumentException e) {
+      LOG.trace("Could not copy cache key '{}' from the previous analysis: {}", cacheKey, e.getMessage());
+    }
+    summaries.put(inputFile, summary);
+    return true;
+  }
+
+  /**
+   * Summaries of the files of the module, in the order they have been added.
+   */
+  public Map<InputFile, S> summaries() {
+    return Collections.unmodifiableMap(summaries);
+  }
+
+  public void clear() {
+    summaries.clear();
+  }
+
+  private String cacheKey(InputFile inputFile) {
+    return cacheKeyPrefix + inputFile.key();
+  }
+
+  private byte[] toBytes(S summary) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      codec.write(summary, out);
+    }
+    return bytes.toByteArray();
+  }
+
+  private S fromBytes(byte[] data) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+      S summary = codec.read(in);
+      if (in.available() > 0) {
+        throw new IOException("unexpected trailing data");
+      }
+      return summary;
+    }
+  }
+
+}
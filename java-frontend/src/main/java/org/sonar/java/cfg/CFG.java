@@ -17,8 +17,11 @@
 package org.sonar.java.cfg;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -99,6 +102,8 @@ public class CFG implements ControlFlowGraph {
 
   @Nullable
   private Symbol.MethodSymbol methodSymbol;
+  @Nullable
+  private final MethodTree methodTree;
   private Block currentBlock;
   private boolean hasCompleteSemantic = true;
 
@@ -133,8 +138,10 @@ public class CFG implements ControlFlowGraph {
   private String pendingLabel = null;
   private Map<String, Block> labelsBreakTarget = new HashMap<>();
   private Map<String, Block> labelsContinueTarget = new HashMap<>();
+  private ReachingDefinitions reachingDefinitions = null;
 
   private CFG(List<? extends Tree> trees, @Nullable MethodTree tree) {
+    methodTree = tree;
     if (tree != null) {
       methodSymbol = tree.symbol();
       checkSymbolSemantic(methodSymbol, "method definition", tree.simpleName().identifierToken());
@@ -205,6 +212,16 @@ public class CFG implements ControlFlowGraph {
     return methodSymbol;
   }
 
+  /**
+   * Reaching definitions of the local variables, computed on the first call.
+   */
+  public ReachingDefinitions reachingDefinitions() {
+    if (reachingDefinitions == null) {
+      reachingDefinitions = ReachingDefinitions.analyze(this, methodTree);
+    }
+    return reachingDefinitions;
+  }
+
   @Override
   public Block entryBlock() {
     return currentBlock;
@@ -438,15 +455,8 @@ public class CFG implements ControlFlowGraph {
   }
 
   private void prune() {
-    List<Block> inactiveBlocks = new ArrayList<>();
-    boolean first = true;
-    for (Block block : blocks) {
-      if (!first && isInactive(block)) {
-        inactiveBlocks.add(block);
-      }
-      first = false;
-    }
-    if (!inactiveBlocks.isEmpty()) {
+    List<Block> inactiveBlocks = inactiveBlocks();
+    while (!inactiveBlocks.isEmpty()) {
       removeInactiveBlocks(inactiveBlocks);
       if (inactiveBlocks.contains(currentBlock)) {
         currentBlock = currentBlock.successors.iterator().next();
@@ -456,11 +466,20 @@ public class CFG implements ControlFlowGraph {
         block.id = id;
         id += 1;
       }
-      inactiveBlocks.removeAll(blocks);
-      if (!inactiveBlocks.isEmpty()) {
-        prune();
+      inactiveBlocks = inactiveBlocks();
+    }
+  }
+
+  private List<Block> inactiveBlocks() {
+    List<Block> inactiveBlocks = new ArrayList<>();
+    boolean first = true;
+    for (Block block : blocks) {
+      if (!first && isInactive(block)) {
+        inactiveBlocks.add(block);
       }
+      first = false;
     }
+    return inactiveBlocks;
   }
 
   private boolean isInactive(Block block) {
@@ -471,12 +490,36 @@ public class CFG implements ControlFlowGraph {
   }
 
   private void removeInactiveBlocks(List<Block> inactiveBlocks) {
+    // Pruning a block only updates the blocks referencing it: index them rather than going through all the blocks for each
+    // inactive block, which is quadratic on long "else if" chains.
+    Map<Block, Set<Block>> referencingBlocks = new HashMap<>();
+    for (Block block : blocks) {
+      addReferencingBlock(referencingBlocks, block, block.successors);
+      addReferencingBlock(referencingBlocks, block, block.exceptions);
+      addReferencingBlock(referencingBlocks, block, Arrays.asList(block.trueBlock, block.falseBlock, block.exitBlock, block.successorWithoutJump));
+    }
     for (Block inactiveBlock : inactiveBlocks) {
-      for (Block block : blocks) {
+      Set<Block> blocksToUpdate = referencingBlocks.get(inactiveBlock);
+      if (blocksToUpdate == null) {
+        continue;
+      }
+      for (Block block : new ArrayList<>(blocksToUpdate)) {
         block.prune(inactiveBlock);
+        // references to the inactive block have been replaced by references to its successors
+        addReferencingBlock(referencingBlocks, block, inactiveBlock.successors);
+        addReferencingBlock(referencingBlocks, block, inactiveBlock.exceptions);
+      }
+    }
+    Set<Block> removedBlocks = new HashSet<>(inactiveBlocks);
+    blocks.removeIf(removedBlocks::contains);
+  }
+
+  private static void addReferencingBlock(Map<Block, Set<Block>> referencingBlocks, Block block, Collection<Block> referencedBlocks) {
+    for (Block referencedBlock : referencedBlocks) {
+      if (referencedBlock != null) {
+        referencingBlocks.computeIfAbsent(referencedBlock, k -> new LinkedHashSet<>()).add(block);
       }
     }
-    blocks.removeAll(inactiveBlocks);
   }
 
   private Block createBlock(Block successor) {
@@ -568,11 +611,9 @@ public class CFG implements ControlFlowGraph {
       case MEMBER_SELECT:
         buildMemberSelect((MemberSelectExpressionTree) tree);
         break;
-      case CONDITIONAL_AND:
-        buildConditionalAnd((BinaryExpressionTree) tree);
-        break;
-      case CONDITIONAL_OR:
-        buildConditionalOr((BinaryExpressionTree) tree);
+      case CONDITIONAL_AND,
+        CONDITIONAL_OR:
+        buildConditionalBinary((BinaryExpressionTree) tree);
         break;
       case LABELED_STATEMENT:
         buildLabeledStatement((LabeledStatementTree) tree);
@@ -725,25 +766,35 @@ public class CFG implements ControlFlowGraph {
   }
 
   private void buildIfStatement(IfStatementTree ifStatementTree) {
+    // "else if" chains of generated code can be thousands of statements long: they are built iteratively, from the last one
+    // to the first one, so that the depth of the chain does not translate into the depth of the call stack.
+    List<IfStatementTree> chain = new ArrayList<>();
+    StatementTree elseStatement = ifStatementTree;
+    while (elseStatement != null && elseStatement.is(Tree.Kind.IF_STATEMENT)) {
+      IfStatementTree ifStatement = (IfStatementTree) elseStatement;
+      chain.add(ifStatement);
+      elseStatement = ifStatement.elseStatement();
+    }
     Block next = currentBlock;
-    // process else-branch
+    // process else-branch of the last if statement
     Block elseBlock = next;
-    StatementTree elseStatement = ifStatementTree.elseStatement();
     if (elseStatement != null) {
-      // if statement will create the required block.
-      if (!elseStatement.is(Tree.Kind.IF_STATEMENT)) {
-        currentBlock = createBlock(next);
-      }
+      currentBlock = createBlock(next);
       build(elseStatement);
       elseBlock = currentBlock;
     }
-    // process then-branch
-    currentBlock = createBlock(next);
-    build(ifStatementTree.thenStatement());
-    Block thenBlock = currentBlock;
-    // process condition
-    currentBlock = createBranch(ifStatementTree, thenBlock, elseBlock);
-    buildCondition(ifStatementTree.condition(), thenBlock, elseBlock);
+    for (int i = chain.size() - 1; i >= 0; i--) {
+      IfStatementTree ifStatement = chain.get(i);
+      // process then-branch
+      currentBlock = createBlock(next);
+      build(ifStatement.thenStatement());
+      Block thenBlock = currentBlock;
+      // process condition
+      currentBlock = createBranch(ifStatement, thenBlock, elseBlock);
+      buildCondition(ifStatement.condition(), thenBlock, elseBlock);
+      // the whole if statement is the else-branch of the previous one
+      elseBlock = currentBlock;
+    }
   }
 
   private void buildConditionalExpression(ConditionalExpressionTree cond) {
@@ -772,10 +823,16 @@ public class CFG implements ControlFlowGraph {
   }
 
   private void buildBinaryExpression(Tree tree) {
-    BinaryExpressionTree binaryExpressionTree = (BinaryExpressionTree) tree;
-    currentBlock.elements.add(tree);
-    build(binaryExpressionTree.rightOperand());
-    build(binaryExpressionTree.leftOperand());
+    // long chains like "a + b + ... + z" are nested on their left operand: walk it iteratively, down to an operand which
+    // is not a binary expression of this method ("&&" and "||" have their own blocks)
+    Tree current = tree;
+    do {
+      BinaryExpressionTree binaryExpressionTree = (BinaryExpressionTree) current;
+      currentBlock.elements.add(current);
+      build(binaryExpressionTree.rightOperand());
+      current = binaryExpressionTree.leftOperand();
+    } while (current instanceof BinaryExpressionTree && !current.is(Tree.Kind.CONDITIONAL_AND, Tree.Kind.CONDITIONAL_OR));
+    build(current);
   }
 
   private void buildAssignment(AssignmentExpressionTree tree) {
@@ -795,31 +852,29 @@ public class CFG implements ControlFlowGraph {
     }
   }
 
-  private void buildConditionalAnd(BinaryExpressionTree tree) {
-    Block falseBlock = currentBlock;
-    currentBlock = createBlock(falseBlock);
-    // process RHS
-    build(tree.rightOperand());
-    // process LHS
-    buildConditionalBinaryLHS(tree, currentBlock, falseBlock);
-  }
-
-  private void buildConditionalOr(BinaryExpressionTree tree) {
-    Block trueBlock = currentBlock;
-    currentBlock = createBlock(trueBlock);
-    // process RHS
-    build(tree.rightOperand());
-    // process LHS
-    buildConditionalBinaryLHS(tree, trueBlock, currentBlock);
-  }
-
-  private void buildConditionalBinaryLHS(BinaryExpressionTree tree, Block trueBlock, Block falseBlock) {
-    currentBlock = createBlock();
-    Block toComplete = currentBlock;
-    build(tree.leftOperand());
-    toComplete.terminator = tree;
-    toComplete.addFalseSuccessor(falseBlock);
-    toComplete.addTrueSuccessor(trueBlock);
+  private void buildConditionalBinary(BinaryExpressionTree tree) {
+    // left-nested chains of "&&" and "||" are built iteratively
+    Tree current = tree;
+    do {
+      BinaryExpressionTree binary = (BinaryExpressionTree) current;
+      Block next = currentBlock;
+      currentBlock = createBlock(next);
+      // process RHS
+      build(binary.rightOperand());
+      Block rhsBlock = currentBlock;
+      // process LHS
+      currentBlock = createBlock();
+      currentBlock.terminator = binary;
+      if (binary.is(Tree.Kind.CONDITIONAL_AND)) {
+        currentBlock.addFalseSuccessor(next);
+        currentBlock.addTrueSuccessor(rhsBlock);
+      } else {
+        currentBlock.addFalseSuccessor(rhsBlock);
+        currentBlock.addTrueSuccessor(next);
+      }
+      current = binary.leftOperand();
+    } while (current.is(Tree.Kind.CONDITIONAL_AND, Tree.Kind.CONDITIONAL_OR));
+    build(current);
   }
 
   private void buildLabeledStatement(LabeledStatementTree labeledStatement) {
@@ -1229,41 +1284,45 @@ public class CFG implements ControlFlowGraph {
   }
 
   private void buildCondition(Tree syntaxNode, Block trueBlock, Block falseBlock) {
-    switch (syntaxNode.kind()) {
-      case CONDITIONAL_OR:
-        buildConditionalOr((BinaryExpressionTree) syntaxNode, trueBlock, falseBlock);
-        break;
-      case CONDITIONAL_AND:
-        // process RHS
-        buildConditionalAnd((BinaryExpressionTree) syntaxNode, trueBlock, falseBlock);
-        break;
-      // Skip syntactic sugar:
-      case PARENTHESIZED_EXPRESSION:
-        buildCondition(((ParenthesizedTree) syntaxNode).expression(), trueBlock, falseBlock);
-        break;
-      default:
-        build(syntaxNode);
-        break;
+    // the LHS of a condition is processed last: loop instead of recursing on it, to support long chains of "&&" and "||"
+    Tree condition = syntaxNode;
+    Block conditionTrueBlock = trueBlock;
+    Block conditionFalseBlock = falseBlock;
+    while (true) {
+      switch (condition.kind()) {
+        case CONDITIONAL_OR: {
+          BinaryExpressionTree conditionalOr = (BinaryExpressionTree) condition;
+          // process RHS
+          buildCondition(conditionalOr.rightOperand(), conditionTrueBlock, conditionFalseBlock);
+          Block newFalseBlock = currentBlock;
+          // process LHS
+          currentBlock = createBranch(conditionalOr, conditionTrueBlock, newFalseBlock);
+          condition = conditionalOr.leftOperand();
+          conditionFalseBlock = newFalseBlock;
+          break;
+        }
+        case CONDITIONAL_AND: {
+          BinaryExpressionTree conditionalAnd = (BinaryExpressionTree) condition;
+          // process RHS
+          buildCondition(conditionalAnd.rightOperand(), conditionTrueBlock, conditionFalseBlock);
+          Block newTrueBlock = currentBlock;
+          // process LHS
+          currentBlock = createBranch(conditionalAnd, newTrueBlock, conditionFalseBlock);
+          condition = conditionalAnd.leftOperand();
+          conditionTrueBlock = newTrueBlock;
+          break;
+        }
+        // Skip syntactic sugar:
+        case PARENTHESIZED_EXPRESSION:
+          condition = ((ParenthesizedTree) condition).expression();
+          break;
+        default:
+          build(condition);
+          return;
+      }
     }
   }
 
-  private void buildConditionalOr(BinaryExpressionTree conditionalOr, Block trueBlock, Block falseBlock) {
-    // process RHS
-    buildCondition(conditionalOr.rightOperand(), trueBlock, falseBlock);
-    Block newFalseBlock = currentBlock;
-    // process LHS
-    currentBlock = createBranch(conditionalOr, trueBlock, newFalseBlock);
-    buildCondition(conditionalOr.leftOperand(), trueBlock, newFalseBlock);
-  }
-
-  private void buildConditionalAnd(BinaryExpressionTree conditionalAnd, Block trueBlock, Block falseBlock) {
-    buildCondition(conditionalAnd.rightOperand(), trueBlock, falseBlock);
-    Block newTrueBlock = currentBlock;
-    // process LHS
-    currentBlock = createBranch(conditionalAnd, newTrueBlock, falseBlock);
-    buildCondition(conditionalAnd.leftOperand(), newTrueBlock, falseBlock);
-  }
-
   private Block createBranch(Tree terminator, Block trueBranch, Block falseBranch) {
     Block result = createBlock();
     result.terminator = terminator;
@@ -0,0 +1,344 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Iterative gen/kill data flow analysis over the blocks of a {@link CFG}.
+ * <p>
+ * Elements of the analysis (symbols, definitions...) are numbered when they are first seen through {@link #index(Object)},
+ * and the sets flowing through the blocks are {@link BitSet}s over these numbers. Exceptional edges are treated as regular
+ * edges. Blocks are processed in reverse postorder for forward analyses and in postorder for backward analyses,
+ * so that most blocks are visited once per loop nesting level.
+ * </p>
+ * Subclasses compute the gen and kill sets of each block in {@link #computeGenKill(CFG.Block, BitSet, BitSet)} and then
+ * call {@link #solve()}.
+ *
+ * @param <E> type of the elements of the analysis
+ */
+public abstract class DataFlowAnalysis<E> {
+
+  public enum Direction {
+    FORWARD,
+    BACKWARD
+  }
+
+  public enum Meet {
+    /**
+     * "may" analysis: a fact holds if it holds on at least one path.
+     */
+    UNION,
+    /**
+     * "must" analysis: a fact holds if it holds on all the paths.
+     */
+    INTERSECTION
+  }
+
+  protected final CFG cfg;
+  private final Direction direction;
+  private final Meet meet;
+
+  private final List<E> elements = new ArrayList<>();
+  private final Map<E, Integer> indexes = new HashMap<>();
+
+  private BitSet[] in;
+  private BitSet[] out;
+
+  protected DataFlowAnalysis(CFG cfg, Direction direction, Meet meet) {
+    this.cfg = cfg;
+    this.direction = direction;
+    this.meet = meet;
+  }
+
+  /**
+   * Computes the elements generated and killed by the given block, in isolation.
+   */
+  protected abstract void computeGenKill(CFG.Block block, BitSet gen, BitSet kill);
+
+  /**
+   * Value flowing into the entry block of a forward analysis, or out of the exit block of a backward analysis.
+   * Also used for blocks without predecessors (forward) or successors (backward). Empty by default.
+   */
+  protected BitSet boundary() {
+    return new BitSet();
+  }
+
+  /**
+   * @return the number of the element, which is registered if it was not already
+   */
+  protected final int index(E element) {
+    return indexes.computeIfAbsent(element, k -> {
+      elements.add(k);
+      return elements.size() - 1;
+    });
+  }
+
+  public final int numberOfElements() {
+    return elements.size();
+  }
+
+  public final E element(int index) {
+    return elements.get(index);
+  }
+
+  /**
+   * Facts holding at the beginning of the block. The returned bit set must not be modified.
+   */
+  public BitSet inBits(CFG.Block block) {
+    return in[block.id()];
+  }
+
+  /**
+   * Facts holding at the end of the block. The returned bit set must not be modified.
+   */
+  public BitSet outBits(CFG.Block block) {
+    return out[block.id()];
+  }
+
+  public Set<E> in(CFG.Block block) {
+    return new ElementSet(inBits(block));
+  }
+
+  public Set<E> out(CFG.Block block) {
+    return new ElementSet(outBits(block));
+  }
+
+  protected final void solve() {
+    List<CFG.Block> blocks = cfg.reversedBlocks();
+    int size = blocks.size();
+    BitSet[] gen = new BitSet[size];
+    BitSet[] kill = new BitSet[size];
+    for (CFG.Block block : blocks) {
+      BitSet blockGen = new BitSet();
+      BitSet blockKill = new BitSet();
+      computeGenKill(block, blockGen, blockKill);
+      gen[block.id()] = blockGen;
+      kill[block.id()] = blockKill;
+    }
+
+    int[][] successors = successors(blocks);
+    int[][] predecessors = predecessors(successors);
+    boolean forward = direction == Direction.FORWARD;
+    // facts are propagated from "sources" to "targets" of the blocks
+    int[][] sources = forward ? predecessors : successors;
+    int[][] targets = forward ? successors : predecessors;
+    BitSet[] before = new BitSet[size];
+    BitSet[] after = new BitSet[size];
+    BitSet boundary = boundary();
+    for (int i = 0; i < size; i++) {
+      before[i] = new BitSet();
+      after[i] = initialValue();
+    }
+    int boundaryBlock = (forward ? cfg.entryBlock() : cfg.exitBlock()).id();
+
+    int[] order = order(successors, cfg.entryBlock().id(), forward);
+    int[] positions = new int[size];
+    for (int i = 0; i < order.length; i++) {
+      positions[order[i]] = i;
+    }
+    BitSet pending = new BitSet(size);
+    pending.set(0, size);
+    int position = 0;
+    while (position >= 0) {
+      pending.clear(position);
+      int block = order[position];
+      BitSet blockBefore = before[block];
+      if (sources[block].length == 0) {
+        blockBefore.clear();
+        blockBefore.or(boundary);
+      } else {
+        meet(blockBefore, sources[block], after);
+        if (block == boundaryBlock) {
+          // the entry block of a forward analysis can be the condition of a loop
+          meet(blockBefore, boundary);
+        }
+      }
+      BitSet blockAfter = (BitSet) blockBefore.clone();
+      blockAfter.andNot(kill[block]);
+      blockAfter.or(gen[block]);
+      if (!blockAfter.equals(after[block])) {
+        after[block] = blockAfter;
+        for (int target : targets[block]) {
+          pending.set(positions[target]);
+        }
+      }
+      position = pending.nextSetBit(position + 1);
+      if (position < 0) {
+        position = pending.nextSetBit(0);
+      }
+    }
+
+    in = forward ? before : after;
+    out = forward ? after : before;
+  }
+
+  private BitSet initialValue() {
+    BitSet value = new BitSet();
+    if (meet == Meet.INTERSECTION) {
+      value.set(0, elements.size());
+    }
+    return value;
+  }
+
+  private void meet(BitSet result, int[] sources, BitSet[] values) {
+    result.clear();
+    result.or(values[sources[0]]);
+    for (int i = 1; i < sources.length; i++) {
+      meet(result, values[sources[i]]);
+    }
+  }
+
+  private void meet(BitSet result, BitSet value) {
+    if (meet == Meet.UNION) {
+      result.or(value);
+    } else {
+      result.and(value);
+    }
+  }
+
+  private static int[][] successors(List<CFG.Block> blocks) {
+    int[][] successors = new int[blocks.size()][];
+    for (CFG.Block block : blocks) {
+      BitSet ids = new BitSet();
+      block.successors().forEach(successor -> ids.set(successor.id()));
+      block.exceptions().forEach(successor -> ids.set(successor.id()));
+      successors[block.id()] = ids.stream().toArray();
+    }
+    return successors;
+  }
+
+  private static int[][] predecessors(int[][] successors) {
+    int[] counts = new int[successors.length];
+    for (int[] blockSuccessors : successors) {
+      for (int successor : blockSuccessors) {
+        counts[successor]++;
+      }
+    }
+    int[][] predecessors = new int[successors.length][];
+    for (int i = 0; i < successors.length; i++) {
+      predecessors[i] = new int[counts[i]];
+      counts[i] = 0;
+    }
+    for (int block = 0; block < successors.length; block++) {
+      for (int successor : successors[block]) {
+        predecessors[successor][counts[successor]++] = block;
+      }
+    }
+    return predecessors;
+  }
+
+  /**
+   * Depth-first postorder of the blocks reachable from the entry, reversed for a forward analysis.
+   * Unreachable blocks are processed last.
+   */
+  private static int[] order(int[][] successors, int entry, boolean forward) {
+    int size = successors.length;
+    int[] postorder = new int[size];
+    int count = 0;
+    BitSet visited = new BitSet(size);
+    // iterative DFS: each frame is a block and the index of its next successor to visit
+    Deque<int[]> stack = new ArrayDeque<>();
+    visited.set(entry);
+    stack.push(new int[] {entry, 0});
+    while (!stack.isEmpty()) {
+      int[] frame = stack.peek();
+      int[] blockSuccessors = successors[frame[0]];
+      if (frame[1] < blockSuccessors.length) {
+        int successor = blockSuccessors[frame[1]];
+        frame[1]++;
+        if (!visited.get(successor)) {
+          visited.set(successor);
+          stack.push(new int[] {successor, 0});
+        }
+      } else {
+        stack.pop();
+        postorder[count] = frame[0];
+        count++;
+      }
+    }
+    int[] order = new int[size];
+    for (int i = 0; i < count; i++) {
+      order[i] = forward ? postorder[count - 1 - i] : postorder[i];
+    }
+    for (int block = visited.nextClearBit(0); block < size; block = visited.nextClearBit(block + 1)) {
+      order[count] = block;
+      count++;
+    }
+    return order;
+  }
+
+  /**
+   * Read-only view of a bit set as a set of elements.
+   */
+  private class ElementSet extends AbstractSet<E> {
+
+    private final BitSet bits;
+
+    private ElementSet(BitSet bits) {
+      this.bits = bits;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Integer index = indexes.get(o);
+      return index != null && bits.get(index);
+    }
+
+    @Override
+    public int size() {
+      return bits.cardinality();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return bits.isEmpty();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return new Iterator<>() {
+        private int next = bits.nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public E next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          E element = elements.get(next);
+          next = bits.nextSetBit(next + 1);
+          return element;
+        }
+      };
+    }
+  }
+}
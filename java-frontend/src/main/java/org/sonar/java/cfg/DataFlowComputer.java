@@ -0,0 +1,211 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import javax.annotation.CheckForNull;
+import org.sonar.java.annotations.VisibleForTesting;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.BlockTree;
+import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonarsource.performance.measure.PerformanceMeasure;
+
+/**
+ * Per-file cache of control flow graphs and of their live variables, so that rules working on the same
+ * method, lambda or block share a single computation.
+ * <p>
+ * CFGs are cached by tree identity. A CFG built on a block or a statement has no method symbol, callers which need one
+ * must request it with the symbol of the enclosing method, to get a CFG of their own instead of changing a shared one.
+ * </p>
+ */
+public class DataFlowComputer {
+
+  private final Map<Tree, CFG> cfgs = new IdentityHashMap<>();
+  // a block can be both the body of a CFG and a single statement of another CFG
+  private final Map<Tree, CFG> statementCfgs = new IdentityHashMap<>();
+  // CFGs of blocks and statements built with the symbol of their enclosing method
+  private final Map<Tree, CFG> ownedBlockCfgs = new IdentityHashMap<>();
+  private final Map<Tree, CFG> ownedStatementCfgs = new IdentityHashMap<>();
+  private final Map<CFG, LiveVariables> liveVariables = new IdentityHashMap<>();
+  private final Map<CFG, LiveVariables> liveVariablesWithFields = new IdentityHashMap<>();
+
+  private final Statistics statistics = new Statistics();
+
+  /**
+   * @return the CFG of the body of the method, or null if the method has no body
+   */
+  @CheckForNull
+  public CFG methodCFG(MethodTree tree) {
+    if (tree.block() == null) {
+      return null;
+    }
+    return cfg(cfgs, tree, t -> (CFG) tree.cfg());
+  }
+
+  public CFG lambdaCFG(LambdaExpressionTree tree) {
+    return cfg(cfgs, tree, t -> (CFG) tree.cfg());
+  }
+
+  /**
+   * CFG of the statements of the block, typically an initializer or the body of a catch clause.
+   */
+  public CFG blockCFG(BlockTree tree) {
+    return cfg(cfgs, tree, t -> CFG.buildCFG(tree.body()));
+  }
+
+  /**
+   * Same as {@link #blockCFG(BlockTree)}, for a block of the given method, whose parameters are then known by the CFG.
+   */
+  public CFG blockCFG(BlockTree tree, Symbol.MethodSymbol methodSymbol) {
+    return ownedCfg(ownedBlockCfgs, tree, methodSymbol, t -> CFG.buildCFG(tree.body()));
+  }
+
+  /**
+   * CFG of a single statement or expression. For a block, the CFG starts by entering the block.
+   */
+  public CFG treeCFG(Tree tree) {
+    return cfg(statementCfgs, tree, t -> CFG.buildCFG(Collections.singletonList(tree)));
+  }
+
+  /**
+   * Same as {@link #treeCFG(Tree)}, for a statement of the given method, whose parameters are then known by the CFG.
+   */
+  public CFG treeCFG(Tree tree, Symbol.MethodSymbol methodSymbol) {
+    return ownedCfg(ownedStatementCfgs, tree, methodSymbol, t -> CFG.buildCFG(Collections.singletonList(tree)));
+  }
+
+  /**
+   * Live local variables and parameters, see {@link LiveVariables#analyze(CFG)}.
+   */
+  public LiveVariables liveVariables(CFG cfg) {
+    return liveVariables(liveVariables, cfg, LiveVariables::analyze);
+  }
+
+  /**
+   * Live local variables, parameters and fields, see {@link LiveVariables#analyzeWithFields(CFG)}.
+   */
+  public LiveVariables liveVariablesWithFields(CFG cfg) {
+    return liveVariables(liveVariablesWithFields, cfg, LiveVariables::analyzeWithFields);
+  }
+
+  public Statistics statistics() {
+    return statistics;
+  }
+
+  private CFG cfg(Map<Tree, CFG> cache, Tree tree, Function<Tree, CFG> builder) {
+    CFG cfg = cache.get(tree);
+    if (cfg != null) {
+      statistics.cfgReused++;
+      return cfg;
+    }
+    cfg = build(tree, builder);
+    cache.put(tree, cfg);
+    return cfg;
+  }
+
+  private CFG ownedCfg(Map<Tree, CFG> cache, Tree tree, Symbol.MethodSymbol methodSymbol, Function<Tree, CFG> builder) {
+    CFG cfg = cache.get(tree);
+    if (cfg != null && cfg.methodSymbol() == methodSymbol) {
+      statistics.cfgReused++;
+      return cfg;
+    }
+    cfg = build(tree, builder);
+    cfg.setMethodSymbol(methodSymbol);
+    cache.put(tree, cfg);
+    return cfg;
+  }
+
+  private CFG build(Tree tree, Function<Tree, CFG> builder) {
+    PerformanceMeasure.Duration duration = PerformanceMeasure.start("CFG");
+    CFG cfg = builder.apply(tree);
+    duration.stop();
+    statistics.cfgBuilt++;
+    return cfg;
+  }
+
+  private LiveVariables liveVariables(Map<CFG, LiveVariables> cache, CFG cfg, Function<CFG, LiveVariables> analyzer) {
+    LiveVariables result = cache.get(cfg);
+    if (result != null) {
+      statistics.liveVariablesReused++;
+      return result;
+    }
+    PerformanceMeasure.Duration duration = PerformanceMeasure.start("LiveVariables");
+    result = analyzer.apply(cfg);
+    duration.stop();
+    statistics.liveVariablesComputed++;
+    cache.put(cfg, result);
+    return result;
+  }
+
+  @VisibleForTesting
+  Map<Tree, CFG> getCfgs() {
+    return cfgs;
+  }
+
+  @VisibleForTesting
+  Map<Tree, CFG> getStatementCfgs() {
+    return statementCfgs;
+  }
+
+  @VisibleForTesting
+  Map<CFG, LiveVariables> getLiveVariables() {
+    return liveVariables;
+  }
+
+  @VisibleForTesting
+  Map<CFG, LiveVariables> getLiveVariablesWithFields() {
+    return liveVariablesWithFields;
+  }
+
+  /**
+   * Number of CFGs and live variables computed or reused from the cache.
+   */
+  public static class Statistics {
+    private int cfgBuilt = 0;
+    private int cfgReused = 0;
+    private int liveVariablesComputed = 0;
+    private int liveVariablesReused = 0;
+
+    public int cfgBuilt() {
+      return cfgBuilt;
+    }
+
+    public int cfgReused() {
+      return cfgReused;
+    }
+
+    public int liveVariablesComputed() {
+      return liveVariablesComputed;
+    }
+
+    public int liveVariablesReused() {
+      return liveVariablesReused;
+    }
+
+    public void add(Statistics other) {
+      cfgBuilt += other.cfgBuilt;
+      cfgReused += other.cfgReused;
+      liveVariablesComputed += other.liveVariablesComputed;
+      liveVariablesReused += other.liveVariablesReused;
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.java.model.ExpressionUtils;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.UnaryExpressionTree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+/**
+ * Definitions of local variables which can reach each usage of a local variable, and the constant value of the usages
+ * when all the definitions reaching them assign the same constant.
+ * <p>
+ * A definition is a {@link VariableTree} (declaration, parameter, for-each, catch or pattern variable), an
+ * {@link AssignmentExpressionTree} or an increment/decrement {@link UnaryExpressionTree}. Only definitions through
+ * an identifier are tracked: variables captured by lambdas or anonymous classes cannot be assigned anyway.
+ * </p>
+ * <p>
+ * Variables declared outside the CFG, like the parameters of a method or of a lambda, are defined at the entry of the
+ * CFG by their declaration, with an unknown value.
+ * </p>
+ * Results are computed for all the usages of the CFG on the first query, then looked up.
+ */
+public class ReachingDefinitions extends DataFlowAnalysis<Tree> {
+
+  private final Map<Symbol, BitSet> definitionsBySymbol = new HashMap<>();
+  private final BitSet entryDefinitions = new BitSet();
+
+  private Map<IdentifierTree, List<Tree>> definitionsByUsage;
+  private final Map<IdentifierTree, Optional<Object>> constantByUsage = new IdentityHashMap<>();
+
+  private ReachingDefinitions(CFG cfg, @Nullable MethodTree methodTree) {
+    super(cfg, Direction.FORWARD, Meet.UNION);
+    Set<Tree> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+    if (methodTree != null) {
+      methodTree.parameters().forEach(parameter -> {
+        entryDefinitions.set(registerDefinition(parameter.symbol(), parameter));
+        registered.add(parameter);
+      });
+    }
+    for (CFG.Block block : cfg.reversedBlocks()) {
+      for (Tree element : block.elements()) {
+        Symbol defined = definedSymbol(element);
+        if (defined != null) {
+          registerDefinition(defined, element);
+          registered.add(element);
+        }
+      }
+    }
+    Set<Symbol> declaredOutside = new HashSet<>();
+    definitionsBySymbol.keySet().forEach(symbol -> {
+      Tree declaration = symbol.declaration();
+      if (declaration == null) {
+        declaredOutside.add(symbol);
+      } else if (!registered.contains(declaration)) {
+        entryDefinitions.set(registerDefinition(symbol, declaration));
+      }
+    });
+    // without declaration, nothing can be said about the value at the entry of the CFG
+    declaredOutside.forEach(definitionsBySymbol::remove);
+  }
+
+  /**
+   * @param methodTree the method from which the CFG has been built, its parameters are defined at the entry of the CFG
+   * even when they are never assigned
+   */
+  public static ReachingDefinitions analyze(CFG cfg, @Nullable MethodTree methodTree) {
+    ReachingDefinitions reachingDefinitions = new ReachingDefinitions(cfg, methodTree);
+    reachingDefinitions.solve();
+    return reachingDefinitions;
+  }
+
+  private int registerDefinition(Symbol symbol, Tree definition) {
+    int index = index(definition);
+    definitionsBySymbol.computeIfAbsent(symbol, k -> new BitSet()).set(index);
+    return index;
+  }
+
+  @Override
+  protected BitSet boundary() {
+    return entryDefinitions;
+  }
+
+  @Override
+  protected void computeGenKill(CFG.Block block, BitSet gen, BitSet kill) {
+    for (Tree element : block.elements()) {
+      BitSet killed = trackedDefinitions(element);
+      if (killed != null) {
+        gen.andNot(killed);
+        gen.set(index(element));
+        kill.or(killed);
+      }
+    }
+  }
+
+  /**
+   * @return the definitions reaching the usage, or null if the usage is not part of the CFG or not a usage of a local variable
+   * defined in the CFG.
+   */
+  @CheckForNull
+  public List<Tree> reachingDefinitions(IdentifierTree usage) {
+    if (definitionsByUsage == null) {
+      definitionsByUsage = computeDefinitionsByUsage();
+    }
+    return definitionsByUsage.get(usage);
+  }
+
+  /**
+   * @return the value of the usage if all the definitions reaching it assign the same constant
+   */
+  public Optional<Object> constantValue(IdentifierTree usage) {
+    return constantValue(usage, new HashSet<>());
+  }
+
+  private Optional<Object> constantValue(IdentifierTree usage, Set<IdentifierTree> visited) {
+    Optional<Object> cached = constantByUsage.get(usage);
+    if (cached != null) {
+      return cached;
+    }
+    if (!visited.add(usage)) {
+      // cyclic definitions, like "x = y; y = x;" in a loop
+      return Optional.empty();
+    }
+    Optional<Object> result = computeConstantValue(usage, visited);
+    constantByUsage.put(usage, result);
+    return result;
+  }
+
+  private Optional<Object> computeConstantValue(IdentifierTree usage, Set<IdentifierTree> visited) {
+    List<Tree> definitions = reachingDefinitions(usage);
+    if (definitions == null || definitions.isEmpty()) {
+      return Optional.empty();
+    }
+    Object value = null;
+    for (Tree definition : definitions) {
+      ExpressionTree assigned = entryDefinitions.get(index(definition)) ? null : assignedExpression(definition);
+      if (assigned == null) {
+        return Optional.empty();
+      }
+      Optional<Object> definitionValue = assigned instanceof IdentifierTree identifier && reachingDefinitions(identifier) != null
+        ? constantValue(identifier, visited)
+        : assigned.asConstant();
+      if (definitionValue.isEmpty() || (value != null && !Objects.equals(value, definitionValue.get()))) {
+        return Optional.empty();
+      }
+      value = definitionValue.get();
+    }
+    return Optional.of(value);
+  }
+
+  @CheckForNull
+  private static ExpressionTree assignedExpression(Tree definition) {
+    if (definition instanceof VariableTree variable) {
+      ExpressionTree initializer = variable.initializer();
+      return initializer == null ? null : ExpressionUtils.skipParentheses(initializer);
+    }
+    if (definition.is(Tree.Kind.ASSIGNMENT)) {
+      return ExpressionUtils.skipParentheses(((AssignmentExpressionTree) definition).expression());
+    }
+    // compound assignments and increments depend on the previous value
+    return null;
+  }
+
+  private Map<IdentifierTree, List<Tree>> computeDefinitionsByUsage() {
+    Map<IdentifierTree, List<Tree>> result = new IdentityHashMap<>();
+    for (CFG.Block block : cfg.reversedBlocks()) {
+      BitSet reaching = (BitSet) inBits(block).clone();
+      for (Tree element : block.elements()) {
+        if (element instanceof IdentifierTree identifier) {
+          BitSet symbolDefinitions = definitionsBySymbol.get(identifier.symbol());
+          if (symbolDefinitions != null) {
+            result.put(identifier, definitions(reaching, symbolDefinitions));
+          }
+        }
+        BitSet killed = trackedDefinitions(element);
+        if (killed != null) {
+          reaching.andNot(killed);
+          reaching.set(index(element));
+        }
+      }
+    }
+    return result;
+  }
+
+  private List<Tree> definitions(BitSet reaching, BitSet symbolDefinitions) {
+    BitSet bits = (BitSet) reaching.clone();
+    bits.and(symbolDefinitions);
+    if (bits.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<Tree> definitions = new ArrayList<>(bits.cardinality());
+    bits.stream().forEach(i -> definitions.add(element(i)));
+    return definitions;
+  }
+
+  /**
+   * @return all the definitions of the variable defined by the element, if any
+   */
+  @CheckForNull
+  private BitSet trackedDefinitions(Tree element) {
+    Symbol defined = definedSymbol(element);
+    return defined == null ? null : definitionsBySymbol.get(defined);
+  }
+
+  @CheckForNull
+  private static Symbol definedSymbol(Tree element) {
+    Symbol symbol = null;
+    if (element instanceof VariableTree variable) {
+      symbol = variable.symbol();
+    } else if (element instanceof AssignmentExpressionTree assignment) {
+      symbol = identifierSymbol(assignment.variable());
+    } else if (element.is(Tree.Kind.PREFIX_INCREMENT, Tree.Kind.PREFIX_DECREMENT, Tree.Kind.POSTFIX_INCREMENT, Tree.Kind.POSTFIX_DECREMENT)) {
+      symbol = identifierSymbol(((UnaryExpressionTree) element).expression());
+    }
+    return symbol != null && symbol.isLocalVariable() ? symbol : null;
+  }
+
+  @CheckForNull
+  private static Symbol identifierSymbol(ExpressionTree expression) {
+    ExpressionTree skipped = ExpressionUtils.skipParentheses(expression);
+    return skipped instanceof IdentifierTree identifier ? identifier.symbol() : null;
+  }
+}
@@ -0,0 +1,353 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.sonar.java.ast.api.JavaKeyword;
+import org.sonar.java.ast.visitors.CommentLinesVisitor;
+import org.sonar.java.ast.visitors.SubscriptionVisitor;
+import org.sonar.java.model.InternalSyntaxToken;
+import org.sonar.plugins.java.api.location.Position;
+import org.sonar.plugins.java.api.tree.BinaryExpressionTree;
+import org.sonar.plugins.java.api.tree.BlockTree;
+import org.sonar.plugins.java.api.tree.CaseLabelTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ConditionalExpressionTree;
+import org.sonar.plugins.java.api.tree.ForStatementTree;
+import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.StatementTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.TryStatementTree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+/**
+ * Metrics of a compilation unit, computed in a single traversal of its tree. They are the same as the ones computed separately by
+ * {@link org.sonar.java.ast.visitors.ComplexityVisitor}, {@link org.sonar.java.ast.visitors.StatementVisitor},
+ * {@link org.sonar.java.ast.visitors.LinesOfCodeVisitor} and {@link CommentLinesVisitor}:
+ * <ul>
+ *   <li>complexity nodes of the file and of each method</li>
+ *   <li>number of statements of the file</li>
+ *   <li>lines of code of the file, and of any of its subtrees through an index of the lines of the tokens</li>
+ *   <li>comment lines and NOSONAR lines of the file</li>
+ *   <li>methods and initializers of the file, whose cognitive complexity makes the one of the file</li>
+ * </ul>
+ */
+final class FileMetrics {
+
+  private final CompilationUnitTree compilationUnit;
+
+  private final List<Tree> complexityNodes = new ArrayList<>();
+  private final Map<Tree, List<Tree>> methodComplexityNodes = new IdentityHashMap<>();
+  private int statements;
+  private final BitSet linesOfCode = new BitSet();
+  private final BitSet commentLines = new BitSet();
+  private final Set<Integer> noSonarLines = new HashSet<>();
+  private final List<MethodTree> methods = new ArrayList<>();
+  private final List<BlockTree> initializers = new ArrayList<>();
+
+  /**
+   * Positions of the tokens of the file, excluding EOF, packed as (line << 32 | column). Once sorted and deduplicated, they are
+   * indexed by {@link #tokenLines} and {@link #distinctLines}.
+   */
+  private long[] tokenPositions = new long[256];
+  private int tokenCount = 0;
+  private int[] tokenLines;
+  /**
+   * Number of distinct lines from the first token of the file up to each token.
+   */
+  private int[] distinctLines;
+
+  private FileMetrics(CompilationUnitTree compilationUnit) {
+    this.compilationUnit = compilationUnit;
+  }
+
+  static FileMetrics compute(CompilationUnitTree compilationUnit) {
+    FileMetrics metrics = new FileMetrics(compilationUnit);
+    new Visitor(metrics).scan(compilationUnit);
+    metrics.indexTokens();
+    return metrics;
+  }
+
+  CompilationUnitTree compilationUnit() {
+    return compilationUnit;
+  }
+
+  List<Tree> complexityNodes() {
+    return complexityNodes;
+  }
+
+  /**
+   * Complexity nodes of a method of the file, nodes of its lambdas and of its local and anonymous classes excluded.
+   */
+  @CheckForNull
+  List<Tree> methodComplexityNodes(MethodTree method) {
+    return methodComplexityNodes.get(method);
+  }
+
+  int numberOfStatements() {
+    return statements;
+  }
+
+  int numberOfCommentedLines() {
+    return commentLines.cardinality();
+  }
+
+  Set<Integer> noSonarLines() {
+    return noSonarLines;
+  }
+
+  List<MethodTree> methods() {
+    return methods;
+  }
+
+  List<BlockTree> initializers() {
+    return initializers;
+  }
+
+  /**
+   * Number of distinct lines holding the tokens of the given tree, which must belong to the file.
+   */
+  int linesOfCode(Tree tree) {
+    if (tree == compilationUnit) {
+      return linesOfCode.cardinality();
+    }
+    SyntaxToken firstToken = tree.firstToken();
+    SyntaxToken lastToken = tree.lastToken();
+    if (firstToken == null || lastToken == null) {
+      return 0;
+    }
+    int from = firstTokenAtOrAfter(position(Position.startOf(firstToken)));
+    int to = firstTokenAtOrAfter(position(Position.startOf(lastToken)) + 1) - 1;
+    if (from > to) {
+      return 0;
+    }
+    return distinctLines[to] - distinctLines[from] + 1;
+  }
+
+  private int firstTokenAtOrAfter(long position) {
+    int index = Arrays.binarySearch(tokenPositions, 0, tokenCount, position);
+    return index >= 0 ? index : (-index - 1);
+  }
+
+  private static long position(Position position) {
+    return ((long) position.line() << 32) | position.columnOffset();
+  }
+
+  private void addToken(Position position) {
+    if (tokenCount == tokenPositions.length) {
+      tokenPositions = Arrays.copyOf(tokenPositions, tokenCount * 2);
+    }
+    tokenPositions[tokenCount] = position(position);
+    tokenCount++;
+  }
+
+  private void indexTokens() {
+    // tokens are not always visited in source order, and tokens shared between trees (like the type of "int a, b;") are
+    // visited more than once
+    Arrays.sort(tokenPositions, 0, tokenCount);
+    int distinctCount = 0;
+    for (int i = 0; i < tokenCount; i++) {
+      if (distinctCount == 0 || tokenPositions[distinctCount - 1] != tokenPositions[i]) {
+        tokenPositions[distinctCount] = tokenPositions[i];
+        distinctCount++;
+      }
+    }
+    tokenCount = distinctCount;
+    tokenLines = new int[tokenCount];
+    distinctLines = new int[tokenCount];
+    for (int i = 0; i < tokenCount; i++) {
+      tokenLines[i] = (int) (tokenPositions[i] >>> 32);
+      boolean newLine = i == 0 || tokenLines[i - 1] != tokenLines[i];
+      distinctLines[i] = (i == 0 ? 0 : distinctLines[i - 1]) + (newLine ? 1 : 0);
+    }
+  }
+
+  private static class Visitor extends SubscriptionVisitor {
+
+    private static final String DEFAULT_KEYWORD = JavaKeyword.DEFAULT.getValue();
+
+    private final FileMetrics metrics;
+    /**
+     * Enclosing methods, classes and lambdas: complexity nodes are attributed to a method only when it is the innermost one.
+     */
+    private final Deque<Tree> scopes = new ArrayDeque<>();
+    private final Set<Tree> variableTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean seenFirstToken = false;
+
+    Visitor(FileMetrics metrics) {
+      this.metrics = metrics;
+    }
+
+    @Override
+    public List<Tree.Kind> nodesToVisit() {
+      List<Tree.Kind> kinds = new ArrayList<>(Tree.Kind.CLASS_KINDS);
+      kinds.addAll(List.of(
+        Tree.Kind.TOKEN,
+        Tree.Kind.METHOD,
+        Tree.Kind.CONSTRUCTOR,
+        Tree.Kind.LAMBDA_EXPRESSION,
+        Tree.Kind.INITIALIZER,
+        Tree.Kind.STATIC_INITIALIZER,
+        Tree.Kind.CASE_LABEL,
+        Tree.Kind.CONDITIONAL_EXPRESSION,
+        Tree.Kind.CONDITIONAL_AND,
+        Tree.Kind.CONDITIONAL_OR,
+        Tree.Kind.VARIABLE,
+        Tree.Kind.EMPTY_STATEMENT,
+        Tree.Kind.EXPRESSION_STATEMENT,
+        Tree.Kind.IF_STATEMENT,
+        Tree.Kind.ASSERT_STATEMENT,
+        Tree.Kind.SWITCH_STATEMENT,
+        Tree.Kind.WHILE_STATEMENT,
+        Tree.Kind.DO_STATEMENT,
+        Tree.Kind.FOR_STATEMENT,
+        Tree.Kind.FOR_EACH_STATEMENT,
+        Tree.Kind.BREAK_STATEMENT,
+        Tree.Kind.CONTINUE_STATEMENT,
+        Tree.Kind.RETURN_STATEMENT,
+        Tree.Kind.THROW_STATEMENT,
+        Tree.Kind.SYNCHRONIZED_STATEMENT,
+        Tree.Kind.TRY_STATEMENT));
+      return kinds;
+    }
+
+    void scan(CompilationUnitTree compilationUnit) {
+      scanTree(compilationUnit);
+      // types of the local variables declared outside of for statements
+      metrics.statements += variableTypes.size();
+    }
+
+    @Override
+    public void visitToken(SyntaxToken syntaxToken) {
+      if (!((InternalSyntaxToken) syntaxToken).isEOF()) {
+        Position start = Position.startOf(syntaxToken);
+        metrics.linesOfCode.set(start.line());
+        metrics.addToken(start);
+      }
+      for (SyntaxTrivia trivia : syntaxToken.trivias()) {
+        if (seenFirstToken) {
+          CommentLinesVisitor.visitCommentLines(trivia, metrics.commentLines::set, metrics.noSonarLines::add);
+        } else {
+          // the header of the file is not a comment line
+          seenFirstToken = true;
+        }
+      }
+      seenFirstToken = true;
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      switch (tree.kind()) {
+        case METHOD, CONSTRUCTOR -> visitMethod((MethodTree) tree);
+        case LAMBDA_EXPRESSION -> {
+          scopes.push(tree);
+          addComplexityNode(((LambdaExpressionTree) tree).arrowToken());
+        }
+        case INITIALIZER, STATIC_INITIALIZER -> metrics.initializers.add((BlockTree) tree);
+        case CASE_LABEL -> {
+          CaseLabelTree caseLabel = (CaseLabelTree) tree;
+          if (!DEFAULT_KEYWORD.equals(caseLabel.caseOrDefaultKeyword().text())) {
+            addComplexityNode(caseLabel.firstToken());
+          }
+        }
+        case CONDITIONAL_EXPRESSION -> addComplexityNode(((ConditionalExpressionTree) tree).questionToken());
+        case CONDITIONAL_AND, CONDITIONAL_OR -> addComplexityNode(((BinaryExpressionTree) tree).operatorToken());
+        case VARIABLE -> variableTypes.add(((VariableTree) tree).type());
+        case EMPTY_STATEMENT, EXPRESSION_STATEMENT, ASSERT_STATEMENT, SWITCH_STATEMENT, BREAK_STATEMENT, CONTINUE_STATEMENT, RETURN_STATEMENT,
+          THROW_STATEMENT, SYNCHRONIZED_STATEMENT -> metrics.statements++;
+        case IF_STATEMENT, WHILE_STATEMENT, DO_STATEMENT, FOR_STATEMENT, FOR_EACH_STATEMENT -> {
+          addComplexityNode(tree.firstToken());
+          metrics.statements++;
+        }
+        case TRY_STATEMENT -> {
+          TryStatementTree tryStatement = (TryStatementTree) tree;
+          metrics.statements += 1 - tryStatement.resourceList().size() - tryStatement.catches().size();
+        }
+        default -> {
+          // class kinds
+          scopes.push(tree);
+        }
+      }
+    }
+
+    private void visitMethod(MethodTree method) {
+      metrics.methods.add(method);
+      metrics.methodComplexityNodes.put(method, new ArrayList<>());
+      scopes.push(method);
+      if (method.block() != null) {
+        addComplexityNode(method.simpleName().identifierToken());
+      }
+    }
+
+    private void addComplexityNode(Tree node) {
+      metrics.complexityNodes.add(node);
+      Tree scope = scopes.peek();
+      if (scope != null && scope.is(Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR)) {
+        metrics.methodComplexityNodes.get(scope).add(node);
+      }
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      switch (tree.kind()) {
+        case METHOD, CONSTRUCTOR -> {
+          scopes.pop();
+          ((MethodTree) tree).parameters().forEach(parameter -> variableTypes.remove(parameter.type()));
+        }
+        case LAMBDA_EXPRESSION -> scopes.pop();
+        case FOR_STATEMENT -> {
+          ForStatementTree forStatement = (ForStatementTree) tree;
+          leaveForStatementPart(forStatement.initializer());
+          leaveForStatementPart(forStatement.update());
+        }
+        default -> {
+          if (Tree.Kind.CLASS_KINDS.contains(tree.kind())) {
+            scopes.pop();
+            ((ClassTree) tree).members().stream()
+              .filter(member -> member.is(Tree.Kind.VARIABLE))
+              .forEach(member -> variableTypes.remove(((VariableTree) member).type()));
+          }
+        }
+      }
+    }
+
+    private void leaveForStatementPart(List<StatementTree> statements) {
+      for (StatementTree statement : statements) {
+        if (statement.is(Tree.Kind.VARIABLE)) {
+          variableTypes.remove(((VariableTree) statement).type());
+        } else {
+          metrics.statements--;
+        }
+      }
+    }
+  }
+}
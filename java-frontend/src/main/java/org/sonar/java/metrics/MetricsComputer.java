@@ -16,130 +16,153 @@
  */
 package org.sonar.java.metrics;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.CheckForNull;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.ast.visitors.CognitiveComplexityVisitor;
-import org.sonar.java.ast.visitors.CommentLinesVisitor;
 import org.sonar.java.ast.visitors.ComplexityVisitor;
 import org.sonar.java.ast.visitors.LinesOfCodeVisitor;
 import org.sonar.java.ast.visitors.MethodNestingLevelVisitor;
 import org.sonar.java.ast.visitors.NumberOfDefinedVariablesVisitor;
 import org.sonar.java.ast.visitors.StatementVisitor;
+import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
+/**
+ * Computes and caches the metrics of a file and of its methods.
+ * <p>
+ * File-level metrics, complexity nodes of methods and lines of code of any tree are computed by a single traversal of the
+ * compilation unit (see {@link FileMetrics}). Other per-method metrics are computed on demand, and kept in identity-keyed maps.
+ * Trees which are not part of a compilation unit are measured by the dedicated visitors.
+ * </p>
+ */
 public class MetricsComputer {
 
-  private final Map<Integer, List<Tree>> methodComplexityNodes = new HashMap<>();
-  private final Map<Integer, CognitiveComplexityVisitor.Result> methodComplexity = new HashMap<>();
-  private final Map<Integer, Integer> compilationUnityComplexity = new HashMap<>();
-  private final Map<Integer, Integer> methodNumberOfDefinedVariables = new HashMap<>();
-  private final Map<Integer, Integer> treeLinesOfCode = new HashMap<>();
-  private final Map<Integer, Integer> treeNumberOfStatements = new HashMap<>();
-  private final Map<Integer, Integer> treeNumberOfCommentedLines = new HashMap<>();
-  private final Map<Integer, Set<Integer>> treeNoSonarLines = new HashMap<>();
-  private final Map<Integer, Integer> methodNestingLevel = new HashMap<>();
+  private FileMetrics fileMetrics;
+  private int fileMetricsComputations = 0;
+
+  private final Map<Tree, CognitiveComplexityVisitor.Result> methodComplexity = new IdentityHashMap<>();
+  private final Map<Tree, Integer> compilationUnitComplexity = new IdentityHashMap<>();
+  private final Map<Tree, Integer> methodNumberOfDefinedVariables = new IdentityHashMap<>();
+  private final Map<Tree, Integer> methodNestingLevel = new IdentityHashMap<>();
 
-  ComplexityVisitor complexityVisitor = new ComplexityVisitor();
+  private final Map<Tree, List<Tree>> complexityNodes = new IdentityHashMap<>();
+  private final Map<Tree, Integer> treeLinesOfCode = new IdentityHashMap<>();
+  private final Map<Tree, Integer> treeNumberOfStatements = new IdentityHashMap<>();
 
   public List<Tree> getComplexityNodes(Tree tree) {
-    return methodComplexityNodes.computeIfAbsent(tree.hashCode(), k -> complexityVisitor.getNodes(tree));
+    FileMetrics metrics = fileMetrics(tree);
+    if (metrics != null) {
+      if (tree.is(Tree.Kind.COMPILATION_UNIT)) {
+        return metrics.complexityNodes();
+      }
+      if (tree.is(Tree.Kind.METHOD, Tree.Kind.CONSTRUCTOR)) {
+        List<Tree> nodes = metrics.methodComplexityNodes((MethodTree) tree);
+        if (nodes != null) {
+          return nodes;
+        }
+      }
+    }
+    return complexityNodes.computeIfAbsent(tree, k -> new ArrayList<>(new ComplexityVisitor().getNodes(tree)));
   }
 
   public CognitiveComplexityVisitor.Result getMethodComplexity(MethodTree tree) {
-    return methodComplexity.computeIfAbsent(tree.hashCode(), k -> CognitiveComplexityVisitor.methodComplexity(tree));
+    return methodComplexity.computeIfAbsent(tree, k -> CognitiveComplexityVisitor.methodComplexity(tree));
   }
 
-  NumberOfDefinedVariablesVisitor methodBodyVisitor = new NumberOfDefinedVariablesVisitor();
-
   public int getNumberOfDefinedVariables(MethodTree tree) {
-    return methodNumberOfDefinedVariables.computeIfAbsent(tree.hashCode(), k -> methodBodyVisitor.getNumberOfDefinedVariables(tree));
+    return methodNumberOfDefinedVariables.computeIfAbsent(tree, k -> new NumberOfDefinedVariablesVisitor().getNumberOfDefinedVariables(tree));
   }
 
-  LinesOfCodeVisitor linesOfCodeVisitor = new LinesOfCodeVisitor();
-
   public int getLinesOfCode(Tree tree) {
-    return treeLinesOfCode.computeIfAbsent(tree.hashCode(), k -> linesOfCodeVisitor.linesOfCode(tree));
+    FileMetrics metrics = fileMetrics(tree);
+    // the type of a variable can be shared with other variables declared before it: its tokens are not contiguous
+    if (metrics != null && !tree.is(Tree.Kind.VARIABLE)) {
+      return metrics.linesOfCode(tree);
+    }
+    return treeLinesOfCode.computeIfAbsent(tree, k -> new LinesOfCodeVisitor().linesOfCode(tree));
   }
 
-  StatementVisitor numberOfStatementsVisitor = new StatementVisitor();
-
   public int getNumberOfStatements(Tree tree) {
-    return treeNumberOfStatements.computeIfAbsent(tree.hashCode(), k -> numberOfStatementsVisitor.numberOfStatements(tree));
+    if (tree.is(Tree.Kind.COMPILATION_UNIT)) {
+      return fileMetrics((CompilationUnitTree) tree).numberOfStatements();
+    }
+    return treeNumberOfStatements.computeIfAbsent(tree, k -> new StatementVisitor().numberOfStatements(tree));
   }
 
-  CommentLinesVisitor commentedLineVisitor = new CommentLinesVisitor();
-
   public Integer getNumberOfCommentedLines(CompilationUnitTree tree) {
-    return treeNumberOfCommentedLines.computeIfAbsent(tree.hashCode(), k -> {
-      commentedLineVisitor.analyzeCommentLines(tree);
-      return commentedLineVisitor.commentLinesMetric();
-    });
+    return fileMetrics(tree).numberOfCommentedLines();
   }
 
   public Set<Integer> getNoSonarLines(CompilationUnitTree tree) {
-    return treeNoSonarLines.computeIfAbsent(tree.hashCode(), k -> {
-      commentedLineVisitor.analyzeCommentLines(tree);
-      return commentedLineVisitor.noSonarLines();
-    });
+    return fileMetrics(tree).noSonarLines();
   }
 
+  /**
+   * Cognitive complexity of the compilation unit: sum of the complexities of its methods and initializers. Complexities of
+   * methods are shared with {@link #getMethodComplexity(MethodTree)}.
+   */
   public int getCompilationUnitComplexity(CompilationUnitTree tree) {
-    return compilationUnityComplexity.computeIfAbsent(tree.hashCode(), k -> CognitiveComplexityVisitor.compilationUnitComplexity(tree));
+    return compilationUnitComplexity.computeIfAbsent(tree, k -> {
+      FileMetrics metrics = fileMetrics(tree);
+      int complexity = 0;
+      for (MethodTree method : metrics.methods()) {
+        complexity += getMethodComplexity(method).complexity;
+      }
+      for (BlockTree initializer : metrics.initializers()) {
+        complexity += CognitiveComplexityVisitor.initializerComplexity(initializer);
+      }
+      return complexity;
+    });
   }
 
-  MethodNestingLevelVisitor methodNestingVisitor = new MethodNestingLevelVisitor();
-
   public int getMethodNestingLevel(MethodTree tree) {
-    return methodNestingLevel.computeIfAbsent(tree.hashCode(), k -> methodNestingVisitor.getMaxNestingLevel(tree));
+    return methodNestingLevel.computeIfAbsent(tree, k -> new MethodNestingLevelVisitor().getMaxNestingLevel(tree));
   }
 
-  @VisibleForTesting
-  Map<Integer, List<Tree>> getMethodComplexityNodes() {
-    return methodComplexityNodes;
+  @CheckForNull
+  private FileMetrics fileMetrics(Tree tree) {
+    Tree root = tree;
+    while (root.parent() != null) {
+      root = root.parent();
+    }
+    if (!root.is(Tree.Kind.COMPILATION_UNIT)) {
+      return null;
+    }
+    return fileMetrics((CompilationUnitTree) root);
   }
 
-  @VisibleForTesting
-  Map<Integer, CognitiveComplexityVisitor.Result> getMethodComplexity() {
-    return methodComplexity;
+  private FileMetrics fileMetrics(CompilationUnitTree compilationUnit) {
+    if (fileMetrics == null || fileMetrics.compilationUnit() != compilationUnit) {
+      fileMetrics = FileMetrics.compute(compilationUnit);
+      fileMetricsComputations++;
+    }
+    return fileMetrics;
   }
 
   @VisibleForTesting
-  Map<Integer, Integer> getCompilationUnityComplexity() {
-    return compilationUnityComplexity;
+  int getFileMetricsComputations() {
+    return fileMetricsComputations;
   }
 
   @VisibleForTesting
-  Map<Integer, Integer> getMethodNumberOfDefinedVariables() {
-    return methodNumberOfDefinedVariables;
-  }
-
-  @VisibleForTesting
-  Map<Integer, Integer> getTreeLinesOfCode() {
-    return treeLinesOfCode;
-  }
-
-  @VisibleForTesting
-  Map<Integer, Integer> getTreeNumberOfStatements() {
-    return treeNumberOfStatements;
-  }
-
-  @VisibleForTesting
-  Map<Integer, Integer> getTreeNumberOfCommentedLines() {
-    return treeNumberOfCommentedLines;
+  Map<Tree, CognitiveComplexityVisitor.Result> getMethodComplexity() {
+    return methodComplexity;
   }
 
   @VisibleForTesting
-  Map<Integer, Set<Integer>> getTreeNoSonarLines() {
-    return treeNoSonarLines;
+  Map<Tree, Integer> getMethodNumberOfDefinedVariables() {
+    return methodNumberOfDefinedVariables;
   }
 
   @VisibleForTesting
-  Map<Integer, Integer> getMethodNestingLevel() {
+  Map<Tree, Integer> getMethodNestingLevel() {
     return methodNestingLevel;
   }
 
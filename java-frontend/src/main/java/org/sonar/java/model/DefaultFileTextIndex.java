@@ -0,0 +1,183 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.sonar.plugins.java.api.FileTextIndex;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Lines and comments are indexed lazily, on first use, so that a file analyzed by none of the checks using them does not
+ * pay for their computation.
+ */
+public class DefaultFileTextIndex implements FileTextIndex {
+
+  static final List<String> INDEXED_TAGS = List.of("TODO", "FIXME", "NOSONAR", "NOPMD", "CHECKSTYLE:OFF");
+  private static final MultiPatternMatcher INDEXED_TAGS_MATCHER = new MultiPatternMatcher(INDEXED_TAGS);
+
+  private final Supplier<String> content;
+  @Nullable
+  private final Tree tree;
+
+  private int[] lineBoundaries;
+  private List<Comment> comments;
+  private final Map<String, List<Integer>> commentLinesByTag = new HashMap<>();
+
+  public DefaultFileTextIndex(Supplier<String> content, @Nullable Tree tree) {
+    this.content = content;
+    this.tree = tree;
+  }
+
+  @Override
+  public int lineCount() {
+    return lineBoundaries().length / 2;
+  }
+
+  @Override
+  public int lineStartOffset(int line) {
+    return lineBoundaries()[lineIndex(line)];
+  }
+
+  @Override
+  public int lineLength(int line) {
+    int index = lineIndex(line);
+    return lineBoundaries[index + 1] - lineBoundaries[index];
+  }
+
+  private int lineIndex(int line) {
+    int index = 2 * (line - 1);
+    if (line < 1 || index >= lineBoundaries().length) {
+      throw new IndexOutOfBoundsException("Line " + line + " is not in [1, " + lineCount() + "]");
+    }
+    return index;
+  }
+
+  private int[] lineBoundaries() {
+    if (lineBoundaries == null) {
+      lineBoundaries = LineUtils.lineBoundaries(content.get());
+    }
+    return lineBoundaries;
+  }
+
+  @Override
+  public List<Comment> comments() {
+    if (comments == null) {
+      List<Comment> collected = new ArrayList<>();
+      if (tree != null) {
+        collectComments(tree, collected);
+      }
+      comments = Collections.unmodifiableList(collected);
+    }
+    return comments;
+  }
+
+  private static void collectComments(Tree tree, List<Comment> comments) {
+    if (tree.is(Tree.Kind.TOKEN)) {
+      for (SyntaxTrivia trivia : ((SyntaxToken) tree).trivias()) {
+        comments.add(new Comment(trivia, LineUtils.startLine(trivia), LineUtils.endLine(trivia)));
+      }
+      return;
+    }
+    JavaTree javaTree = (JavaTree) tree;
+    if (!javaTree.isLeaf()) {
+      for (Tree child : javaTree.getChildren()) {
+        collectComments(child, comments);
+      }
+    }
+  }
+
+  @Override
+  public List<Integer> commentLinesWithTag(String tag) {
+    String key = tag.toUpperCase(Locale.ROOT);
+    if (!commentLinesByTag.containsKey(key)) {
+      if (INDEXED_TAGS.contains(key)) {
+        findCommentLinesWithTags(INDEXED_TAGS, INDEXED_TAGS_MATCHER);
+      } else {
+        findCommentLinesWithTags(List.of(key), new MultiPatternMatcher(List.of(key)));
+      }
+    }
+    return commentLinesByTag.get(key);
+  }
+
+  private void findCommentLinesWithTags(List<String> tags, MultiPatternMatcher matcher) {
+    // comments are in order of appearance, a line is repeated for each comment containing the tag on it
+    List<List<Integer>> linesByTag = new ArrayList<>();
+    tags.forEach(tag -> linesByTag.add(new ArrayList<>()));
+    int[] lastSeenLineByTag = new int[tags.size()];
+    for (Comment comment : comments()) {
+      String text = comment.trivia().comment();
+      Arrays.fill(lastSeenLineByTag, -1);
+      CommentLines commentLines = new CommentLines(text);
+      matcher.find(text, (tagIndex, start) -> {
+        int lineInComment = commentLines.lineOf(start);
+        // only the first occurrence of a tag on a line is considered
+        if (lastSeenLineByTag[tagIndex] != lineInComment) {
+          lastSeenLineByTag[tagIndex] = lineInComment;
+          int end = start + tags.get(tagIndex).length();
+          if (!isLetter(text, start - 1) && !isLetter(text, end)) {
+            linesByTag.get(tagIndex).add(comment.startLine() + lineInComment);
+          }
+        }
+      });
+    }
+    for (int i = 0; i < tags.size(); i++) {
+      commentLinesByTag.put(tags.get(i), List.copyOf(linesByTag.get(i)));
+    }
+  }
+
+  private static boolean isLetter(String text, int index) {
+    return index >= 0 && index < text.length() && Character.isLetter(text.charAt(index));
+  }
+
+  /**
+   * Lines of a comment, separated by "\r\n", "\n" or "\r". Computed on the first occurrence of a tag in the comment, as
+   * most comments contain none.
+   */
+  private static class CommentLines {
+
+    private final String text;
+    private int[] lineStarts;
+
+    CommentLines(String text) {
+      this.text = text;
+    }
+
+    int lineOf(int offset) {
+      if (lineStarts == null) {
+        int[] boundaries = LineUtils.lineBoundaries(text);
+        lineStarts = new int[boundaries.length / 2];
+        for (int i = 0; i < lineStarts.length; i++) {
+          lineStarts[i] = boundaries[2 * i];
+        }
+      }
+      int index = Arrays.binarySearch(lineStarts, offset);
+      return index >= 0 ? index : (-index - 2);
+    }
+
+  }
+
+}
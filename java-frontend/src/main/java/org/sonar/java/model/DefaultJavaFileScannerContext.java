@@ -25,15 +25,18 @@ import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputComponent;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.java.SonarComponents;
-import org.sonar.java.ast.visitors.ComplexityVisitor;
+import org.sonar.java.cfg.DataFlowComputer;
+import org.sonar.java.cfg.DataFlowScannerContext;
 import org.sonar.java.metrics.MetricsComputer;
 import org.sonar.java.metrics.MetricsScannerContext;
+import org.sonar.java.regex.RegexAnalysisCache;
 import org.sonar.java.regex.RegexCache;
 import org.sonar.java.regex.RegexCheck;
 import org.sonar.java.regex.RegexScannerContext;
 import org.sonar.java.reporting.AnalyzerMessage;
 import org.sonar.java.reporting.FluentReporting;
 import org.sonar.java.reporting.InternalJavaIssueBuilder;
+import org.sonar.plugins.java.api.FileTextIndex;
 import org.sonar.plugins.java.api.JavaCheck;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaVersion;
@@ -48,16 +51,19 @@ import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
 import org.sonarsource.analyzer.commons.regex.ast.RegexSyntaxElement;
 
-public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContext implements JavaFileScannerContext, RegexScannerContext, FluentReporting, MetricsScannerContext {
+public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContext
+  implements JavaFileScannerContext, RegexScannerContext, FluentReporting, MetricsScannerContext, DataFlowScannerContext {
   private final JavaTree.CompilationUnitTreeImpl tree;
   private final boolean semanticEnabled;
-  private final ComplexityVisitor complexityVisitor;
   private final RegexCache regexCache;
+  private final RegexAnalysisCache regexAnalysisCache;
   private final MetricsComputer metricsComputer;
+  private final DataFlowComputer dataFlowComputer;
   private final boolean fileParsed;
 
   private List<String> lines = null;
   private String content;
+  private FileTextIndex textIndex;
 
   public DefaultJavaFileScannerContext(@Nullable CompilationUnitTree tree, @Nullable InputFile inputFile, @Nullable Sema semanticModel,
                                        @Nullable SonarComponents sonarComponents, JavaVersion javaVersion,
@@ -65,9 +71,10 @@ public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContex
     super(sonarComponents, inputFile, javaVersion, inAndroidContext, cacheContext);
     this.tree = (JavaTree.CompilationUnitTreeImpl) tree;
     this.semanticEnabled = semanticModel != null;
-    this.complexityVisitor = new ComplexityVisitor();
     this.regexCache = new RegexCache();
+    this.regexAnalysisCache = moduleRegexAnalysisCache(sonarComponents);
     this.metricsComputer = new MetricsComputer();
+    this.dataFlowComputer = new DataFlowComputer();
     this.fileParsed = fileParsed;
   }
 
@@ -138,10 +145,25 @@ public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContex
     return regexCache.getRegexForLiterals(initialFlags, stringLiterals);
   }
 
+  @Override
+  public <T> T regexAnalysis(String analysisKey, RegexParseResult regex, Function<RegexParseResult, T> analysis) {
+    return regexAnalysisCache.computeIfAbsent(analysisKey, regex, analysis);
+  }
+
+  @Override
+  public int regexAnalysisMaxSteps() {
+    return sonarComponents != null ? sonarComponents.regexAnalysisMaxSteps() : SonarComponents.DEFAULT_REGEX_ANALYSIS_MAX_STEPS;
+  }
+
+  private static RegexAnalysisCache moduleRegexAnalysisCache(@Nullable SonarComponents sonarComponents) {
+    RegexAnalysisCache cache = sonarComponents != null ? sonarComponents.regexAnalysisCache() : null;
+    // without module, results are only shared within the file
+    return cache != null ? cache : new RegexAnalysisCache();
+  }
+
   @Override
   public void reportIssue(JavaCheck javaCheck, Tree syntaxNode, String message, List<Location> secondary, @Nullable Integer cost) {
-    List<List<Location>> flows = secondary.stream().map(Collections::singletonList).toList();
-    reportIssueWithFlow(javaCheck, syntaxNode, message, flows, cost);
+    reportIssueWithFlow(javaCheck, syntaxNode, message, secondaryAsFlows(secondary), cost);
   }
 
   @Override
@@ -160,8 +182,15 @@ public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContex
   public void reportIssue(JavaCheck javaCheck, Tree startTree, Tree endTree, String message, List<Location> secondary, @Nullable Integer cost) {
     throwIfEndOfAnalysisCheck(javaCheck);
 
-    List<List<Location>> flows = secondary.stream().map(Collections::singletonList).toList();
-    reportIssue(createAnalyzerMessage(inputFile, javaCheck, startTree, endTree, message, flows, cost));
+    reportIssue(createAnalyzerMessage(inputFile, javaCheck, startTree, endTree, message, secondaryAsFlows(secondary), cost));
+  }
+
+  private static List<List<Location>> secondaryAsFlows(List<Location> secondary) {
+    if (secondary.isEmpty()) {
+      // most issues have no secondary location
+      return Collections.emptyList();
+    }
+    return secondary.stream().map(Collections::singletonList).toList();
   }
 
   @Override
@@ -180,6 +209,14 @@ public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContex
     return content;
   }
 
+  @Override
+  public FileTextIndex getFileTextIndex() {
+    if (textIndex == null) {
+      textIndex = new DefaultFileTextIndex(this::getFileContent, tree);
+    }
+    return textIndex;
+  }
+
   public AnalyzerMessage createAnalyzerMessage(JavaCheck javaCheck, Tree startTree, String message) {
     return createAnalyzerMessage(inputFile, javaCheck, startTree, null, message, Collections.emptyList(), null);
   }
@@ -212,7 +249,7 @@ public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContex
 
   @Override
   public List<Tree> getComplexityNodes(Tree tree) {
-    return complexityVisitor.getNodes(tree);
+    return metricsComputer.getComplexityNodes(tree);
   }
 
   protected static void throwIfEndOfAnalysisCheck(JavaCheck javaCheck) {
@@ -238,4 +275,9 @@ public class DefaultJavaFileScannerContext extends DefaultInputFileScannerContex
   public MetricsComputer getMetricsComputer() {
     return metricsComputer;
   }
+
+  @Override
+  public DataFlowComputer getDataFlowComputer() {
+    return dataFlowComputer;
+  }
 }
@@ -24,6 +24,7 @@ import org.sonar.api.SonarProduct;
 import org.sonar.api.batch.fs.InputComponent;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.config.Configuration;
+import org.sonar.java.ProjectSummaryStore;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.caching.CacheContextImpl;
 import org.sonar.java.reporting.AnalyzerMessage;
@@ -33,12 +34,14 @@ import org.sonar.plugins.java.api.JavaCheck;
 import org.sonar.plugins.java.api.JavaVersion;
 import org.sonar.plugins.java.api.ModuleScannerContext;
 import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.semantic.TypeHierarchy;
 
 public class DefaultModuleScannerContext implements ModuleScannerContext {
   protected final SonarComponents sonarComponents;
   protected final JavaVersion javaVersion;
   protected final boolean inAndroidContext;
   protected final CacheContext cacheContext;
+  private final TypeHierarchy typeHierarchy;
 
   public DefaultModuleScannerContext(@Nullable SonarComponents sonarComponents, JavaVersion javaVersion, boolean inAndroidContext,
     @Nullable CacheContext cacheContext) {
@@ -50,6 +53,13 @@ public class DefaultModuleScannerContext implements ModuleScannerContext {
     } else {
       this.cacheContext = CacheContextImpl.of(sonarComponents);
     }
+    this.typeHierarchy = moduleTypeHierarchy(sonarComponents);
+  }
+
+  private static TypeHierarchy moduleTypeHierarchy(@Nullable SonarComponents sonarComponents) {
+    TypeHierarchy typeHierarchy = sonarComponents != null ? sonarComponents.typeHierarchy() : null;
+    // without module, the hierarchy is not shared and only knows about the types looked up
+    return typeHierarchy != null ? typeHierarchy : new TypeHierarchyIndex();
   }
 
   public void addIssueOnProject(JavaCheck check, String message) {
@@ -77,6 +87,22 @@ public class DefaultModuleScannerContext implements ModuleScannerContext {
     return cacheContext;
   }
 
+  /**
+   * Writes the summary of the module for the project-level analysis of the given check, see
+   * {@link org.sonar.plugins.java.api.internal.ProjectEndOfAnalysis ProjectEndOfAnalysis}.
+   * @return false when there is no project-level analysis or the summary could not be written, in which case the check has
+   * to report its issues at module level
+   */
+  public boolean writeProjectSummary(JavaCheck check, byte[] summary) {
+    ProjectSummaryStore store = sonarComponents != null ? sonarComponents.projectSummaryStore() : null;
+    if (store == null) {
+      return false;
+    }
+    return sonarComponents.getRuleKey(check)
+      .map(ruleKey -> store.write(ruleKey.toString(), getFullyQualifiedModuleKey().orElse(getModuleKey()), summary))
+      .orElse(false);
+  }
+
   public void reportIssue(AnalyzerMessage message) {
     sonarComponents.reportIssue(message);
   }
@@ -122,5 +148,10 @@ public class DefaultModuleScannerContext implements ModuleScannerContext {
     return sonarComponents.getConfiguration();
   }
 
+  @Override
+  public TypeHierarchy getTypeHierarchy() {
+    return typeHierarchy;
+  }
+
 
 }
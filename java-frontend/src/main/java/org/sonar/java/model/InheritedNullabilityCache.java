@@ -0,0 +1,80 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.annotation.CheckForNull;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.semantic.SymbolMetadata.NullabilityData;
+import org.sonar.plugins.java.api.semantic.SymbolMetadata.NullabilityTarget;
+
+/**
+ * Nullability inherited from the packages and the named classes, shared by the files of a module. When a symbol is not
+ * annotated, its nullability is looked up in its enclosing class and package, which is the same for every file declaring
+ * or using members of this class or package.
+ * Only the nullability data not referring to an annotation is kept, so that the cache does not retain the semantic of the
+ * files it was computed from. Not thread-safe, like the analysis of a module.
+ */
+public class InheritedNullabilityCache {
+
+  private static final String PACKAGE_KEY_SUFFIX = ".package-info";
+
+  private final Map<NullabilityTarget, Map<String, NullabilityData>> cache = new EnumMap<>(NullabilityTarget.class);
+
+  NullabilityData nullabilityData(Symbol owner, NullabilityTarget target, Supplier<NullabilityData> resolver) {
+    String key = key(owner);
+    if (key == null) {
+      return resolver.get();
+    }
+    Map<String, NullabilityData> cacheForTarget = cache.computeIfAbsent(target, t -> new HashMap<>());
+    NullabilityData cached = cacheForTarget.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    NullabilityData nullabilityData = resolver.get();
+    if (nullabilityData.annotation() == null) {
+      cacheForTarget.put(key, nullabilityData);
+    }
+    return nullabilityData;
+  }
+
+  /**
+   * Packages and classes are identified by their fully qualified name. Local and anonymous classes, and the classes
+   * nested in them, have no stable name and are not cached.
+   */
+  @CheckForNull
+  static String key(Symbol symbol) {
+    if (symbol.isUnknown()) {
+      return null;
+    }
+    if (symbol.isPackageSymbol()) {
+      // "package-info" is not a valid class name, the key of a package cannot be the one of a class
+      return symbol.name() + PACKAGE_KEY_SUFFIX;
+    }
+    if (symbol.isTypeSymbol()) {
+      Symbol owner = symbol.owner();
+      if (owner != null && (owner.isPackageSymbol() || (owner.isTypeSymbol() && key(owner) != null))) {
+        return ((Symbol.TypeSymbol) symbol).type().fullyQualifiedName();
+      }
+    }
+    return null;
+  }
+
+}
@@ -17,6 +17,7 @@
 package org.sonar.java.model;
 
 import com.sonar.sslr.api.RecognitionException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
@@ -29,6 +30,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
@@ -37,6 +39,7 @@ import org.eclipse.jdt.core.compiler.InvalidInputException;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTSessionParser;
 import org.eclipse.jdt.core.dom.ASTUtils;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.Annotation;
@@ -278,10 +281,20 @@ public class JParser {
   public static JavaTree.CompilationUnitTreeImpl parse(ASTParser astParser, String version, String unitName, String source) {
     astParser.setUnitName(unitName);
     astParser.setSource(source.toCharArray());
+    return parse(() -> (CompilationUnit) astParser.createAST(null), version, unitName, source);
+  }
+
+  /**
+   * Same as {@link #parse(ASTParser, String, String, String)}, with a parser keeping its name environment from one file to the next.
+   */
+  public static JavaTree.CompilationUnitTreeImpl parse(ASTSessionParser sessionParser, String version, String unitName, String source) {
+    return parse(() -> sessionParser.createAST(unitName, source.toCharArray()), version, unitName, source);
+  }
 
+  private static JavaTree.CompilationUnitTreeImpl parse(Supplier<CompilationUnit> ecjParser, String version, String unitName, String source) {
     CompilationUnit astNode;
     try {
-      astNode = (CompilationUnit) astParser.createAST(null);
+      astNode = ecjParser.get();
     } catch (Exception e) {
       LOG.error("ECJ: Unable to parse file", e);
       throw new RecognitionException(-1, "ECJ: Unable to parse file.", e);
@@ -290,7 +303,12 @@ public class JParser {
     return convert(version, unitName, source, astNode);
   }
 
-  static JavaTree.CompilationUnitTreeImpl convert(String version, String unitName, String source, CompilationUnit astNode) {
+  /**
+   * Converts an AST already produced by ECJ. Not an API: {@link #parse(ASTParser, String, String, String)} is the entry point, this
+   * method is public only to benchmark the conversion separately from the parsing.
+   */
+  @VisibleForTesting
+  public static JavaTree.CompilationUnitTreeImpl convert(String version, String unitName, String source, CompilationUnit astNode) {
     List<IProblem> errors = Stream.of(astNode.getProblems()).filter(IProblem::isError).toList();
     Optional<IProblem> possibleSyntaxError = errors.stream().filter(IS_SYNTAX_ERROR).findFirst();
     LineColumnConverter lineColumnConverter = new LineColumnConverter(source);
@@ -1550,18 +1568,42 @@ public class JParser {
   }
 
   private IfStatementTreeImpl convertIf(IfStatement e) {
-    Expression expression = e.getExpression();
-    Statement thenStatement = e.getThenStatement();
-    Statement elseStatement = e.getElseStatement();
-    return new IfStatementTreeImpl(
-      firstTokenIn(e, TerminalToken.TokenNameif),
-      firstTokenBefore(expression, TerminalToken.TokenNameLPAREN),
-      convertExpression(expression),
-      firstTokenAfter(expression, TerminalToken.TokenNameRPAREN),
-      createStatement(thenStatement),
-      elseStatement == null ? null : firstTokenAfter(thenStatement, TerminalToken.TokenNameelse),
-      elseStatement == null ? null : createStatement(elseStatement)
-    );
+    // "else if" chains are converted iteratively, in source order, and the trees are then assembled from the last if statement
+    List<ConvertedIf> chain = new ArrayList<>();
+    Statement elseStatement = e;
+    while (elseStatement instanceof IfStatement ifStatement) {
+      Expression expression = ifStatement.getExpression();
+      Statement thenStatement = ifStatement.getThenStatement();
+      Statement nextElseStatement = ifStatement.getElseStatement();
+      chain.add(new ConvertedIf(
+        firstTokenIn(ifStatement, TerminalToken.TokenNameif),
+        firstTokenBefore(expression, TerminalToken.TokenNameLPAREN),
+        convertExpression(expression),
+        firstTokenAfter(expression, TerminalToken.TokenNameRPAREN),
+        createStatement(thenStatement),
+        nextElseStatement == null ? null : firstTokenAfter(thenStatement, TerminalToken.TokenNameelse)
+      ));
+      elseStatement = nextElseStatement;
+    }
+    StatementTree elseTree = elseStatement == null ? null : createStatement(elseStatement);
+    IfStatementTreeImpl result = null;
+    for (int i = chain.size() - 1; i >= 0; i--) {
+      ConvertedIf converted = chain.get(i);
+      result = new IfStatementTreeImpl(
+        converted.ifKeyword(),
+        converted.openParenToken(),
+        converted.condition(),
+        converted.closeParenToken(),
+        converted.thenStatement(),
+        converted.elseKeyword(),
+        result == null ? elseTree : result
+      );
+    }
+    return result;
+  }
+
+  private record ConvertedIf(InternalSyntaxToken ifKeyword, InternalSyntaxToken openParenToken, ExpressionTree condition,
+    InternalSyntaxToken closeParenToken, StatementTree thenStatement, @Nullable InternalSyntaxToken elseKeyword) {
   }
 
   private BreakStatementTreeImpl convertBreak(BreakStatement e) {
@@ -2243,10 +2285,29 @@ public class JParser {
   }
 
   private BinaryExpressionTreeImpl convertInfixExpression(InfixExpression e) {
+    // chains mixing operators, like "a - b + c - ... - z", are nested on their left operand: convert them iteratively
+    Deque<InfixExpression> nestedExpressions = new ArrayDeque<>();
+    Expression leftOperand = e;
+    while (leftOperand instanceof InfixExpression infixExpression) {
+      nestedExpressions.push(infixExpression);
+      leftOperand = infixExpression.getLeftOperand();
+    }
+    ExpressionTree left = convertExpression(leftOperand);
+    BinaryExpressionTreeImpl t = null;
+    while (!nestedExpressions.isEmpty()) {
+      InfixExpression infixExpression = nestedExpressions.pop();
+      t = convertInfixExpression(infixExpression, left);
+      t.typeBinding = infixExpression.resolveTypeBinding();
+      left = t;
+    }
+    return t;
+  }
+
+  private BinaryExpressionTreeImpl convertInfixExpression(InfixExpression e, ExpressionTree leftOperand) {
     Op op = operators.get(e.getOperator());
     BinaryExpressionTreeImpl t = new BinaryExpressionTreeImpl(
       op.kind,
-      convertExpression(e.getLeftOperand()),
+      leftOperand,
       firstTokenAfter(e.getLeftOperand(), op.tokenType),
       convertExpression(e.getRightOperand())
     );
@@ -33,6 +33,7 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTSessionParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.FileASTRequestor;
 import org.slf4j.Logger;
@@ -60,10 +61,23 @@ public abstract class JParserConfig {
   final List<File> classpath;
   final boolean shouldIgnoreUnnamedModuleForSplitPackage;
 
+  /**
+   * Computed once, as they are the same for all the parsers created by this configuration.
+   */
+  private final Map<String, String> compilerOptions;
+  private final String[] classpathEntries;
+  private final boolean includeRunningVMBootclasspath;
+
   private JParserConfig(JavaVersion javaVersion, List<File> classpath, boolean shouldIgnoreUnnamedModuleForSplitPackage) {
     this.javaVersion = javaVersion;
     this.classpath = classpath;
     this.shouldIgnoreUnnamedModuleForSplitPackage = shouldIgnoreUnnamedModuleForSplitPackage;
+    this.compilerOptions = compilerOptions(javaVersion, shouldIgnoreUnnamedModuleForSplitPackage);
+    this.classpathEntries = classpath.stream()
+      .map(File::getAbsolutePath)
+      .toArray(String[]::new);
+    this.includeRunningVMBootclasspath = classpath.stream()
+      .noneMatch(f -> JRE_JARS.contains(f.getName()));
   }
 
   public abstract void parse(Iterable<? extends InputFile> inputFiles, BooleanSupplier isCanceled,
@@ -115,6 +129,49 @@ public abstract class JParserConfig {
 
   public ASTParser astParser() {
     ASTParser astParser = ASTParser.newParser(AST.getJLSLatest());
+    // the parser keeps its own copy of the options
+    astParser.setCompilerOptions(compilerOptions);
+    astParser.setEnvironment(classpathEntries.clone(), new String[] {}, new String[] {}, includeRunningVMBootclasspath);
+
+    astParser.setResolveBindings(true);
+    astParser.setBindingsRecovery(true);
+
+    return astParser;
+  }
+
+  /**
+   * @return a parser keeping the name environment of the classpath of this configuration, to parse the files one at a time
+   */
+  public ASTSessionParser sessionParser() {
+    return new ASTSessionParser(AST.getJLSLatest(), compilerOptions, classpathEntries, includeRunningVMBootclasspath);
+  }
+
+  /**
+   * Parses a single file with the given parser, created by {@link #sessionParser()}.
+   */
+  public void parse(InputFile inputFile, ASTSessionParser sessionParser, BiConsumer<InputFile, Result> action) {
+    parse((version, unitName, source) -> JParser.parse(sessionParser, version, unitName, source), inputFile, javaVersion, action);
+  }
+
+  private static void parse(FileParser fileParser, InputFile inputFile, JavaVersion javaVersion, BiConsumer<InputFile, Result> action) {
+    Result result;
+    PerformanceMeasure.Duration parseDuration = PerformanceMeasure.start("JParser");
+    try {
+      result = new Result(fileParser.parse(javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), inputFile.contents()));
+    } catch (Exception e) {
+      result = new Result(e);
+    } finally {
+      parseDuration.stop();
+    }
+    action.accept(inputFile, result);
+  }
+
+  @FunctionalInterface
+  private interface FileParser {
+    JavaTree.CompilationUnitTreeImpl parse(String version, String unitName, String source);
+  }
+
+  private static Map<String, String> compilerOptions(JavaVersion javaVersion, boolean shouldIgnoreUnnamedModuleForSplitPackage) {
     Map<String, String> options = new HashMap<>(JavaCore.getOptions());
     JavaCore.setComplianceOptions(javaVersion.effectiveJavaVersionAsString(), options);
     options.put(JavaCore.COMPILER_PB_MAX_PER_UNIT, MAXIMUM_ECJ_WARNINGS);
@@ -127,20 +184,7 @@ public abstract class JParserConfig {
     // enabling all supported compiler warnings
     JProblem.Type.compilerOptions()
       .forEach(option -> options.put(option, "warning"));
-
-    astParser.setCompilerOptions(options);
-
-    boolean includeRunningVMBootclasspath = classpath.stream()
-      .noneMatch(f -> JRE_JARS.contains(f.getName()));
-
-    astParser.setEnvironment(classpath.stream()
-      .map(File::getAbsolutePath)
-      .toArray(String[]::new), new String[] {}, new String[] {}, includeRunningVMBootclasspath);
-
-    astParser.setResolveBindings(true);
-    astParser.setBindingsRecovery(true);
-
-    return astParser;
+    return options;
   }
 
   @VisibleForTesting
@@ -263,16 +307,7 @@ public abstract class JParserConfig {
     }
 
     private static void parse(ASTParser astParser, InputFile inputFile, JavaVersion javaVersion, BiConsumer<InputFile, Result> action) {
-      Result result;
-      PerformanceMeasure.Duration parseDuration = PerformanceMeasure.start("JParser");
-      try {
-        result = new Result(JParser.parse(astParser, javaVersion.effectiveJavaVersionAsString(), inputFile.filename(), inputFile.contents()));
-      } catch (Exception e) {
-        result = new Result(e);
-      } finally {
-        parseDuration.stop();
-      }
-      action.accept(inputFile, result);
+      JParserConfig.parse((version, unitName, source) -> JParser.parse(astParser, version, unitName, source), inputFile, javaVersion, action);
     }
   }
 
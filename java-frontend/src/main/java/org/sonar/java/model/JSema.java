@@ -50,6 +50,10 @@ public final class JSema implements Sema {
   private final Map<Symbol.TypeSymbol, JInitializerBlockSymbol> staticInitializerBlockSymbols = new HashMap<>();
   private final Map<IAnnotationBinding, JSymbolMetadata.JAnnotationInstance> annotations = new HashMap<>();
   private final Map<String, Type> nameToTypeCache = new HashMap<>();
+  /**
+   * Replaced by the cache of the module when the file is analyzed, see {@link VisitorsBridge}
+   */
+  InheritedNullabilityCache inheritedNullabilityCache = new InheritedNullabilityCache();
 
   JSema(AST ast) {
     this.ast = ast;
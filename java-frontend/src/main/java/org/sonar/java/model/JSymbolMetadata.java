@@ -235,8 +235,7 @@ final class JSymbolMetadata implements SymbolMetadata {
     }
     Symbol owner = getEffectiveOwner(symbol, currentLevel);
     if (owner == null) return unknownNullabilityAt(currentLevel);
-    var metadata = owner.metadata();
-    return metadata.nullabilityData(target);
+    return sema.inheritedNullabilityCache.nullabilityData(owner, target, () -> owner.metadata().nullabilityData(target));
   }
 
   private static NullabilityData getNullabilityDataFromInheritance(Symbol.MethodSymbol methodSymbol, NullabilityTarget target) {
@@ -186,112 +186,124 @@ public class JSymbolMetadataNullabilityHelper {
    */
   private static final String ORG_ECLIPSE_JDT_ANNOTATION_NON_NULL_BY_DEFAULT = "org.eclipse.jdt.annotation.NonNullByDefault";
 
-  private static final Set<String> KNOWN_ANNOTATIONS = Stream.of(NULLABLE_ANNOTATIONS, NONNULL_ANNOTATIONS)
-      .flatMap(Set::stream)
-      .collect(Collectors.toSet());
+  /**
+   * For every target and level, the resolvers of nullability of the annotations configured for them, indexed by fully
+   * qualified name of annotation. Compiled once, so that an annotation is resolved by a single lookup.
+   */
+  private static final AnnotationResolvers[] RESOLVERS_BY_TARGET_AND_LEVEL = new AnnotationResolvers[NullabilityTarget.values().length * NullabilityLevel.values().length];
 
-  private static final Map<ConfigurationKey, TypesForAnnotations> configuration = new HashMap<>();
+  private static final Set<String> KNOWN_ANNOTATIONS;
 
   static {
+    Map<Integer, Map<String, List<Function<AnnotationInstance, NullabilityType>>>> configuration = new HashMap<>();
+
     // Low level annotation (directly annotated)
-    configureAnnotation(JSymbolMetadataNullabilityHelper::getIfStrongNullable,
+    configureAnnotation(configuration, STRONG_NULLABLE_ANNOTATIONS, annotation -> STRONG_NULLABLE,
       Arrays.asList(PARAMETER, FIELD, LOCAL_VARIABLE), Collections.singletonList(VARIABLE));
-    configureAnnotation(JSymbolMetadataNullabilityHelper::getIfStrongNullable,
+    configureAnnotation(configuration, STRONG_NULLABLE_ANNOTATIONS, annotation -> STRONG_NULLABLE,
       Collections.singletonList(METHOD), Collections.singletonList(NullabilityLevel.METHOD));
 
-    configureAnnotation(JSymbolMetadataNullabilityHelper::getIfNullable,
+    configureAnnotation(configuration, NULLABLE_ANNOTATIONS, annotation -> WEAK_NULLABLE,
       Arrays.asList(PARAMETER, FIELD, LOCAL_VARIABLE), Collections.singletonList(VARIABLE));
-    configureAnnotation(JSymbolMetadataNullabilityHelper::getIfNullable,
+    configureAnnotation(configuration, NULLABLE_ANNOTATIONS, annotation -> WEAK_NULLABLE,
       Collections.singletonList(METHOD), Collections.singletonList(NullabilityLevel.METHOD));
 
-    configureAnnotation(JSymbolMetadataNullabilityHelper::getIfNonNull,
+    configureAnnotation(configuration, NONNULL_ANNOTATIONS, JSymbolMetadataNullabilityHelper::getTypeFromNonNullWithoutValue,
       Arrays.asList(PARAMETER, FIELD, LOCAL_VARIABLE), Collections.singletonList(VARIABLE));
-    configureAnnotation(JSymbolMetadataNullabilityHelper::getIfNonNull,
+    configureAnnotation(configuration, NONNULL_ANNOTATIONS, JSymbolMetadataNullabilityHelper::getTypeFromNonNullWithoutValue,
       Collections.singletonList(METHOD), Collections.singletonList(NullabilityLevel.METHOD));
 
     // Low level: javax.NonNull specific case
-    configureAnnotation(JSymbolMetadataNullabilityHelper::getTypeFromNonNull,
+    Set<String> nonNullWithWhen = SetUtils.immutableSetOf(JAVAX_ANNOTATION_NONNULL, JAKARTA_ANNOTATION_NONNULL);
+    configureAnnotation(configuration, nonNullWithWhen, JSymbolMetadataNullabilityHelper::getTypeFromNonNull,
       Arrays.asList(PARAMETER, FIELD, LOCAL_VARIABLE), Collections.singletonList(VARIABLE));
-    configureAnnotation(JSymbolMetadataNullabilityHelper::getTypeFromNonNull,
+    configureAnnotation(configuration, nonNullWithWhen, JSymbolMetadataNullabilityHelper::getTypeFromNonNull,
       Collections.singletonList(METHOD), Collections.singletonList(NullabilityLevel.METHOD));
 
     // High level annotation
-    configureAnnotation(COM_MONGO_DB_LANG_NON_NULL_API, NON_NULL,
+    configureAnnotation(configuration, COM_MONGO_DB_LANG_NON_NULL_API, NON_NULL,
       Arrays.asList(METHOD, PARAMETER), Collections.singletonList(PACKAGE));
-    configureAnnotation(ORG_SPRINGFRAMEWORK_LANG_NON_NULL_API, NON_NULL,
+    configureAnnotation(configuration, ORG_SPRINGFRAMEWORK_LANG_NON_NULL_API, NON_NULL,
       Arrays.asList(METHOD, PARAMETER), Collections.singletonList(PACKAGE));
 
-    configureAnnotation(ORG_JSPECIFY_ANNOTATIONS_NULL_MARKED, NON_NULL,
+    configureAnnotation(configuration, ORG_JSPECIFY_ANNOTATIONS_NULL_MARKED, NON_NULL,
       Arrays.asList(NullabilityTarget.CLASS, FIELD, METHOD, PARAMETER),
       Arrays.asList(NullabilityLevel.METHOD, CLASS, PACKAGE));
-    configureAnnotation(ORG_JSPECIFY_ANNOTATIONS_NULL_UNMARKED, UNKNOWN,
+    configureAnnotation(configuration, ORG_JSPECIFY_ANNOTATIONS_NULL_UNMARKED, UNKNOWN,
       Arrays.asList(NullabilityTarget.CLASS, FIELD, METHOD, PARAMETER),
       Arrays.asList(NullabilityLevel.METHOD, CLASS, PACKAGE));
 
-    configureAnnotation(JAVAX_ANNOTATION_PARAMETERS_ARE_NONNULL_BY_DEFAULT, NON_NULL,
+    configureAnnotation(configuration, JAVAX_ANNOTATION_PARAMETERS_ARE_NONNULL_BY_DEFAULT, NON_NULL,
       Collections.singletonList(PARAMETER), Arrays.asList(NullabilityLevel.METHOD, CLASS, PACKAGE));
-    configureAnnotation(JAVAX_ANNOTATION_PARAMETERS_ARE_NULLABLE_BY_DEFAULT, WEAK_NULLABLE,
+    configureAnnotation(configuration, JAVAX_ANNOTATION_PARAMETERS_ARE_NULLABLE_BY_DEFAULT, WEAK_NULLABLE,
       Collections.singletonList(PARAMETER), Arrays.asList(NullabilityLevel.METHOD, CLASS, PACKAGE));
 
-    configureAnnotation(JAKARTA_ANNOTATION_PARAMETERS_ARE_NONNULL_BY_DEFAULT, NON_NULL,
+    configureAnnotation(configuration, JAKARTA_ANNOTATION_PARAMETERS_ARE_NONNULL_BY_DEFAULT, NON_NULL,
       Collections.singletonList(PARAMETER), Arrays.asList(NullabilityLevel.METHOD, CLASS, PACKAGE));
-    configureAnnotation(JAKARTA_ANNOTATION_PARAMETERS_ARE_NULLABLE_BY_DEFAULT, WEAK_NULLABLE,
+    configureAnnotation(configuration, JAKARTA_ANNOTATION_PARAMETERS_ARE_NULLABLE_BY_DEFAULT, WEAK_NULLABLE,
       Collections.singletonList(PARAMETER), Arrays.asList(NullabilityLevel.METHOD, CLASS, PACKAGE));
 
-    configureAnnotation(ORG_SPRINGFRAMEWORK_LANG_NON_NULL_FIELDS, NON_NULL,
+    configureAnnotation(configuration, ORG_SPRINGFRAMEWORK_LANG_NON_NULL_FIELDS, NON_NULL,
       Collections.singletonList(FIELD), Collections.singletonList(PACKAGE));
 
     // ORG_ECLIPSE_JDT_ANNOTATION_NON_NULL_BY_DEFAULT specific case (targeting both high and low level)
-    configureAnnotation(annotationInstance -> getIfEclipseNonNullByDefault(annotationInstance, "PARAMETER"),
+    Set<String> eclipseNonNullByDefault = Collections.singleton(ORG_ECLIPSE_JDT_ANNOTATION_NON_NULL_BY_DEFAULT);
+    configureAnnotation(configuration, eclipseNonNullByDefault, annotationInstance -> getIfEclipseNonNullByDefault(annotationInstance, "PARAMETER"),
       Collections.singletonList(PARAMETER), Arrays.asList(VARIABLE, NullabilityLevel.METHOD, CLASS, PACKAGE));
-    configureAnnotation(annotationInstance -> getIfEclipseNonNullByDefault(annotationInstance, "FIELD"),
+    configureAnnotation(configuration, eclipseNonNullByDefault, annotationInstance -> getIfEclipseNonNullByDefault(annotationInstance, "FIELD"),
       Collections.singletonList(FIELD), Arrays.asList(VARIABLE, NullabilityLevel.METHOD, CLASS, PACKAGE));
-    configureAnnotation(annotationInstance -> getIfEclipseNonNullByDefault(annotationInstance, "RETURN_TYPE"),
+    configureAnnotation(configuration, eclipseNonNullByDefault, annotationInstance -> getIfEclipseNonNullByDefault(annotationInstance, "RETURN_TYPE"),
       Collections.singletonList(METHOD), Arrays.asList(NullabilityLevel.METHOD, CLASS, PACKAGE));
 
-    // Add all annotations to the set of known annotations
-    KNOWN_ANNOTATIONS.add(JAVAX_ANNOTATION_NONNULL);
-    KNOWN_ANNOTATIONS.add(JAKARTA_ANNOTATION_NONNULL);
-    KNOWN_ANNOTATIONS.add(COM_MONGO_DB_LANG_NON_NULL_API);
-    KNOWN_ANNOTATIONS.add(ORG_SPRINGFRAMEWORK_LANG_NON_NULL_API);
-    KNOWN_ANNOTATIONS.add(JAVAX_ANNOTATION_PARAMETERS_ARE_NONNULL_BY_DEFAULT);
-    KNOWN_ANNOTATIONS.add(JAKARTA_ANNOTATION_PARAMETERS_ARE_NONNULL_BY_DEFAULT);
-    KNOWN_ANNOTATIONS.add(JAVAX_ANNOTATION_PARAMETERS_ARE_NULLABLE_BY_DEFAULT);
-    KNOWN_ANNOTATIONS.add(JAKARTA_ANNOTATION_PARAMETERS_ARE_NULLABLE_BY_DEFAULT);
-    KNOWN_ANNOTATIONS.add(ORG_SPRINGFRAMEWORK_LANG_NON_NULL_FIELDS);
-    KNOWN_ANNOTATIONS.add(ORG_ECLIPSE_JDT_ANNOTATION_NON_NULL_BY_DEFAULT);
-    KNOWN_ANNOTATIONS.add(ORG_JSPECIFY_ANNOTATIONS_NULL_MARKED);
-    KNOWN_ANNOTATIONS.add(ORG_JSPECIFY_ANNOTATIONS_NULL_UNMARKED);
+    // All the configured annotations are known annotations
+    Set<String> knownAnnotations = new HashSet<>();
+    configuration.forEach((index, resolvers) -> {
+      RESOLVERS_BY_TARGET_AND_LEVEL[index] = new AnnotationResolvers(resolvers);
+      knownAnnotations.addAll(resolvers.keySet());
+    });
+    KNOWN_ANNOTATIONS = Set.copyOf(knownAnnotations);
   }
 
-  private static void configureAnnotation(String name, NullabilityType type, List<NullabilityTarget> targets, List<NullabilityLevel> levels) {
-    configureAnnotation(annotation -> annotationType(annotation).fullyQualifiedName().equals(name) ? type : NO_ANNOTATION, targets, levels);
+  private static void configureAnnotation(Map<Integer, Map<String, List<Function<AnnotationInstance, NullabilityType>>>> configuration,
+    String name, NullabilityType type, List<NullabilityTarget> targets, List<NullabilityLevel> levels) {
+    configureAnnotation(configuration, Collections.singleton(name), annotation -> type, targets, levels);
   }
 
-  private static void configureAnnotation(Function<AnnotationInstance, NullabilityType> typeFromAnnotation, List<NullabilityTarget> targets, List<NullabilityLevel> levels) {
+  /**
+   * Resolvers configured for the same annotation, target and level are applied in the order of configuration, the first
+   * one returning a type other than {@link NullabilityType#NO_ANNOTATION} wins.
+   */
+  private static void configureAnnotation(Map<Integer, Map<String, List<Function<AnnotationInstance, NullabilityType>>>> configuration,
+    Set<String> names, Function<AnnotationInstance, NullabilityType> typeFromAnnotation, List<NullabilityTarget> targets, List<NullabilityLevel> levels) {
     for (NullabilityTarget target : targets) {
       for (NullabilityLevel level : levels) {
-        ConfigurationKey key = new ConfigurationKey(target, level);
-        configuration.computeIfAbsent(key, k -> new TypesForAnnotations()).add(typeFromAnnotation);
+        Map<String, List<Function<AnnotationInstance, NullabilityType>>> resolvers = configuration.computeIfAbsent(index(target, level), k -> new HashMap<>());
+        for (String name : names) {
+          resolvers.computeIfAbsent(name, k -> new ArrayList<>()).add(typeFromAnnotation);
+        }
       }
     }
   }
 
+  private static int index(NullabilityTarget target, NullabilityLevel level) {
+    return target.ordinal() * NullabilityLevel.values().length + level.ordinal();
+  }
+
   /**
    * Return the Nullability data given the metadata of the current symbol, a level and a target.
    */
   public static NullabilityData getNullabilityDataAtLevel(SymbolMetadata metadata, NullabilityTarget target, NullabilityLevel level) {
-    TypesForAnnotations typeForAnnotations = configuration.get(new ConfigurationKey(target, level));
-    if (typeForAnnotations != null) {
-      return getNullabilityDataAtLevel(new HashSet<>(), metadata, level, false, typeForAnnotations);
+    AnnotationResolvers resolvers = RESOLVERS_BY_TARGET_AND_LEVEL[index(target, level)];
+    if (resolvers != null) {
+      return getNullabilityDataAtLevel(new HashSet<>(), metadata, level, false, resolvers);
     }
     return noNullabilityAnnotationAt(level);
   }
 
   private static NullabilityData getNullabilityDataAtLevel(Set<Type> knownTypes, SymbolMetadata metadata,
-    NullabilityLevel level, boolean isMetaAnnotated, TypesForAnnotations typeForAnnotations) {
+    NullabilityLevel level, boolean isMetaAnnotated, AnnotationResolvers resolvers) {
     // Check if the symbol is directly annotated
-    NullabilityData directlyAnnotated = getNullabilityData(metadata, level, isMetaAnnotated, typeForAnnotations);
+    NullabilityData directlyAnnotated = getNullabilityData(metadata, level, isMetaAnnotated, resolvers);
     if (directlyAnnotated.type() != NO_ANNOTATION) {
       return directlyAnnotated;
     }
@@ -301,7 +313,7 @@ public class JSymbolMetadataNullabilityHelper {
       if (knownTypes.add(annotationType) && !KNOWN_ANNOTATIONS.contains(annotationType(annotationInstance).fullyQualifiedName())) {
         // Only do recursion when we face unknown annotations, as we already know the nullability impact and might contain contradicting
         // annotations.
-        NullabilityData nullabilityData = getNullabilityDataAtLevel(knownTypes, annotationSymbol.metadata(), level, true, typeForAnnotations);
+        NullabilityData nullabilityData = getNullabilityDataAtLevel(knownTypes, annotationSymbol.metadata(), level, true, resolvers);
         if (nullabilityData.type() != NO_ANNOTATION) {
           return nullabilityData;
         }
@@ -313,12 +325,12 @@ public class JSymbolMetadataNullabilityHelper {
   private static NullabilityData getNullabilityData(SymbolMetadata metadata,
     NullabilityLevel level,
     boolean isMetaAnnotated,
-    TypesForAnnotations typeForAnnotations) {
+    AnnotationResolvers resolvers) {
 
     NullabilityType nullabilityType = NullabilityType.NO_ANNOTATION;
     AnnotationInstance annotationInstance = null;
     for (AnnotationInstance annotation : metadata.symbolAnnotations()) {
-      NullabilityType typeFromAnnotation = typeForAnnotations.getTypeFromAnnotation(annotation);
+      NullabilityType typeFromAnnotation = resolvers.getTypeFromAnnotation(annotation);
       if (typeFromAnnotation.ordinal() > nullabilityType.ordinal()) {
         nullabilityType = typeFromAnnotation;
         annotationInstance = annotation;
@@ -333,60 +345,24 @@ public class JSymbolMetadataNullabilityHelper {
       annotationInstance, metadata.findAnnotationTree(annotationInstance), isMetaAnnotated);
   }
 
-  private static NullabilityType getIfStrongNullable(AnnotationInstance annotation) {
-    if (isStrongNullableAnnotation(annotationType(annotation))) {
-      return STRONG_NULLABLE;
-    }
-    return NO_ANNOTATION;
-  }
-
-  private static boolean isStrongNullableAnnotation(Type type) {
-    return STRONG_NULLABLE_ANNOTATIONS.contains(type.fullyQualifiedName());
-  }
-
-  private static NullabilityType getIfNullable(AnnotationInstance annotation) {
-    if (isNullableAnnotation(annotationType(annotation))) {
-      return WEAK_NULLABLE;
-    }
-    return NO_ANNOTATION;
-  }
-
-  private static boolean isNullableAnnotation(Type type) {
-    return NULLABLE_ANNOTATIONS.contains(type.fullyQualifiedName());
-  }
-
-  private static NullabilityType getIfNonNull(AnnotationInstance annotation) {
-    if (isNonNullAnnotation(annotationType(annotation))) {
-      return annotation.values().isEmpty() ? NON_NULL : UNKNOWN;
-    }
-    return NO_ANNOTATION;
-  }
-
-  private static boolean isNonNullAnnotation(Type type) {
-    return NONNULL_ANNOTATIONS.contains(type.fullyQualifiedName());
+  private static NullabilityType getTypeFromNonNullWithoutValue(AnnotationInstance annotation) {
+    return annotation.values().isEmpty() ? NON_NULL : UNKNOWN;
   }
 
   private static NullabilityType getTypeFromNonNull(AnnotationInstance annotation) {
-    if (JAVAX_ANNOTATION_NONNULL.equals(annotationType(annotation).fullyQualifiedName())
-    || JAKARTA_ANNOTATION_NONNULL.equals(annotationType(annotation).fullyQualifiedName())) {
-      List<AnnotationValue> values = annotation.values();
-      if (values.isEmpty() || checkAnnotationParameter(values, "when", "ALWAYS")) {
-        return NON_NULL;
-      } else if (checkAnnotationParameter(values, "when", "UNKNOWN")) {
-        return WEAK_NULLABLE;
-      } else {
-        // when=NEVER or when=MAYBE
-        return STRONG_NULLABLE;
-      }
+    List<AnnotationValue> values = annotation.values();
+    if (values.isEmpty() || checkAnnotationParameter(values, "when", "ALWAYS")) {
+      return NON_NULL;
+    } else if (checkAnnotationParameter(values, "when", "UNKNOWN")) {
+      return WEAK_NULLABLE;
+    } else {
+      // when=NEVER or when=MAYBE
+      return STRONG_NULLABLE;
     }
-    return NO_ANNOTATION;
   }
 
   private static NullabilityType getIfEclipseNonNullByDefault(AnnotationInstance annotation, String expectedValue) {
-    if (ORG_ECLIPSE_JDT_ANNOTATION_NON_NULL_BY_DEFAULT.equals(annotationType(annotation).fullyQualifiedName())) {
-      return (annotation.values().isEmpty() || checkAnnotationParameter(annotation.values(), "value", expectedValue)) ? NON_NULL : NO_ANNOTATION;
-    }
-    return NO_ANNOTATION;
+    return (annotation.values().isEmpty() || checkAnnotationParameter(annotation.values(), "value", expectedValue)) ? NON_NULL : NO_ANNOTATION;
   }
 
   private static Type annotationType(AnnotationInstance annotation) {
@@ -410,42 +386,26 @@ public class JSymbolMetadataNullabilityHelper {
     return Arrays.stream(annotationValue).map(Symbol.class::cast).anyMatch(symbol -> expectedValue.equals(symbol.name()));
   }
 
-  private static class ConfigurationKey {
-    private final NullabilityTarget target;
-    private final NullabilityLevel level;
-
-    ConfigurationKey(NullabilityTarget target, NullabilityLevel level) {
-      this.target = target;
-      this.level = level;
-    }
+  private static class AnnotationResolvers {
 
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (o == null || getClass() != o.getClass()) return false;
+    private final Map<String, List<Function<AnnotationInstance, NullabilityType>>> resolversByAnnotation;
 
-      ConfigurationKey that = (ConfigurationKey) o;
-
-      if (target != that.target) return false;
-      return level == that.level;
+    private AnnotationResolvers(Map<String, List<Function<AnnotationInstance, NullabilityType>>> resolversByAnnotation) {
+      Map<String, List<Function<AnnotationInstance, NullabilityType>>> copy = new HashMap<>();
+      resolversByAnnotation.forEach((name, resolvers) -> copy.put(name, List.copyOf(resolvers)));
+      this.resolversByAnnotation = Map.copyOf(copy);
     }
 
-    @Override
-    public int hashCode() {
-      int result = target.hashCode();
-      result = 31 * result + level.hashCode();
-      return result;
-    }
-  }
-
-  private static class TypesForAnnotations extends ArrayList<Function<AnnotationInstance, NullabilityType>> {
-
     private NullabilityType getTypeFromAnnotation(AnnotationInstance annotation) {
       if (annotation.symbol().isUnknown()) {
         return NullabilityType.UNKNOWN;
       }
-      for (Function<AnnotationInstance, NullabilityType> typeForAnnotation : this) {
-        NullabilityType type = typeForAnnotation.apply(annotation);
+      List<Function<AnnotationInstance, NullabilityType>> resolvers = resolversByAnnotation.get(annotationType(annotation).fullyQualifiedName());
+      if (resolvers == null) {
+        return NullabilityType.NO_ANNOTATION;
+      }
+      for (Function<AnnotationInstance, NullabilityType> resolver : resolvers) {
+        NullabilityType type = resolver.apply(annotation);
         if (type != NullabilityType.NO_ANNOTATION) {
           return type;
         }
@@ -69,6 +69,11 @@ public abstract class JavaTree implements Tree {
 
   private List<Tree> children;
 
+  /**
+   * Memoized result of {@link SyntacticEquivalence#syntacticHash(Tree)}, 0 until it is computed.
+   */
+  private int syntacticHash;
+
   public List<SyntaxToken> allTokens() {
     List<SyntaxToken> list = new ArrayList<>();
     if (this instanceof SyntaxToken st) {
@@ -156,6 +161,15 @@ public abstract class JavaTree implements Tree {
     return false;
   }
 
+  int syntacticHash() {
+    if (syntacticHash == 0) {
+      int hash = SyntacticEquivalence.computeSyntacticHash(this);
+      // 0 means not computed yet
+      syntacticHash = hash == 0 ? 1 : hash;
+    }
+    return syntacticHash;
+  }
+
   public static class CompilationUnitTreeImpl extends JavaTree implements CompilationUnitTree {
     @Nullable
     private final PackageDeclarationTree packageDeclaration;
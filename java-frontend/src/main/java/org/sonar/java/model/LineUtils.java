@@ -17,9 +17,8 @@
 package org.sonar.java.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.sonar.plugins.java.api.location.Position;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
 import org.sonar.plugins.java.api.tree.SyntaxTrivia;
@@ -27,8 +26,6 @@ import org.sonar.plugins.java.api.tree.Tree;
 
 public final class LineUtils {
 
-  private static final Pattern LINE_BREAK_PATTERN = Pattern.compile("\r\n|[\n\r]");
-
   private LineUtils() {
     // utility class
   }
@@ -66,17 +63,47 @@ public final class LineUtils {
    * "a\nb\n" => { "a", "b" }
    */
   public static List<String> splitLines(String content) {
-    List<String> lines = new ArrayList<>();
-    Matcher matcher = LINE_BREAK_PATTERN.matcher(content);
+    int[] boundaries = lineBoundaries(content);
+    List<String> lines = new ArrayList<>(boundaries.length / 2);
+    for (int i = 0; i < boundaries.length; i += 2) {
+      lines.add(content.substring(boundaries[i], boundaries[i + 1]));
+    }
+    return lines;
+  }
+
+  /**
+   * Lines are separated by "\r\n", "\n" or "\r", as in {@link #splitLines(String)}.
+   *
+   * @return for each line, the offset of its first character followed by the offset of its end, line terminator excluded
+   */
+  static int[] lineBoundaries(String content) {
+    int[] boundaries = new int[16];
+    int size = 0;
     int pos = 0;
-    while (matcher.find()) {
-      lines.add(content.substring(pos, matcher.start()));
-      pos = matcher.end();
+    int i = 0;
+    while (i < content.length()) {
+      char c = content.charAt(i);
+      if (c == '\n' || c == '\r') {
+        boundaries = ensureCapacity(boundaries, size + 2);
+        boundaries[size++] = pos;
+        boundaries[size++] = i;
+        i += (c == '\r' && i + 1 < content.length() && content.charAt(i + 1) == '\n') ? 2 : 1;
+        pos = i;
+      } else {
+        i++;
+      }
     }
     if (pos == 0 || pos < content.length()) {
-      lines.add(content.substring(pos));
+      boundaries = ensureCapacity(boundaries, size + 2);
+      boundaries[size++] = pos;
+      boundaries[size++] = content.length();
     }
-    return lines;
+    return Arrays.copyOf(boundaries, size);
   }
 
+  private static int[] ensureCapacity(int[] array, int capacity) {
+    return capacity <= array.length ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+  }
+
+
 }
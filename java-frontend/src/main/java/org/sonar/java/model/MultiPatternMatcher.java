@@ -0,0 +1,168 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the occurrences of several patterns in a text, ignoring case, with a single pass over the text. The patterns are
+ * compiled into an Aho-Corasick automaton: a trie of the patterns, where each node also links to the node of its longest
+ * proper suffix, to follow when the next character does not extend the current match.
+ */
+final class MultiPatternMatcher {
+
+  @FunctionalInterface
+  interface MatchConsumer {
+    /**
+     * @param patternIndex index of the found pattern, in the list given to the matcher
+     * @param start offset in the text of the first character of the occurrence
+     */
+    void accept(int patternIndex, int start);
+  }
+
+  private static final int ROOT = 0;
+  private static final int NO_PATTERN = -1;
+
+  private final int[] patternLengths;
+  // transitions of each node: characters and target nodes, at the same index
+  private final char[][] transitionChars;
+  private final int[][] transitionTargets;
+  private final int[] suffixLinks;
+  // nearest node, following suffix links, on which a pattern ends
+  private final int[] outputLinks;
+  private final int[] patternEndingAt;
+
+  MultiPatternMatcher(List<String> patterns) {
+    patternLengths = patterns.stream().mapToInt(String::length).toArray();
+    List<Map<Character, Integer>> trie = new ArrayList<>();
+    trie.add(new LinkedHashMap<>());
+    List<Integer> patternEnds = new ArrayList<>();
+    patternEnds.add(NO_PATTERN);
+    for (int patternIndex = 0; patternIndex < patterns.size(); patternIndex++) {
+      String pattern = patterns.get(patternIndex);
+      if (pattern.isEmpty()) {
+        throw new IllegalArgumentException("Patterns can not be empty");
+      }
+      int node = ROOT;
+      for (int i = 0; i < pattern.length(); i++) {
+        Integer next = trie.get(node).get(normalize(pattern.charAt(i)));
+        if (next == null) {
+          next = trie.size();
+          trie.add(new LinkedHashMap<>());
+          patternEnds.add(NO_PATTERN);
+          trie.get(node).put(normalize(pattern.charAt(i)), next);
+        }
+        node = next;
+      }
+      patternEnds.set(node, patternIndex);
+    }
+
+    int size = trie.size();
+    transitionChars = new char[size][];
+    transitionTargets = new int[size][];
+    for (int node = 0; node < size; node++) {
+      Map<Character, Integer> transitions = trie.get(node);
+      transitionChars[node] = new char[transitions.size()];
+      transitionTargets[node] = new int[transitions.size()];
+      int i = 0;
+      for (Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+        transitionChars[node][i] = transition.getKey();
+        transitionTargets[node][i] = transition.getValue();
+        i++;
+      }
+    }
+    patternEndingAt = patternEnds.stream().mapToInt(Integer::intValue).toArray();
+    suffixLinks = new int[size];
+    outputLinks = new int[size];
+    computeLinks();
+  }
+
+  /**
+   * Breadth-first traversal of the trie, so that the links of a node are computed after the ones of shorter prefixes.
+   */
+  private void computeLinks() {
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int child : transitionTargets[ROOT]) {
+      suffixLinks[child] = ROOT;
+      outputLinks[child] = ROOT;
+      queue.add(child);
+    }
+    while (!queue.isEmpty()) {
+      int node = queue.poll();
+      for (int i = 0; i < transitionChars[node].length; i++) {
+        char c = transitionChars[node][i];
+        int child = transitionTargets[node][i];
+        int suffix = suffixLinks[node];
+        while (suffix != ROOT && next(suffix, c) == ROOT) {
+          suffix = suffixLinks[suffix];
+        }
+        suffixLinks[child] = next(suffix, c);
+        int suffixLink = suffixLinks[child];
+        outputLinks[child] = patternEndingAt[suffixLink] != NO_PATTERN ? suffixLink : outputLinks[suffixLink];
+        queue.add(child);
+      }
+    }
+  }
+
+  /**
+   * Reports the occurrences of the patterns, by increasing offset of their last character.
+   */
+  void find(CharSequence text, MatchConsumer consumer) {
+    int node = ROOT;
+    for (int i = 0; i < text.length(); i++) {
+      char c = normalize(text.charAt(i));
+      int next = next(node, c);
+      while (node != ROOT && next == ROOT) {
+        node = suffixLinks[node];
+        next = next(node, c);
+      }
+      node = next;
+      for (int output = node; output != ROOT; output = outputLinks[output]) {
+        int patternIndex = patternEndingAt[output];
+        if (patternIndex != NO_PATTERN) {
+          consumer.accept(patternIndex, i - patternLengths[patternIndex] + 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the target of the transition, or the root when there is none. No transition leads back to the root.
+   */
+  private int next(int node, char c) {
+    char[] chars = transitionChars[node];
+    for (int i = 0; i < chars.length; i++) {
+      if (chars[i] == c) {
+        return transitionTargets[node][i];
+      }
+    }
+    return ROOT;
+  }
+
+  /**
+   * Same comparison as {@link String#regionMatches(boolean, int, String, int, int)} ignoring case.
+   */
+  private static char normalize(char c) {
+    return Character.toUpperCase(Character.toLowerCase(c));
+  }
+
+}
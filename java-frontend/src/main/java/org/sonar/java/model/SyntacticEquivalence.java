@@ -136,6 +136,65 @@ public final class SyntacticEquivalence {
     }
   }
 
+  /**
+   * Structural hash of a tree, over the kinds of its nodes and the text of its tokens. It is computed once per node and
+   * is consistent with {@link #areEquivalent(Tree, Tree)}: equivalent trees have the same hash, so comparing the hashes
+   * of trees is a cheap way to discard non-equivalent ones before comparing them.
+   */
+  public static int syntacticHash(@Nullable Tree tree) {
+    return tree == null ? 0 : ((JavaTree) tree).syntacticHash();
+  }
+
+  /**
+   * Structural hash of a list of trees, consistent with {@link #areEquivalent(List, List)}.
+   */
+  public static int syntacticHash(List<? extends Tree> trees) {
+    int hash = trees.size();
+    for (Tree tree : trees) {
+      hash = 31 * hash + syntacticHash(tree);
+    }
+    return hash;
+  }
+
+  /**
+   * Structural hash of a tree also depending on the symbols of its identifiers, consistent with
+   * {@link #areEquivalentIncludingSameVariables(Tree, Tree)}. Unlike {@link #syntacticHash(Tree)}, it is not memoized.
+   */
+  public static int syntacticHashIncludingSameVariables(@Nullable Tree tree) {
+    if (tree == null) {
+      return 0;
+    }
+    JavaTree javaTree = (JavaTree) tree;
+    if (javaTree.is(Tree.Kind.IDENTIFIER)) {
+      Symbol symbol = ((IdentifierTree) javaTree).symbol();
+      // identifiers with unknown symbols are never equivalent, any hash is consistent for them
+      return symbol.isUnknown() ? javaTree.syntacticHash() : (31 * javaTree.syntacticHash() + symbol.hashCode());
+    }
+    if (javaTree.isLeaf() || javaTree.is(Tree.Kind.OTHER)) {
+      return javaTree.syntacticHash();
+    }
+    int hash = javaTree.kind().ordinal();
+    for (Tree child : javaTree.getChildren()) {
+      hash = 31 * hash + syntacticHashIncludingSameVariables(child);
+    }
+    return hash;
+  }
+
+  static int computeSyntacticHash(JavaTree tree) {
+    int hash = tree.kind().ordinal();
+    if (tree instanceof SyntaxToken syntaxToken) {
+      return 31 * hash + syntaxToken.text().hashCode();
+    }
+    // trees of kind OTHER are only equivalent to themselves, there is no need to look at their children
+    if (tree.isLeaf() || tree.is(Tree.Kind.OTHER)) {
+      return hash;
+    }
+    for (Tree child : tree.getChildren()) {
+      hash = 31 * hash + ((JavaTree) child).syntacticHash();
+    }
+    return hash;
+  }
+
   private static boolean areDifferentVariables(JavaTree leftNode, JavaTree rightNode) {
     if (!leftNode.is(Tree.Kind.IDENTIFIER) || !rightNode.is(Tree.Kind.IDENTIFIER)) {
       return false;
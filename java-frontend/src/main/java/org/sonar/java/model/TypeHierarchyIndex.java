@@ -0,0 +1,205 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.semantic.Type;
+import org.sonar.plugins.java.api.semantic.TypeHierarchy;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+/**
+ * Type hierarchy of a module, filled as its files are analyzed. Only fully qualified names are kept, so that the index
+ * does not retain the semantic of the files it was computed from, and can be shared between batches of files.
+ * <p>
+ * Only the answers for library types, read from the class files of the classpath, are memoized: a fully qualified name can
+ * be declared by several source files of a module (a main and a test file, classes of the default package), so the
+ * answers for types declared in sources are computed again from the semantic of the file which asks.
+ * </p>
+ * Not thread-safe, like the analysis of a module.
+ */
+public class TypeHierarchyIndex implements TypeHierarchy {
+
+  private final Map<String, List<String>> superClassesByType = new HashMap<>();
+  private final Map<String, Set<String>> superTypesByType = new HashMap<>();
+  private final Map<String, Set<String>> methodSignaturesByType = new HashMap<>();
+  /**
+   * Direct super types of the types declared by each registered file, by key of file.
+   */
+  private final Map<String, Map<String, List<String>>> directSuperTypesByFile = new HashMap<>();
+  private Map<String, Set<String>> directSubtypesByType = Collections.emptyMap();
+
+  /**
+   * Registers the classes declared in the given file, top-level and nested ones, as subtypes of their direct super types,
+   * replacing the ones registered before for the same file. They are part of {@link #directSubtypes(String)} after the next
+   * call to {@link #endOfAnalysis()}.
+   */
+  public void registerTypes(String fileKey, CompilationUnitTree compilationUnit) {
+    Map<String, List<String>> directSuperTypesByType = new HashMap<>();
+    for (Tree type : compilationUnit.types()) {
+      if (type instanceof ClassTree classTree) {
+        registerType(classTree, directSuperTypesByType);
+      }
+    }
+    directSuperTypesByFile.put(fileKey, directSuperTypesByType);
+  }
+
+  private static void registerType(ClassTree classTree, Map<String, List<String>> directSuperTypesByType) {
+    Type type = classTree.symbol().type();
+    if (!type.isUnknown()) {
+      directSuperTypesByType.put(type.fullyQualifiedName(), directSuperTypes(type));
+    }
+    for (Tree member : classTree.members()) {
+      if (member instanceof ClassTree nestedClass) {
+        registerType(nestedClass, directSuperTypesByType);
+      }
+    }
+  }
+
+  /**
+   * Makes the types registered so far the answers of {@link #directSubtypes(String)}. Called at the end of the analysis of
+   * each set of files (main, test and generated ones), so that the answers do not depend on the order in which the files of
+   * a set are analyzed.
+   */
+  public void endOfAnalysis() {
+    Map<String, Set<String>> subtypes = new HashMap<>();
+    directSuperTypesByFile.values().forEach(directSuperTypesByType -> directSuperTypesByType.forEach((type, superTypes) -> {
+      for (String superType : superTypes) {
+        subtypes.computeIfAbsent(superType, k -> new TreeSet<>()).add(type);
+      }
+    }));
+    subtypes.replaceAll((superType, types) -> Collections.unmodifiableSet(types));
+    directSubtypesByType = subtypes;
+  }
+
+  @Override
+  public List<String> superClasses(Type type) {
+    return memoized(superClassesByType, type, this::computeSuperClasses);
+  }
+
+  @Override
+  public int depth(Type type) {
+    return superClasses(type).size();
+  }
+
+  @Override
+  public Set<String> superTypes(Type type) {
+    return memoized(superTypesByType, type, this::computeSuperTypes);
+  }
+
+  @Override
+  public Set<String> directSubtypes(String fullyQualifiedName) {
+    return directSubtypesByType.getOrDefault(fullyQualifiedName, Collections.emptySet());
+  }
+
+  @Override
+  public Set<String> methodSignatures(Type type) {
+    return memoized(methodSignaturesByType, type, TypeHierarchyIndex::computeMethodSignatures);
+  }
+
+  /**
+   * Results are only kept for known classes read from class files, other types (unknown types, arrays, type variables...)
+   * do not have a fully qualified name identifying them, and types declared in sources can be declared by several files.
+   * The maps are not updated with computeIfAbsent, as computing the result for a type can require the results for its
+   * super types.
+   */
+  private static <T> T memoized(Map<String, T> cache, Type type, Function<Type, T> compute) {
+    if (type.isUnknown() || !type.isClass()) {
+      return compute.apply(type);
+    }
+    Type erasure = type.erasure();
+    if (!isBinary(erasure)) {
+      return compute.apply(erasure);
+    }
+    String fullyQualifiedName = erasure.fullyQualifiedName();
+    T result = cache.get(fullyQualifiedName);
+    if (result == null) {
+      result = compute.apply(erasure);
+      cache.put(fullyQualifiedName, result);
+    }
+    return result;
+  }
+
+  private static boolean isBinary(Type type) {
+    return type instanceof JType jType && !jType.typeBinding.isFromSource();
+  }
+
+  private List<String> computeSuperClasses(Type type) {
+    // same walk as Symbol.TypeSymbol#superClass(), unknown super classes being part of the chain
+    List<String> superClasses = new ArrayList<>();
+    Type superClass = type.symbol().superClass();
+    while (superClass != null) {
+      superClasses.add(superClass.fullyQualifiedName());
+      if (!superClass.isUnknown() && isBinary(superClass.erasure())) {
+        // the super classes of a library type do not depend on the sources
+        superClasses.addAll(superClasses(superClass));
+        break;
+      }
+      superClass = superClass.symbol().superClass();
+    }
+    return Collections.unmodifiableList(superClasses);
+  }
+
+  private Set<String> computeSuperTypes(Type type) {
+    Set<String> superTypes = new LinkedHashSet<>();
+    Symbol.TypeSymbol symbol = type.symbol();
+    Type superClass = symbol.superClass();
+    if (superClass != null) {
+      superTypes.add(superClass.fullyQualifiedName());
+      superTypes.addAll(superTypes(superClass));
+    }
+    for (Type superInterface : symbol.interfaces()) {
+      superTypes.add(superInterface.fullyQualifiedName());
+      superTypes.addAll(superTypes(superInterface));
+    }
+    return Collections.unmodifiableSet(superTypes);
+  }
+
+  private static Set<String> computeMethodSignatures(Type type) {
+    Set<String> signatures = new TreeSet<>();
+    for (Symbol member : type.symbol().memberSymbols()) {
+      if (member.isMethodSymbol()) {
+        signatures.add(((Symbol.MethodSymbol) member).signature());
+      }
+    }
+    return Collections.unmodifiableSet(signatures);
+  }
+
+  private static List<String> directSuperTypes(Type type) {
+    List<String> superTypes = new ArrayList<>();
+    Symbol.TypeSymbol symbol = type.symbol();
+    Type superClass = symbol.superClass();
+    if (superClass != null) {
+      superTypes.add(superClass.fullyQualifiedName());
+    }
+    for (Type superInterface : symbol.interfaces()) {
+      superTypes.add(superInterface.fullyQualifiedName());
+    }
+    return superTypes;
+  }
+
+}
@@ -40,9 +40,10 @@ import org.sonar.java.ExceptionHandler;
 import org.sonar.java.IllegalRuleParameterException;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.annotations.VisibleForTesting;
-import org.sonar.java.ast.visitors.SonarSymbolTableVisitor;
 import org.sonar.java.ast.visitors.SubscriptionVisitor;
 import org.sonar.java.caching.CacheContextImpl;
+import org.sonar.java.cfg.DataFlowComputer;
+import org.sonar.java.cfg.DataFlowScannerContext;
 import org.sonar.java.classpath.DependencyVersionInference;
 import org.sonar.java.exceptions.ApiMismatchException;
 import org.sonar.java.exceptions.ThrowableUtils;
@@ -78,6 +79,7 @@ public class VisitorsBridge {
   protected final boolean inAndroidContext;
   private int fullyScannedFileCount = 0;
   private int skippedFileCount = 0;
+  private final DataFlowComputer.Statistics dataFlowStatistics = new DataFlowComputer.Statistics();
   @VisibleForTesting
   CacheContext cacheContext;
   private final DependencyVersionInference dependencyService;
@@ -255,7 +257,8 @@ public class VisitorsBridge {
     boolean fileParsed = parsedTree != null;
     if (fileParsed && parsedTree.is(Tree.Kind.COMPILATION_UNIT)) {
       tree = (JavaTree.CompilationUnitTreeImpl) parsedTree;
-      createSonarSymbolTable(tree);
+      registerTypes(tree);
+      shareInheritedNullability(tree);
     }
     symbolTableDuration.stop();
 
@@ -274,6 +277,9 @@ public class VisitorsBridge {
       }
     }
     scannersDuration.stop();
+    if (javaFileScannerContext instanceof DataFlowScannerContext dataFlowScannerContext) {
+      dataFlowStatistics.add(dataFlowScannerContext.getDataFlowComputer().statistics());
+    }
   }
 
   private void interruptIfFailFast(CheckFailureException e) {
@@ -355,13 +361,17 @@ public class VisitorsBridge {
     return new DefaultModuleScannerContext(sonarComponents, javaVersion, inAndroidContext, cacheContext);
   }
 
-  private void createSonarSymbolTable(CompilationUnitTree tree) {
-    if (sonarComponents != null
-      && !sonarComponents.isSonarLintContext()
-      // don't provide semantic data (symbol highlighting) to SQ for generated files (jsp)
-      && !(currentFile instanceof GeneratedFile)) {
-      SonarSymbolTableVisitor symVisitor = new SonarSymbolTableVisitor(sonarComponents.symbolizableFor(currentFile));
-      symVisitor.visitCompilationUnit(tree);
+  private void registerTypes(JavaTree.CompilationUnitTreeImpl tree) {
+    TypeHierarchyIndex typeHierarchy = sonarComponents != null ? sonarComponents.typeHierarchy() : null;
+    if (typeHierarchy != null && tree.sema != null && currentFile != null) {
+      typeHierarchy.registerTypes(currentFile.key(), tree);
+    }
+  }
+
+  private void shareInheritedNullability(JavaTree.CompilationUnitTreeImpl tree) {
+    InheritedNullabilityCache inheritedNullabilityCache = sonarComponents != null ? sonarComponents.inheritedNullabilityCache() : null;
+    if (inheritedNullabilityCache != null && tree.sema != null) {
+      tree.sema.inheritedNullabilityCache = inheritedNullabilityCache;
     }
   }
 
@@ -378,6 +388,11 @@ public class VisitorsBridge {
     }
   }
 
+  @VisibleForTesting
+  DataFlowComputer.Statistics dataFlowStatistics() {
+    return dataFlowStatistics;
+  }
+
   public void setCurrentFile(InputFile inputFile) {
     this.currentFile = inputFile;
   }
@@ -388,7 +403,16 @@ public class VisitorsBridge {
     } else if (fullyScannedFileCount > 0) {
       LOG.info("Did not optimize analysis for any files, performed a full analysis for all {} files.", fullyScannedFileCount);
     }
+    if (dataFlowStatistics.cfgBuilt() > 0) {
+      LOG.debug("Built {} CFGs and reused {} from cache, computed {} live variables and reused {} from cache.",
+        dataFlowStatistics.cfgBuilt(), dataFlowStatistics.cfgReused(),
+        dataFlowStatistics.liveVariablesComputed(), dataFlowStatistics.liveVariablesReused());
+    }
 
+    TypeHierarchyIndex typeHierarchy = sonarComponents != null ? sonarComponents.typeHierarchy() : null;
+    if (typeHierarchy != null) {
+      typeHierarchy.endOfAnalysis();
+    }
     var moduleContext = createScannerContext(sonarComponents, javaVersion, inAndroidContext, cacheContext);
 
     allScanners.stream()
@@ -0,0 +1,117 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.regex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import org.sonar.java.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonarsource.analyzer.commons.regex.RegexParseResult;
+import org.sonarsource.performance.measure.PerformanceMeasure;
+
+/**
+ * Results of analyses of regular expressions, shared between all the files and rules of a module.
+ * <p>
+ * Parse results themselves can not be shared, as their trees are bound to the literals of the file they come from. Only the results
+ * of analyses which do not depend on the location of the regex can be stored here: they are keyed by the source text and the
+ * initial flags of the regex, so that a pattern used in many files is only analyzed once.
+ * </p>
+ * The cache is bounded, least recently used entries are evicted first. Lookups are reported in the performance measures under the
+ * key of the analysis, with the hits as the "CacheHit" child measure and the analyses as the "CacheMiss" child measure. The cost of
+ * each analyzed regex is only logged, in debug.
+ */
+public final class RegexAnalysisCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RegexAnalysisCache.class);
+
+  static final int DEFAULT_MAX_SIZE = 10_000;
+
+  private final Map<Key, Object> entries;
+  private long hits = 0;
+  private long misses = 0;
+
+  public RegexAnalysisCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  RegexAnalysisCache(int maxSize) {
+    entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * @param analysisKey identifies the analysis, and any parameter of the analysis besides the regex itself
+   * @param analysis computes a result which does not depend on the location of the regex, and is never null
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T computeIfAbsent(String analysisKey, RegexParseResult regex, Function<RegexParseResult, T> analysis) {
+    PerformanceMeasure.Duration duration = PerformanceMeasure.start(analysisKey);
+    try {
+      Key key = new Key(analysisKey, regex.getResult().getSource().getSourceText(), regex.getInitialFlags().getMask());
+      Object result = entries.get(key);
+      if (result != null) {
+        hits++;
+        PerformanceMeasure.start("CacheHit").stop();
+      } else {
+        misses++;
+        result = analyze(key, regex, analysis);
+        entries.put(key, result);
+      }
+      return (T) result;
+    } finally {
+      duration.stop();
+    }
+  }
+
+  private static Object analyze(Key key, RegexParseResult regex, Function<RegexParseResult, ?> analysis) {
+    PerformanceMeasure.Duration missDuration = PerformanceMeasure.start("CacheMiss");
+    long start = System.nanoTime();
+    try {
+      return Objects.requireNonNull(analysis.apply(regex));
+    } finally {
+      missDuration.stop();
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("{} of regex /{}/ took {} ms", key.analysisKey(), key.regexSource(), (System.nanoTime() - start) / 1_000_000);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  long hits() {
+    return hits;
+  }
+
+  @VisibleForTesting
+  long misses() {
+    return misses;
+  }
+
+  @VisibleForTesting
+  int size() {
+    return entries.size();
+  }
+
+  private record Key(String analysisKey, String regexSource, int flags) {
+  }
+}
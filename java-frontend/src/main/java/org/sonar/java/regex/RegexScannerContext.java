@@ -17,6 +17,7 @@
 package org.sonar.java.regex;
 
 import java.util.List;
+import java.util.function.Function;
 import javax.annotation.Nullable;
 import org.sonar.plugins.java.api.tree.LiteralTree;
 import org.sonar.plugins.java.api.tree.Tree;
@@ -32,4 +33,15 @@ public interface RegexScannerContext {
 
   RegexParseResult regexForLiterals(FlagSet initialFlags, LiteralTree... stringLiterals);
 
+  /**
+   * Result of an analysis of the regex which does not depend on its location, computed once for all the occurrences of the same
+   * regex in the module. See {@link RegexAnalysisCache}.
+   */
+  <T> T regexAnalysis(String analysisKey, RegexParseResult regex, Function<RegexParseResult, T> analysis);
+
+  /**
+   * Maximum number of steps a single regex analysis can take before being stopped as inconclusive.
+   */
+  int regexAnalysisMaxSteps();
+
 }
@@ -20,7 +20,6 @@ import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.sonar.api.batch.fs.InputComponent;
-import org.sonar.java.Preconditions;
 import org.sonar.plugins.java.api.JavaCheck;
 import org.sonar.plugins.java.api.location.Position;
 import org.sonar.plugins.java.api.tree.SyntaxToken;
@@ -152,33 +151,32 @@ public class AnalyzerMessage {
   }
 
   public static AnalyzerMessage.TextSpan textSpanBetween(Tree startTree, boolean includeStart, Tree endTree, boolean includeEnd) {
-    AnalyzerMessage.TextSpan start = AnalyzerMessage.textSpanFor(startTree);
-    AnalyzerMessage.TextSpan end = AnalyzerMessage.textSpanFor(endTree);
-    return new AnalyzerMessage.TextSpan(
-      includeStart ? start.startLine : start.endLine,
-      includeStart ? start.startCharacter : start.endCharacter,
-      includeEnd ? end.endLine : end.startLine,
-      includeEnd ? end.endCharacter : end.startCharacter
-    );
+    Tree nonEmptyStartTree = getNonEmptyTree(startTree);
+    Tree nonEmptyEndTree = getNonEmptyTree(endTree);
+    checkLocation(nonEmptyStartTree.firstToken(), nonEmptyStartTree.lastToken());
+    checkLocation(nonEmptyEndTree.firstToken(), nonEmptyEndTree.lastToken());
+    Position start = includeStart ? Position.startOf(nonEmptyStartTree.firstToken()) : Position.endOf(nonEmptyStartTree.lastToken());
+    Position end = includeEnd ? Position.endOf(nonEmptyEndTree.lastToken()) : Position.startOf(nonEmptyEndTree.firstToken());
+    return new AnalyzerMessage.TextSpan(start.line(), start.columnOffset(), end.line(), end.columnOffset());
   }
 
   private static AnalyzerMessage.TextSpan textSpanBetween(SyntaxToken firstSyntaxToken, SyntaxToken lastSyntaxToken) {
+    checkLocation(firstSyntaxToken, lastSyntaxToken);
     Position first = Position.startOf(firstSyntaxToken);
     Position last = Position.endOf(lastSyntaxToken);
-    AnalyzerMessage.TextSpan location = new AnalyzerMessage.TextSpan(
-      first.line(),
-      first.columnOffset(),
-      last.line(),
-      last.columnOffset());
-    checkLocation(firstSyntaxToken, location);
-    return location;
+    return new AnalyzerMessage.TextSpan(first.line(), first.columnOffset(), last.line(), last.columnOffset());
   }
 
-  private static void checkLocation(SyntaxToken firstSyntaxToken, TextSpan location) {
+  /**
+   * Positions of tokens are computed once, so checking the location does not allocate anything unless it is invalid.
+   */
+  private static void checkLocation(SyntaxToken firstSyntaxToken, SyntaxToken lastSyntaxToken) {
     Position start = Position.startOf(firstSyntaxToken);
-    Preconditions.checkState(!location.isEmpty(),
-      "Invalid issue location: Text span is empty when trying reporting on (l:%s, c:%s).",
-      start.line(), start.column());
+    Position end = Position.endOf(lastSyntaxToken);
+    if (start.line() == end.line() && start.columnOffset() == end.columnOffset()) {
+      throw new IllegalStateException(String.format("Invalid issue location: Text span is empty when trying reporting on (l:%s, c:%s).",
+        start.line(), start.column()));
+    }
   }
 
   /**
@@ -0,0 +1,75 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.java.api;
+
+import java.util.List;
+import org.sonar.java.annotations.Beta;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia.CommentKind;
+
+/**
+ * Index of the lines and of the comments of the file being analyzed. It is computed once per file, and shared by all the
+ * checks working on the text of the file rather than on its syntax tree.
+ *
+ * @since SonarJava 8.41
+ */
+@Beta
+public interface FileTextIndex {
+
+  /**
+   * @return the number of lines of the file, which is the size of {@link JavaFileScannerContext#getFileLines()}.
+   */
+  int lineCount();
+
+  /**
+   * @param line a line of the file, starting at 1
+   * @return the offset in {@link JavaFileScannerContext#getFileContent()} of the first character of the line.
+   */
+  int lineStartOffset(int line);
+
+  /**
+   * @param line a line of the file, starting at 1
+   * @return the length of the line, without its line terminator.
+   */
+  int lineLength(int line);
+
+  /**
+   * @return the comments of the file, in order of appearance.
+   */
+  List<Comment> comments();
+
+  /**
+   * Lines of the comments containing the given tag, ignoring case, and where the first occurrence of the tag on the line is
+   * neither preceded nor followed by a letter. The lines of the tags {@code TODO}, {@code FIXME}, {@code NOSONAR},
+   * {@code NOPMD} and {@code CHECKSTYLE:OFF} are all found by a single scan of the comments.
+   *
+   * @return the sorted lines of the file, a line being repeated for each comment containing the tag on it.
+   */
+  List<Integer> commentLinesWithTag(String tag);
+
+  /**
+   * A comment of the file, with the lines on which it starts and ends.
+   */
+  record Comment(SyntaxTrivia trivia, int startLine, int endLine) {
+
+    public CommentKind kind() {
+      return trivia.commentKind();
+    }
+
+  }
+
+}
@@ -21,6 +21,7 @@ import java.util.Objects;
 import java.util.Optional;
 import javax.annotation.Nullable;
 import org.sonar.java.annotations.Beta;
+import org.sonar.java.model.DefaultFileTextIndex;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.Tree;
 
@@ -117,6 +118,16 @@ public interface JavaFileScannerContext extends InputFileScannerContext {
    */
   String getFileContent();
 
+  /**
+   * Index of the lines and comments of the currently analyzed file, computed once for all the checks. The default
+   * implementation, for contexts not provided by the analyzer, returns a new index on each call.
+   * @return the text index of the file.
+   * @since SonarJava 8.41
+   */
+  default FileTextIndex getFileTextIndex() {
+    return new DefaultFileTextIndex(this::getFileContent, getTree());
+  }
+
   /**
    * Message and syntaxNode for a secondary location.
    */
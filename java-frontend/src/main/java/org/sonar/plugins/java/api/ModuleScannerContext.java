@@ -23,7 +23,9 @@ import org.sonar.api.SonarProduct;
 import org.sonar.api.SonarRuntime;
 import org.sonar.api.batch.fs.InputComponent;
 import org.sonar.api.config.Configuration;
+import org.sonar.java.model.TypeHierarchyIndex;
 import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.semantic.TypeHierarchy;
 
 public interface ModuleScannerContext {
   /**
@@ -104,4 +106,13 @@ public interface ModuleScannerContext {
    */
   Configuration getConfiguration();
 
+  /**
+   * @return The type hierarchy of the current module, shared by the analysis of all its files and filled as they are analyzed.
+   * The default implementation, for contexts not provided by the analyzer, returns a new and empty hierarchy on each call.
+   * @since SonarJava 8.41
+   */
+  default TypeHierarchy getTypeHierarchy() {
+    return new TypeHierarchyIndex();
+  }
+
 }
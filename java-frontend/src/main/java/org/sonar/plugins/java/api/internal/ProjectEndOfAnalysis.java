@@ -0,0 +1,38 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.java.api.internal;
+
+import org.sonar.java.annotations.Beta;
+
+/**
+ * Interface of the checks whose issues depend on several modules of a project. At the end of the analysis of each module,
+ * such a check writes a compact summary of the module with {@code DefaultModuleScannerContext#writeProjectSummary}. Once all
+ * the modules have been analyzed, the check is run once on the summaries of all the modules.
+ * <p>
+ * When there is no project-level analysis, as in SonarQube for IDE, writing the summary fails and the check has to report
+ * its issues at the end of the analysis of the module.
+ * For internal use only, this API will not be supported for custom plugins.
+ */
+@Beta
+public interface ProjectEndOfAnalysis extends EndOfAnalysis {
+
+  /**
+   * A method called once, after all the modules of the project have been analyzed.
+   * @param context ProjectScannerContext giving the summaries written by the modules, and used to report issues.
+   */
+  void endOfProjectAnalysis(ProjectScannerContext context);
+}
@@ -0,0 +1,42 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.java.api.internal;
+
+import java.util.Map;
+import org.sonar.java.annotations.Beta;
+import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.plugins.java.api.JavaCheck;
+
+/**
+ * Context of the project-level analysis run by the checks implementing {@link ProjectEndOfAnalysis}.
+ * For internal use only, this API will not be supported for custom plugins.
+ */
+@Beta
+public interface ProjectScannerContext {
+
+  /**
+   * @return the summaries written by the modules for the rule of the given check, by fully qualified module key
+   */
+  Map<String, byte[]> moduleSummaries(JavaCheck check);
+
+  /**
+   * Reports an issue on a file of any module of the project.
+   * @param fileUri the {@link org.sonar.api.batch.fs.InputFile#uri() URI} of the file, as recorded in a module summary.
+   * Issues on files which are not part of the project are ignored.
+   */
+  void reportIssue(JavaCheck check, String fileUri, AnalyzerMessage.TextSpan textSpan, String message);
+}
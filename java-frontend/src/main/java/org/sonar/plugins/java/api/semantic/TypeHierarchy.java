@@ -0,0 +1,65 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.plugins.java.api.semantic;
+
+import java.util.List;
+import java.util.Set;
+import org.sonar.java.annotations.Beta;
+
+/**
+ * Read-only index of the type hierarchy of the module being analyzed, shared by the analysis of all its files.
+ * Types are identified by their fully qualified names. The answers for library types are computed once per type and
+ * shared by all the files, the ones for types declared in sources are computed from the semantic of the file being analyzed,
+ * as several files can declare the same fully qualified name.
+ *
+ * @since SonarJava 8.41
+ */
+@Beta
+public interface TypeHierarchy {
+
+  /**
+   * @return the fully qualified names of the superclasses of the given type, from its direct superclass to
+   * {@code java.lang.Object}, empty for {@code java.lang.Object} and unknown types.
+   */
+  List<String> superClasses(Type type);
+
+  /**
+   * @return the number of superclasses of the given type, i.e. the size of {@link #superClasses(Type)}.
+   */
+  int depth(Type type);
+
+  /**
+   * @return the fully qualified names of all the super types of the given type, extended classes and implemented
+   * interfaces, directly or not.
+   */
+  Set<String> superTypes(Type type);
+
+  /**
+   * @return the fully qualified names of the types of the module which directly extend or implement the given type. Only
+   * the sets of files (main, test, generated files) whose analysis ended are taken into account: main types are known from
+   * the end of the analysis of main files, test types from the end of the analysis of test files. Files which are not parsed
+   * thanks to the cache of a previous analysis are not taken into account.
+   */
+  Set<String> directSubtypes(String fullyQualifiedName);
+
+  /**
+   * @return the signatures, as returned by {@link Symbol.MethodSymbol#signature()}, of the methods declared by the given
+   * type, not including the inherited ones.
+   */
+  Set<String> methodSignatures(Type type);
+
+}
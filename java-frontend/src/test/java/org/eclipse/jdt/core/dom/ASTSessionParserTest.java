@@ -0,0 +1,72 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.eclipse.jdt.core.dom;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserConfig;
+import org.sonar.java.model.JavaVersionImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ASTSessionParserTest {
+
+  private static final JParserConfig CONFIG = JParserConfig.Mode.FILE_BY_FILE.create(new JavaVersionImpl(17), List.of());
+
+  @Test
+  void bindings_are_resolved_with_the_same_environment_for_all_units() {
+    try (ASTSessionParser sessionParser = CONFIG.sessionParser()) {
+      CompilationUnit first = sessionParser.createAST("A.java", "class A { java.util.List<String> list; }".toCharArray());
+      CompilationUnit second = sessionParser.createAST("B.java", "class B { java.util.Map<String, A> map; }".toCharArray());
+
+      assertThat(fieldType(first).getErasure().getQualifiedName()).isEqualTo("java.util.List");
+      assertThat(fieldType(second).getErasure().getQualifiedName()).isEqualTo("java.util.Map");
+      assertThat(fieldType(second).getTypeArguments()[1].isRecovered()).isTrue();
+    }
+  }
+
+  @Test
+  void same_problems_as_the_ast_parser() {
+    String source = "class A { Unknown field; void m() { int i = \"\"; } }";
+    ASTParser astParser = CONFIG.astParser();
+    astParser.setUnitName("A.java");
+    astParser.setSource(source.toCharArray());
+    CompilationUnit expected = (CompilationUnit) astParser.createAST(null);
+
+    try (ASTSessionParser sessionParser = CONFIG.sessionParser()) {
+      CompilationUnit actual = sessionParser.createAST("A.java", source.toCharArray());
+
+      assertThat(problems(actual))
+        .isNotEmpty()
+        .containsExactlyElementsOf(problems(expected));
+    }
+  }
+
+  private static ITypeBinding fieldType(CompilationUnit unit) {
+    TypeDeclaration type = (TypeDeclaration) unit.types().get(0);
+    return type.getFields()[0].getType().resolveBinding();
+  }
+
+  private static List<String> problems(CompilationUnit unit) {
+    return Stream.of(unit.getProblems())
+      .map(IProblem::getMessage)
+      .toList();
+  }
+
+}
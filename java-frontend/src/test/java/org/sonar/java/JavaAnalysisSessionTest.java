@@ -0,0 +1,205 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.config.Configuration;
+import org.sonar.api.issue.NoSonarFilter;
+import org.sonar.java.model.JavaVersionImpl;
+import org.sonar.java.telemetry.NoOpTelemetry;
+import org.sonar.plugins.java.api.JavaFileScanner;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.JavaResourceLocator;
+import org.sonar.plugins.java.api.ModuleScannerContext;
+import org.sonar.plugins.java.api.internal.EndOfAnalysis;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class JavaAnalysisSessionTest {
+
+  private SensorContext sensorContext;
+  private SonarComponents sonarComponents;
+
+  @BeforeEach
+  void setUp() {
+    sensorContext = mock(SensorContext.class);
+    doReturn(mock(Configuration.class)).when(sensorContext).config();
+    sonarComponents = spy(new SonarComponents(null, null, null, null, null, null));
+    sonarComponents.setSensorContext(sensorContext);
+    doReturn(false).when(sonarComponents).inAndroidContext();
+    // as in an IDE
+    doReturn(true).when(sonarComponents).isSonarLintContext();
+    doReturn(true).when(sonarComponents).shouldFailAnalysisOnException();
+    doReturn(new ArrayList<>()).when(sonarComponents).getJavaTestClasspath();
+  }
+
+  @Test
+  void files_are_analyzed_again_by_the_same_visitors() throws Exception {
+    var mainVisitor = new ClassNamesVisitor();
+    var testVisitor = new ClassNamesVisitor();
+    var session = new JavaAnalysisSession(new JavaVersionImpl(17), sonarComponents, new NoOpTelemetry(), List.of(mainVisitor), List.of(testVisitor));
+
+    InputFile edited = inputFile("A.java", InputFile.Type.MAIN, "class A {}");
+    session.analyze(edited);
+    doReturn("class A {} class B {}").when(edited).contents();
+    session.analyze(edited);
+    session.analyze(inputFile("ATest.java", InputFile.Type.TEST, "class ATest {}"));
+
+    assertThat(mainVisitor.classNames).containsExactly("A", "A", "B");
+    assertThat(testVisitor.classNames).containsExactly("ATest");
+  }
+
+  @Test
+  void session_of_the_frontend_does_not_save_the_data_of_the_files_again() throws Exception {
+    // as in a scanner, where the lines, measures and highlighting of a file can only be saved once
+    doReturn(false).when(sonarComponents).isSonarLintContext();
+    var rule = new ClassNamesVisitor();
+    var frontend = new JavaFrontend(new JavaVersionImpl(17), sonarComponents, new Measurer(sensorContext, mock(NoSonarFilter.class)),
+      new NoOpTelemetry(), mock(JavaResourceLocator.class), null, rule);
+
+    InputFile edited = inputFile("A.java", InputFile.Type.MAIN, "class A {}");
+    try (var session = frontend.newSession()) {
+      session.analyze(edited);
+      session.analyze(edited);
+    }
+
+    assertThat(rule.classNames).containsExactly("A", "A");
+    verify(sensorContext, never()).newMeasure();
+    verify(sensorContext, never()).newHighlighting();
+    verify(sensorContext, never()).newSymbolTable();
+  }
+
+  @Test
+  void types_are_resolved_again_after_the_session_is_closed() throws Exception {
+    var visitor = new FieldTypesVisitor();
+    var session = new JavaAnalysisSession(new JavaVersionImpl(17), sonarComponents, new NoOpTelemetry(), List.of(visitor), List.of());
+
+    session.analyze(inputFile("A.java", InputFile.Type.MAIN, "class A { java.util.List<String> list; }"));
+    session.analyze(inputFile("B.java", InputFile.Type.MAIN, "class B { java.util.Map<String, Integer> map; }"));
+    session.close();
+    session.analyze(inputFile("A.java", InputFile.Type.MAIN, "class A { java.util.Set<String> set; }"));
+    session.close();
+
+    assertThat(visitor.fieldTypes).containsExactly("java.util.List", "java.util.Map", "java.util.Set");
+  }
+
+  @Test
+  void end_of_analysis_checks_are_not_part_of_the_session() throws Exception {
+    var endOfAnalysisVisitor = new EndOfAnalysisVisitor();
+    var session = new JavaAnalysisSession(new JavaVersionImpl(17), sonarComponents, new NoOpTelemetry(), List.of(endOfAnalysisVisitor), List.of());
+
+    session.analyze(inputFile("A.java", InputFile.Type.MAIN, "class A {}"));
+
+    assertThat(endOfAnalysisVisitor.classNames).isEmpty();
+    assertThat(endOfAnalysisVisitor.endOfAnalysisCalls).isZero();
+  }
+
+  @Test
+  void end_of_analysis_checks_are_run_by_the_analysis_of_the_module() throws Exception {
+    var visitor = new ClassNamesVisitor();
+    var session = new JavaAnalysisSession(new JavaVersionImpl(17), sonarComponents, new NoOpTelemetry(), List.of(visitor), List.of());
+    var mainEndOfAnalysisVisitor = new EndOfAnalysisVisitor();
+    var testEndOfAnalysisVisitor = new EndOfAnalysisVisitor();
+
+    session.analyzeModule(List.of(inputFile("A.java", InputFile.Type.MAIN, "class A {}"), inputFile("ATest.java", InputFile.Type.TEST, "class ATest {}")),
+      List.of(mainEndOfAnalysisVisitor), List.of(testEndOfAnalysisVisitor));
+    session.analyze(inputFile("B.java", InputFile.Type.MAIN, "class B {}"));
+
+    assertThat(visitor.classNames).containsExactly("A", "B");
+    assertThat(mainEndOfAnalysisVisitor.classNames).containsExactly("A");
+    assertThat(mainEndOfAnalysisVisitor.endOfAnalysisCalls).isEqualTo(1);
+    assertThat(testEndOfAnalysisVisitor.classNames).containsExactly("ATest");
+    assertThat(testEndOfAnalysisVisitor.endOfAnalysisCalls).isEqualTo(1);
+  }
+
+  @Test
+  void module_info_with_misconfigured_java_version_is_not_analyzed() throws Exception {
+    var visitor = new ClassNamesVisitor();
+    var session = new JavaAnalysisSession(new JavaVersionImpl(8), sonarComponents, new NoOpTelemetry(), List.of(visitor), List.of());
+
+    session.analyze(inputFile("module-info.java", InputFile.Type.MAIN, "module org.foo {}"));
+
+    assertThat(visitor.classNames).isEmpty();
+    assertThat(visitor.analyzedFiles).isZero();
+  }
+
+  private static InputFile inputFile(String filename, InputFile.Type type, String contents) throws Exception {
+    InputFile inputFile = mock(InputFile.class);
+    doReturn(filename).when(inputFile).filename();
+    doReturn(filename).when(inputFile).toString();
+    doReturn(type).when(inputFile).type();
+    doReturn(UTF_8).when(inputFile).charset();
+    doReturn(contents).when(inputFile).contents();
+    return inputFile;
+  }
+
+  private static class ClassNamesVisitor implements JavaFileScanner {
+
+    final List<String> classNames = new ArrayList<>();
+    int analyzedFiles = 0;
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      analyzedFiles++;
+      context.getTree().types().stream()
+        .filter(type -> type.is(Tree.Kind.CLASS))
+        .map(type -> ((ClassTree) type).simpleName().name())
+        .forEach(classNames::add);
+    }
+  }
+
+  private static class FieldTypesVisitor extends BaseTreeVisitor implements JavaFileScanner {
+
+    final List<String> fieldTypes = new ArrayList<>();
+
+    @Override
+    public void scanFile(JavaFileScannerContext context) {
+      scan(context.getTree());
+    }
+
+    @Override
+    public void visitVariable(VariableTree tree) {
+      fieldTypes.add(tree.type().symbolType().erasure().fullyQualifiedName());
+    }
+  }
+
+  private static class EndOfAnalysisVisitor extends ClassNamesVisitor implements EndOfAnalysis {
+
+    int endOfAnalysisCalls = 0;
+
+    @Override
+    public void endOfAnalysis(ModuleScannerContext context) {
+      endOfAnalysisCalls++;
+    }
+  }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ProjectSummaryStoreTest {
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
+
+  @TempDir
+  Path workDir;
+
+  @Test
+  void summaries_are_read_by_rule_and_module() {
+    var store = new ProjectSummaryStore(workDir.toFile());
+    assertThat(store.write("java:S4605", "project:module-a", bytes("a"))).isTrue();
+    assertThat(store.write("java:S4605", "project:module/b*", bytes("b"))).isTrue();
+    assertThat(store.write("java:S1234", "project:module-a", bytes("other rule"))).isTrue();
+
+    // another store on the same directory, as used by the project-level analysis
+    var summaries = new ProjectSummaryStore(workDir.toFile()).read("java:S4605");
+    assertThat(summaries).containsOnlyKeys("project:module-a", "project:module/b*");
+    assertThat(summaries.get("project:module-a")).isEqualTo(bytes("a"));
+    assertThat(summaries.get("project:module/b*")).isEqualTo(bytes("b"));
+    assertThat(store.read("java:S1234")).containsExactly(entry("project:module-a", bytes("other rule")));
+  }
+
+  @Test
+  void summary_of_a_module_is_overwritten() {
+    var store = new ProjectSummaryStore(workDir.toFile());
+    store.write("java:S4605", "module", bytes("first"));
+    store.write("java:S4605", "module", bytes("second"));
+    assertThat(store.read("java:S4605")).containsExactly(entry("module", bytes("second")));
+  }
+
+  @Test
+  void no_summaries() {
+    var store = new ProjectSummaryStore(workDir.toFile());
+    assertThat(store.read("java:S4605")).isEmpty();
+    store.clear();
+    assertThat(workDir.resolve(ProjectSummaryStore.DIRECTORY_NAME)).doesNotExist();
+  }
+
+  @Test
+  void clear_removes_all_summaries() {
+    var store = new ProjectSummaryStore(workDir.toFile());
+    store.write("java:S4605", "module", bytes("summary"));
+    store.write("java:S1234", "module", bytes("summary"));
+    store.clear();
+    assertThat(store.read("java:S4605")).isEmpty();
+    assertThat(store.read("java:S1234")).isEmpty();
+    assertThat(workDir.resolve(ProjectSummaryStore.DIRECTORY_NAME)).doesNotExist();
+  }
+
+  @Test
+  void summary_that_cannot_be_written() throws IOException {
+    File notADirectory = workDir.resolve("file").toFile();
+    Files.writeString(notADirectory.toPath(), "content");
+    var store = new ProjectSummaryStore(notADirectory);
+    assertThat(store.write("java:S4605", "module", bytes("summary"))).isFalse();
+    assertThat(logTester.logs(Level.WARN)).hasSize(1);
+    assertThat(logTester.logs(Level.WARN).get(0)).startsWith("Unable to write the project summary of rule java:S4605 for module module: ");
+  }
+
+  private static byte[] bytes(String content) {
+    return content.getBytes(StandardCharsets.UTF_8);
+  }
+
+}
@@ -104,6 +104,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
@@ -420,6 +421,24 @@ class SonarComponentsTest {
       .containsExactly("RuleE");
   }
 
+  @Test
+  void active_check_rule_keys() {
+    ActiveRulesBuilder activeRulesBuilder = new ActiveRulesBuilder();
+    Stream.of("java:S101", "java:S102", "custom:S103")
+      .map(ruleKey -> new NewActiveRule.Builder().setRuleKey(RuleKey.parse(ruleKey)).build())
+      .forEach(activeRulesBuilder::addRule);
+    // custom rule created from the template of S124
+    activeRulesBuilder.addRule(new NewActiveRule.Builder()
+      .setRuleKey(RuleKey.parse("java:MyComments"))
+      .setTemplateRuleKey("S124")
+      .build());
+    SonarComponents sonarComponents = new SonarComponents(fileLinesContextFactory, null, null,
+      null, checkFactory, activeRulesBuilder.build());
+
+    assertThat(sonarComponents.activeCheckRuleKeys("java")).containsExactlyInAnyOrder("S101", "S102", "S124");
+    assertThat(sonarComponents.activeCheckRuleKeys("other")).isEmpty();
+  }
+
   @Test
   void register_custom_file_scanners_with_no_active_rules() {
     var noActiveRules = (new ActiveRulesBuilder()).build();
@@ -522,6 +541,22 @@ class SonarComponentsTest {
     verify(context, never()).newIssue();
   }
 
+  @Test
+  void rule_key_is_resolved_once_per_check() {
+    JavaCheck expectedCheck = new CustomCheck();
+    CheckRegistrar expectedRegistrar = getRegistrar(expectedCheck);
+    RuleKey ruleKey = RuleKey.of("MyRepo", "CustomCheck");
+
+    when(this.checks.ruleKey(any(JavaCheck.class))).thenReturn(ruleKey);
+    SonarComponents sonarComponents = new SonarComponents(fileLinesContextFactory, null, null,
+      null, checkFactory, context.activeRules(), new CheckRegistrar[]{expectedRegistrar});
+    clearInvocations(this.checks);
+
+    assertThat(sonarComponents.getRuleKey(expectedCheck)).contains(ruleKey);
+    assertThat(sonarComponents.getRuleKey(expectedCheck)).contains(ruleKey);
+    verify(this.checks, times(1)).ruleKey(expectedCheck);
+  }
+
   @Test
   void no_issue_when_reporting_from_custom_file_scanner() {
     JavaFileScanner customScanner = scannerContext -> {
@@ -1155,6 +1190,51 @@ class SonarComponentsTest {
     assertThat(sonarComponents.shouldFailOnStackOverflow()).isEqualTo(Boolean.valueOf(value));
   }
 
+  @Test
+  void shouldSkipHighlighting_returns_false_by_default() {
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(new MapSettings()));
+    InputFile inputFile = mock(InputFile.class);
+    when(inputFile.lines()).thenReturn(1_000_000);
+    assertThat(sonarComponents.shouldSkipHighlighting(inputFile)).isFalse();
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "99, false",
+    "100, false",
+    "101, true"
+  })
+  void shouldSkipHighlighting_compares_lines_with_max_lines(int lines, boolean expected) {
+    MapSettings settings = new MapSettings().setProperty("sonar.java.highlighting.maxLines", "100");
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+    InputFile inputFile = mock(InputFile.class);
+    when(inputFile.lines()).thenReturn(lines);
+    assertThat(sonarComponents.shouldSkipHighlighting(inputFile)).isEqualTo(expected);
+  }
+
+  @Test
+  void regexAnalysisMaxSteps_returns_default_when_not_set() {
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    assertThat(sonarComponents.regexAnalysisMaxSteps()).isEqualTo(SonarComponents.DEFAULT_REGEX_ANALYSIS_MAX_STEPS);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(new MapSettings()));
+    assertThat(sonarComponents.regexAnalysisMaxSteps()).isEqualTo(SonarComponents.DEFAULT_REGEX_ANALYSIS_MAX_STEPS);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "500, 500",
+    "0, 100000",
+    "-1, 100000"
+  })
+  void regexAnalysisMaxSteps_returns_configured_value(String value, int expected) {
+    MapSettings settings = new MapSettings().setProperty("sonar.java.regex.analysisMaxSteps", value);
+    SonarComponents sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    sonarComponents.setSensorContext(SensorContextTester.create(new File("")).setSettings(settings));
+    assertThat(sonarComponents.regexAnalysisMaxSteps()).isEqualTo(expected);
+  }
+
   @Nested
   class Logging {
     private final DecimalFormat formatter = new DecimalFormat("00");
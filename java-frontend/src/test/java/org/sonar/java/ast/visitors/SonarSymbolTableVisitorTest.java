@@ -19,27 +19,43 @@ package org.sonar.java.ast.visitors;
 import com.sonarsource.scanner.engine.sensor.test.fixtures.SensorContextTester;
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.TextPointer;
 import org.sonar.api.batch.fs.TextRange;
 import org.sonar.api.batch.rule.ActiveRules;
 import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.sensor.highlighting.NewHighlighting;
+import org.sonar.api.batch.sensor.symbol.NewSymbol;
+import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
 import org.sonar.api.measures.FileLinesContextFactory;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.TestUtils;
 import org.sonar.java.ast.JavaAstScanner;
 import org.sonar.java.classpath.ClasspathForMain;
 import org.sonar.java.classpath.ClasspathForTest;
+import org.sonar.java.model.GeneratedFile;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.java.model.JavaTree;
 import org.sonar.java.model.VisitorsBridge;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.scanner.plugin.api.impl.fs.DefaultTextPointer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 class SonarSymbolTableVisitorTest {
 
@@ -61,7 +77,7 @@ class SonarSymbolTableVisitorTest {
     File source = new File("src/test/files/highlighter/SonarSymTable.java");
     InputFile inputFile = TestUtils.inputFile(source);
 
-    JavaAstScanner.scanSingleFileForTests(inputFile, new VisitorsBridge(Collections.emptyList(), sonarComponents.getJavaClasspath(), sonarComponents));
+    scan(inputFile);
     String componentKey = inputFile.key();
     verifyUsages(componentKey, 1, 17, reference(5,2), reference(9,10));
     // Example class declaration
@@ -96,6 +112,73 @@ class SonarSymbolTableVisitorTest {
     verifyUsages(componentKey, 21, 21);
   }
 
+  @Test
+  void no_symbol_table_for_files_with_more_lines_than_max_lines() {
+    context.settings().setProperty(SonarComponents.SONAR_HIGHLIGHTING_MAX_LINES_KEY, "10");
+    File source = new File("src/test/files/highlighter/SonarSymTable.java");
+    InputFile inputFile = TestUtils.inputFile(source);
+
+    scan(inputFile);
+    assertThat(context.referencesForSymbolAt(inputFile.key(), 1, 17)).isNull();
+  }
+
+  @Test
+  void no_symbol_table_for_generated_files() {
+    SonarComponents mockedSonarComponents = mock(SonarComponents.class);
+    doReturn(mock(NewHighlighting.class)).when(mockedSonarComponents).highlightableFor(any());
+    JavaTree.CompilationUnitTreeImpl tree = (JavaTree.CompilationUnitTreeImpl) JParserTestUtils.parse("class A { void foo() { foo(); } }");
+    JavaFileScannerContext fileContext = mock(JavaFileScannerContext.class);
+    doReturn(new GeneratedFile(temp.resolve("A.jsp"))).when(fileContext).getInputFile();
+    doReturn(tree).when(fileContext).getTree();
+    doReturn(tree.sema).when(fileContext).getSemanticModel();
+    doReturn(true).when(fileContext).fileParsed();
+
+    new SyntaxHighlighterVisitor(mockedSonarComponents).scanFile(fileContext);
+    verify(mockedSonarComponents).highlightableFor(any());
+    verify(mockedSonarComponents, never()).symbolizableFor(any());
+  }
+
+  @Test
+  void no_symbol_table_for_files_which_could_not_be_parsed() {
+    SonarComponents mockedSonarComponents = mock(SonarComponents.class);
+    doReturn(mock(NewHighlighting.class)).when(mockedSonarComponents).highlightableFor(any());
+    JavaFileScannerContext fileContext = mock(JavaFileScannerContext.class);
+    doReturn(TestUtils.emptyInputFile("A.java")).when(fileContext).getInputFile();
+    doReturn(new JavaTree.CompilationUnitTreeImpl(null, new ArrayList<>(), new ArrayList<>(), null, null)).when(fileContext).getTree();
+    doReturn(false).when(fileContext).fileParsed();
+
+    new SyntaxHighlighterVisitor(mockedSonarComponents).scanFile(fileContext);
+    verify(mockedSonarComponents).highlightableFor(any());
+    verify(mockedSonarComponents, never()).symbolizableFor(any());
+  }
+
+  @Test
+  void visiting_the_compilation_unit_saves_the_symbol_table_with_references_in_offset_order() {
+    NewSymbolTable newSymbolTable = mock(NewSymbolTable.class);
+    NewSymbol methodSymbol = mock(NewSymbol.class);
+    doReturn(mock(NewSymbol.class)).when(newSymbolTable).newSymbol(anyInt(), anyInt(), anyInt(), anyInt());
+    doReturn(methodSymbol).when(newSymbolTable).newSymbol(2, 7, 2, 10);
+    CompilationUnitTree tree = JParserTestUtils.parse("class A {\n  void foo() {\n    foo();\n    this.foo();\n  }\n}");
+
+    tree.accept(new SonarSymbolTableVisitor(newSymbolTable));
+
+    InOrder inOrder = inOrder(newSymbolTable, methodSymbol);
+    inOrder.verify(newSymbolTable).newSymbol(1, 6, 1, 7);
+    inOrder.verify(newSymbolTable).newSymbol(2, 7, 2, 10);
+    inOrder.verify(methodSymbol).newReference(3, 4, 3, 7);
+    inOrder.verify(methodSymbol).newReference(4, 9, 4, 12);
+    inOrder.verify(newSymbolTable).save();
+  }
+
+  /**
+   * The symbol table is built by the syntax highlighting, within the same walk of the tokens of the file
+   */
+  private void scan(InputFile inputFile) {
+    SyntaxHighlighterVisitor syntaxHighlighterVisitor = new SyntaxHighlighterVisitor(sonarComponents);
+    JavaAstScanner.scanSingleFileForTests(inputFile,
+      new VisitorsBridge(Collections.singletonList(syntaxHighlighterVisitor), sonarComponents.getJavaClasspath(), sonarComponents));
+  }
+
   private void verifyUsages(String componentKey, int line, int offset, TextPointer... tps) {
     Collection<TextRange> textRanges = context.referencesForSymbolAt(componentKey, line, offset);
     if(tps.length == 0) {
@@ -252,6 +252,17 @@ class SyntaxHighlighterVisitorTest {
     assertThatHasBeenHighlighted(componentKey, 16, 10, 16, 16, TypeOfText.KEYWORD); // record
   }
 
+  @Test
+  void files_with_more_lines_than_max_lines_are_not_highlighted() {
+    context.settings().setProperty(SonarComponents.SONAR_HIGHLIGHTING_MAX_LINES_KEY, "10");
+    InputFile inputFile = generateTestFile("src/test/files/highlighter/Example.java");
+    scan(inputFile);
+
+    String componentKey = inputFile.key();
+    assertThatHasNotBeenHighlighted(componentKey, 1, 1, 3, 4); // comment
+    assertThatHasNotBeenHighlighted(componentKey, 9, 1, 9, 6); // keyword
+  }
+
   private void scan(InputFile inputFile) {
     JavaVersion javaVersion = JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION;
     JavaFrontend frontend = new JavaFrontend(javaVersion, mockSonarComponents(), mock(Measurer.class), new NoOpTelemetry(), null, null, syntaxHighlighterVisitor);
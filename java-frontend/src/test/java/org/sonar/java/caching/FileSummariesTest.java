@@ -0,0 +1,147 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.caching;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.plugins.java.api.InputFileScannerContext;
+import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+import org.sonar.plugins.java.api.caching.JavaWriteCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FileSummariesTest {
+
+  private static final FileSummaries.Codec<String> CODEC = new FileSummaries.Codec<>() {
+    @Override
+    public void write(String summary, DataOutput out) throws IOException {
+      out.writeUTF(summary);
+    }
+
+    @Override
+    public String read(DataInput in) throws IOException {
+      return in.readUTF();
+    }
+  };
+
+  private final Map<String, byte[]> previousCache = new HashMap<>();
+  private final Map<String, byte[]> nextCache = new HashMap<>();
+  private final CacheContext cacheContext = mock(CacheContext.class);
+  private final JavaWriteCache writeCache = mock(JavaWriteCache.class);
+  private FileSummaries<String> summaries;
+
+  @BeforeEach
+  void setUp() {
+    JavaReadCache readCache = mock(JavaReadCache.class);
+    when(readCache.readBytes(anyString())).thenAnswer(invocation -> previousCache.get(invocation.<String>getArgument(0)));
+    doAnswer(invocation -> nextCache.put(invocation.getArgument(0), invocation.getArgument(1)))
+      .when(writeCache).write(anyString(), any(byte[].class));
+    doAnswer(invocation -> nextCache.put(invocation.getArgument(0), previousCache.get(invocation.<String>getArgument(0))))
+      .when(writeCache).copyFromPrevious(anyString());
+    when(cacheContext.isCacheEnabled()).thenReturn(true);
+    when(cacheContext.getReadCache()).thenReturn(readCache);
+    when(cacheContext.getWriteCache()).thenReturn(writeCache);
+    summaries = new FileSummaries<>("java:S0000:summary:", CODEC);
+  }
+
+  @Test
+  void summaries_of_scanned_files_are_cached_for_the_next_analysis() {
+    summaries.add(context("A.java"), "a");
+    summaries.add(context("B.java"), "b");
+
+    assertThat(summaries.summaries().values()).containsExactly("a", "b");
+    assertThat(nextCache).containsOnlyKeys("java:S0000:summary:A.java", "java:S0000:summary:B.java");
+
+    previousCache.putAll(nextCache);
+    nextCache.clear();
+    FileSummaries<String> nextSummaries = new FileSummaries<>("java:S0000:summary:", CODEC);
+    assertThat(nextSummaries.addFromCache(context("A.java"))).isTrue();
+    nextSummaries.add(context("B.java"), "b2");
+
+    assertThat(nextSummaries.summaries().values()).containsExactly("a", "b2");
+    assertThat(nextCache).containsOnlyKeys("java:S0000:summary:A.java", "java:S0000:summary:B.java");
+  }
+
+  @Test
+  void missing_unreadable_or_outdated_summaries_are_not_added() {
+    previousCache.put("java:S0000:summary:Unreadable.java", new byte[] {42});
+    previousCache.put("java:S0000:summary:Trailing.java", new byte[] {0, 1, 'a', 'b'});
+    previousCache.put("java:S0000:summary:Outdated.java", new byte[] {0, 1, 'a'});
+
+    assertThat(summaries.addFromCache(context("Missing.java"))).isFalse();
+    assertThat(summaries.addFromCache(context("Unreadable.java"))).isFalse();
+    assertThat(summaries.addFromCache(context("Trailing.java"))).isFalse();
+    assertThat(summaries.addFromCache(context("Outdated.java"), "b"::equals)).isFalse();
+    assertThat(summaries.summaries()).isEmpty();
+    assertThat(nextCache).isEmpty();
+
+    assertThat(summaries.addFromCache(context("Outdated.java"), "a"::equals)).isTrue();
+    assertThat(summaries.summaries().values()).containsExactly("a");
+  }
+
+  @Test
+  void nothing_is_cached_when_the_cache_is_disabled() {
+    when(cacheContext.isCacheEnabled()).thenReturn(false);
+    previousCache.put("java:S0000:summary:A.java", new byte[] {0, 1, 'a'});
+
+    assertThat(summaries.addFromCache(context("A.java"))).isFalse();
+    summaries.add(context("B.java"), "b");
+
+    assertThat(summaries.summaries().values()).containsExactly("b");
+    verify(cacheContext, never()).getWriteCache();
+    verify(cacheContext, never()).getReadCache();
+  }
+
+  @Test
+  void cache_write_failures_are_ignored() {
+    doThrow(new IllegalArgumentException("already written")).when(writeCache).write(anyString(), any(byte[].class));
+    doThrow(new IllegalArgumentException("already written")).when(writeCache).copyFromPrevious(anyString());
+    previousCache.put("java:S0000:summary:A.java", new byte[] {0, 1, 'a'});
+
+    assertThat(summaries.addFromCache(context("A.java"))).isTrue();
+    summaries.add(context("B.java"), "b");
+
+    assertThat(summaries.summaries().values()).containsExactly("a", "b");
+    summaries.clear();
+    assertThat(summaries.summaries()).isEmpty();
+  }
+
+  private InputFileScannerContext context(String fileKey) {
+    InputFile inputFile = mock(InputFile.class);
+    when(inputFile.key()).thenReturn(fileKey);
+    InputFileScannerContext context = mock(InputFileScannerContext.class);
+    when(context.getInputFile()).thenReturn(inputFile);
+    when(context.getCacheContext()).thenReturn(cacheContext);
+    return context;
+  }
+
+}
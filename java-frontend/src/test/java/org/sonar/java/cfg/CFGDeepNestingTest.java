@@ -0,0 +1,134 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The CFG of generated code (parsers, state machines) can be built from very deep syntax trees: those tests build it in
+ * a thread with a small stack, which was overflowed by the recursive construction of such trees.
+ */
+class CFGDeepNestingTest {
+
+  private static final int DEPTH = 2_000;
+  private static final long SMALL_STACK_SIZE = 256L * 1024;
+  // parsing and resolution done by ECJ are recursive: at DEPTH, they need the default thread stack size of the JVM
+  private static final long PARSER_STACK_SIZE = 1024L * 1024;
+
+  @Test
+  void else_if_chain() {
+    CFG cfg = buildInSmallStack(elseIfChain(DEPTH));
+    // one branch and one then-block per "if", the final else-block and the exit block
+    assertThat(cfg.blocks()).hasSize(2 * DEPTH + 2);
+    CFG.Block entry = cfg.entryBlock();
+    assertThat(entry.terminator()).isNotNull();
+    assertThat(entry.falseBlock().terminator()).isNotNull();
+  }
+
+  @Test
+  void binary_expression_chain() {
+    CFG cfg = buildInSmallStack(binaryExpressionChain(DEPTH));
+    assertThat(cfg.blocks()).hasSize(2);
+    // the identifiers and the binary expressions
+    assertThat(cfg.entryBlock().elements()).hasSize(2 * DEPTH + 1);
+  }
+
+  @Test
+  void conditional_expression_chain() {
+    CFG cfg = buildInSmallStack(conditionalExpressionChain(DEPTH));
+    assertThat(cfg.blocks()).hasSize(3 * DEPTH / 2 + 3);
+  }
+
+  @Test
+  void condition_chain() {
+    CFG cfg = buildInSmallStack(conditionChain(DEPTH));
+    // one block per operand, the then-block, and the exit block
+    assertThat(cfg.blocks()).hasSize(DEPTH + 3);
+  }
+
+  private static CFG buildInSmallStack(String source) {
+    MethodTree method = runInThread(PARSER_STACK_SIZE, () -> firstMethod(source));
+    return runInThread(SMALL_STACK_SIZE, () -> CFG.build(method));
+  }
+
+  private static <T> T runInThread(long stackSize, Supplier<T> supplier) {
+    AtomicReference<T> result = new AtomicReference<>();
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Thread thread = new Thread(null, () -> {
+      try {
+        result.set(supplier.get());
+      } catch (Throwable t) {
+        error.set(t);
+      }
+    }, "deep-nesting", stackSize);
+    thread.start();
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+    assertThat(error.get()).isNull();
+    return result.get();
+  }
+
+  private static MethodTree firstMethod(String source) {
+    CompilationUnitTree cut = JParserTestUtils.parse(source);
+    return (MethodTree) ((ClassTree) cut.types().get(0)).members().get(0);
+  }
+
+  private static String elseIfChain(int depth) {
+    StringBuilder sb = new StringBuilder("class A { int f(int x) {\n");
+    for (int i = 0; i < depth; i++) {
+      sb.append(i == 0 ? "" : "else ").append("if (x == ").append(i).append(") { return ").append(i).append("; }\n");
+    }
+    return sb.append("else { return -1; }\n} }").toString();
+  }
+
+  private static String binaryExpressionChain(int depth) {
+    StringBuilder sb = new StringBuilder("class A { int f(int x) {\nreturn x");
+    for (int i = 0; i < depth; i++) {
+      sb.append(i % 2 == 0 ? " + x" : " - x").append(i % 10 == 9 ? "\n" : "");
+    }
+    return sb.append(";\n} }").toString();
+  }
+
+  private static String conditionalExpressionChain(int depth) {
+    StringBuilder sb = new StringBuilder("class A { boolean f(boolean x) {\nreturn x");
+    for (int i = 0; i < depth; i++) {
+      sb.append(i % 2 == 0 ? " && x" : " || x").append(i % 10 == 9 ? "\n" : "");
+    }
+    return sb.append(";\n} }").toString();
+  }
+
+  private static String conditionChain(int depth) {
+    StringBuilder sb = new StringBuilder("class A { void f(boolean x) {\nif (x");
+    for (int i = 0; i < depth; i++) {
+      sb.append(i % 2 == 0 ? " && x" : " || x").append(i % 10 == 9 ? "\n" : "");
+    }
+    return sb.append(") { f(x); }\n} }").toString();
+  }
+
+}
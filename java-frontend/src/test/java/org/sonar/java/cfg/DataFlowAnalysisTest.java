@@ -0,0 +1,127 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.AssignmentExpressionTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DataFlowAnalysisTest {
+
+  /**
+   * Local variables which are assigned on some (union) or all (intersection) paths.
+   */
+  private static class AssignedVariables extends DataFlowAnalysis<Symbol> {
+
+    AssignedVariables(CFG cfg, Meet meet) {
+      super(cfg, Direction.FORWARD, meet);
+      solve();
+    }
+
+    @Override
+    protected void computeGenKill(CFG.Block block, BitSet gen, BitSet kill) {
+      for (Tree element : block.elements()) {
+        if (element instanceof VariableTree variable && variable.initializer() != null) {
+          gen.set(index(variable.symbol()));
+        } else if (element instanceof AssignmentExpressionTree assignment && assignment.variable() instanceof IdentifierTree identifier) {
+          gen.set(index(identifier.symbol()));
+        }
+      }
+    }
+  }
+
+  private static CFG buildCFG(String methodCode) {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A { " + methodCode + " }");
+    MethodTree tree = ((MethodTree) ((ClassTree) cut.types().get(0)).members().get(0));
+    return (CFG) tree.cfg();
+  }
+
+  private static Set<String> names(Set<Symbol> symbols) {
+    return symbols.stream().map(Symbol::name).collect(Collectors.toSet());
+  }
+
+  @Test
+  void forward_may_and_must_analyses() {
+    CFG cfg = buildCFG("void foo(boolean b) { int x; int y = 0; if (b) { x = 1; } else { x = 2; y = 1; int z = 3; } foo(b); }");
+    CFG.Block exit = cfg.exitBlock();
+
+    AssignedVariables may = new AssignedVariables(cfg, DataFlowAnalysis.Meet.UNION);
+    assertThat(may.numberOfElements()).isEqualTo(3);
+    assertThat(names(may.in(cfg.entryBlock()))).isEmpty();
+    assertThat(names(may.in(exit))).containsOnly("x", "y", "z");
+
+    AssignedVariables must = new AssignedVariables(cfg, DataFlowAnalysis.Meet.INTERSECTION);
+    assertThat(names(must.in(cfg.entryBlock()))).isEmpty();
+    assertThat(names(must.in(exit))).containsOnly("x", "y");
+    assertThat(must.in(exit)).isEqualTo(must.out(exit));
+  }
+
+  @Test
+  void loop_at_method_entry() {
+    CFG cfg = buildCFG("void foo(boolean b) { while (b) { int x = 1; } }");
+    AssignedVariables must = new AssignedVariables(cfg, DataFlowAnalysis.Meet.INTERSECTION);
+    // the loop condition is the entry block: nothing is assigned when entering the method
+    assertThat(cfg.entryBlock().predecessors()).isNotEmpty();
+    assertThat(must.in(cfg.entryBlock())).isEmpty();
+    assertThat(must.in(cfg.exitBlock())).isEmpty();
+
+    AssignedVariables may = new AssignedVariables(cfg, DataFlowAnalysis.Meet.UNION);
+    assertThat(names(may.in(cfg.entryBlock()))).containsOnly("x");
+    assertThat(names(may.in(cfg.exitBlock()))).containsOnly("x");
+  }
+
+  @Test
+  void unreachable_exit_block() {
+    CFG cfg = buildCFG("void foo() { int x = 1; for (;;) { x = 2; } }");
+    assertThat(cfg.exitBlock().predecessors()).isEmpty();
+    AssignedVariables may = new AssignedVariables(cfg, DataFlowAnalysis.Meet.UNION);
+    assertThat(may.in(cfg.exitBlock())).isEmpty();
+    assertThat(names(may.out(cfg.entryBlock()))).containsOnly("x");
+  }
+
+  @Test
+  void element_sets() {
+    CFG cfg = buildCFG("void foo() { int x = 1; int y = 2; foo(); }");
+    AssignedVariables may = new AssignedVariables(cfg, DataFlowAnalysis.Meet.UNION);
+    Set<Symbol> assigned = may.in(cfg.exitBlock());
+
+    assertThat(assigned).hasSize(2);
+    assertThat(assigned).containsExactly(may.element(0), may.element(1));
+    assertThat(assigned.contains("x")).isFalse();
+    assertThat(may.inBits(cfg.exitBlock()).cardinality()).isEqualTo(2);
+    assertThat(may.in(cfg.entryBlock())).isEmpty();
+
+    Iterator<Symbol> iterator = may.in(cfg.entryBlock()).iterator();
+    assertThat(iterator.hasNext()).isFalse();
+    assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.tree.BlockTree;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ExpressionStatementTree;
+import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataFlowComputerTest {
+
+  private final DataFlowComputer computer = new DataFlowComputer();
+
+  @Test
+  void cfgs_are_computed_once() {
+    CompilationUnitTree cut = JParserTestUtils.parse(
+      "class A {" +
+        "  int field;" +
+        "  { int a = 1; }" +
+        "  void foo(int p) {" +
+        "    Runnable r = () -> { int b = p; };" +
+        "    field = p;" +
+        "    { p++; }" +
+        "  }" +
+        "  abstract void bar();" +
+        "}");
+    ClassTree classTree = (ClassTree) cut.types().get(0);
+    BlockTree initializer = (BlockTree) classTree.members().get(1);
+    MethodTree foo = (MethodTree) classTree.members().get(2);
+    MethodTree bar = (MethodTree) classTree.members().get(3);
+    LambdaExpressionTree lambda = (LambdaExpressionTree) ((VariableTree) foo.block().body().get(0)).initializer();
+    ExpressionStatementTree statement = (ExpressionStatementTree) foo.block().body().get(1);
+    BlockTree block = (BlockTree) foo.block().body().get(2);
+
+    assertThat(computer.getCfgs()).isEmpty();
+    assertThat(computer.methodCFG(bar)).isNull();
+
+    CFG methodCFG = computer.methodCFG(foo);
+    assertThat(methodCFG).isSameAs(foo.cfg()).isSameAs(computer.methodCFG(foo));
+    CFG lambdaCFG = computer.lambdaCFG(lambda);
+    assertThat(lambdaCFG).isSameAs(computer.lambdaCFG(lambda));
+    CFG initializerCFG = computer.blockCFG(initializer);
+    assertThat(initializerCFG).isSameAs(computer.blockCFG(initializer));
+    CFG blockCFG = computer.blockCFG(block);
+    assertThat(computer.getCfgs()).containsOnlyKeys(foo, lambda, initializer, block);
+
+    CFG statementCFG = computer.treeCFG(statement);
+    assertThat(statementCFG).isSameAs(computer.treeCFG(statement));
+    // the same block used as a single statement gives a different CFG
+    assertThat(computer.treeCFG(block)).isNotSameAs(blockCFG);
+    assertThat(computer.getStatementCfgs()).containsOnlyKeys(statement, block);
+
+    DataFlowComputer.Statistics statistics = computer.statistics();
+    assertThat(statistics.cfgBuilt()).isEqualTo(6);
+    assertThat(statistics.cfgReused()).isEqualTo(4);
+  }
+
+  @Test
+  void cfgs_with_method_symbol_do_not_change_shared_cfgs() {
+    CompilationUnitTree cut = JParserTestUtils.parse(
+      "class A {" +
+        "  void foo(int p) {" +
+        "    { p++; }" +
+        "  }" +
+        "}");
+    MethodTree foo = (MethodTree) ((ClassTree) cut.types().get(0)).members().get(0);
+    BlockTree block = (BlockTree) foo.block().body().get(0);
+
+    CFG sharedBlockCFG = computer.blockCFG(block);
+    CFG sharedStatementCFG = computer.treeCFG(block);
+    CFG ownedBlockCFG = computer.blockCFG(block, foo.symbol());
+    CFG ownedStatementCFG = computer.treeCFG(block, foo.symbol());
+
+    assertThat(ownedBlockCFG).isNotSameAs(sharedBlockCFG).isSameAs(computer.blockCFG(block, foo.symbol()));
+    assertThat(ownedStatementCFG).isNotSameAs(sharedStatementCFG).isSameAs(computer.treeCFG(block, foo.symbol()));
+    assertThat(ownedBlockCFG.methodSymbol()).isSameAs(foo.symbol());
+    assertThat(ownedStatementCFG.methodSymbol()).isSameAs(foo.symbol());
+    assertThat(sharedBlockCFG.methodSymbol()).isNull();
+    assertThat(sharedStatementCFG.methodSymbol()).isNull();
+
+    DataFlowComputer.Statistics statistics = computer.statistics();
+    assertThat(statistics.cfgBuilt()).isEqualTo(4);
+    assertThat(statistics.cfgReused()).isEqualTo(2);
+  }
+
+  @Test
+  void live_variables_are_computed_once() {
+    CompilationUnitTree cut = JParserTestUtils.parse(
+      "class A {" +
+        "  int field;" +
+        "  void foo(int p) {" +
+        "    field = p + field;" +
+        "  }" +
+        "}");
+    MethodTree foo = (MethodTree) ((ClassTree) cut.types().get(0)).members().get(1);
+    CFG cfg = computer.methodCFG(foo);
+
+    LiveVariables liveVariables = computer.liveVariables(cfg);
+    assertThat(computer.liveVariables(cfg)).isSameAs(liveVariables);
+    assertThat(liveVariables.getIn(cfg.entryBlock())).extracting(Symbol::name).containsOnly("p");
+
+    LiveVariables liveVariablesWithFields = computer.liveVariablesWithFields(cfg);
+    assertThat(liveVariablesWithFields).isNotSameAs(liveVariables);
+    assertThat(computer.liveVariablesWithFields(cfg)).isSameAs(liveVariablesWithFields);
+    assertThat(liveVariablesWithFields.getIn(cfg.entryBlock())).extracting(Symbol::name).containsOnly("p", "field");
+
+    assertThat(computer.getLiveVariables()).containsOnlyKeys(cfg);
+    assertThat(computer.getLiveVariablesWithFields()).containsOnlyKeys(cfg);
+
+    DataFlowComputer.Statistics statistics = new DataFlowComputer.Statistics();
+    statistics.add(computer.statistics());
+    statistics.add(computer.statistics());
+    assertThat(statistics.cfgBuilt()).isEqualTo(2);
+    assertThat(statistics.cfgReused()).isZero();
+    assertThat(statistics.liveVariablesComputed()).isEqualTo(4);
+    assertThat(statistics.liveVariablesReused()).isEqualTo(4);
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.cfg;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.IdentifierTree;
+import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.VariableTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReachingDefinitionsTest {
+
+  private MethodTree method;
+  private final List<IdentifierTree> usages = new ArrayList<>();
+
+  private CFG buildCFG(String methodCode) {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A { int field; " + methodCode + " void bar(Object o) {} }");
+    method = (MethodTree) ((ClassTree) cut.types().get(0)).members().get(1);
+    method.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitIdentifier(IdentifierTree tree) {
+        usages.add(tree);
+      }
+    });
+    return (CFG) method.cfg();
+  }
+
+  private IdentifierTree lastUsage(String name) {
+    return usages.stream().filter(usage -> usage.name().equals(name)).reduce((first, second) -> second).orElseThrow();
+  }
+
+  @Test
+  void computed_once_per_cfg() {
+    CFG cfg = buildCFG("void foo() { int a = 1; bar(a); }");
+    assertThat(cfg.reachingDefinitions()).isSameAs(cfg.reachingDefinitions());
+  }
+
+  @Test
+  void increments_and_compound_assignments() {
+    CFG cfg = buildCFG("void foo(int p) { int a = 1; a++; bar(a); int b = 2; b += p; bar(b); --p; bar(p); }");
+    ReachingDefinitions reachingDefinitions = cfg.reachingDefinitions();
+    assertThat(reachingDefinitions.reachingDefinitions(lastUsage("a"))).extracting(Tree::kind).containsExactly(Tree.Kind.POSTFIX_INCREMENT);
+    assertThat(reachingDefinitions.reachingDefinitions(lastUsage("b"))).extracting(Tree::kind).containsExactly(Tree.Kind.PLUS_ASSIGNMENT);
+    assertThat(reachingDefinitions.reachingDefinitions(lastUsage("p"))).extracting(Tree::kind).containsExactly(Tree.Kind.PREFIX_DECREMENT);
+    assertThat(reachingDefinitions.constantValue(lastUsage("a"))).isEmpty();
+    assertThat(reachingDefinitions.constantValue(lastUsage("b"))).isEmpty();
+    assertThat(reachingDefinitions.constantValue(lastUsage("p"))).isEmpty();
+  }
+
+  @Test
+  void loops() {
+    CFG cfg = buildCFG("void foo(java.util.List<String> list) { int a = 0; for (String s : list) { bar(s); bar(a); a = 0; } bar(a); }");
+    ReachingDefinitions reachingDefinitions = cfg.reachingDefinitions();
+    assertThat(reachingDefinitions.reachingDefinitions(lastUsage("s"))).extracting(Tree::kind).containsExactly(Tree.Kind.VARIABLE);
+    assertThat(reachingDefinitions.constantValue(lastUsage("s"))).isEmpty();
+    IdentifierTree aInLoop = usages.stream().filter(usage -> usage.name().equals("a")).toList().get(1);
+    assertThat(reachingDefinitions.reachingDefinitions(aInLoop)).hasSize(2);
+    assertThat(reachingDefinitions.constantValue(aInLoop)).contains(0);
+    assertThat(reachingDefinitions.constantValue(lastUsage("a"))).contains(0);
+  }
+
+  @Test
+  void not_local_variables() {
+    CFG cfg = buildCFG("void foo() { field = 1; bar(field); bar(this.field); }");
+    ReachingDefinitions reachingDefinitions = cfg.reachingDefinitions();
+    assertThat(reachingDefinitions.reachingDefinitions(lastUsage("field"))).isNull();
+    assertThat(reachingDefinitions.reachingDefinitions(lastUsage("bar"))).isNull();
+    assertThat(reachingDefinitions.constantValue(lastUsage("field"))).isEmpty();
+    assertThat(reachingDefinitions.numberOfElements()).isZero();
+  }
+
+  @Test
+  void variables_without_initializer() {
+    CFG cfg = buildCFG("void foo(boolean b) { int a; if (b) { a = 1; } else { a = 2; } bar(a); int c; c = 3; bar(c); }");
+    ReachingDefinitions reachingDefinitions = cfg.reachingDefinitions();
+    assertThat(reachingDefinitions.reachingDefinitions(lastUsage("a"))).hasSize(2);
+    assertThat(reachingDefinitions.constantValue(lastUsage("a"))).isEmpty();
+    assertThat(reachingDefinitions.constantValue(lastUsage("c"))).contains(3);
+  }
+
+  @Test
+  void parameters_have_unknown_value() {
+    buildCFG("void foo(int p) { java.util.function.IntUnaryOperator op = (int x) -> { if (x > 3) { x = 1; } return x; }; bar(p); }");
+    LambdaExpressionTree lambda = (LambdaExpressionTree) ((VariableTree) method.block().body().get(0)).initializer();
+    ReachingDefinitions reachingDefinitions = ((CFG) lambda.cfg()).reachingDefinitions();
+    assertThat(reachingDefinitions.reachingDefinitions(lastUsage("x"))).containsExactlyInAnyOrder(lambda.parameters().get(0),
+      lastUsage("x").symbol().usages().get(1).parent());
+    assertThat(reachingDefinitions.constantValue(lastUsage("x"))).isEmpty();
+
+    ReachingDefinitions methodReachingDefinitions = ((CFG) method.cfg()).reachingDefinitions();
+    assertThat(methodReachingDefinitions.reachingDefinitions(lastUsage("p"))).containsExactly(method.parameters().get(0));
+    assertThat(methodReachingDefinitions.constantValue(lastUsage("p"))).isEmpty();
+  }
+}
@@ -16,11 +16,18 @@
  */
 package org.sonar.java.metrics;
 
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.sonar.java.model.JParserTestUtils;
+import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.StatementTree;
+import org.sonar.plugins.java.api.tree.SyntaxToken;
+import org.sonar.plugins.java.api.tree.Tree;
+import org.sonar.plugins.java.api.tree.VariableTree;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -48,42 +55,104 @@ class MetricsComputerTest implements MetricsScannerContext {
     
     MethodTree methodTree = (MethodTree) ((ClassTree) cut.types().get(0)).members().get(0);
 
-    assertThat(mc.getMethodComplexityNodes()).isEmpty();
-    mc.getComplexityNodes(methodTree).size();
-    assertThat(mc.getMethodComplexityNodes()).containsKey(methodTree.hashCode());
-
     assertThat(mc.getMethodComplexity()).isEmpty();
     mc.getMethodComplexity(methodTree);
-    assertThat(mc.getMethodComplexity()).containsKey(methodTree.hashCode());
+    assertThat(mc.getMethodComplexity()).containsKey(methodTree);
     
     assertThat(mc.getMethodNumberOfDefinedVariables()).isEmpty();
     mc.getNumberOfDefinedVariables(methodTree);
-    assertThat(mc.getMethodNumberOfDefinedVariables()).containsKey(methodTree.hashCode());
-    
-    assertThat(mc.getTreeLinesOfCode()).isEmpty();
-    mc.getLinesOfCode(methodTree);
-    assertThat(mc.getTreeLinesOfCode()).containsKey(methodTree.hashCode());
-    
-    assertThat(mc.getTreeNumberOfStatements()).isEmpty();
-    mc.getNumberOfStatements(methodTree);
-    assertThat(mc.getTreeNumberOfStatements()).containsKey(methodTree.hashCode());
-    
-    assertThat(mc.getTreeNumberOfCommentedLines()).isEmpty();
-    mc.getNumberOfCommentedLines(cut);
-    assertThat(mc.getTreeNumberOfCommentedLines()).containsKey(cut.hashCode());
-    
-    assertThat(mc.getTreeNoSonarLines()).isEmpty();
-    mc.getNoSonarLines(cut);
-    assertThat(mc.getTreeNoSonarLines()).containsKey(cut.hashCode());
-    
-    assertThat(mc.getCompilationUnityComplexity()).isEmpty();
-    mc.getCompilationUnitComplexity(cut);
-    assertThat(mc.getCompilationUnityComplexity()).containsKey(cut.hashCode());
-    
+    assertThat(mc.getMethodNumberOfDefinedVariables()).containsKey(methodTree);
+
     assertThat(mc.getMethodNestingLevel()).isEmpty();
     mc.getMethodNestingLevel(methodTree);
-    assertThat(mc.getMethodNestingLevel()).containsKey(methodTree.hashCode());
-    
+    assertThat(mc.getMethodNestingLevel()).containsKey(methodTree);
+
+    assertThat(mc.getFileMetricsComputations()).isZero();
+    assertThat(mc.getComplexityNodes(methodTree)).hasSize(6);
+    assertThat(mc.getLinesOfCode(methodTree)).isEqualTo(1);
+    assertThat(mc.getNumberOfStatements(methodTree)).isEqualTo(10);
+    assertThat(mc.getNumberOfCommentedLines(cut)).isZero();
+    assertThat(mc.getNoSonarLines(cut)).isEmpty();
+    assertThat(mc.getCompilationUnitComplexity(cut)).isEqualTo(11);
+    assertThat(mc.getComplexityNodes(cut)).hasSize(6);
+    // all the metrics come from a single traversal of the file
+    assertThat(mc.getFileMetricsComputations()).isEqualTo(1);
+  }
+
+  @Test
+  void file_metrics() {
+    CompilationUnitTree cut = JParserTestUtils.parse(
+      "/* header */\n" +
+        "class A {\n" +
+        "  // comment\n" +
+        "  int f = 0; // NOSONAR\n" +
+        "  void foo(int p) {\n" +
+        "    int a = 0,\n" +
+        "      b = 1;\n" +
+        "    for (int i = 0, j = 0; i < 3; i++, j++) {\n" +
+        "      try (Object o = null) { a++; } catch (Exception e) { }\n" +
+        "    }\n" +
+        "  }\n" +
+        "}\n" +
+        "/*\n" +
+        " * trailing\n" +
+        " */\n");
+    assertThat(mc.getLinesOfCode(cut)).isEqualTo(10);
+    assertThat(mc.getNumberOfCommentedLines(cut)).isEqualTo(2);
+    assertThat(mc.getNoSonarLines(cut)).containsExactly(4);
+    // variable declarations (f, a and b, i and j): 3, for: 1, try: 1 - 1 resource - 1 catch, a++: 1
+    assertThat(mc.getNumberOfStatements(cut)).isEqualTo(4);
+    assertThat(mc.getFileMetricsComputations()).isEqualTo(1);
+  }
+
+  @Test
+  void method_complexity_nodes_exclude_nested_classes_and_lambdas() {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A {" +
+      " Object foo(){" +
+      "   if(a && b) { " +
+      "    return new MyClass(){ " +
+      "        void bar(){" +
+      "            if(a) {return;} " +
+      "        } " +
+      "    };" +
+      "   }" +
+      "   Runnable r = () -> { while (c) {} };" +
+      "   return a ? 1 : 2;" +
+      " }" +
+      "}");
+    MethodTree foo = (MethodTree) ((ClassTree) cut.types().get(0)).members().get(0);
+    List<Tree> nodes = mc.getComplexityNodes(foo);
+    assertThat(nodes).extracting(node -> ((SyntaxToken) node).text()).containsExactly("foo", "if", "&&", "?");
+    assertThat(mc.getComplexityNodes(cut)).extracting(node -> ((SyntaxToken) node).text())
+      .containsExactly("foo", "if", "&&", "bar", "if", "->", "while", "?");
   }
-  
+
+  @Test
+  void lines_of_code_of_trees() {
+    CompilationUnitTree cut = JParserTestUtils.parse("class A {\n" +
+      "  Object foo() {\n" +
+      "    int a,\n" +
+      "\n" +
+      "      b;\n" +
+      "    Runnable r = () -> {\n" +
+      "      foo();\n" +
+      "    };\n" +
+      "    return null;\n" +
+      "  }\n" +
+      "}\n");
+    ClassTree classTree = (ClassTree) cut.types().get(0);
+    MethodTree foo = (MethodTree) classTree.members().get(0);
+    BlockTree block = foo.block();
+    List<StatementTree> body = block.body();
+    ExpressionTree lambda = ((VariableTree) body.get(2)).initializer();
+
+    assertThat(mc.getLinesOfCode(classTree)).isEqualTo(10);
+    assertThat(mc.getLinesOfCode(block)).isEqualTo(8);
+    assertThat(mc.getLinesOfCode(lambda)).isEqualTo(3);
+    assertThat(mc.getLinesOfCode(body.get(0))).isEqualTo(1);
+    // the type of "b" is shared with "a"
+    assertThat(mc.getLinesOfCode(body.get(1))).isEqualTo(2);
+    assertThat(mc.getLinesOfCode(body.get(3))).isEqualTo(1);
+  }
+
 }
@@ -0,0 +1,131 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.java.api.FileTextIndex;
+import org.sonar.plugins.java.api.JavaFileScannerContext;
+import org.sonar.plugins.java.api.tree.SyntaxTrivia.CommentKind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class DefaultFileTextIndexTest {
+
+  private static final String SOURCE = """
+    // header TODO
+    class A {
+      /**
+       * Javadoc with fixme: and todo
+       */
+      void m() {} // NOSONAR
+      /* TODOS are not tags, nor xTODO
+         but todo, TODO and FIXME are */
+      int a; // nopmd and CHECKSTYLE:OFF
+    }
+    """;
+
+  @Test
+  void lines() {
+    String content = "a\r\nbc\rd\n";
+    FileTextIndex index = new DefaultFileTextIndex(() -> content, null);
+    assertThat(index.lineCount()).isEqualTo(3);
+    assertThat(index.lineStartOffset(1)).isZero();
+    assertThat(index.lineLength(1)).isEqualTo(1);
+    assertThat(index.lineStartOffset(2)).isEqualTo(3);
+    assertThat(index.lineLength(2)).isEqualTo(2);
+    assertThat(index.lineStartOffset(3)).isEqualTo(6);
+    assertThat(index.lineLength(3)).isEqualTo(1);
+    assertThatThrownBy(() -> index.lineLength(4))
+      .isInstanceOf(IndexOutOfBoundsException.class)
+      .hasMessage("Line 4 is not in [1, 3]");
+    assertThatThrownBy(() -> index.lineStartOffset(0)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  void comments() {
+    FileTextIndex index = index(SOURCE);
+    List<FileTextIndex.Comment> comments = index.comments();
+    assertThat(comments).extracting(FileTextIndex.Comment::startLine).containsExactly(1, 3, 6, 7, 9);
+    assertThat(comments).extracting(FileTextIndex.Comment::endLine).containsExactly(1, 5, 6, 8, 9);
+    assertThat(comments).extracting(FileTextIndex.Comment::kind)
+      .containsExactly(CommentKind.LINE, CommentKind.JAVADOC, CommentKind.LINE, CommentKind.BLOCK, CommentKind.LINE);
+    assertThat(index.comments()).isSameAs(comments);
+  }
+
+  @Test
+  void comments_without_tree() {
+    assertThat(new DefaultFileTextIndex(() -> "", null).comments()).isEmpty();
+  }
+
+  @Test
+  void comment_lines_with_tag() {
+    FileTextIndex index = index(SOURCE);
+    assertThat(index.commentLinesWithTag("TODO")).containsExactly(1, 4, 8);
+    assertThat(index.commentLinesWithTag("todo")).isSameAs(index.commentLinesWithTag("TODO"));
+    assertThat(index.commentLinesWithTag("FIXME")).containsExactly(4, 8);
+    assertThat(index.commentLinesWithTag("NOSONAR")).containsExactly(6);
+    assertThat(index.commentLinesWithTag("NOPMD")).containsExactly(9);
+    assertThat(index.commentLinesWithTag("CHECKSTYLE:OFF")).containsExactly(9);
+    // not indexed tags are searched on demand
+    assertThat(index.commentLinesWithTag("nor")).containsExactly(7);
+    assertThat(index.commentLinesWithTag("class")).isEmpty();
+  }
+
+  @Test
+  void only_first_occurrence_of_a_tag_on_a_line_is_considered() {
+    FileTextIndex index = index("""
+      class A {
+        // xTODO TODO
+        // TODO xTODO
+      }
+      """);
+    assertThat(index.commentLinesWithTag("TODO")).containsExactly(3);
+  }
+
+  @Test
+  void line_is_repeated_for_each_comment_containing_the_tag_on_it() {
+    FileTextIndex index = index("""
+      class A {
+        /* TODO first */ int a; // TODO second
+        /* NOSONAR */ /* NOSONAR */ int b; /* TODO
+        TODO */
+      }
+      """);
+    assertThat(index.commentLinesWithTag("TODO")).containsExactly(2, 2, 3, 4);
+    assertThat(index.commentLinesWithTag("NOSONAR")).containsExactly(3, 3);
+  }
+
+  @Test
+  void scanner_contexts_index_their_file_by_default() {
+    String source = "class A {} // TODO";
+    JavaFileScannerContext context = mock(JavaFileScannerContext.class, CALLS_REAL_METHODS);
+    doReturn(source).when(context).getFileContent();
+    doReturn(JParserTestUtils.parse(source)).when(context).getTree();
+    assertThat(context.getFileTextIndex().lineCount()).isEqualTo(1);
+    assertThat(context.getFileTextIndex().commentLinesWithTag("TODO")).containsExactly(1);
+  }
+
+  private static FileTextIndex index(String source) {
+    return new DefaultFileTextIndex(() -> source, JParserTestUtils.parse(source));
+  }
+
+}
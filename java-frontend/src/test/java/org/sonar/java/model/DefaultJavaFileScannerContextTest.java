@@ -26,6 +26,7 @@ import org.sonar.java.regex.RegexParserTestUtils;
 import org.sonar.java.reporting.AnalyzerMessage;
 import org.sonar.java.reporting.AnalyzerMessage.TextSpan;
 import org.sonar.java.reporting.FluentReporting;
+import org.sonar.plugins.java.api.FileTextIndex;
 import org.sonar.plugins.java.api.JavaFileScannerContext;
 import org.sonar.plugins.java.api.JavaFileScannerContext.Location;
 import org.sonar.plugins.java.api.SourceMap;
@@ -51,6 +52,15 @@ class DefaultJavaFileScannerContextTest extends DefaultInputFileScannerContextTe
     assertThat(context.getComplexityNodes(compilationUnitTree)).isEmpty();
   }
 
+  @Test
+  void get_file_text_index() {
+    FileTextIndex textIndex = context.getFileTextIndex();
+    assertThat(textIndex).isSameAs(context.getFileTextIndex());
+    // computed from the content of the file, "content"
+    assertThat(textIndex.lineCount()).isEqualTo(1);
+    assertThat(textIndex.lineLength(1)).isEqualTo(7);
+  }
+
   @Test
   void get_tree() {
     assertThat(context.getTree()).isEqualTo(compilationUnitTree);
@@ -17,6 +17,7 @@
 package org.sonar.java.model;
 
 import java.io.File;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
@@ -25,6 +26,8 @@ import org.sonar.api.SonarRuntime;
 import org.sonar.api.batch.fs.InputComponent;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.config.Configuration;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.java.ProjectSummaryStore;
 import org.sonar.java.SonarComponents;
 import org.sonar.java.caching.DummyCache;
 import org.sonar.plugins.java.api.JavaCheck;
@@ -266,4 +269,53 @@ class DefaultModuleScannerContextTest {
 
     assertThat(context.getConfiguration()).isSameAs(configuration);
   }
+
+  @Test
+  void getTypeHierarchy_returns_the_hierarchy_of_the_module() {
+    var sonarComponents = new SonarComponents(null, null, null, null, null, null);
+    var context = new DefaultModuleScannerContext(sonarComponents, JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION, false, null);
+    var otherContext = new DefaultModuleScannerContext(sonarComponents, JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION, false, null);
+    assertThat(context.getTypeHierarchy())
+      .isSameAs(sonarComponents.typeHierarchy())
+      .isSameAs(otherContext.getTypeHierarchy());
+
+    var contextWithoutModule = new DefaultModuleScannerContext(null, JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION, false, null);
+    assertThat(contextWithoutModule.getTypeHierarchy()).isNotNull();
+  }
+
+  @Test
+  void writeProjectSummary_writes_to_the_store_of_sonarComponents() {
+    var store = mock(ProjectSummaryStore.class);
+    doReturn(true).when(store).write(any(), any(), any());
+    var sonarComponents = mock(SonarComponents.class);
+    doReturn(store).when(sonarComponents).projectSummaryStore();
+    doReturn(Optional.of(RuleKey.of("java", "S4605"))).when(sonarComponents).getRuleKey(any());
+    doReturn(Optional.of("project:module")).when(sonarComponents).getFullyQualifiedModuleKey();
+    var context = new DefaultModuleScannerContext(sonarComponents, JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION, false, null);
+    byte[] summary = {1, 2, 3};
+
+    assertThat(context.writeProjectSummary(new JavaCheck() {
+    }, summary)).isTrue();
+    verify(store).write("java:S4605", "project:module", summary);
+  }
+
+  @Test
+  void writeProjectSummary_fails_without_store_or_rule_key() {
+    var check = new JavaCheck() {
+    };
+    byte[] summary = {1, 2, 3};
+    assertThat(new DefaultModuleScannerContext(null, JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION, false, null)
+      .writeProjectSummary(check, summary)).isFalse();
+
+    var sonarComponents = mock(SonarComponents.class);
+    assertThat(new DefaultModuleScannerContext(sonarComponents, JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION, false, null)
+      .writeProjectSummary(check, summary)).isFalse();
+
+    var store = mock(ProjectSummaryStore.class);
+    doReturn(store).when(sonarComponents).projectSummaryStore();
+    doReturn(Optional.empty()).when(sonarComponents).getRuleKey(any());
+    assertThat(new DefaultModuleScannerContext(sonarComponents, JParserConfig.MAXIMUM_SUPPORTED_JAVA_VERSION, false, null)
+      .writeProjectSummary(check, summary)).isFalse();
+    verify(store, never()).write(any(), any(), any());
+  }
 }
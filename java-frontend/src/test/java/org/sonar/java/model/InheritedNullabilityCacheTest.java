@@ -0,0 +1,152 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.java.api.semantic.Symbol;
+import org.sonar.plugins.java.api.semantic.SymbolMetadata.AnnotationInstance;
+import org.sonar.plugins.java.api.semantic.SymbolMetadata.NullabilityData;
+import org.sonar.plugins.java.api.semantic.SymbolMetadata.NullabilityLevel;
+import org.sonar.plugins.java.api.semantic.SymbolMetadata.NullabilityTarget;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+import org.sonar.plugins.java.api.tree.MethodTree;
+import org.sonar.plugins.java.api.tree.NewClassTree;
+import org.sonar.plugins.java.api.tree.ReturnStatementTree;
+import org.sonar.plugins.java.api.tree.Tree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InheritedNullabilityCacheTest {
+
+  private static final String SOURCE = """
+    package org.foo;
+    class A {
+      static class Nested {}
+      Object m() {
+        class Local {}
+        return new Object() {};
+      }
+    }
+    class B extends Unknown {}
+    """;
+
+  @Test
+  void keys() {
+    CompilationUnitTree cut = JParserTestUtils.parse(SOURCE);
+    ClassTree a = (ClassTree) cut.types().get(0);
+    ClassTree nested = (ClassTree) a.members().get(0);
+    MethodTree m = (MethodTree) a.members().get(1);
+    ClassTree local = (ClassTree) m.block().body().get(0);
+    ClassTree anonymous = ((NewClassTree) ((ReturnStatementTree) m.block().body().get(1)).expression()).classBody();
+
+    assertThat(InheritedNullabilityCache.key(a.symbol().owner())).isEqualTo("org.foo.package-info");
+    assertThat(InheritedNullabilityCache.key(a.symbol())).isEqualTo("org.foo.A");
+    assertThat(InheritedNullabilityCache.key(nested.symbol())).isEqualTo("org.foo.A$Nested");
+    assertThat(InheritedNullabilityCache.key(local.symbol())).isNull();
+    assertThat(InheritedNullabilityCache.key(anonymous.symbol())).isNull();
+    assertThat(InheritedNullabilityCache.key(m.symbol())).isNull();
+    assertThat(InheritedNullabilityCache.key(Symbol.TypeSymbol.UNKNOWN_TYPE)).isNull();
+  }
+
+  @Test
+  void nullability_is_shared_between_files() {
+    InheritedNullabilityCache cache = new InheritedNullabilityCache();
+    Symbol classInFirstFile = firstType(JParserTestUtils.parse(SOURCE));
+    Symbol classInSecondFile = firstType(JParserTestUtils.parse(SOURCE));
+    NullabilityData noAnnotation = JSymbolMetadata.noNullabilityAnnotationAt(NullabilityLevel.PACKAGE);
+    AtomicInteger resolutions = new AtomicInteger();
+    Supplier<NullabilityData> resolver = () -> {
+      resolutions.incrementAndGet();
+      return noAnnotation;
+    };
+
+    assertThat(cache.nullabilityData(classInFirstFile, NullabilityTarget.METHOD, resolver)).isSameAs(noAnnotation);
+    assertThat(cache.nullabilityData(classInSecondFile, NullabilityTarget.METHOD, resolver)).isSameAs(noAnnotation);
+    assertThat(resolutions).hasValue(1);
+
+    // targets are cached separately
+    cache.nullabilityData(classInSecondFile, NullabilityTarget.PARAMETER, resolver);
+    assertThat(resolutions).hasValue(2);
+  }
+
+  @Test
+  void nullability_from_annotation_is_not_cached() {
+    InheritedNullabilityCache cache = new InheritedNullabilityCache();
+    Symbol symbol = firstType(JParserTestUtils.parse(SOURCE));
+    NullabilityData annotated = mock(NullabilityData.class);
+    when(annotated.annotation()).thenReturn(mock(AnnotationInstance.class));
+    AtomicInteger resolutions = new AtomicInteger();
+    Supplier<NullabilityData> resolver = () -> {
+      resolutions.incrementAndGet();
+      return annotated;
+    };
+
+    assertThat(cache.nullabilityData(symbol, NullabilityTarget.METHOD, resolver)).isSameAs(annotated);
+    assertThat(cache.nullabilityData(symbol, NullabilityTarget.METHOD, resolver)).isSameAs(annotated);
+    assertThat(resolutions).hasValue(2);
+  }
+
+  @Test
+  void nullability_of_local_classes_is_not_cached() {
+    InheritedNullabilityCache cache = new InheritedNullabilityCache();
+    CompilationUnitTree cut = JParserTestUtils.parse(SOURCE);
+    MethodTree m = (MethodTree) ((ClassTree) cut.types().get(0)).members().get(1);
+    Symbol local = ((ClassTree) m.block().body().get(0)).symbol();
+    AtomicInteger resolutions = new AtomicInteger();
+    Supplier<NullabilityData> resolver = () -> {
+      resolutions.incrementAndGet();
+      return JSymbolMetadata.noNullabilityAnnotationAt(NullabilityLevel.CLASS);
+    };
+
+    cache.nullabilityData(local, NullabilityTarget.METHOD, resolver);
+    cache.nullabilityData(local, NullabilityTarget.METHOD, resolver);
+    assertThat(resolutions).hasValue(2);
+  }
+
+  @Test
+  void sema_uses_the_cache_when_walking_enclosing_symbols() {
+    CompilationUnitTree first = JParserTestUtils.parse(SOURCE);
+    CompilationUnitTree second = JParserTestUtils.parse(SOURCE);
+    InheritedNullabilityCache cache = new InheritedNullabilityCache();
+    ((JavaTree.CompilationUnitTreeImpl) first).sema.inheritedNullabilityCache = cache;
+    ((JavaTree.CompilationUnitTreeImpl) second).sema.inheritedNullabilityCache = cache;
+
+    NullabilityData inFirstFile = method(first).metadata().nullabilityData();
+    NullabilityData inSecondFile = method(second).metadata().nullabilityData();
+
+    assertThat(inFirstFile.type()).isEqualTo(inSecondFile.type());
+    assertThat(inFirstFile.level()).isEqualTo(NullabilityLevel.PACKAGE);
+    assertThat(cache.nullabilityData(firstType(second), NullabilityTarget.METHOD, () -> {
+      throw new IllegalStateException("Should be cached");
+    })).isSameAs(inSecondFile);
+  }
+
+  private static Symbol firstType(CompilationUnitTree cut) {
+    return ((ClassTree) cut.types().get(0)).symbol();
+  }
+
+  private static Symbol method(CompilationUnitTree cut) {
+    Tree member = ((ClassTree) cut.types().get(0)).members().get(1);
+    return ((MethodTree) member).symbol();
+  }
+
+}
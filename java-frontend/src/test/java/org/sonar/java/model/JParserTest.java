@@ -64,6 +64,7 @@ import org.sonar.plugins.java.api.JavaVersion;
 import org.sonar.plugins.java.api.location.Range;
 import org.sonar.plugins.java.api.semantic.Symbol;
 import org.sonar.plugins.java.api.tree.ArrayTypeTree;
+import org.sonar.plugins.java.api.tree.BinaryExpressionTree;
 import org.sonar.plugins.java.api.tree.BlockTree;
 import org.sonar.plugins.java.api.tree.CaseGroupTree;
 import org.sonar.plugins.java.api.tree.CaseLabelTree;
@@ -71,8 +72,10 @@ import org.sonar.plugins.java.api.tree.CatchTree;
 import org.sonar.plugins.java.api.tree.ClassTree;
 import org.sonar.plugins.java.api.tree.CompilationUnitTree;
 import org.sonar.plugins.java.api.tree.EnumConstantTree;
+import org.sonar.plugins.java.api.tree.ExpressionTree;
 import org.sonar.plugins.java.api.tree.ForEachStatement;
 import org.sonar.plugins.java.api.tree.ForStatementTree;
+import org.sonar.plugins.java.api.tree.IfStatementTree;
 import org.sonar.plugins.java.api.tree.LambdaExpressionTree;
 import org.sonar.plugins.java.api.tree.MethodTree;
 import org.sonar.plugins.java.api.tree.RecordPatternTree;
@@ -283,6 +286,52 @@ class JParserTest {
     assertThat(s2.simpleName().isUnnamedVariable()).isFalse();
   }
 
+  @Test
+  void statement_else_if_chain() {
+    CompilationUnitTree t = test("class C { int m(int x) { if (x == 0) return 0; else if (x == 1) return 1; else if (x == 2) { return 2; } else return -1; } }");
+    ClassTree c = (ClassTree) t.types().get(0);
+    MethodTree m = (MethodTree) c.members().get(0);
+    BlockTree s = m.block();
+    assertNotNull(s);
+    IfStatementTree if0 = (IfStatementTree) s.body().get(0);
+    IfStatementTree if1 = (IfStatementTree) if0.elseStatement();
+    IfStatementTree if2 = (IfStatementTree) if1.elseStatement();
+    assertThat(if0.condition().lastToken().text()).isEqualTo("0");
+    assertThat(if1.condition().lastToken().text()).isEqualTo("1");
+    assertThat(if2.condition().lastToken().text()).isEqualTo("2");
+    assertThat(if2.thenStatement().is(Tree.Kind.BLOCK)).isTrue();
+    assertThat(if2.elseStatement().is(Tree.Kind.RETURN_STATEMENT)).isTrue();
+    assertThat(if0.elseKeyword().range().start().columnOffset()).isEqualTo(47);
+    assertThat(if1.elseKeyword().range().start().columnOffset()).isEqualTo(74);
+    assertThat(if2.elseKeyword().range().start().columnOffset()).isEqualTo(105);
+    assertSame(if0, if1.parent());
+    assertSame(if1, if2.parent());
+    assertThat(if0.lastToken().range().start().columnOffset()).isEqualTo(119);
+  }
+
+  @Test
+  void expression_infix_with_mixed_operators() {
+    CompilationUnitTree t = test("class C { long m(int x, long y) { return x - 1 + y - 2 * x + x; } }");
+    ClassTree c = (ClassTree) t.types().get(0);
+    MethodTree m = (MethodTree) c.members().get(0);
+    BlockTree s = m.block();
+    assertNotNull(s);
+    BinaryExpressionTree e = (BinaryExpressionTree) ((ReturnStatementTree) s.body().get(0)).expression();
+    List<Tree.Kind> kinds = new ArrayList<>();
+    List<String> types = new ArrayList<>();
+    ExpressionTree operand = e;
+    while (operand instanceof BinaryExpressionTree binary) {
+      kinds.add(binary.kind());
+      types.add(binary.symbolType().name());
+      assertSame(binary, binary.rightOperand().parent());
+      operand = binary.leftOperand();
+    }
+    assertThat(kinds).containsExactly(Tree.Kind.PLUS, Tree.Kind.MINUS, Tree.Kind.PLUS, Tree.Kind.MINUS);
+    assertThat(types).containsExactly("long", "long", "long", "int");
+    assertThat(operand.firstToken().text()).isEqualTo("x");
+    assertThat(((BinaryExpressionTree) e.leftOperand()).rightOperand().is(Tree.Kind.MULTIPLY)).isTrue();
+  }
+
   @Test
   void parse_static_method_invocation_on_a_conditional_expression_with_null_literal_on_the_else_operand() {
     List<File> classpath = List.of();
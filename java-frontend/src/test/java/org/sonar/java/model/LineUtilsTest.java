@@ -77,6 +77,14 @@ class LineUtilsTest {
       .containsExactly("a", "", "b", "", "c", "", "d", "", "");
   }
 
+  @Test
+  void line_boundaries() {
+    assertThat(LineUtils.lineBoundaries("")).containsExactly(0, 0);
+    assertThat(LineUtils.lineBoundaries("foo")).containsExactly(0, 3);
+    assertThat(LineUtils.lineBoundaries("foo\n")).containsExactly(0, 3);
+    assertThat(LineUtils.lineBoundaries("a\r\nbc\rd")).containsExactly(0, 1, 3, 5, 6, 7);
+  }
+
   @Test
   void start_Line() {
     assertThat(startLine(tree)).isEqualTo(1);
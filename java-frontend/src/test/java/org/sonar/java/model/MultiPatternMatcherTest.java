@@ -0,0 +1,69 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultiPatternMatcherTest {
+
+  @Test
+  void finds_all_occurrences_of_all_patterns() {
+    List<String> patterns = List.of("he", "she", "his", "hers");
+    assertThat(matches(patterns, "ushers")).containsExactly("she@1", "he@2", "hers@2");
+    assertThat(matches(patterns, "ahishers")).containsExactly("his@1", "she@3", "he@4", "hers@4");
+    assertThat(matches(patterns, "nothing")).isEmpty();
+    assertThat(matches(patterns, "")).isEmpty();
+  }
+
+  @Test
+  void ignores_case() {
+    List<String> patterns = List.of("TODO", "NOSONAR");
+    assertThat(matches(patterns, "// todo: NoSonar")).containsExactly("TODO@3", "NOSONAR@9");
+  }
+
+  @Test
+  void finds_overlapping_occurrences() {
+    List<String> patterns = List.of("aa", "a");
+    assertThat(matches(patterns, "aaa")).containsExactly("a@0", "aa@0", "a@1", "aa@1", "a@2");
+  }
+
+  @Test
+  void follows_suffix_links_after_a_mismatch() {
+    List<String> patterns = List.of("abcd", "bce");
+    assertThat(matches(patterns, "abce")).containsExactly("bce@1");
+  }
+
+  @Test
+  void empty_pattern_is_rejected() {
+    List<String> patterns = List.of("a", "");
+    assertThatThrownBy(() -> new MultiPatternMatcher(patterns))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Patterns can not be empty");
+  }
+
+  private static List<String> matches(List<String> patterns, String text) {
+    List<String> result = new ArrayList<>();
+    new MultiPatternMatcher(patterns).find(text, (patternIndex, start) -> result.add(patterns.get(patternIndex) + "@" + start));
+    return result;
+  }
+
+}
@@ -238,6 +238,69 @@ class SyntacticEquivalenceTest {
     assertThat(SyntacticEquivalence.areSemanticallyEquivalent(f2Body, f1Body)).isFalse();
   }
 
+  @Test
+  void syntactic_hash_is_consistent_with_equivalence() {
+    CompilationUnitTree compilationUnitTree = compilationUnitTree(
+      "class A{" +
+        "  void f1(int a) { foo(a, 1); bar(x -> x); }" +
+        "  void f2(int a) { foo(a, 1); bar(x -> x); }" +
+        "  void f3(int a) { foo(a, 2); bar(x -> x); }" +
+        "  void f4(int a) { foo(a, 1); }" +
+        "}");
+    List<Tree> members = ((ClassTree) compilationUnitTree.types().get(0)).members();
+    List<StatementTree> f1Body = ((MethodTree) members.get(0)).block().body();
+    List<StatementTree> f2Body = ((MethodTree) members.get(1)).block().body();
+    List<StatementTree> f3Body = ((MethodTree) members.get(2)).block().body();
+    List<StatementTree> f4Body = ((MethodTree) members.get(3)).block().body();
+
+    assertThat(SyntacticEquivalence.syntacticHash(f1Body)).isEqualTo(SyntacticEquivalence.syntacticHash(f2Body));
+    assertThat(SyntacticEquivalence.syntacticHash(f1Body)).isNotEqualTo(SyntacticEquivalence.syntacticHash(f3Body));
+    assertThat(SyntacticEquivalence.syntacticHash(f1Body)).isNotEqualTo(SyntacticEquivalence.syntacticHash(f4Body));
+    assertThat(SyntacticEquivalence.syntacticHash(f1Body.get(0))).isEqualTo(SyntacticEquivalence.syntacticHash(f4Body.get(0)));
+    assertThat(SyntacticEquivalence.syntacticHash(f1Body.get(0))).isNotEqualTo(SyntacticEquivalence.syntacticHash(f1Body.get(1)));
+    assertThat(SyntacticEquivalence.syntacticHash(members.get(0))).isNotEqualTo(SyntacticEquivalence.syntacticHash(members.get(1)));
+    assertThat(SyntacticEquivalence.syntacticHash((Tree) null)).isZero();
+
+    JavaTree.NotImplementedTreeImpl notImplementedTree = new JavaTree.NotImplementedTreeImpl();
+    assertThat(SyntacticEquivalence.syntacticHash(notImplementedTree)).isEqualTo(SyntacticEquivalence.syntacticHash(new JavaTree.NotImplementedTreeImpl()));
+  }
+
+  @Test
+  void syntactic_hash_is_memoized() {
+    StatementTree statement = ((MethodTree) ((ClassTree) compilationUnitTree("class A { void m() { foo(1); } }").types().get(0)).members().get(0))
+      .block().body().get(0);
+    int hash = SyntacticEquivalence.syntacticHash(statement);
+    assertThat(hash).isNotZero();
+    assertThat(SyntacticEquivalence.syntacticHash(statement)).isEqualTo(hash);
+  }
+
+  @Test
+  void syntactic_hash_including_same_variables() {
+    CompilationUnitTree compilationUnitTree = compilationUnitTree(
+      "class A{" +
+        "  Object o;" +
+        "  void m() {" +
+        "    System.out.println(o);" +
+        "    System.out.println(o);" +
+        "    String o = \"hello\";" +
+        "    System.out.println(o);" +
+        "    System.out.println(unknown);" +
+        "  }" +
+        "}");
+    List<Tree> members = ((ClassTree) compilationUnitTree.types().get(0)).members();
+    List<StatementTree> mBody = ((MethodTree) members.get(1)).block().body();
+
+    StatementTree print1 = mBody.get(0);
+    StatementTree print2 = mBody.get(1);
+    StatementTree print3 = mBody.get(3);
+
+    assertThat(SyntacticEquivalence.syntacticHash(print1)).isEqualTo(SyntacticEquivalence.syntacticHash(print3));
+    assertThat(SyntacticEquivalence.syntacticHashIncludingSameVariables(print1)).isEqualTo(SyntacticEquivalence.syntacticHashIncludingSameVariables(print2));
+    assertThat(SyntacticEquivalence.syntacticHashIncludingSameVariables(print1)).isNotEqualTo(SyntacticEquivalence.syntacticHashIncludingSameVariables(print3));
+    assertThat(SyntacticEquivalence.syntacticHashIncludingSameVariables(mBody.get(4))).isEqualTo(SyntacticEquivalence.syntacticHashIncludingSameVariables(mBody.get(4)));
+    assertThat(SyntacticEquivalence.syntacticHashIncludingSameVariables(null)).isZero();
+  }
+
   private void assertAreEquivalent(String statement1, String statement2) {
     assertAreEquivalent(Collections.singletonList(statement1), Collections.singletonList(statement2));
   }
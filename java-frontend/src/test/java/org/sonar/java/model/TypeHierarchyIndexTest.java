@@ -0,0 +1,163 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.model;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.java.api.ModuleScannerContext;
+import org.sonar.plugins.java.api.semantic.Type;
+import org.sonar.plugins.java.api.tree.ClassTree;
+import org.sonar.plugins.java.api.tree.CompilationUnitTree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+
+class TypeHierarchyIndexTest {
+
+  private static final String SOURCE = """
+    package org.foo;
+    import java.io.Serializable;
+    import java.util.ArrayList;
+    class A extends ArrayList<String> implements Serializable {
+      void m(int i) {}
+      String n() { return null; }
+      static class Nested extends A {}
+    }
+    class B extends A implements Runnable {
+      public void run() {}
+    }
+    class C extends Unknown {}
+    """;
+
+  @Test
+  void super_classes() {
+    TypeHierarchyIndex index = new TypeHierarchyIndex();
+    CompilationUnitTree cut = JParserTestUtils.parse(SOURCE);
+
+    assertThat(index.superClasses(type(cut, 1))).containsExactly("org.foo.A", "java.util.ArrayList", "java.util.AbstractList", "java.util.AbstractCollection",
+      "java.lang.Object");
+    assertThat(index.depth(type(cut, 1))).isEqualTo(5);
+    assertThat(index.superClasses(type(cut, 0))).containsExactly("java.util.ArrayList", "java.util.AbstractList", "java.util.AbstractCollection", "java.lang.Object");
+    // recovered types have java.lang.Object as super class
+    assertThat(index.superClasses(type(cut, 2))).containsExactly("Unknown", "java.lang.Object");
+    assertThat(index.superClasses(Type.UNKNOWN)).isEmpty();
+  }
+
+  @Test
+  void super_types() {
+    TypeHierarchyIndex index = new TypeHierarchyIndex();
+    CompilationUnitTree cut = JParserTestUtils.parse(SOURCE);
+
+    assertThat(index.superTypes(type(cut, 1)))
+      .contains("org.foo.A", "java.lang.Runnable", "java.io.Serializable", "java.util.ArrayList", "java.util.List", "java.util.Collection", "java.lang.Iterable",
+        "java.lang.Object")
+      .doesNotHaveDuplicates();
+    assertThat(index.superTypes(Type.UNKNOWN)).isEmpty();
+  }
+
+  @Test
+  void method_signatures() {
+    TypeHierarchyIndex index = new TypeHierarchyIndex();
+    CompilationUnitTree cut = JParserTestUtils.parse(SOURCE);
+
+    assertThat(index.methodSignatures(type(cut, 0))).containsExactly("org.foo.A#<init>()V", "org.foo.A#m(I)V", "org.foo.A#n()Ljava/lang/String;");
+    assertThat(index.methodSignatures(type(cut, 1))).containsExactly("org.foo.B#<init>()V", "org.foo.B#run()V");
+  }
+
+  @Test
+  void results_for_library_types_are_shared_between_files() {
+    TypeHierarchyIndex index = new TypeHierarchyIndex();
+    Type arrayList = type(JParserTestUtils.parse(SOURCE), 0).symbol().superClass();
+    Type otherArrayList = type(JParserTestUtils.parse(SOURCE), 0).symbol().superClass();
+    assertThat(index.superClasses(otherArrayList)).isSameAs(index.superClasses(arrayList));
+    assertThat(index.superTypes(otherArrayList)).isSameAs(index.superTypes(arrayList));
+    assertThat(index.methodSignatures(otherArrayList)).isSameAs(index.methodSignatures(arrayList));
+  }
+
+  @Test
+  void results_for_types_declared_in_sources_are_computed_from_the_declaring_file() {
+    TypeHierarchyIndex index = new TypeHierarchyIndex();
+    // same fully qualified name in a main file and in a test file
+    CompilationUnitTree main = JParserTestUtils.parse("package org.foo; class A extends java.util.ArrayList<String> { void m() {} }");
+    CompilationUnitTree test = JParserTestUtils.parse("package org.foo; class A extends Exception { void n() {} }");
+
+    assertThat(index.superClasses(type(main, 0))).containsExactly("java.util.ArrayList", "java.util.AbstractList", "java.util.AbstractCollection",
+      "java.lang.Object");
+    assertThat(index.superClasses(type(test, 0))).containsExactly("java.lang.Exception", "java.lang.Throwable", "java.lang.Object");
+    assertThat(index.depth(type(main, 0))).isEqualTo(4);
+    assertThat(index.depth(type(test, 0))).isEqualTo(3);
+    assertThat(index.superTypes(type(test, 0))).contains("java.io.Serializable").doesNotContain("java.util.List");
+    assertThat(index.methodSignatures(type(main, 0))).containsExactly("org.foo.A#<init>()V", "org.foo.A#m()V");
+    assertThat(index.methodSignatures(type(test, 0))).containsExactly("org.foo.A#<init>()V", "org.foo.A#n()V");
+  }
+
+  @Test
+  void direct_subtypes_of_registered_types() {
+    TypeHierarchyIndex index = new TypeHierarchyIndex();
+    assertThat(index.directSubtypes("org.foo.A")).isEmpty();
+
+    index.registerTypes("A.java", JParserTestUtils.parse(SOURCE));
+    index.registerTypes("D.java", JParserTestUtils.parse("package org.bar; class D extends org.foo.A {}"));
+    assertThat(index.directSubtypes("org.foo.A")).isEmpty();
+    index.endOfAnalysis();
+
+    assertThat(index.directSubtypes("org.foo.A")).containsExactly("org.bar.D", "org.foo.A$Nested", "org.foo.B");
+    assertThat(index.directSubtypes("java.util.ArrayList")).containsExactly("org.foo.A");
+    assertThat(index.directSubtypes("java.lang.Runnable")).containsExactly("org.foo.B");
+    assertThat(index.directSubtypes("org.foo.B")).isEmpty();
+  }
+
+  @Test
+  void direct_subtypes_do_not_depend_on_the_order_of_files() {
+    String main = "package org.foo; class A extends java.util.ArrayList<String> {}";
+    String test = "package org.foo; class A extends Exception {}";
+    String other = "package org.foo; class B extends Exception {}";
+    TypeHierarchyIndex index = new TypeHierarchyIndex();
+    index.registerTypes("main/A.java", JParserTestUtils.parse(main));
+    index.registerTypes("test/A.java", JParserTestUtils.parse(test));
+    index.registerTypes("test/B.java", JParserTestUtils.parse(other));
+    index.endOfAnalysis();
+    TypeHierarchyIndex otherIndex = new TypeHierarchyIndex();
+    otherIndex.registerTypes("test/B.java", JParserTestUtils.parse(other));
+    otherIndex.registerTypes("test/A.java", JParserTestUtils.parse(test));
+    otherIndex.registerTypes("main/A.java", JParserTestUtils.parse(main));
+    otherIndex.endOfAnalysis();
+
+    for (TypeHierarchyIndex typeHierarchy : List.of(index, otherIndex)) {
+      assertThat(typeHierarchy.directSubtypes("java.util.ArrayList")).containsExactly("org.foo.A");
+      assertThat(typeHierarchy.directSubtypes("java.lang.Exception")).containsExactly("org.foo.A", "org.foo.B");
+    }
+
+    // a file analyzed again replaces its previous types
+    index.registerTypes("test/B.java", JParserTestUtils.parse("package org.foo; class B {}"));
+    index.endOfAnalysis();
+    assertThat(index.directSubtypes("java.lang.Exception")).containsExactly("org.foo.A");
+  }
+
+  @Test
+  void scanner_contexts_have_an_empty_hierarchy_by_default() {
+    ModuleScannerContext context = mock(ModuleScannerContext.class, CALLS_REAL_METHODS);
+    assertThat(context.getTypeHierarchy()).isInstanceOf(TypeHierarchyIndex.class);
+    assertThat(context.getTypeHierarchy().directSubtypes("java.lang.Object")).isEmpty();
+  }
+
+  private static Type type(CompilationUnitTree cut, int index) {
+    return ((ClassTree) cut.types().get(index)).symbol().type();
+  }
+
+}
@@ -195,6 +195,31 @@ class VisitorsBridgeTest {
       .doesNotThrowAnyException();
   }
 
+  @Test
+  void should_register_types_of_visited_files_in_type_hierarchy_of_module() {
+    SonarComponents specificSonarComponents = mock(SonarComponents.class);
+    TypeHierarchyIndex typeHierarchy = new TypeHierarchyIndex();
+    doReturn(typeHierarchy).when(specificSonarComponents).typeHierarchy();
+    VisitorsBridge bridge = new VisitorsBridge(Collections.emptySet(), Collections.emptyList(), specificSonarComponents);
+    bridge.setCurrentFile(new GeneratedFile(Path.of("B.java")));
+    bridge.visitFile(JParserTestUtils.parse("class A {} class B extends A {}"), false);
+    assertThat(typeHierarchy.directSubtypes("A")).isEmpty();
+    bridge.endOfAnalysis();
+    assertThat(typeHierarchy.directSubtypes("A")).containsExactly("B");
+  }
+
+  @Test
+  void should_share_inherited_nullability_of_module_with_visited_files() {
+    SonarComponents specificSonarComponents = mock(SonarComponents.class);
+    InheritedNullabilityCache inheritedNullabilityCache = new InheritedNullabilityCache();
+    doReturn(inheritedNullabilityCache).when(specificSonarComponents).inheritedNullabilityCache();
+    VisitorsBridge bridge = new VisitorsBridge(Collections.emptySet(), Collections.emptyList(), specificSonarComponents);
+    bridge.setCurrentFile(new GeneratedFile(null));
+    JavaTree.CompilationUnitTreeImpl tree = (JavaTree.CompilationUnitTreeImpl) JParserTestUtils.parse("class A {}");
+    bridge.visitFile(tree, false);
+    assertThat(tree.sema.inheritedNullabilityCache).isSameAs(inheritedNullabilityCache);
+  }
+
   @Test
   void should_not_create_symbol_table_for_generated() {
     SonarComponents specificSonarComponents = mock(SonarComponents.class);
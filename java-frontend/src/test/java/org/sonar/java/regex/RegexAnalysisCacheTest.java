@@ -0,0 +1,115 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.regex;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonarsource.analyzer.commons.regex.RegexParseResult;
+import org.sonarsource.analyzer.commons.regex.RegexParser;
+import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegexAnalysisCacheTest {
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
+
+  private final AtomicInteger analysisCount = new AtomicInteger();
+
+  @Test
+  void identical_regexes_from_different_sources_share_the_result() {
+    RegexAnalysisCache cache = new RegexAnalysisCache();
+    RegexParseResult first = parse("a+b*", 0);
+    RegexParseResult second = parse("a+b*", 0);
+    assertThat(first).isNotSameAs(second);
+
+    assertThat(cache.computeIfAbsent("analysis", first, this::analyze)).isEqualTo("a+b*:1");
+    assertThat(cache.computeIfAbsent("analysis", second, this::analyze)).isEqualTo("a+b*:1");
+    assertThat(analysisCount).hasValue(1);
+    assertThat(cache.hits()).isEqualTo(1);
+    assertThat(cache.misses()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void results_are_keyed_by_text_flags_and_analysis() {
+    RegexAnalysisCache cache = new RegexAnalysisCache();
+    cache.computeIfAbsent("analysis", parse("a+b*", 0), this::analyze);
+    cache.computeIfAbsent("analysis", parse("a+b+", 0), this::analyze);
+    cache.computeIfAbsent("analysis", parse("a+b*", Pattern.CASE_INSENSITIVE), this::analyze);
+    cache.computeIfAbsent("other", parse("a+b*", 0), this::analyze);
+    assertThat(analysisCount).hasValue(4);
+    assertThat(cache.hits()).isZero();
+    assertThat(cache.size()).isEqualTo(4);
+  }
+
+  @Test
+  void least_recently_used_entries_are_evicted() {
+    RegexAnalysisCache cache = new RegexAnalysisCache(2);
+    RegexParseResult a = parse("a", 0);
+    RegexParseResult b = parse("b", 0);
+    RegexParseResult c = parse("c", 0);
+    cache.computeIfAbsent("analysis", a, this::analyze);
+    cache.computeIfAbsent("analysis", b, this::analyze);
+    // "a" becomes the most recently used entry, "b" is evicted when adding "c"
+    cache.computeIfAbsent("analysis", a, this::analyze);
+    cache.computeIfAbsent("analysis", c, this::analyze);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(analysisCount).hasValue(3);
+
+    cache.computeIfAbsent("analysis", a, this::analyze);
+    assertThat(analysisCount).hasValue(3);
+    cache.computeIfAbsent("analysis", b, this::analyze);
+    assertThat(analysisCount).hasValue(4);
+  }
+
+  @Test
+  void null_results_are_not_supported() {
+    RegexAnalysisCache cache = new RegexAnalysisCache();
+    RegexParseResult regex = parse("a", 0);
+    assertThatThrownBy(() -> cache.computeIfAbsent("analysis", regex, r -> null))
+      .isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  void analyzed_regexes_are_only_logged_in_debug() {
+    RegexAnalysisCache cache = new RegexAnalysisCache();
+    cache.computeIfAbsent("analysis", parse("a+b*", 0), this::analyze);
+    cache.computeIfAbsent("analysis", parse("a+b*", 0), this::analyze);
+    assertThat(logTester.logs(Level.DEBUG))
+      .hasSize(1)
+      .allMatch(log -> log.matches("analysis of regex /a\\+b\\*/ took \\d+ ms"));
+
+    logTester.setLevel(Level.INFO);
+    cache.computeIfAbsent("analysis", parse("c", 0), this::analyze);
+    assertThat(logTester.logs(Level.DEBUG)).hasSize(1);
+  }
+
+  private String analyze(RegexParseResult regex) {
+    return regex.getResult().getText() + ":" + analysisCount.incrementAndGet();
+  }
+
+  private static RegexParseResult parse(String regex, int flags) {
+    return new RegexParser(RegexParserTestUtils.makeSource(regex), new FlagSet(flags)).parse();
+  }
+}
@@ -34,14 +34,19 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import javax.servlet.jsp.JspFactory;
 import org.apache.jasper.JasperException;
 import org.apache.jasper.JspCompilationContext;
 import org.apache.jasper.compiler.Compiler;
 import org.apache.jasper.compiler.JspRuntimeContext;
-import org.apache.jasper.compiler.SmapStratum;
 import org.apache.jasper.runtime.JspFactoryImpl;
 import org.apache.jasper.servlet.JspCServletContext;
 import org.slf4j.Logger;
@@ -56,17 +61,23 @@ import org.sonar.api.utils.WildcardPattern;
 import org.sonar.java.annotations.VisibleForTesting;
 import org.sonar.java.model.GeneratedFile;
 import org.sonar.java.model.SmapFile;
+import org.sonar.plugins.java.api.caching.CacheContext;
 
 @ScannerSide
 public class Jasper {
 
   public static final String JSP_LANGUAGE_KEY = "jsp";
 
+  /**
+   * Number of threads transpiling JSP files concurrently, JSP files being transpiled sequentially by default.
+   */
+  public static final String TRANSPILATION_THREADS_PROPERTY = "sonar.java.jsp.transpilationThreads";
+
   private static final String SONAR_EXCLUSIONS_PROPERTY = "sonar.exclusions";
 
   private static final Logger LOG = LoggerFactory.getLogger(Jasper.class);
 
-  public Collection<GeneratedFile> generateFiles(SensorContext sensorContext, List<File> javaClasspath) {
+  public Collection<GeneratedFile> generateFiles(SensorContext sensorContext, List<File> javaClasspath, CacheContext cacheContext) {
     List<String> sonarExclusions = Arrays.asList(sensorContext.config().getStringArray(SONAR_EXCLUSIONS_PROPERTY));
     if (isAllJavaJspExcluded(sonarExclusions)) {
       return Collections.emptyList();
@@ -92,26 +103,31 @@ public class Jasper {
       JspCServletContext servletContext = new ServletContext(uriRoot.toUri().toURL(), classLoader);
       JasperOptions options = getJasperOptions(outputDir, servletContext);
       JspRuntimeContext runtimeContext = new JspRuntimeContext(servletContext, options);
+      Transpiler transpiler = new Transpiler(uriRoot, classLoader, servletContext, options, runtimeContext, javaExclusionFilter);
+      JspTranspilationCache cache = JspTranspilationCache.create(cacheContext, outputDir, uriRoot);
 
-      boolean errorTranspiling = false;
       Map<Path, GeneratedFile> generatedJavaFiles = new HashMap<>();
+      List<TranspiledJsp> transpiledJsps = new ArrayList<>();
+      List<InputFile> jspsToTranspile = new ArrayList<>();
       for (InputFile jsp : jspFiles) {
-        try {
-          transpileJsp(jsp.path(), uriRoot, classLoader, servletContext, options, runtimeContext, javaExclusionFilter)
-            .ifPresent(generatedFile -> generatedJavaFiles.put(generatedFile, new GeneratedFile(generatedFile)));
-        } catch (Exception | LinkageError e) {
-          errorTranspiling = true;
-          StringWriter w = new StringWriter();
-          e.printStackTrace(new PrintWriter(w));
-          String stackTrace = w.toString();
-          LOG.debug("Error transpiling {}. Error:\n{}", jsp, stackTrace);
-        }
+        cache.load(jsp).filter(cached -> !javaExclusionFilter.test(cached.javaFile().toString()))
+          .ifPresentOrElse(transpiledJsps::add, () -> jspsToTranspile.add(jsp));
       }
+      List<Transpilation> transpilations = new ArrayList<>(jspsToTranspile.size());
+      boolean errorTranspiling = transpileAll(jspsToTranspile, transpiler, transpilationThreads(sensorContext), classLoader, transpilations);
       if (errorTranspiling) {
         LOG.warn("Some JSP pages failed to transpile. Enable debug log for details.");
       }
-      runtimeContext.getSmaps().values().forEach(smap ->
-        processSourceMap(uriRoot, generatedJavaFiles, smap, sensorContext.fileSystem()));
+      Map<String, List<Smap>> smapsByClassName = smapsByClassName(runtimeContext, transpilations);
+      for (Transpilation transpilation : transpilations) {
+        List<Smap> smaps = smapsByClassName.getOrDefault(transpilation.className(), List.of());
+        TranspiledJsp transpiled = new TranspiledJsp(transpilation.javaFile(), smaps);
+        transpiledJsps.add(transpiled);
+        cache.store(transpilation.jsp(), transpiled);
+      }
+      transpiledJsps.forEach(transpiled -> generatedJavaFiles.put(transpiled.javaFile(), new GeneratedFile(transpiled.javaFile())));
+      transpiledJsps.forEach(transpiled -> transpiled.smaps().forEach(smap ->
+        processSourceMap(uriRoot, generatedJavaFiles, smap, sensorContext.fileSystem())));
       return generatedJavaFiles.values();
     } catch (Exception e) {
       LOG.warn("Failed to transpile JSP files.", e);
@@ -121,6 +137,90 @@ public class Jasper {
     }
   }
 
+  /**
+   * Transpiles the given JSP files, concurrently when more than one thread is configured. Transpilations are collected in the
+   * order of the JSP files.
+   *
+   * @return true if some JSP files failed to transpile
+   */
+  private static boolean transpileAll(List<InputFile> jspFiles, Transpiler transpiler, int threads, ClassLoader classLoader,
+    List<Transpilation> transpilations) {
+    boolean errorTranspiling = false;
+    if (threads <= 1 || jspFiles.size() <= 1) {
+      for (InputFile jsp : jspFiles) {
+        try {
+          transpiler.transpile(jsp).ifPresent(transpilations::add);
+        } catch (Exception | LinkageError e) {
+          errorTranspiling = true;
+          logTranspilationError(jsp, e);
+        }
+      }
+      return errorTranspiling;
+    }
+    LOG.debug("Transpiling {} JSP files on {} threads.", jspFiles.size(), threads);
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, jspFiles.size()), runnable -> {
+      Thread thread = new Thread(runnable, "jsp-transpiler");
+      thread.setDaemon(true);
+      // each worker runs Jasper with the same context class loader as the sequential transpilation
+      thread.setContextClassLoader(classLoader);
+      return thread;
+    });
+    try {
+      List<Future<Optional<Transpilation>>> futures = new ArrayList<>(jspFiles.size());
+      for (InputFile jsp : jspFiles) {
+        futures.add(executor.submit(() -> transpiler.transpile(jsp)));
+      }
+      for (int i = 0; i < jspFiles.size(); i++) {
+        InputFile jsp = jspFiles.get(i);
+        try {
+          futures.get(i).get().ifPresent(transpilations::add);
+        } catch (ExecutionException e) {
+          errorTranspiling = true;
+          logTranspilationError(jsp, e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while transpiling JSP files", e);
+    } finally {
+      executor.shutdownNow();
+    }
+    return errorTranspiling;
+  }
+
+  /**
+   * Source maps are registered by class name in the runtime context, inner classes being suffixed with '.' and their name. They are
+   * grouped once by the class generated from each JSP file, the runtime context holding the source maps of all JSP files.
+   */
+  private static Map<String, List<Smap>> smapsByClassName(JspRuntimeContext runtimeContext, List<Transpilation> transpilations) {
+    Set<String> classNames = transpilations.stream().map(Transpilation::className).collect(Collectors.toSet());
+    Map<String, List<Smap>> smapsByClassName = new HashMap<>();
+    runtimeContext.getSmaps().forEach((name, smap) -> {
+      String className = name;
+      while (!classNames.contains(className) && className.lastIndexOf('.') > 0) {
+        className = className.substring(0, className.lastIndexOf('.'));
+      }
+      if (classNames.contains(className)) {
+        smapsByClassName.computeIfAbsent(className, k -> new ArrayList<>())
+          .add(new Smap(Paths.get(smap.getClassFileName()), smap.getSmapString()));
+      }
+    });
+    return smapsByClassName;
+  }
+
+  private static void logTranspilationError(InputFile jsp, Throwable e) {
+    StringWriter w = new StringWriter();
+    e.printStackTrace(new PrintWriter(w));
+    String stackTrace = w.toString();
+    LOG.debug("Error transpiling {}. Error:\n{}", jsp, stackTrace);
+  }
+
+  static int transpilationThreads(SensorContext sensorContext) {
+    return sensorContext.config().getInt(TRANSPILATION_THREADS_PROPERTY)
+      .filter(threads -> threads > 0)
+      .orElse(1);
+  }
+
   private static boolean isAllJavaJspExcluded(List<String> sonarExclusions) {
     return sonarExclusions.contains("**/*_jsp.java");
   }
@@ -139,29 +239,51 @@ public class Jasper {
     };
   }
 
-  private static void processSourceMap(Path uriRoot, Map<Path, GeneratedFile> generatedJavaFiles, SmapStratum smap, FileSystem fileSystem) {
-    Path smapRoot = Paths.get(smap.getClassFileName()).getParent();
-    SmapFile smapFile = new SmapFile(smapRoot, smap.getSmapString(), uriRoot, fileSystem);
+  private static void processSourceMap(Path uriRoot, Map<Path, GeneratedFile> generatedJavaFiles, Smap smap, FileSystem fileSystem) {
+    Path smapRoot = smap.classFile().getParent();
+    SmapFile smapFile = new SmapFile(smapRoot, smap.smap(), uriRoot, fileSystem);
     GeneratedFile generatedFile = generatedJavaFiles.get(smapFile.getGeneratedFile());
     if (generatedFile != null) {
       generatedFile.addSmap(smapFile);
     }
   }
 
-  private static Optional<Path> transpileJsp(Path jsp, Path uriRoot, ClassLoader classLoader, JspCServletContext servletContext,
-    JasperOptions options, JspRuntimeContext runtimeContext, Predicate<String> javaExclusionFilter) throws Exception {
-    LOG.debug("Transpiling JSP: {}", jsp);
-    // on windows we need to replace \ in path to / to form uri (see org.apache.jasper.JspC#processFile)
-    String jspUri = "/" + uriRoot.relativize(jsp).toString().replace('\\', '/');
-    JspCompilationContext compilationContext = new JspCompilationContext(jspUri, options, servletContext, null, runtimeContext);
-    String javaFileName = compilationContext.getServletJavaFileName();
-    if (javaExclusionFilter.test(javaFileName)) {
-      return Optional.empty();
+  /**
+   * Java source generated from a JSP file, with the source maps of the classes it declares.
+   */
+  record TranspiledJsp(Path javaFile, List<Smap> smaps) {
+  }
+
+  record Smap(Path classFile, String smap) {
+  }
+
+  /**
+   * Java source generated from a JSP file by this analysis, its source maps being registered in the runtime context.
+   */
+  private record Transpilation(InputFile jsp, Path javaFile, String className) {
+  }
+
+  /**
+   * Transpiles JSP files with Jasper. The Jasper options, including the scanned tag libraries, and the runtime context are shared,
+   * while each JSP file gets its own compilation context, so that JSP files can be transpiled concurrently.
+   */
+  private record Transpiler(Path uriRoot, ClassLoader classLoader, JspCServletContext servletContext, JasperOptions options,
+    JspRuntimeContext runtimeContext, Predicate<String> javaExclusionFilter) {
+
+    Optional<Transpilation> transpile(InputFile jsp) throws Exception {
+      LOG.debug("Transpiling JSP: {}", jsp.path());
+      // on windows we need to replace \ in path to / to form uri (see org.apache.jasper.JspC#processFile)
+      String jspUri = "/" + uriRoot.relativize(jsp.path()).toString().replace('\\', '/');
+      JspCompilationContext compilationContext = new JspCompilationContext(jspUri, options, servletContext, null, runtimeContext);
+      String javaFileName = compilationContext.getServletJavaFileName();
+      if (javaExclusionFilter.test(javaFileName)) {
+        return Optional.empty();
+      }
+      compilationContext.setClassLoader(classLoader);
+      Compiler compiler = compilationContext.createCompiler();
+      compiler.compile(false, true);
+      return Optional.of(new Transpilation(jsp, Paths.get(javaFileName), compilationContext.getFQCN()));
     }
-    compilationContext.setClassLoader(classLoader);
-    Compiler compiler = compilationContext.createCompiler();
-    compiler.compile(false, true);
-    return Optional.of(Paths.get(javaFileName));
   }
 
   JasperOptions getJasperOptions(Path outputDir, JspCServletContext servletContext) {
@@ -0,0 +1,243 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.jsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import org.apache.jasper.compiler.Compiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.java.caching.FileHashingUtils;
+import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+import org.sonar.plugins.java.api.caching.JavaWriteCache;
+
+/**
+ * Keeps the Java sources and source maps generated from the JSP files in the analysis cache, so that the JSP files which did not
+ * change since the previous analysis are not transpiled again.
+ * <p>
+ * An entry is reused when the fingerprint of the JSP is unchanged. The fingerprint covers the content of the JSP file, the content
+ * of the web resources it statically depends on (included files, tag files), the size and last modification time of the other
+ * files it depends on (jars holding tag libraries descriptors), and the version of Jasper. The dependencies are the ones Jasper records in the generated sources.
+ * </p>
+ */
+class JspTranspilationCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(JspTranspilationCache.class);
+
+  private static final String CACHE_KEY_PREFIX = "java:jsp:transpiled:";
+  private static final int FORMAT_VERSION = 2;
+  private static final Pattern DEPENDANT = Pattern.compile("_jspx_dependants\\.put\\(\"([^\"]++)\"");
+  private static final String JASPER_VERSION = String.valueOf(Compiler.class.getPackage().getImplementationVersion());
+
+  @Nullable
+  private final JavaReadCache readCache;
+  @Nullable
+  private final JavaWriteCache writeCache;
+  private final Path outputDir;
+  private final Path uriRoot;
+
+  private JspTranspilationCache(@Nullable JavaReadCache readCache, @Nullable JavaWriteCache writeCache, Path outputDir, Path uriRoot) {
+    this.readCache = readCache;
+    this.writeCache = writeCache;
+    this.outputDir = outputDir;
+    this.uriRoot = uriRoot;
+  }
+
+  static JspTranspilationCache create(CacheContext cacheContext, Path outputDir, Path uriRoot) {
+    if (cacheContext.isCacheEnabled()) {
+      return new JspTranspilationCache(cacheContext.getReadCache(), cacheContext.getWriteCache(), outputDir, uriRoot);
+    }
+    return new JspTranspilationCache(null, null, outputDir, uriRoot);
+  }
+
+  /**
+   * Restores the Java source generated from the given JSP by the previous analysis into the output directory.
+   *
+   * @return the restored transpilation, or empty if the JSP or one of its dependencies changed
+   */
+  Optional<Jasper.TranspiledJsp> load(InputFile jsp) {
+    String key = cacheKey(jsp);
+    if (readCache == null || writeCache == null || !readCache.contains(key)) {
+      return Optional.empty();
+    }
+    try (InputStream in = readCache.read(key); DataInputStream data = new DataInputStream(in)) {
+      if (data.readInt() != FORMAT_VERSION) {
+        return Optional.empty();
+      }
+      List<String> dependants = readStrings(data);
+      byte[] fingerprint = readBytes(data);
+      if (!MessageDigest.isEqual(fingerprint, fingerprint(jsp.path(), dependants))) {
+        LOG.trace("JSP {} or one of its dependencies changed since the previous analysis", jsp);
+        return Optional.empty();
+      }
+      Path javaFile = outputDir.resolve(data.readUTF());
+      byte[] javaSource = readBytes(data);
+      int smapCount = data.readInt();
+      List<Jasper.Smap> smaps = new ArrayList<>(smapCount);
+      for (int i = 0; i < smapCount; i++) {
+        smaps.add(new Jasper.Smap(outputDir.resolve(data.readUTF()), new String(readBytes(data), StandardCharsets.UTF_8)));
+      }
+      Files.createDirectories(javaFile.getParent());
+      Files.write(javaFile, javaSource);
+      writeCache.copyFromPrevious(key);
+      LOG.debug("Reusing the Java source transpiled from {} by the previous analysis", jsp);
+      return Optional.of(new Jasper.TranspiledJsp(javaFile, smaps));
+    } catch (IOException | NoSuchAlgorithmException | IllegalArgumentException e) {
+      LOG.debug("Failed to read the transpiled Java source of {} from the cache: {}", jsp, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  void store(InputFile jsp, Jasper.TranspiledJsp transpiled) {
+    if (writeCache == null) {
+      return;
+    }
+    try {
+      byte[] javaSource = Files.readAllBytes(transpiled.javaFile());
+      List<String> dependants = dependants(new String(javaSource, StandardCharsets.UTF_8));
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(javaSource.length + 1024);
+      try (DataOutputStream data = new DataOutputStream(bytes)) {
+        data.writeInt(FORMAT_VERSION);
+        writeStrings(data, dependants);
+        writeBytes(data, fingerprint(jsp.path(), dependants));
+        data.writeUTF(relativePath(transpiled.javaFile()));
+        writeBytes(data, javaSource);
+        data.writeInt(transpiled.smaps().size());
+        for (Jasper.Smap smap : transpiled.smaps()) {
+          data.writeUTF(relativePath(smap.classFile()));
+          writeBytes(data, smap.smap().getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      writeCache.write(cacheKey(jsp), bytes.toByteArray());
+    } catch (IOException | NoSuchAlgorithmException | IllegalArgumentException e) {
+      LOG.debug("Failed to write the transpiled Java source of {} to the cache: {}", jsp, e.getMessage());
+    }
+  }
+
+  static List<String> dependants(String javaSource) {
+    Set<String> dependants = new LinkedHashSet<>();
+    Matcher matcher = DEPENDANT.matcher(javaSource);
+    while (matcher.find()) {
+      dependants.add(matcher.group(1));
+    }
+    return new ArrayList<>(dependants);
+  }
+
+  private byte[] fingerprint(Path jsp, List<String> dependants) throws IOException, NoSuchAlgorithmException {
+    MessageDigest digest = MessageDigest.getInstance(FileHashingUtils.HASH_ALGORITHM);
+    digest.update(JASPER_VERSION.getBytes(StandardCharsets.UTF_8));
+    digest.update(Files.readAllBytes(jsp));
+    for (String dependant : dependants) {
+      digest.update((byte) 0);
+      digest.update(dependant.getBytes(StandardCharsets.UTF_8));
+      if (dependant.startsWith("/")) {
+        Path resource = uriRoot.resolve(dependant.substring(1));
+        digest.update(Files.isRegularFile(resource) ? Files.readAllBytes(resource) : new byte[0]);
+      } else {
+        Path file = dependantFile(dependant);
+        if (file != null && Files.isRegularFile(file)) {
+          // reading whole jars for each JSP would cost more than transpiling it again, their size and date are enough
+          digest.update(ByteBuffer.allocate(2 * Long.BYTES)
+            .putLong(Files.size(file))
+            .putLong(Files.getLastModifiedTime(file).toMillis())
+            .array());
+        }
+      }
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Dependencies outside the web application are recorded by URL, as "file:/lib/c.tld" or "jar:file:/lib/taglib.jar!/META-INF/c.tld".
+   *
+   * @return the file holding the given dependency, or null if it is not a local file
+   */
+  @Nullable
+  static Path dependantFile(String dependant) {
+    String url = dependant;
+    if (url.startsWith("jar:") && url.contains("!/")) {
+      url = url.substring("jar:".length(), url.indexOf("!/"));
+    }
+    if (!url.startsWith("file:")) {
+      return null;
+    }
+    try {
+      return Path.of(new URI(url));
+    } catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+      LOG.trace("Unable to locate the JSP dependency {}: {}", dependant, e.getMessage());
+      return null;
+    }
+  }
+
+  private String relativePath(Path file) {
+    return outputDir.relativize(file).toString();
+  }
+
+  private static String cacheKey(InputFile jsp) {
+    return CACHE_KEY_PREFIX + jsp.key();
+  }
+
+  private static void writeStrings(DataOutputStream data, List<String> strings) throws IOException {
+    data.writeInt(strings.size());
+    for (String string : strings) {
+      data.writeUTF(string);
+    }
+  }
+
+  private static List<String> readStrings(DataInputStream data) throws IOException {
+    int size = data.readInt();
+    List<String> strings = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      strings.add(data.readUTF());
+    }
+    return strings;
+  }
+
+  private static void writeBytes(DataOutputStream data, byte[] bytes) throws IOException {
+    data.writeInt(bytes.length);
+    data.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInputStream data) throws IOException {
+    byte[] bytes = new byte[data.readInt()];
+    data.readFully(bytes);
+    return bytes;
+  }
+
+}
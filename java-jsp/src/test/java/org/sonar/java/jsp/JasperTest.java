@@ -40,7 +40,9 @@ import org.slf4j.event.Level;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.java.caching.CacheContextImpl;
 import org.sonar.java.model.GeneratedFile;
+import org.sonar.plugins.java.api.caching.CacheContext;
 import org.sonar.scanner.plugin.api.impl.config.MapSettings;
 import org.sonar.scanner.plugin.api.impl.fs.DefaultInputFile;
 
@@ -65,6 +67,8 @@ class JasperTest {
 
   private static final String SPRING_TLD = "<%@ taglib prefix=\"spring\" uri=\"http://www.springframework.org/tags\" %>\n";
 
+  private static final CacheContext NO_CACHE = CacheContextImpl.of(null);
+
   Path tempFolder;
   Path webInf;
 
@@ -95,7 +99,7 @@ class JasperTest {
   void test_empty() {
     SensorContextTester ctx = SensorContextTester.create(tempFolder);
     ctx.fileSystem().setWorkDir(workDir);
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
     assertThat(generatedFiles).isEmpty();
     assertThat(logTester.logs()).containsOnly("Found 0 JSP files.");
   }
@@ -103,7 +107,7 @@ class JasperTest {
   @Test
   void test_compilation() throws Exception {
     SensorContextTester ctx = jspContext(JSP_SOURCE);
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
 
     assertThat(generatedFiles).hasSize(1);
     InputFile generatedFile = generatedFiles.iterator().next();
@@ -111,11 +115,37 @@ class JasperTest {
     assertThat(generatedCode).contains("      out.write(\"<html>\\n<body>\\n<h2>Hello World!</h2>\\n</body>\\n</html>\");");
   }
 
+  @Test
+  void test_parallel_compilation() throws Exception {
+    SensorContextTester ctx = jspContext(JSP_SOURCE);
+    Path otherJspFile = createJspFile("<h2>Other</h2>", webInf.resolve("jsp/other.jsp"));
+    ctx.fileSystem().add(TestInputFileBuilder.create("", tempFolder.toFile(), otherJspFile.toFile())
+      .setLanguage("jsp")
+      .setContents("<h2>Other</h2>")
+      .build());
+    ctx.setSettings(new MapSettings().setProperty(Jasper.TRANSPILATION_THREADS_PROPERTY, "2"));
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
+
+    assertThat(generatedFiles).extracting(GeneratedFile::filename).containsExactlyInAnyOrder("test_jsp.java", "other_jsp.java");
+    assertThat(generatedFiles).allSatisfy(generatedFile -> assertThat(generatedFile.sourceMap()).isNotNull());
+    assertThat(logTester.logs(Level.DEBUG)).contains("Transpiling 2 JSP files on 2 threads.");
+  }
+
+  @Test
+  void test_transpilation_threads() {
+    SensorContextTester ctx = SensorContextTester.create(tempFolder);
+    assertThat(Jasper.transpilationThreads(ctx)).isEqualTo(1);
+    ctx.setSettings(new MapSettings().setProperty(Jasper.TRANSPILATION_THREADS_PROPERTY, "4"));
+    assertThat(Jasper.transpilationThreads(ctx)).isEqualTo(4);
+    ctx.setSettings(new MapSettings().setProperty(Jasper.TRANSPILATION_THREADS_PROPERTY, "0"));
+    assertThat(Jasper.transpilationThreads(ctx)).isEqualTo(1);
+  }
+
   @Test
   void test_exclude_unrelated_files() throws Exception {
     SensorContextTester ctx = jspContext(JSP_SOURCE);
     ctx.setSettings(new MapSettings().setProperty("sonar.exclusions", "**/*something.xml"));
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
     assertThat(generatedFiles).hasSize(1);
   }
 
@@ -123,7 +153,7 @@ class JasperTest {
   void test_exclude_all_jsp() throws Exception {
     SensorContextTester ctx = jspContext(JSP_SOURCE);
     ctx.setSettings(new MapSettings().setProperty("sonar.exclusions", "**/*_jsp.java"));
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
     assertThat(generatedFiles).isEmpty();
   }
 
@@ -131,7 +161,7 @@ class JasperTest {
   void test_exclude_current_jsp() throws Exception {
     SensorContextTester ctx = jspContext(JSP_SOURCE);
     ctx.setSettings(new MapSettings().setProperty("sonar.exclusions", "**/any.js,**/test_jsp.java"));
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
     assertThat(generatedFiles).isEmpty();
   }
 
@@ -162,7 +192,7 @@ class JasperTest {
       "<spring:url value=\"/url/path\" />\n" +
       "</body>\n" +
       "</html>");
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, singletonList(springJar));
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, singletonList(springJar), NO_CACHE);
 
     assertThat(generatedFiles).hasSize(1);
     InputFile generatedFile = generatedFiles.iterator().next();
@@ -182,7 +212,7 @@ class JasperTest {
         </body>
         </html>
         """);
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, asList(jee6Jar, jstlJar));
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, asList(jee6Jar, jstlJar), NO_CACHE);
 
     assertThat(generatedFiles).isEmpty();
     assertThat(logTester.logs(Level.DEBUG)).matches(logs -> logs.stream().anyMatch(line ->
@@ -192,7 +222,7 @@ class JasperTest {
   @Test
   void test_compilation_without_webinf() throws Exception {
     SensorContext ctx = jspContext(JSP_SOURCE, tempFolder.resolve("test.jsp"));
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
 
     assertThat(generatedFiles).hasSize(1);
     InputFile generatedFile = generatedFiles.iterator().next();
@@ -204,7 +234,7 @@ class JasperTest {
   @Test
   void test_exception_handling() throws Exception {
     SensorContextTester ctx = jspContext("<%=");
-    Collection<GeneratedFile> inputFiles = new Jasper().generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> inputFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
     assertThat(inputFiles).isEmpty();
     assertThat(logTester.logs(Level.DEBUG))
       .matches(logs -> logs.stream().anyMatch(line ->
@@ -225,7 +255,7 @@ class JasperTest {
   @Test
   void test_source_map() throws Exception {
     SensorContextTester ctx = jspContext(JSP_SOURCE);
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
     assertThat(generatedFiles).hasSize(1);
     GeneratedFile generatedFile = generatedFiles.iterator().next();
     assertThat(generatedFile.sourceMap()).isNotNull();
@@ -237,7 +267,7 @@ class JasperTest {
     Jasper jasper = spy(new Jasper());
     // we make Jasper#getJasperOptions blowup
     doThrow(new IllegalStateException()).when(jasper).getJasperOptions(any(), any());
-    Collection<GeneratedFile> generatedFiles = jasper.generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> generatedFiles = jasper.generateFiles(ctx, emptyList(), NO_CACHE);
     assertThat(generatedFiles).isEmpty();
     assertThat(logTester.logs(Level.WARN)).contains("Failed to transpile JSP files.");
   }
@@ -260,7 +290,7 @@ class JasperTest {
 
     Path path = link.resolve("WEB-INF/test.jsp");
     SensorContextTester ctx = jspContext(JSP_SOURCE, path);
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList());
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE);
 
     assertThat(generatedFiles).hasSize(1);
     InputFile generatedFile = generatedFiles.iterator().next();
@@ -279,7 +309,7 @@ class JasperTest {
       SPRING_TLD +
       "<spring:url value=\"/url/path\" />\n" +
       "<h2>Hello World!</h2>", webInf.resolve("tags/mytag.tag"));
-    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, singletonList(springJar));
+    Collection<GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, singletonList(springJar), NO_CACHE);
 
     assertThat(generatedFiles).hasSize(1);
     GeneratedFile testJspFile = generatedFiles.iterator().next();
@@ -294,8 +324,8 @@ class JasperTest {
     SensorContextTester ctx = jspContext(tagLib +
       "<t:mytag />");
     createJspFile(tagLib + "<% new Missing(); %> ", webInf.resolve("tags/mytag.tag"));
-    Map<String, GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList()).
-      stream().collect(Collectors.toMap(GeneratedFile::filename, f -> f));
+    Map<String, GeneratedFile> generatedFiles = new Jasper().generateFiles(ctx, emptyList(), NO_CACHE).
+      stream().collect(Collectors.toMap(GeneratedFile::filename, f -> f), NO_CACHE);
 
     assertThat(generatedFiles).isEmpty();
     assertThat(logTester.logs(Level.DEBUG))
@@ -0,0 +1,213 @@
+/*
+ * SonarQube Java
+ * Copyright (C) SonarSource Sàrl
+ * mailto:info AT sonarsource DOT com
+ *
+ * You can redistribute and/or modify this program under the terms of
+ * the Sonar Source-Available License Version 1, as published by SonarSource Sàrl.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the Sonar Source-Available License for more details.
+ *
+ * You should have received a copy of the Sonar Source-Available License
+ * along with this program; if not, see https://sonarsource.com/license/ssal/
+ */
+package org.sonar.java.jsp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.plugins.java.api.caching.CacheContext;
+import org.sonar.plugins.java.api.caching.JavaReadCache;
+import org.sonar.plugins.java.api.caching.JavaWriteCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JspTranspilationCacheTest {
+
+  private static final String JAVA_SOURCE = """
+    public final class test_jsp {
+      static {
+        _jspx_dependants = new java.util.HashMap<java.lang.String,java.lang.Long>(2);
+        _jspx_dependants.put("/WEB-INF/include.jspf", Long.valueOf(1700000000000L));
+        _jspx_dependants.put("jar:file:/lib/taglib.jar!/META-INF/c.tld", Long.valueOf(1600000000000L));
+      }
+    }
+    """;
+
+  @TempDir
+  Path libDir;
+  @TempDir
+  Path uriRoot;
+  @TempDir
+  Path outputDir;
+  @TempDir
+  Path otherOutputDir;
+
+  private final Map<String, byte[]> previousCache = new HashMap<>();
+  private final Map<String, byte[]> nextCache = new HashMap<>();
+  private InputFile jsp;
+  private Path javaFile;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path jspPath = createFile(uriRoot.resolve("WEB-INF/jsp/test.jsp"), "<%@ include file=\"/WEB-INF/include.jspf\" %>");
+    createFile(uriRoot.resolve("WEB-INF/include.jspf"), "<h2>Hello World!</h2>");
+    javaFile = createFile(outputDir.resolve("org/apache/jsp/WEB_002dINF/jsp/test_jsp.java"), JAVA_SOURCE);
+    jsp = mock(InputFile.class);
+    when(jsp.key()).thenReturn("module:WEB-INF/jsp/test.jsp");
+    when(jsp.path()).thenReturn(jspPath);
+  }
+
+  @Test
+  void dependants_are_read_from_generated_source() {
+    assertThat(JspTranspilationCache.dependants(JAVA_SOURCE))
+      .containsExactly("/WEB-INF/include.jspf", "jar:file:/lib/taglib.jar!/META-INF/c.tld");
+    assertThat(JspTranspilationCache.dependants("public final class test_jsp {}")).isEmpty();
+  }
+
+  @Test
+  void unchanged_jsp_is_restored_from_previous_analysis() throws IOException {
+    Jasper.Smap smap = new Jasper.Smap(javaFile.resolveSibling("test_jsp.class"), "SMAP\ntest_jsp.java\nJSP\n");
+    cache(outputDir).store(jsp, new Jasper.TranspiledJsp(javaFile, List.of(smap)));
+    assertThat(nextCache).containsOnlyKeys("java:jsp:transpiled:module:WEB-INF/jsp/test.jsp");
+
+    previousCache.putAll(nextCache);
+    nextCache.clear();
+    Optional<Jasper.TranspiledJsp> restored = cache(otherOutputDir).load(jsp);
+
+    Path restoredJavaFile = otherOutputDir.resolve("org/apache/jsp/WEB_002dINF/jsp/test_jsp.java");
+    assertThat(restored).contains(new Jasper.TranspiledJsp(restoredJavaFile,
+      List.of(new Jasper.Smap(otherOutputDir.resolve("org/apache/jsp/WEB_002dINF/jsp/test_jsp.class"), smap.smap()))));
+    assertThat(restoredJavaFile).hasContent(JAVA_SOURCE);
+    assertThat(nextCache).containsOnlyKeys("java:jsp:transpiled:module:WEB-INF/jsp/test.jsp");
+  }
+
+  @Test
+  void jsp_is_transpiled_again_when_it_or_its_dependencies_changed() throws IOException {
+    cache(outputDir).store(jsp, new Jasper.TranspiledJsp(javaFile, List.of()));
+    previousCache.putAll(nextCache);
+    nextCache.clear();
+
+    createFile(uriRoot.resolve("WEB-INF/include.jspf"), "<h2>Hello!</h2>");
+    assertThat(cache(otherOutputDir).load(jsp)).isEmpty();
+    createFile(uriRoot.resolve("WEB-INF/include.jspf"), "<h2>Hello World!</h2>");
+    assertThat(cache(otherOutputDir).load(jsp)).isPresent();
+    nextCache.clear();
+    createFile(jsp.path(), "<h2>Changed</h2>");
+    assertThat(cache(otherOutputDir).load(jsp)).isEmpty();
+    assertThat(nextCache).isEmpty();
+  }
+
+  @Test
+  void jsp_is_transpiled_again_when_a_jar_it_depends_on_changed() throws IOException {
+    Path taglib = createFile(libDir.resolve("taglib.jar"), "taglib");
+    String source = JAVA_SOURCE.replace("jar:file:/lib/taglib.jar", "jar:" + taglib.toUri());
+    Files.writeString(javaFile, source);
+    cache(outputDir).store(jsp, new Jasper.TranspiledJsp(javaFile, List.of()));
+    previousCache.putAll(nextCache);
+    nextCache.clear();
+    assertThat(cache(otherOutputDir).load(jsp)).isPresent();
+
+    Files.setLastModifiedTime(taglib, FileTime.fromMillis(Files.getLastModifiedTime(taglib).toMillis() + 1000));
+    assertThat(cache(otherOutputDir).load(jsp)).isEmpty();
+    Files.setLastModifiedTime(taglib, FileTime.fromMillis(Files.getLastModifiedTime(taglib).toMillis() - 1000));
+    assertThat(cache(otherOutputDir).load(jsp)).isPresent();
+    createFile(taglib, "new taglib");
+    assertThat(cache(otherOutputDir).load(jsp)).isEmpty();
+  }
+
+  @Test
+  void dependant_files_are_located_from_their_url() {
+    Path taglib = libDir.resolve("taglib.jar");
+    assertThat(JspTranspilationCache.dependantFile("jar:" + taglib.toUri() + "!/META-INF/c.tld")).isEqualTo(taglib);
+    assertThat(JspTranspilationCache.dependantFile(libDir.resolve("c.tld").toUri().toString())).isEqualTo(libDir.resolve("c.tld"));
+    assertThat(JspTranspilationCache.dependantFile("jar:http://example.com/taglib.jar!/META-INF/c.tld")).isNull();
+    assertThat(JspTranspilationCache.dependantFile("file:relative/c.tld")).isNull();
+  }
+
+  @Test
+  void nothing_is_cached_when_caching_is_disabled() {
+    JspTranspilationCache cache = JspTranspilationCache.create(cacheContext(false), outputDir, uriRoot);
+    cache.store(jsp, new Jasper.TranspiledJsp(javaFile, List.of()));
+    assertThat(nextCache).isEmpty();
+    previousCache.put("java:jsp:transpiled:module:WEB-INF/jsp/test.jsp", new byte[0]);
+    assertThat(cache.load(jsp)).isEmpty();
+  }
+
+  @Test
+  void invalid_cache_entry_is_ignored() {
+    previousCache.put("java:jsp:transpiled:module:WEB-INF/jsp/test.jsp", new byte[] {0, 0, 0, 1, 0});
+    assertThat(cache(outputDir).load(jsp)).isEmpty();
+    previousCache.put("java:jsp:transpiled:module:WEB-INF/jsp/test.jsp", new byte[] {0, 0, 0, 42});
+    assertThat(cache(outputDir).load(jsp)).isEmpty();
+  }
+
+  private JspTranspilationCache cache(Path output) {
+    return JspTranspilationCache.create(cacheContext(true), output, uriRoot);
+  }
+
+  private CacheContext cacheContext(boolean cacheEnabled) {
+    CacheContext context = mock(CacheContext.class);
+    when(context.isCacheEnabled()).thenReturn(cacheEnabled);
+    when(context.getReadCache()).thenReturn(new InMemoryReadCache(previousCache));
+    when(context.getWriteCache()).thenReturn(new InMemoryWriteCache(nextCache, previousCache));
+    return context;
+  }
+
+  private static Path createFile(Path path, String content) throws IOException {
+    Files.createDirectories(path.getParent());
+    return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private record InMemoryReadCache(Map<String, byte[]> entries) implements JavaReadCache {
+    @Override
+    public InputStream read(String key) {
+      return new ByteArrayInputStream(entries.get(key));
+    }
+
+    @Override
+    public byte[] readBytes(String key) {
+      return entries.get(key);
+    }
+
+    @Override
+    public boolean contains(String key) {
+      return entries.containsKey(key);
+    }
+  }
+
+  private record InMemoryWriteCache(Map<String, byte[]> entries, Map<String, byte[]> previousEntries) implements JavaWriteCache {
+    @Override
+    public void write(String key, InputStream data) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void write(String key, byte[] data) {
+      entries.put(key, data);
+    }
+
+    @Override
+    public void copyFromPrevious(String key) {
+      entries.put(key, previousEntries.get(key));
+    }
+  }
+
+}
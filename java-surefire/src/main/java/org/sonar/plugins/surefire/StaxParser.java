@@ -35,7 +35,11 @@ public class StaxParser {
   private SurefireStaxHandler streamHandler;
 
   public StaxParser(UnitTestIndex index) {
-    this.streamHandler = new SurefireStaxHandler(index);
+    this(index, true);
+  }
+
+  public StaxParser(UnitTestIndex index, boolean withFailureDetails) {
+    this.streamHandler = new SurefireStaxHandler(index, withFailureDetails);
     XMLInputFactory xmlInputFactory = SafeStaxParserFactory.createXMLInputFactory();
     if (xmlInputFactory instanceof WstxInputFactory wstxInputfactory) {
       wstxInputfactory.configureForLowMemUsage();
@@ -18,11 +18,16 @@ package org.sonar.plugins.surefire;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.CheckForNull;
 import javax.xml.stream.XMLStreamException;
 import org.apache.commons.lang3.StringUtils;
@@ -46,6 +51,14 @@ import org.sonar.plugins.surefire.data.UnitTestIndex;
 public class SurefireJavaParser {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SurefireJavaParser.class);
+
+  /**
+   * Reports are parsed concurrently by chunks of consecutive files, by at most this number of threads.
+   */
+  private static final int MAX_PARSING_THREADS = 8;
+  private static final int MIN_REPORTS_PER_CHUNK = 32;
+  private static final int CHUNKS_PER_THREAD = 4;
+
   private final JavaResourceLocator javaResourceLocator;
 
   public SurefireJavaParser(JavaResourceLocator javaResourceLocator) {
@@ -89,14 +102,50 @@ public class SurefireJavaParser {
   }
 
   private void parseFiles(SensorContext context, List<File> reports) {
-    UnitTestIndex index = new UnitTestIndex();
-    parseFiles(reports, index);
+    UnitTestIndex index = parseFiles(reports, Math.min(MAX_PARSING_THREADS, Runtime.getRuntime().availableProcessors()));
     sanitize(index);
     save(index, context);
   }
 
-  private static void parseFiles(List<File> reports, UnitTestIndex index) {
-    StaxParser parser = new StaxParser(index);
+  /**
+   * Each chunk of reports is parsed into its own index, and the indexes are merged in the order of the reports, so that the
+   * result does not depend on the scheduling of the threads.
+   */
+  static UnitTestIndex parseFiles(List<File> reports, int maxThreads) {
+    int threads = Math.min(maxThreads, reports.size() / MIN_REPORTS_PER_CHUNK);
+    if (threads <= 1) {
+      return parseChunk(reports);
+    }
+    int chunkSize = Math.max(MIN_REPORTS_PER_CHUNK, ceilDiv(reports.size(), threads * CHUNKS_PER_THREAD));
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<UnitTestIndex>> chunks = new ArrayList<>();
+      for (int start = 0; start < reports.size(); start += chunkSize) {
+        List<File> chunk = reports.subList(start, Math.min(start + chunkSize, reports.size()));
+        chunks.add(executor.submit(() -> parseChunk(chunk)));
+      }
+      UnitTestIndex index = new UnitTestIndex();
+      for (Future<UnitTestIndex> chunk : chunks) {
+        index.addAll(chunk.get());
+      }
+      return index;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AnalysisException("Interrupted while parsing the Surefire reports", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof AnalysisException analysisException) {
+        throw analysisException;
+      }
+      throw new AnalysisException("Fail to parse the Surefire reports", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static UnitTestIndex parseChunk(List<File> reports) {
+    UnitTestIndex index = new UnitTestIndex();
+    // messages and stack traces of failures are never saved
+    StaxParser parser = new StaxParser(index, false);
     for (File report : reports) {
       try {
         parser.parse(report);
@@ -104,6 +153,11 @@ public class SurefireJavaParser {
         throw new AnalysisException("Fail to parse the Surefire report: " + report, e);
       }
     }
+    return index;
+  }
+
+  private static int ceilDiv(int dividend, int divisor) {
+    return (dividend + divisor - 1) / divisor;
   }
 
   private static void sanitize(UnitTestIndex index) {
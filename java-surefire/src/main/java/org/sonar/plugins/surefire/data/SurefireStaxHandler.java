@@ -30,9 +30,19 @@ import org.sonar.api.utils.ParsingUtils;
 public class SurefireStaxHandler {
 
   private final UnitTestIndex index;
+  private final boolean withFailureDetails;
 
   public SurefireStaxHandler(UnitTestIndex index) {
+    this(index, true);
+  }
+
+  /**
+   * @param withFailureDetails when false, messages and stack traces of failures and errors are not collected. They can make up most
+   *                           of the size of the reports, while only the counts and durations of the tests are saved.
+   */
+  public SurefireStaxHandler(UnitTestIndex index, boolean withFailureDetails) {
     this.index = index;
+    this.withFailureDetails = withFailureDetails;
   }
 
   public void stream(SMHierarchicCursor rootCursor) throws XMLStreamException {
@@ -67,20 +77,22 @@ public class SurefireStaxHandler {
     return StringUtils.defaultIfBlank(testClassName, defaultClassname);
   }
 
-  private static void parseTestCase(SMInputCursor testCaseCursor, String testSuiteClassName, UnitTestClassReport report) throws XMLStreamException {
+  private void parseTestCase(SMInputCursor testCaseCursor, String testSuiteClassName, UnitTestClassReport report) throws XMLStreamException {
     report.add(parseTestResult(testCaseCursor, testSuiteClassName));
   }
 
-  private static void setStackAndMessage(UnitTestResult result, SMInputCursor stackAndMessageCursor) throws XMLStreamException {
+  private void setStackAndMessage(UnitTestResult result, SMInputCursor stackAndMessageCursor) throws XMLStreamException {
+    if (!withFailureDetails) {
+      // the content of the element is skipped when moving the cursor to the next element
+      return;
+    }
     result.setMessage(stackAndMessageCursor.getAttrValue("message"));
     String stack = stackAndMessageCursor.collectDescendantText();
     result.setStackTrace(stack);
   }
 
-  private static UnitTestResult parseTestResult(SMInputCursor testCaseCursor, String testSuiteClassName) throws XMLStreamException {
-    UnitTestResult detail = new UnitTestResult();
-    String name = getTestCaseName(testCaseCursor);
-    detail.setName(name);
+  private UnitTestResult parseTestResult(SMInputCursor testCaseCursor, String testSuiteClassName) throws XMLStreamException {
+    UnitTestResult detail = new UnitTestResult(getTestCaseName(testCaseCursor));
     detail.setTestSuiteClassName(testSuiteClassName);
 
     String status = UnitTestResult.STATUS_OK;
@@ -41,8 +41,8 @@ public final class UnitTestClassReport {
 
   public UnitTestClassReport add(UnitTestResult result) {
     initResults();
-    boolean hasName = results.stream().map(UnitTestResult::getName).anyMatch(result.getName()::equals);
-    if (hasName && Strings.CS.contains(result.getName(), "$")) {
+    // only look for duplicated names when needed, as classes can have thousands of (parameterized) test cases
+    if (Strings.CS.contains(result.getName(), "$") && hasResultNamed(result.getName())) {
       return this;
     }
     results.add(result);
@@ -64,6 +64,15 @@ public final class UnitTestClassReport {
     return this;
   }
 
+  private boolean hasResultNamed(String name) {
+    for (UnitTestResult existing : results) {
+      if (name.equals(existing.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void initResults() {
     if (results == null) {
       results = new ArrayList<>();
@@ -52,6 +52,13 @@ public class UnitTestIndex {
     return indexByClassname.size();
   }
 
+  /**
+   * Adds all the results of the given index to this one, class by class.
+   */
+  public void addAll(UnitTestIndex other) {
+    other.indexByClassname.forEach((classname, report) -> index(classname).add(report));
+  }
+
   public UnitTestClassReport merge(String classname, String intoClassname) {
     UnitTestClassReport from = indexByClassname.get(classname);
     if (from!=null) {
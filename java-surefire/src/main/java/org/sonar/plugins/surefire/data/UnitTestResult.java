@@ -35,6 +35,13 @@ public final class UnitTestResult {
     name = UUID.randomUUID().toString();
   }
 
+  /**
+   * Avoids generating a random name, which is costly and contended when reports are parsed concurrently.
+   */
+  UnitTestResult(String name) {
+    this.name = name;
+  }
+
   public String getName() {
     return name;
   }
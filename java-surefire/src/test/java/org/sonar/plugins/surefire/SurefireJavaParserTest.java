@@ -19,18 +19,31 @@ package org.sonar.plugins.surefire;
 import com.sonarsource.scanner.engine.sensor.test.fixtures.SensorContextTester;
 import com.sonarsource.scanner.engine.sensor.test.fixtures.TestInputFileBuilder;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.event.Level;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.java.AnalysisException;
 import org.sonar.plugins.java.api.JavaResourceLocator;
+import org.sonar.plugins.surefire.data.UnitTestClassReport;
+import org.sonar.plugins.surefire.data.UnitTestIndex;
+import org.sonar.plugins.surefire.data.UnitTestResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -190,6 +203,56 @@ class SurefireJavaParserTest {
     assertThat(logTester.logs(Level.DEBUG)).contains("Resource not found: org.sonar.Foo");
   }
 
+  @Test
+  void reports_parsed_concurrently_are_merged_in_report_order(@TempDir Path reportsDir) throws IOException {
+    List<File> reports = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      // the same test names in different reports, deduplicated by name when containing '$'
+      Path report = reportsDir.resolve("TEST-" + i + ".xml");
+      Files.writeString(report, """
+        <testsuite name="org.foo.Test%1$d">
+          <testcase classname="org.foo.Test%1$d" name="test" time="0.%2$d"/>
+          <testcase classname="org.foo.Param" name="test$%3$d" time="0.01"><failure message="m">stack</failure></testcase>
+          <testcase classname="org.foo.Shared" name="test" time="0.5"><skipped/></testcase>
+        </testsuite>
+        """.formatted(i % 50, i % 10, i % 7));
+      reports.add(report.toFile());
+    }
+
+    UnitTestIndex serial = SurefireJavaParser.parseFiles(reports, 1);
+    UnitTestIndex concurrent = SurefireJavaParser.parseFiles(reports, 4);
+
+    assertThat(serial.size()).isEqualTo(52);
+    assertThat(serial.get("org.foo.Param").getTests()).isEqualTo(7);
+    assertThat(serial.get("org.foo.Param").getFailures()).isEqualTo(7);
+    assertThat(serial.get("org.foo.Shared").getSkipped()).isEqualTo(200);
+    assertThat(describe(concurrent)).isEqualTo(describe(serial));
+  }
+
+  @Test
+  void should_fail_on_invalid_report_parsed_concurrently(@TempDir Path reportsDir) throws IOException {
+    List<File> reports = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Path report = reportsDir.resolve("TEST-" + i + ".xml");
+      Files.writeString(report, i == 42 ? "<testsuite" : "<testsuite name=\"Foo\"><testcase name=\"test\" time=\"1\"/></testsuite>");
+      reports.add(report.toFile());
+    }
+    assertThatThrownBy(() -> SurefireJavaParser.parseFiles(reports, 4))
+      .isInstanceOf(AnalysisException.class)
+      .hasMessageContaining("TEST-42.xml");
+  }
+
+  private static Map<String, String> describe(UnitTestIndex index) {
+    Map<String, String> description = new TreeMap<>();
+    index.getIndexByClassname().forEach((classname, report) -> description.put(classname, describe(report)));
+    return description;
+  }
+
+  private static String describe(UnitTestClassReport report) {
+    return report.getTests() + " " + report.getErrors() + " " + report.getFailures() + " " + report.getSkipped() + " " + report.getDurationMilliseconds()
+      + report.getResults().stream().map(UnitTestResult::getName).collect(Collectors.joining(",", " [", "]"));
+  }
+
   private static List<File> getDirs(String... directoryNames) {
     return Stream.of(directoryNames)
       .map(directoryName -> new File("src/test/resources/org/sonar/plugins/surefire/api/SurefireParserTest/" + directoryName))
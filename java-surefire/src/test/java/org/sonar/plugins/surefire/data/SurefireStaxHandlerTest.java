@@ -97,6 +97,22 @@ class SurefireStaxHandlerTest {
     assertThat(error.getName()).isEqualTo("testTwo");
   }
 
+  @Test
+  void shouldSkipFailureDetailsWhenNotRequested() throws XMLStreamException {
+    parse("errorsAndFailures.xml", false);
+    UnitTestClassReport report = index.get("org.sonar.Foo");
+    assertThat(report.getErrors()).isEqualTo(1);
+    assertThat(report.getFailures()).isEqualTo(1);
+    assertThat(report.getResults()).hasSize(2);
+
+    UnitTestResult failure = report.getResults().get(0);
+    assertThat(failure.getDurationMilliseconds()).isEqualTo(5L);
+    assertThat(failure.getName()).isEqualTo("testOne");
+    assertThat(failure.getMessage()).isNull();
+    assertThat(failure.getStackTrace()).isNull();
+    assertThat(report.getResults().get(1).getName()).isEqualTo("testTwo");
+  }
+
   @Test
   void shouldSupportMultipleSuitesInSameReport() throws XMLStreamException {
     parse("multipleSuites.xml");
@@ -122,7 +138,11 @@ class SurefireStaxHandlerTest {
 
 
   private void parse(String path) throws XMLStreamException {
-    StaxParser parser = new StaxParser(index);
+    parse(path, true);
+  }
+
+  private void parse(String path, boolean withFailureDetails) throws XMLStreamException {
+    StaxParser parser = new StaxParser(index, withFailureDetails);
     File xmlFile;
     try {
       xmlFile = new File(getClass().getResource(getClass().getSimpleName() + "/" + path).toURI());
@@ -35,10 +35,13 @@ import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonar.api.config.Configuration;
 import org.sonar.api.issue.NoSonarFilter;
 import org.sonar.api.rule.RuleKey;
+import org.sonar.java.CheckListIndex;
 import org.sonar.java.GeneratedCheckList;
 import org.sonar.java.JavaFrontend;
 import org.sonar.java.Measurer;
+import org.sonar.java.ProjectSummaryStore;
 import org.sonar.java.SonarComponents;
+import org.sonar.java.caching.CacheContextImpl;
 import org.sonar.java.filters.PostAnalysisIssueFilter;
 import org.sonar.java.jsp.Jasper;
 import org.sonar.java.model.GeneratedFile;
@@ -49,7 +52,6 @@ import org.sonar.plugins.java.api.JavaResourceLocator;
 import org.sonar.plugins.java.api.JavaVersion;
 import org.sonarsource.performance.measure.PerformanceMeasure;
 
-import static org.sonar.api.rules.RuleAnnotationUtils.getRuleKey;
 import static org.sonar.java.telemetry.TelemetryKey.JAVA_IS_AUTOSCAN;
 import static org.sonar.java.telemetry.TelemetryKey.JAVA_LANGUAGE_VERSION;
 import static org.sonar.java.telemetry.TelemetryKey.JAVA_MODULE_COUNT;
@@ -89,8 +91,11 @@ public class JavaSensor implements Sensor {
     this.postAnalysisIssueFilter = postAnalysisIssueFilter;
     this.jasper = jasper;
     this.telemetry = telemetry;
-    this.sonarComponents.registerMainChecks(GeneratedCheckList.REPOSITORY_KEY, GeneratedCheckList.getJavaChecks());
-    this.sonarComponents.registerTestChecks(GeneratedCheckList.REPOSITORY_KEY, GeneratedCheckList.getJavaTestChecks());
+    // only the classes of the checks of active rules are loaded, the others being skipped through the index of the checks
+    CheckListIndex checkListIndex = CheckListIndex.getInstance();
+    Set<String> activeCheckRuleKeys = sonarComponents.activeCheckRuleKeys(GeneratedCheckList.REPOSITORY_KEY);
+    this.sonarComponents.registerMainChecks(GeneratedCheckList.REPOSITORY_KEY, checkListIndex.getJavaChecks(activeCheckRuleKeys::contains));
+    this.sonarComponents.registerTestChecks(GeneratedCheckList.REPOSITORY_KEY, checkListIndex.getJavaTestChecks(activeCheckRuleKeys::contains));
   }
 
   @Override
@@ -104,6 +109,10 @@ public class JavaSensor implements Sensor {
 
     sonarComponents.setSensorContext(context);
     sonarComponents.setCheckFilter(createCheckFilter(sonarComponents.isAutoScanCheckFiltering()));
+    if (!sonarComponents.isSonarLintContext()) {
+      // summaries of the modules are read by the ProjectEndOfAnalysisSensor, which does not run in SonarLint
+      sonarComponents.setProjectSummaryStore(new ProjectSummaryStore(sonarComponents.projectLevelWorkDir()));
+    }
 
     Measurer measurer = new Measurer(context, noSonarFilter);
 
@@ -130,8 +139,8 @@ public class JavaSensor implements Sensor {
     if (isAutoScanCheckFiltering) {
       Set<RuleKey> autoScanCompatibleRules = new HashSet<>(JavaSonarWayProfile.sonarJavaSonarWayRuleKeys());
 
-      GeneratedCheckList.getJavaChecksNotWorkingForAutoScan().stream()
-        .map(checkClass -> RuleKey.of(GeneratedCheckList.REPOSITORY_KEY, getRuleKey(checkClass)))
+      CheckListIndex.getInstance().getRuleKeysNotWorkingForAutoScan().stream()
+        .map(ruleKey -> RuleKey.of(GeneratedCheckList.REPOSITORY_KEY, ruleKey))
         .forEach(autoScanCompatibleRules::remove);
 
       autoScanCompatibleRules.addAll(sonarComponents.getAdditionalAutoScanCompatibleRuleKeys());
@@ -162,7 +171,7 @@ public class JavaSensor implements Sensor {
       // for security reasons, do not run jasper to generate code in autoscan mode
       return Collections.emptyList();
     }
-    return jasper != null ? jasper.generateFiles(context, sonarComponents.getJavaClasspath()) : Collections.emptyList();
+    return jasper != null ? jasper.generateFiles(context, sonarComponents.getJavaClasspath(), CacheContextImpl.of(sonarComponents)) : Collections.emptyList();
   }
 
   private Iterable<InputFile> getSourceFiles() {
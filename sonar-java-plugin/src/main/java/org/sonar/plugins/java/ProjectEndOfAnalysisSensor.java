@@ -16,18 +16,37 @@
  */
 package org.sonar.plugins.java;
 
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.Phase;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.rule.Checks;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
 import org.sonar.api.scanner.sensor.ProjectSensor;
+import org.sonar.java.CheckListIndex;
+import org.sonar.java.GeneratedCheckList;
+import org.sonar.java.ProjectSummaryStore;
+import org.sonar.java.SonarComponents;
 import org.sonar.java.jsp.Jasper;
+import org.sonar.java.reporting.AnalyzerMessage;
+import org.sonar.java.reporting.JavaIssue;
 import org.sonar.java.telemetry.Telemetry;
+import org.sonar.plugins.java.api.JavaCheck;
+import org.sonar.plugins.java.api.internal.ProjectEndOfAnalysis;
+import org.sonar.plugins.java.api.internal.ProjectScannerContext;
 
 /**
  * Sensor that runs at the end of the project's analysis to send telemetry data.
  * Telemetry data is collected by several JavaSensor executions, one for each project's module, and aggregated in a shared Telemetry object.
+ * It also runs the project-level analysis of the {@link ProjectEndOfAnalysis} checks, over the summaries written by the modules
+ * in the {@link ProjectSummaryStore}.
  */
 @Phase(name = Phase.Name.POST)
 public class ProjectEndOfAnalysisSensor implements ProjectSensor {
@@ -51,6 +70,61 @@ public class ProjectEndOfAnalysisSensor implements ProjectSensor {
       LOG.debug("Telemetry {}: {}", key, value);
       context.addTelemetryProperty(key, value);
     });
+
+    ProjectSummaryStore store = new ProjectSummaryStore(context.fileSystem().workDir());
+    try {
+      Checks<JavaCheck> checks = projectChecks(context);
+      DefaultProjectScannerContext projectContext = new DefaultProjectScannerContext(context, checks, store);
+      for (JavaCheck check : checks.all()) {
+        ((ProjectEndOfAnalysis) check).endOfProjectAnalysis(projectContext);
+      }
+    } finally {
+      // summaries are only meaningful for the current analysis
+      store.clear();
+    }
+  }
+
+  private static Checks<JavaCheck> projectChecks(SensorContext context) {
+    Set<String> activeCheckRuleKeys = SonarComponents.activeCheckRuleKeys(context.activeRules(), GeneratedCheckList.REPOSITORY_KEY);
+    List<Class<? extends JavaCheck>> checkClasses = CheckListIndex.getInstance()
+      .getJavaChecks(activeCheckRuleKeys::contains)
+      .stream()
+      .filter(ProjectEndOfAnalysis.class::isAssignableFrom)
+      .toList();
+    return new CheckFactory(context.activeRules())
+      .<JavaCheck>create(GeneratedCheckList.REPOSITORY_KEY)
+      .addAnnotatedChecks(checkClasses);
+  }
+
+  static class DefaultProjectScannerContext implements ProjectScannerContext {
+
+    private final SensorContext context;
+    private final Checks<JavaCheck> checks;
+    private final ProjectSummaryStore store;
+
+    DefaultProjectScannerContext(SensorContext context, Checks<JavaCheck> checks, ProjectSummaryStore store) {
+      this.context = context;
+      this.checks = checks;
+      this.store = store;
+    }
+
+    @Override
+    public Map<String, byte[]> moduleSummaries(JavaCheck check) {
+      return store.read(checks.ruleKey(check).toString());
+    }
+
+    @Override
+    public void reportIssue(JavaCheck check, String fileUri, AnalyzerMessage.TextSpan textSpan, String message) {
+      FileSystem fs = context.fileSystem();
+      InputFile inputFile = fs.inputFile(fs.predicates().hasURI(URI.create(fileUri)));
+      if (inputFile == null) {
+        LOG.debug("Ignoring project-level issue on unknown file {}", fileUri);
+        return;
+      }
+      JavaIssue.create(context, checks.ruleKey(check), null)
+        .setPrimaryLocation(inputFile, message, textSpan.startLine, textSpan.startCharacter, textSpan.endLine, textSpan.endCharacter)
+        .save();
+    }
   }
 
 }
@@ -36,9 +36,11 @@ import org.sonar.api.SonarEdition;
 import org.sonar.api.SonarQubeSide;
 import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
 import org.sonar.api.batch.rule.ActiveRules;
 import org.sonar.api.batch.rule.CheckFactory;
 import org.sonar.api.batch.rule.Checks;
+import org.sonar.api.batch.sensor.highlighting.TypeOfText;
 import org.sonar.api.config.Configuration;
 import org.sonar.api.issue.NoSonarFilter;
 import org.sonar.api.measures.FileLinesContext;
@@ -71,6 +73,7 @@ import org.sonar.plugins.java.api.JspCodeVisitor;
 import org.sonar.scanner.plugin.api.impl.config.MapSettings;
 import com.sonarsource.scanner.engine.sensor.test.fixtures.TestFileSystem;
 import org.sonar.scanner.plugin.api.impl.fs.DefaultInputFile;
+import org.sonar.scanner.plugin.api.impl.fs.DefaultTextPointer;
 import org.sonar.scanner.plugin.api.impl.rule.ActiveRulesBuilder;
 import org.sonar.scanner.plugin.api.impl.rule.NewActiveRule;
 import org.sonar.scanner.plugin.api.impl.sensor.DefaultSensorDescriptor;
@@ -79,6 +82,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -279,7 +283,7 @@ class JavaSensorTest {
     when(sonarComponents.mainChecks()).thenReturn(Collections.singletonList(javaFileScanner));
 
     Jasper jasper = mock(Jasper.class);
-    when(jasper.generateFiles(any(), any())).thenReturn(asList(generatedFile));
+    when(jasper.generateFiles(any(), any(), any())).thenReturn(asList(generatedFile));
     JavaSensor jss = new JavaSensor(sonarComponents, context.fileSystem(), mock(JavaResourceLocator.class),
       new MapSettings().asConfig(), mock(NoSonarFilter.class), null, jasper, telemetry);
     jss.execute(context);
@@ -312,7 +316,7 @@ class JavaSensorTest {
       context.config(), mock(NoSonarFilter.class), null, jasper, telemetry);
     jss.execute(context);
 
-    verify(jasper, never()).generateFiles(any(), any());
+    verify(jasper, never()).generateFiles(any(), any(), any());
     verify(jspCodeVisitor, never()).scanFile(any());
   }
 
@@ -497,9 +501,10 @@ class JavaSensorTest {
       .map(key -> new NewActiveRule.Builder().setRuleKey(RuleKey.of("CustomRepository", key)).build())
       .forEach(activeRulesBuilder::addRule);
 
-    CheckFactory specificCheckFactory = new CheckFactory(activeRulesBuilder.build());
+    ActiveRules activeRules = activeRulesBuilder.build();
+    CheckFactory specificCheckFactory = new CheckFactory(activeRules);
     SonarComponents components = new SonarComponents(fileLinesContextFactory, fs,
-      javaClasspath, javaTestClasspath, specificCheckFactory, context.activeRules(), checkRegistrars, null, null);
+      javaClasspath, javaTestClasspath, specificCheckFactory, activeRules, checkRegistrars, null, null);
 
     JavaSensor jss = new JavaSensor(components, fs, resourceLocator, context.config(), mock(NoSonarFilter.class), null, telemetry);
     jss.execute(context);
@@ -512,6 +517,60 @@ class JavaSensorTest {
       .doesNotContain("CustomRepository:CustomMainCheck");
   }
 
+  @Test
+  void rules_created_from_a_template_are_run_by_the_check_of_the_template() throws IOException {
+    // custom rule created from the template of CommentRegularExpressionCheck, the only active rule
+    ActiveRulesBuilder activeRulesBuilder = new ActiveRulesBuilder();
+    activeRulesBuilder.addRule(new NewActiveRule.Builder()
+      .setRuleKey(RuleKey.of("java", "NoFixme"))
+      .setTemplateRuleKey("S124")
+      .setParam("regularExpression", ".*FIXME.*")
+      .setParam("message", "Fix this before merging.")
+      .build());
+
+    SensorContextTester context = analyzeMainFile("class A {\n  // FIXME remove this class\n}\n", activeRulesBuilder.build());
+
+    assertThat(context.allIssues())
+      .extracting(issue -> issue.ruleKey().toString(), issue -> issue.primaryLocation().message())
+      .containsExactly(tuple("java:NoFixme", "Fix this before merging."));
+  }
+
+  @Test
+  void symbol_table_and_highlighting_are_saved() throws IOException {
+    SensorContextTester context = analyzeMainFile("class A {\n  void foo() {\n    foo();\n    foo();\n  }\n}\n",
+      new ActiveRulesBuilder().build());
+
+    String key = context.fileSystem().inputFiles(context.fileSystem().predicates().all()).iterator().next().key();
+    assertThat(context.highlightingTypeAt(key, 1, 0)).containsExactly(TypeOfText.KEYWORD);
+    // the symbol of the method, with its references
+    assertThat(context.referencesForSymbolAt(key, 2, 7))
+      .extracting(TextRange::start)
+      .containsExactlyInAnyOrder(new DefaultTextPointer(3, 4), new DefaultTextPointer(4, 4));
+  }
+
+  private SensorContextTester analyzeMainFile(String source, ActiveRules activeRules) throws IOException {
+    Path baseDir = Files.createDirectories(tmp.resolve("project"));
+    Path mainFile = Files.writeString(baseDir.resolve("A.java"), source);
+    SensorContextTester context = SensorContextTester.create(baseDir.toFile())
+      .setRuntime(TestSonarRuntime.forSonarQube(Version.create(8, 7), SonarQubeSide.SCANNER, SonarEdition.COMMUNITY));
+
+    TestFileSystem fs = context.fileSystem();
+    fs.setWorkDir(Files.createTempDirectory(tmp, "work"));
+    fs.add(new TestInputFileBuilder("", mainFile.getFileName().toString()).setLanguage("java").setModuleBaseDir(baseDir)
+      .setType(InputFile.Type.MAIN).initMetadata(source).setCharset(UTF_8).build());
+
+    FileLinesContextFactory fileLinesContextFactory = mock(FileLinesContextFactory.class);
+    when(fileLinesContextFactory.createFor(any(InputFile.class))).thenReturn(mock(FileLinesContext.class));
+
+    SonarComponents components = new SonarComponents(fileLinesContextFactory, fs, new ClasspathForMain(context.config(), fs),
+      new ClasspathForTest(context.config(), fs), new CheckFactory(activeRules), activeRules, null, null, null);
+
+    JavaSensor jss = new JavaSensor(components, fs, createDefaultJavaResourceLocator(context.config(), fs), context.config(),
+      mock(NoSonarFilter.class), null, telemetry);
+    jss.execute(context);
+    return context;
+  }
+
   @Test
   void test_describe_sensor() throws IOException {
     DefaultSensorDescriptor descriptor = new DefaultSensorDescriptor();
@@ -558,10 +617,11 @@ class JavaSensorTest {
       .map(key -> new NewActiveRule.Builder().setRuleKey(RuleKey.of("CustomRepository", key)).build())
       .forEach(activeRulesBuilder::addRule);
 
-    CheckFactory specificCheckFactory = new CheckFactory(activeRulesBuilder.build());
+    ActiveRules activeRules = activeRulesBuilder.build();
+    CheckFactory specificCheckFactory = new CheckFactory(activeRules);
 
     SonarComponents components = new SonarComponents(fileLinesContextFactory, fs,
-      javaClasspath, javaTestClasspath, specificCheckFactory, context.activeRules(), checkRegistrars, null, null);
+      javaClasspath, javaTestClasspath, specificCheckFactory, activeRules, checkRegistrars, null, null);
 
     JavaSensor jss = new JavaSensor(components, fs, resourceLocator, context.config(), mock(NoSonarFilter.class), null, telemetry);
     jss.execute(context);
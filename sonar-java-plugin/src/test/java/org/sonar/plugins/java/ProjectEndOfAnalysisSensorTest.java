@@ -17,17 +17,27 @@
 package org.sonar.plugins.java;
 
 import com.sonarsource.scanner.engine.sensor.test.fixtures.SensorContextTester;
+import com.sonarsource.scanner.engine.sensor.test.fixtures.TestInputFileBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.event.Level;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.rule.RuleKey;
 import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.java.ProjectSummaryStore;
 import org.sonar.java.telemetry.DefaultTelemetry;
 import org.sonar.java.telemetry.NoOpTelemetry;
 import org.sonar.java.telemetry.TelemetryKey;
+import org.sonar.scanner.plugin.api.impl.rule.ActiveRulesBuilder;
+import org.sonar.scanner.plugin.api.impl.rule.NewActiveRule;
 import org.sonar.scanner.plugin.api.impl.sensor.DefaultSensorDescriptor;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class ProjectEndOfAnalysisSensorTest {
@@ -58,4 +68,65 @@ class ProjectEndOfAnalysisSensorTest {
       "Telemetry java.module_count: 3");
   }
 
+  @Test
+  void project_checks_report_issues_on_module_summaries(@TempDir Path tempDir) throws IOException {
+    SensorContextTester context = SensorContextTester.create(tempDir);
+    context.fileSystem().setWorkDir(tempDir.resolve("work"));
+    context.setActiveRules(new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder().setRuleKey(RuleKey.of("java", "S4605")).build())
+      .build());
+    InputFile inputFile = new TestInputFileBuilder("", "Bean.java").setLanguage("java").setModuleBaseDir(tempDir)
+      .initMetadata("package org.foo;\n@Component\nclass Bean {}\n").setCharset(UTF_8).build();
+    context.fileSystem().add(inputFile);
+
+    var store = new ProjectSummaryStore(context.fileSystem().workDir());
+    store.write("java:S4605", "project:module-a", beanSummary(inputFile.uri().toString()));
+    store.write("java:S4605", "project:module-b", beanSummary("file:///unknown/Bean.java"));
+
+    new ProjectEndOfAnalysisSensor(new NoOpTelemetry()).execute(context);
+
+    assertThat(context.allIssues()).hasSize(1);
+    var issue = context.allIssues().iterator().next();
+    assertThat(issue.ruleKey()).isEqualTo(RuleKey.of("java", "S4605"));
+    assertThat(issue.primaryLocation().inputComponent()).isEqualTo(inputFile);
+    assertThat(issue.primaryLocation().message()).isEqualTo("'Bean' is not reachable");
+    assertThat(issue.primaryLocation().textRange().start().line()).isEqualTo(3);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Ignoring project-level issue on unknown file file:///unknown/Bean.java");
+    // summaries are removed once used
+    assertThat(store.read("java:S4605")).isEmpty();
+  }
+
+  @Test
+  void summaries_are_removed_when_no_project_check_is_active(@TempDir Path tempDir) {
+    SensorContextTester context = SensorContextTester.create(tempDir);
+    context.fileSystem().setWorkDir(tempDir.resolve("work"));
+    var store = new ProjectSummaryStore(context.fileSystem().workDir());
+    store.write("java:S4605", "project:module", new byte[] {1});
+
+    new ProjectEndOfAnalysisSensor(new NoOpTelemetry()).execute(context);
+
+    assertThat(context.allIssues()).isEmpty();
+    assertThat(store.read("java:S4605")).isEmpty();
+  }
+
+  /**
+   * Summary of a module in the format of the SpringBeansShouldBeAccessibleCheck: no package scanned and one bean
+   */
+  private static byte[] beanSummary(String fileUri) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeInt(0);
+      out.writeInt(1);
+      out.writeUTF("org.foo");
+      out.writeInt(1);
+      out.writeUTF(fileUri);
+      out.writeInt(3);
+      out.writeInt(6);
+      out.writeInt(3);
+      out.writeInt(10);
+      out.writeUTF("'Bean' is not reachable");
+    }
+    return bytes.toByteArray();
+  }
+
 }